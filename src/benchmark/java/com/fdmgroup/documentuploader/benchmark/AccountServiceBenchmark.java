@@ -0,0 +1,108 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.account.AbstractAccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures {@link AbstractAccountService#addDocumentToAccountByAccountId} and
+ * {@link AbstractAccountService#removeDocumentFromAccountByFileName} end to end
+ * against the embedded H2 database, for accounts already holding a varying
+ * number of documents.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+	private static final AtomicLong ACCOUNTS = new AtomicLong();
+
+	@Param({ "0", "100" })
+	private int existingDocuments;
+
+	@Param({ "4096" })
+	private int contentSize;
+
+	private AbstractAccountService accountService;
+	private long accountId;
+	private byte[] content;
+	private long documentCount;
+	private String pendingDocument;
+
+	@Setup(Level.Trial)
+	public void setup(ApplicationState application) {
+		accountService = application.getBean(AbstractAccountService.class);
+		content = new byte[contentSize];
+		new Random(contentSize).nextBytes(content);
+
+		long accountNumber = ACCOUNTS.incrementAndGet();
+		User owner = application.getBean(UserRepository.class)
+				.save(new User("benchmark" + accountNumber + "@email.com", "password", "John", "Doe", true));
+		Set<User> users = new HashSet<>();
+		users.add(owner);
+		Account account = accountService.save(new Account("benchmark" + accountNumber, owner, ServiceLevel.ENTERPRISE,
+				users, new HashSet<>()));
+		accountId = account.getId();
+
+		for (int i = 0; i < existingDocuments; i++) {
+			accountService.addDocumentToAccountByAccountId(newDocument(), accountId);
+		}
+	}
+
+	private Document newDocument() {
+		return new Document(content.clone(), "document" + documentCount++, ".pdf");
+	}
+
+	@Benchmark
+	public Account addDocument() {
+		Document document = newDocument();
+		pendingDocument = document.getName();
+		return accountService.addDocumentToAccountByAccountId(document, accountId);
+	}
+
+	/**
+	 * Removes the document added by {@link #addDocument()} outside of the measured
+	 * time so the account keeps its size.
+	 */
+	@TearDown(Level.Invocation)
+	public void removeAddedDocument() {
+		if (pendingDocument != null) {
+			accountService.removeDocumentFromAccountByFileName(pendingDocument, accountId);
+			pendingDocument = null;
+		}
+	}
+
+	@Benchmark
+	public Account addAndRemoveDocument() {
+		Document document = newDocument();
+		accountService.addDocumentToAccountByAccountId(document, accountId);
+		return accountService.removeDocumentFromAccountByFileName(document.getName(), accountId);
+	}
+}
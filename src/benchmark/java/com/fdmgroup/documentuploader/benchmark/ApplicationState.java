@@ -0,0 +1,61 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.DocumentUploaderServicesApplication;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * JMH state holding a fully wired application context backed by the embedded H2
+ * database, shared by every thread of a benchmark run. No web server is started
+ * and emails are discarded rather than sent, see
+ * {@link DiscardingMailConfiguration}.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+	private ConfigurableApplicationContext context;
+
+	@Setup
+	public void start() {
+		context = run();
+	}
+
+	/**
+	 * Starts an application context configured for benchmarking.
+	 *
+	 * @param extraArguments further command line arguments, such as property
+	 *                       overrides specific to a benchmark
+	 * @return the started context, which the caller is responsible for closing
+	 */
+	static ConfigurableApplicationContext run(String... extraArguments) {
+		String[] arguments = { "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+				"--app.token-purge.enabled=false",
+				"--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.autoconfigure.exclude="
+						+ "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration" };
+		String[] allArguments = Arrays.copyOf(arguments, arguments.length + extraArguments.length);
+		System.arraycopy(extraArguments, 0, allArguments, arguments.length, extraArguments.length);
+		return new SpringApplicationBuilder(DocumentUploaderServicesApplication.class,
+				DiscardingMailConfiguration.class)
+				.web(WebApplicationType.NONE)
+				.run(allArguments);
+	}
+
+	@TearDown
+	public void stop() {
+		context.close();
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+}
@@ -0,0 +1,29 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Replaces the auto-configured {@link JavaMailSender}, so the emails sent when
+ * users register or documents are added or removed cost nothing and need no
+ * SMTP server.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+public class DiscardingMailConfiguration {
+
+	@Bean
+	public JavaMailSender javaMailSender() {
+		return new JavaMailSenderImpl() {
+
+			@Override
+			public void send(SimpleMailMessage... simpleMessages) {
+				// discarded
+			}
+		};
+	}
+}
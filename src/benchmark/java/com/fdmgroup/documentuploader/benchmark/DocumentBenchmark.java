@@ -0,0 +1,67 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.model.document.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Document#hashCode()} and {@link Document#equals(Object)},
+ * which walk the whole content of a document whenever documents are kept in the
+ * {@code Set} of an account.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentBenchmark {
+
+	@Param({ "1024", "65536", "1048576" })
+	private int contentSize;
+
+	private Document document;
+	private Document equalDocument;
+	private Document lastByteDiffers;
+
+	@Setup
+	public void setup() {
+		byte[] content = new byte[contentSize];
+		new Random(contentSize).nextBytes(content);
+		document = new Document(content, "report", ".pdf");
+		equalDocument = new Document(Arrays.copyOf(content, contentSize), "report", ".pdf");
+		byte[] otherContent = Arrays.copyOf(content, contentSize);
+		otherContent[contentSize - 1]++;
+		lastByteDiffers = new Document(otherContent, "report", ".pdf");
+	}
+
+	@Benchmark
+	public int hashCodeOfDocument() {
+		return document.hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsEqualDocument() {
+		return document.equals(equalDocument);
+	}
+
+	@Benchmark
+	public boolean equalsDocumentDifferingInLastByte() {
+		return document.equals(lastByteDiffers);
+	}
+}
@@ -0,0 +1,107 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization and deserialization of {@link Document} and
+ * {@link Account} objects as returned by the document and account endpoints.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+	@Param({ "1024", "65536" })
+	private int contentSize;
+
+	@Param({ "1", "20" })
+	private int documentsPerAccount;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private ObjectWriter documentWriter;
+	private ObjectReader documentReader;
+	private ObjectWriter accountWriter;
+	private ObjectReader accountReader;
+
+	private Document document;
+	private byte[] documentJson;
+	private Account account;
+	private byte[] accountJson;
+
+	@Setup
+	public void setup() throws IOException {
+		documentWriter = objectMapper.writerFor(Document.class);
+		documentReader = objectMapper.readerFor(Document.class);
+		accountWriter = objectMapper.writerFor(Account.class);
+		accountReader = objectMapper.readerFor(Account.class);
+
+		Random random = new Random(contentSize);
+		document = newDocument(random, 0);
+		documentJson = documentWriter.writeValueAsBytes(document);
+
+		Set<Document> documents = new HashSet<>();
+		for (int i = 0; i < documentsPerAccount; i++) {
+			documents.add(newDocument(random, i));
+		}
+		User owner = new User("owner@email.com", "password", "John", "Doe", true);
+		account = new Account("account", owner, ServiceLevel.GOLD, Collections.singleton(owner), documents);
+		accountJson = accountWriter.writeValueAsBytes(account);
+	}
+
+	private Document newDocument(Random random, int index) {
+		byte[] content = new byte[contentSize];
+		random.nextBytes(content);
+		Document newDocument = new Document(content, "document" + index, ".pdf");
+		newDocument.setId(index + 1L);
+		return newDocument;
+	}
+
+	@Benchmark
+	public byte[] serializeDocument() throws IOException {
+		return documentWriter.writeValueAsBytes(document);
+	}
+
+	@Benchmark
+	public Document deserializeDocument() throws IOException {
+		return documentReader.readValue(documentJson);
+	}
+
+	@Benchmark
+	public byte[] serializeAccount() throws IOException {
+		return accountWriter.writeValueAsBytes(account);
+	}
+
+	@Benchmark
+	public Account deserializeAccount() throws IOException {
+		return accountReader.readValue(accountJson);
+	}
+}
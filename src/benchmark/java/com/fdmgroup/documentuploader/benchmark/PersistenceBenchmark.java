@@ -0,0 +1,112 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.registration.RegistrationWrapper;
+import com.fdmgroup.documentuploader.model.user.AuthGroup;
+import com.fdmgroup.documentuploader.model.user.Role;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.service.register.AbstractRegisterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Measures inserts per second through JPA for registrations, which insert a
+ * user, an auth group and an account, and for bulk document uploads, which
+ * insert {@value #DOCUMENTS} documents in one transaction.
+ * </p>
+ * <p>
+ * Each run is repeated with JDBC batching disabled, {@code jdbcBatchSize=1},
+ * and enabled. Passwords are hashed at the lowest bcrypt strength so that
+ * hashing does not hide the cost of the inserts.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	private static final int DOCUMENTS = 100;
+
+	@Param({ "1", "50" })
+	private int jdbcBatchSize;
+
+	private ConfigurableApplicationContext context;
+	private AbstractRegisterService registerService;
+	private DocumentRepository documentRepository;
+	private TransactionTemplate transactionTemplate;
+	private byte[] content;
+	private long registrations;
+	private long uploads;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = ApplicationState.run("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+				"--app.password-hashing.strength=4", "--app.sql-observability.enabled=false",
+				"--app.method-metrics.enabled=false");
+		registerService = context.getBean(AbstractRegisterService.class);
+		documentRepository = context.getBean(DocumentRepository.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		content = new byte[256];
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteDocuments() {
+		documentRepository.deleteAllInBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public User register() {
+		long registration = registrations++;
+		String email = "persistence" + registration + "@email.com";
+		User user = new User(email, "password", "John", "Doe", false);
+		Account account = new Account("persistence" + registration, user, ServiceLevel.BRONZE, new HashSet<>(),
+				new HashSet<>());
+		AuthGroup authGroup = new AuthGroup.AuthGroupBuilder().setUsername(email).setRole(Role.ROLE_USER).build();
+		return registerService.processRegistration(new RegistrationWrapper(user, account, authGroup));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCUMENTS)
+	public List<Document> bulkUpload() {
+		long upload = uploads++;
+		List<Document> documents = new ArrayList<>(DOCUMENTS);
+		for (int i = 0; i < DOCUMENTS; i++) {
+			documents.add(new Document(content.clone(), "bulk" + upload + "-" + i, ".pdf"));
+		}
+		return transactionTemplate.execute(status -> documentRepository.saveAll(documents));
+	}
+}
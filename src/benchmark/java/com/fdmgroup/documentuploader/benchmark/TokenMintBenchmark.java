@@ -0,0 +1,59 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of minting tokens from many threads at once, comparing
+ * {@link TokenGenerator} against the shared {@link UUID#randomUUID()} it
+ * replaces. Run with {@code mvn -Pbenchmark -DskipTests verify
+ * -Djmh.args="TokenMintBenchmark -t 16"} to vary the thread count.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TokenMintBenchmark {
+
+	private final TokenGenerator tokenGenerator = new TokenGenerator();
+	private final User user = new User();
+
+	@Benchmark
+	public String randomUuid() {
+		return UUID.randomUUID().toString();
+	}
+
+	@Benchmark
+	public String tokenGenerator() {
+		return tokenGenerator.nextToken();
+	}
+
+	@Benchmark
+	public long tokenGeneratorNonce() {
+		return tokenGenerator.nextNonce();
+	}
+
+	@Benchmark
+	public ConfirmationToken confirmationToken() {
+		return new ConfirmationToken(user, tokenGenerator);
+	}
+}
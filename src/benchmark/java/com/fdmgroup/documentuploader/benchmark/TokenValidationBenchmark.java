@@ -0,0 +1,72 @@
+package com.fdmgroup.documentuploader.benchmark;
+
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
+import com.fdmgroup.documentuploader.service.user.AbstractUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures password reset token validation through
+ * {@link AbstractUserService#isValidPasswordResetToken(String)} for tokens
+ * stored in the database and for signed tokens, as well as signature
+ * verification of signed tokens on its own.
+ *
+ * @author Noah Anderson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+	private AbstractUserService userService;
+	private AbstractSignedTokenService signedTokenService;
+	private String storedToken;
+	private String signedToken;
+
+	@Setup
+	public void setup(ApplicationState application) {
+		userService = application.getBean(AbstractUserService.class);
+		signedTokenService = application.getBean(AbstractSignedTokenService.class);
+
+		User user = application.getBean(UserRepository.class)
+				.save(new User("tokens@email.com", "password", "John", "Doe", true));
+		storedToken = application.getBean(PasswordResetTokenRepository.class)
+				.save(new PasswordResetToken(user, application.getBean(TokenGenerator.class))).getToken();
+		signedToken = signedTokenService.issue(user.getId(), TokenPurpose.RESET_PASSWORD);
+	}
+
+	@Benchmark
+	public boolean storedTokenIsValid() {
+		return userService.isValidPasswordResetToken(storedToken);
+	}
+
+	@Benchmark
+	public boolean signedTokenIsValid() {
+		return userService.isValidPasswordResetToken(signedToken);
+	}
+
+	@Benchmark
+	public Optional<?> signedTokenVerify() {
+		return signedTokenService.verify(signedToken, TokenPurpose.RESET_PASSWORD);
+	}
+}
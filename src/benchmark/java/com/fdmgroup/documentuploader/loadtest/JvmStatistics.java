@@ -0,0 +1,128 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap and garbage collection statistics of the JVM running both the embedded
+ * instance and the load test clients, covering the recorded part of a run. The
+ * heap is sampled periodically to find its peak usage; collection counts and
+ * times are the difference between the start and the end of the recording.
+ *
+ * @author Noah Anderson
+ */
+class JvmStatistics {
+
+	private static final long SAMPLE_INTERVAL_MILLIS = 100L;
+	private static final long BYTES_PER_MIB = 1024L * 1024L;
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final AtomicLong peakHeapUsed = new AtomicLong();
+	private final Map<String, long[]> collectionsAtStart = new LinkedHashMap<>();
+	private final Map<String, Object> collections = new LinkedHashMap<>();
+
+	private ScheduledExecutorService sampler;
+	private MemoryUsage heapAtStart;
+	private MemoryUsage heapAtEnd;
+	private long startNanos;
+	private long elapsedNanos;
+	private long processCpuAtStart;
+	private long processCpuNanos = -1L;
+	private long totalCollectionMillis;
+
+	void start() {
+		heapAtStart = memory.getHeapMemoryUsage();
+		peakHeapUsed.set(heapAtStart.getUsed());
+		for (GarbageCollectorMXBean collector : collectors) {
+			collectionsAtStart.put(collector.getName(),
+					new long[] { collector.getCollectionCount(), collector.getCollectionTime() });
+		}
+		processCpuAtStart = processCpuTime();
+		startNanos = System.nanoTime();
+
+		sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "load-test-heap-sampler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(
+				() -> peakHeapUsed.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max), 0L,
+				SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	void stop() {
+		sampler.shutdownNow();
+		elapsedNanos = System.nanoTime() - startNanos;
+		heapAtEnd = memory.getHeapMemoryUsage();
+		peakHeapUsed.accumulateAndGet(heapAtEnd.getUsed(), Math::max);
+		long processCpuAtEnd = processCpuTime();
+		if (processCpuAtStart >= 0 && processCpuAtEnd >= 0) {
+			processCpuNanos = processCpuAtEnd - processCpuAtStart;
+		}
+
+		for (GarbageCollectorMXBean collector : collectors) {
+			long[] atStart = collectionsAtStart.getOrDefault(collector.getName(), new long[2]);
+			Map<String, Object> collection = new LinkedHashMap<>();
+			collection.put("count", collector.getCollectionCount() - atStart[0]);
+			long collectionMillis = collector.getCollectionTime() - atStart[1];
+			collection.put("timeMs", collectionMillis);
+			totalCollectionMillis += collectionMillis;
+			collections.put(collector.getName(), collection);
+		}
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> heap = new LinkedHashMap<>();
+		heap.put("usedAtStartMiB", toMiB(heapAtStart.getUsed()));
+		heap.put("usedAtEndMiB", toMiB(heapAtEnd.getUsed()));
+		heap.put("peakUsedMiB", toMiB(peakHeapUsed.get()));
+		heap.put("committedMiB", toMiB(heapAtEnd.getCommitted()));
+		heap.put("maxMiB", toMiB(heapAtEnd.getMax()));
+
+		Map<String, Object> gc = new LinkedHashMap<>();
+		gc.put("collectors", collections);
+		gc.put("timePercent", round(100.0 * TimeUnit.MILLISECONDS.toNanos(totalCollectionMillis) / elapsedNanos));
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+		map.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+		map.put("heap", heap);
+		map.put("gc", gc);
+		if (processCpuNanos >= 0) {
+			map.put("processCpuPercent", round(100.0 * processCpuNanos / elapsedNanos));
+		}
+		return map;
+	}
+
+	/**
+	 * Gets the CPU time used by this process, if the JVM exposes it.
+	 *
+	 * @return the CPU time in nanoseconds, or {@code -1} if it is unavailable
+	 */
+	private static long processCpuTime() {
+		OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+		if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) operatingSystem).getProcessCpuTime();
+		}
+		return -1L;
+	}
+
+	private static double toMiB(long bytes) {
+		return round((double) bytes / BYTES_PER_MIB);
+	}
+
+	static double round(double value) {
+		return Math.round(value * 100.0) / 100.0;
+	}
+}
@@ -0,0 +1,152 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fdmgroup.documentuploader.DocumentUploaderServicesApplication;
+import com.fdmgroup.documentuploader.benchmark.DiscardingMailConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * End-to-end load test which boots {@link DocumentUploaderServicesApplication}
+ * on a random port, backed by a private in-memory H2 database and with emails
+ * discarded, and drives it over HTTP from a number of closed-loop clients.
+ * </p>
+ * <p>
+ * Each client repeatedly performs an {@link Operation} picked by weight,
+ * uploading documents of mixed sizes, downloading them, listing accounts,
+ * registering and authenticating users. After a warmup, latencies are recorded
+ * for the configured duration and written together with throughput, heap and
+ * GC statistics as a JSON and HTML report, see {@link LoadTestReport}. The
+ * instance and the clients share one JVM, so its statistics cover both.
+ * </p>
+ * <p>
+ * Everything runs offline on a single machine. Run it through the
+ * {@code benchmark} profile, passing {@link LoadTestConfig} settings in
+ * {@code load.args}:
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark -DskipTests test-compile exec:exec@load-test -Dload.args="threads=32 duration=120"
+ * </pre>
+ *
+ * @author Noah Anderson
+ */
+public class LoadTest {
+
+	private final LoadTestConfig config;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Workload workload;
+
+	private volatile boolean running;
+
+	LoadTest(LoadTestConfig config, int port) {
+		this.config = config;
+		this.workload = new Workload(new LoadTestClient(port), objectMapper, config);
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.parse(args);
+		ConfigurableApplicationContext context = start();
+		try {
+			int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+			new LoadTest(config, port).run();
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * Starts the instance under test. The email rate limits are lifted, as every
+	 * registration comes from the same client address, and devtools restarts are
+	 * disabled so the instance runs in the main thread.
+	 */
+	private static ConfigurableApplicationContext start() {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		return new SpringApplicationBuilder(DocumentUploaderServicesApplication.class,
+				DiscardingMailConfiguration.class)
+				.run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+						"--app.token-purge.enabled=false",
+						"--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_ON_EXIT=FALSE",
+						"--app.rate-limit.email.capacity=" + Integer.MAX_VALUE,
+						"--app.rate-limit.client.capacity=" + Integer.MAX_VALUE,
+						"--app.authentication-rate-limit.email.capacity=" + Integer.MAX_VALUE,
+						"--app.authentication-rate-limit.client.capacity=" + Integer.MAX_VALUE,
+						"--spring.autoconfigure.exclude="
+								+ "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+	}
+
+	void run() throws Exception {
+		ExecutorService clients = Executors.newFixedThreadPool(config.getThreads());
+		try {
+			seed(clients);
+			System.out.printf("Seeded %d accounts, warming up for %d s%n", workload.getAccountCount(),
+					config.getWarmupSeconds());
+
+			JvmStatistics jvmStatistics = new JvmStatistics();
+			running = true;
+			List<Future<?>> loops = new ArrayList<>();
+			for (int i = 0; i < config.getThreads(); i++) {
+				SplittableRandom random = new SplittableRandom(config.getSeed() + i);
+				loops.add(clients.submit(() -> {
+					while (running) {
+						workload.runOnce(random);
+					}
+				}));
+			}
+
+			TimeUnit.SECONDS.sleep(config.getWarmupSeconds());
+			System.out.printf("Recording for %d s with %d clients%n", config.getDurationSeconds(),
+					config.getThreads());
+			jvmStatistics.start();
+			workload.startRecording();
+			long start = System.nanoTime();
+			TimeUnit.SECONDS.sleep(config.getDurationSeconds());
+			workload.stopRecording();
+			double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+			jvmStatistics.stop();
+
+			running = false;
+			for (Future<?> future : loops) {
+				future.get();
+			}
+
+			LoadTestReport report = new LoadTestReport(config, workload.getStatistics(), elapsedSeconds,
+					workload.getAccountCount(), jvmStatistics);
+			Path path = report.write(objectMapper);
+			System.out.print(report.toText());
+			System.out.println("Report written to " + path.toAbsolutePath().getParent());
+		} finally {
+			clients.shutdownNow();
+		}
+	}
+
+	/**
+	 * Registers the configured number of accounts, spread over the client
+	 * threads.
+	 */
+	private void seed(ExecutorService clients) throws Exception {
+		AtomicInteger remaining = new AtomicInteger(config.getAccounts());
+		List<Future<?>> seeding = new ArrayList<>();
+		for (int i = 0; i < config.getThreads(); i++) {
+			seeding.add(clients.submit(() -> {
+				while (remaining.getAndDecrement() > 0) {
+					workload.seedAccount();
+				}
+			}));
+		}
+		for (Future<?> future : seeding) {
+			future.get();
+		}
+	}
+}
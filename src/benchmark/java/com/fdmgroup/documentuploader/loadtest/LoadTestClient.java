@@ -0,0 +1,126 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking HTTP client used by the load test. It relies on
+ * {@link HttpURLConnection}, whose connections are kept alive and reused per
+ * host as long as every response body is read to the end, so no third party
+ * client is needed to run offline.
+ *
+ * @author Noah Anderson
+ */
+class LoadTestClient {
+
+	private static final String JSON = "application/json";
+
+	private final String baseUrl;
+
+	LoadTestClient(int port) {
+		this.baseUrl = "http://localhost:" + port;
+	}
+
+	Response get(String path) {
+		return exchange("GET", path, null);
+	}
+
+	Response post(String path, byte[] body) {
+		return exchange("POST", path, body);
+	}
+
+	Response put(String path, byte[] body) {
+		return exchange("PUT", path, body);
+	}
+
+	Response delete(String path) {
+		return exchange("DELETE", path, null);
+	}
+
+	static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Sends a single request and reads the complete response. Every request
+	 * declares a JSON content type, as several endpoints only accept requests
+	 * declaring one even when no body is sent.
+	 */
+	private Response exchange(String method, String path, byte[] body) {
+		HttpURLConnection connection = null;
+		try {
+			connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+			connection.setRequestMethod(method);
+			connection.setRequestProperty("Content-Type", JSON);
+			connection.setRequestProperty("Accept", JSON);
+			if (body != null) {
+				connection.setDoOutput(true);
+				connection.setFixedLengthStreamingMode(body.length);
+				try (OutputStream outputStream = connection.getOutputStream()) {
+					outputStream.write(body);
+				}
+			}
+			int status = connection.getResponseCode();
+			InputStream inputStream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+			return new Response(status, readFully(inputStream));
+		} catch (IOException e) {
+			if (connection != null) {
+				connection.disconnect();
+			}
+			return new Response(-1, new byte[0]);
+		}
+	}
+
+	private static byte[] readFully(InputStream inputStream) throws IOException {
+		if (inputStream == null) {
+			return new byte[0];
+		}
+		try (InputStream in = inputStream) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Status and body of a completed exchange. A status of {@code -1} means the
+	 * request failed at the transport level.
+	 */
+	static class Response {
+
+		private final int status;
+		private final byte[] body;
+
+		Response(int status, byte[] body) {
+			this.status = status;
+			this.body = body;
+		}
+
+		int getStatus() {
+			return status;
+		}
+
+		byte[] getBody() {
+			return body;
+		}
+
+		boolean isSuccessful() {
+			return status >= 200 && status < 300;
+		}
+	}
+}
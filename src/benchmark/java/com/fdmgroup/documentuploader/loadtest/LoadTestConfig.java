@@ -0,0 +1,143 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, parsed from {@code key=value} arguments. Every
+ * setting has a default so the harness runs without arguments.
+ *
+ * <ul>
+ * <li>{@code threads}: concurrent closed-loop clients (default 16)</li>
+ * <li>{@code warmup}: seconds of load before recording starts (default 15)</li>
+ * <li>{@code duration}: seconds of recorded load (default 60)</li>
+ * <li>{@code accounts}: accounts registered before the run (default 32)</li>
+ * <li>{@code maxDocuments}: documents kept per account, older ones are removed
+ * (default 20)</li>
+ * <li>{@code mix}: operation weights, e.g.
+ * {@code upload:20,download:40,list:25,register:5,login:10}</li>
+ * <li>{@code sizes}: upload sizes in bytes and their weights, e.g.
+ * {@code 4096:60,65536:30,1048576:10}</li>
+ * <li>{@code seed}: seed of the random workload (default 42)</li>
+ * <li>{@code out}: report directory (default {@code target/load-test})</li>
+ * </ul>
+ *
+ * @author Noah Anderson
+ */
+public class LoadTestConfig {
+
+	private final int threads;
+	private final int warmupSeconds;
+	private final int durationSeconds;
+	private final int accounts;
+	private final int maxDocumentsPerAccount;
+	private final Map<Operation, Integer> mix;
+	private final Map<Integer, Integer> fileSizes;
+	private final long seed;
+	private final Path outputDirectory;
+
+	private LoadTestConfig(Map<String, String> arguments) {
+		this.threads = Integer.parseInt(arguments.getOrDefault("threads", "16"));
+		this.warmupSeconds = Integer.parseInt(arguments.getOrDefault("warmup", "15"));
+		this.durationSeconds = Integer.parseInt(arguments.getOrDefault("duration", "60"));
+		this.accounts = Integer.parseInt(arguments.getOrDefault("accounts", "32"));
+		this.maxDocumentsPerAccount = Integer.parseInt(arguments.getOrDefault("maxDocuments", "20"));
+		this.seed = Long.parseLong(arguments.getOrDefault("seed", "42"));
+		this.outputDirectory = Paths.get(arguments.getOrDefault("out", "target/load-test"));
+
+		Map<Operation, Integer> parsedMix = new EnumMap<>(Operation.class);
+		parseWeights(arguments.getOrDefault("mix", "upload:20,download:40,list:25,register:5,login:10"))
+				.forEach((name, weight) -> parsedMix.put(Operation.fromName(name), weight));
+		this.mix = Collections.unmodifiableMap(parsedMix);
+
+		Map<Integer, Integer> parsedSizes = new LinkedHashMap<>();
+		parseWeights(arguments.getOrDefault("sizes", "4096:60,65536:30,1048576:10"))
+				.forEach((size, weight) -> parsedSizes.put(Integer.parseInt(size), weight));
+		this.fileSizes = Collections.unmodifiableMap(parsedSizes);
+	}
+
+	public static LoadTestConfig parse(String[] args) {
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 1) {
+				throw new IllegalArgumentException("Expected key=value but got " + arg);
+			}
+			arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		return new LoadTestConfig(arguments);
+	}
+
+	private static Map<String, Integer> parseWeights(String value) {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		for (String entry : value.split(",")) {
+			String[] parts = entry.trim().split(":");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Expected name:weight but got " + entry);
+			}
+			weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+		}
+		return weights;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public int getAccounts() {
+		return accounts;
+	}
+
+	public int getMaxDocumentsPerAccount() {
+		return maxDocumentsPerAccount;
+	}
+
+	public Map<Operation, Integer> getMix() {
+		return mix;
+	}
+
+	public Map<Integer, Integer> getFileSizes() {
+		return fileSizes;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public Path getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	/**
+	 * Gets the settings as plain values, as included in the report.
+	 *
+	 * @return the settings by name
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("threads", threads);
+		map.put("warmupSeconds", warmupSeconds);
+		map.put("durationSeconds", durationSeconds);
+		map.put("accounts", accounts);
+		map.put("maxDocumentsPerAccount", maxDocumentsPerAccount);
+		Map<String, Integer> mixByName = new LinkedHashMap<>();
+		mix.forEach((operation, weight) -> mixByName.put(operation.getName(), weight));
+		map.put("mix", mixByName);
+		map.put("fileSizes", fileSizes);
+		map.put("seed", seed);
+		return map;
+	}
+}
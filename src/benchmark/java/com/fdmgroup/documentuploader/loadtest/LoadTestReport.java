@@ -0,0 +1,204 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a load test run, written as {@code report.json} and
+ * {@code report.html} to the output directory. The full latency distribution
+ * of every operation is also written as an HdrHistogram percentile file,
+ * {@code <operation>.hgrm}, which can be plotted or compared between runs.
+ *
+ * @author Noah Anderson
+ */
+class LoadTestReport {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
+	private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+	private final LoadTestConfig config;
+	private final Map<String, Object> report = new LinkedHashMap<>();
+	private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+
+	LoadTestReport(LoadTestConfig config, Map<Operation, OperationStatistics> statistics, double elapsedSeconds,
+			int accounts, JvmStatistics jvmStatistics) {
+		this.config = config;
+
+		Map<String, Object> operations = new LinkedHashMap<>();
+		long totalRequests = 0L;
+		long totalErrors = 0L;
+		for (OperationStatistics operationStatistics : statistics.values()) {
+			Histogram histogram = operationStatistics.takeHistogram();
+			long count = histogram.getTotalCount();
+			long errors = operationStatistics.getErrors();
+			if (count + errors == 0) {
+				continue;
+			}
+			String name = operationStatistics.getOperation().getName();
+			histograms.put(name, histogram);
+			operations.put(name, summarize(histogram, errors, operationStatistics.getDocumentBytes(), elapsedSeconds));
+			totalRequests += count + errors;
+			totalErrors += errors;
+		}
+
+		Map<String, Object> totals = new LinkedHashMap<>();
+		totals.put("requests", totalRequests);
+		totals.put("errors", totalErrors);
+		totals.put("throughputPerSecond", JvmStatistics.round(totalRequests / elapsedSeconds));
+
+		report.put("timestamp", Instant.now().toString());
+		report.put("config", config.toMap());
+		report.put("elapsedSeconds", JvmStatistics.round(elapsedSeconds));
+		report.put("accounts", accounts);
+		report.put("totals", totals);
+		report.put("operations", operations);
+		report.put("jvm", jvmStatistics.toMap());
+	}
+
+	private static Map<String, Object> summarize(Histogram histogram, long errors, long documentBytes,
+			double elapsedSeconds) {
+		Map<String, Object> latencies = new LinkedHashMap<>();
+		latencies.put("mean", toMillis(histogram.getMean()));
+		for (double percentile : PERCENTILES) {
+			latencies.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+					toMillis(histogram.getValueAtPercentile(percentile)));
+		}
+		latencies.put("max", toMillis(histogram.getMaxValue()));
+
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("count", histogram.getTotalCount());
+		summary.put("errors", errors);
+		summary.put("throughputPerSecond", JvmStatistics.round(histogram.getTotalCount() / elapsedSeconds));
+		if (documentBytes > 0) {
+			summary.put("documentMiBPerSecond", JvmStatistics.round(documentBytes / BYTES_PER_MIB / elapsedSeconds));
+		}
+		summary.put("latencyMs", latencies);
+		return summary;
+	}
+
+	private static double toMillis(double nanos) {
+		return JvmStatistics.round(nanos / NANOS_PER_MILLI);
+	}
+
+	/**
+	 * Writes the report files to the configured output directory.
+	 *
+	 * @param objectMapper the mapper used to write the JSON report
+	 * @return the path of the JSON report
+	 * @throws IOException if a file cannot be written
+	 */
+	Path write(ObjectMapper objectMapper) throws IOException {
+		Path directory = config.getOutputDirectory();
+		Files.createDirectories(directory);
+
+		Path json = directory.resolve("report.json");
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), report);
+		Files.write(directory.resolve("report.html"), toHtml().getBytes(StandardCharsets.UTF_8));
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			try (PrintStream out = new PrintStream(directory.resolve(entry.getKey() + ".hgrm").toFile(),
+					StandardCharsets.UTF_8.name())) {
+				entry.getValue().outputPercentileDistribution(out, 5, NANOS_PER_MILLI);
+			}
+		}
+		return json;
+	}
+
+	/**
+	 * Gets a plain text table of the per operation results, printed to the
+	 * console once a run completes.
+	 *
+	 * @return the summary table
+	 */
+	@SuppressWarnings("unchecked")
+	String toText() {
+		StringBuilder text = new StringBuilder(String.format("%-10s %8s %7s %9s %9s %9s %9s %9s %9s%n", "operation",
+				"count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		Map<String, Object> operations = (Map<String, Object>) report.get("operations");
+		operations.forEach((name, value) -> {
+			Map<String, Object> summary = (Map<String, Object>) value;
+			Map<String, Object> latencies = (Map<String, Object>) summary.get("latencyMs");
+			text.append(String.format("%-10s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+					summary.get("count"), summary.get("errors"), summary.get("throughputPerSecond"),
+					latencies.get("p50"), latencies.get("p90"), latencies.get("p99"), latencies.get("p99.9"),
+					latencies.get("max")));
+		});
+		return text.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private String toHtml() {
+		StringBuilder html = new StringBuilder();
+		html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Load test report</title>\n")
+				.append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin:1em 0}")
+				.append("th,td{border:1px solid #ccc;padding:4px 10px;text-align:right}")
+				.append("th:first-child,td:first-child{text-align:left}th{background:#eee}</style>\n")
+				.append("</head>\n<body>\n<h1>Load test report</h1>\n<p>")
+				.append(escape(String.valueOf(report.get("timestamp")))).append(", ")
+				.append(report.get("elapsedSeconds")).append(" s recorded against ").append(report.get("accounts"))
+				.append(" accounts</p>\n");
+
+		html.append("<h2>Latency and throughput</h2>\n<table>\n<tr><th>Operation</th><th>Count</th><th>Errors</th>")
+				.append("<th>ops/s</th><th>MiB/s</th><th>Mean ms</th><th>p50 ms</th><th>p90 ms</th><th>p99 ms</th>")
+				.append("<th>p99.9 ms</th><th>Max ms</th></tr>\n");
+		Map<String, Object> operations = (Map<String, Object>) report.get("operations");
+		operations.forEach((name, value) -> {
+			Map<String, Object> summary = (Map<String, Object>) value;
+			Map<String, Object> latencies = (Map<String, Object>) summary.get("latencyMs");
+			html.append("<tr><td>").append(escape(name)).append("</td>");
+			cells(html, summary.get("count"), summary.get("errors"), summary.get("throughputPerSecond"),
+					summary.getOrDefault("documentMiBPerSecond", "-"), latencies.get("mean"), latencies.get("p50"),
+					latencies.get("p90"), latencies.get("p99"), latencies.get("p99.9"), latencies.get("max"));
+			html.append("</tr>\n");
+		});
+		Map<String, Object> totals = (Map<String, Object>) report.get("totals");
+		html.append("<tr><th>total</th>");
+		cells(html, totals.get("requests"), totals.get("errors"), totals.get("throughputPerSecond"));
+		html.append("<td colspan=\"7\"></td></tr>\n</table>\n");
+
+		Map<String, Object> jvm = (Map<String, Object>) report.get("jvm");
+		Map<String, Object> heap = (Map<String, Object>) jvm.get("heap");
+		Map<String, Object> gc = (Map<String, Object>) jvm.get("gc");
+		html.append("<h2>JVM</h2>\n<p>").append(escape(String.valueOf(jvm.get("jvm")))).append(", ")
+				.append(jvm.get("availableProcessors")).append(" processors, process CPU ")
+				.append(jvm.getOrDefault("processCpuPercent", "n/a")).append(" %, GC time ")
+				.append(gc.get("timePercent")).append(" %</p>\n");
+		html.append("<table>\n<tr><th>Heap</th><th>MiB</th></tr>\n");
+		heap.forEach((name, value) -> html.append("<tr><td>").append(escape(name)).append("</td><td>").append(value)
+				.append("</td></tr>\n"));
+		html.append("</table>\n<table>\n<tr><th>Collector</th><th>Collections</th><th>Time ms</th></tr>\n");
+		((Map<String, Object>) gc.get("collectors")).forEach((name, value) -> {
+			Map<String, Object> collector = (Map<String, Object>) value;
+			html.append("<tr><td>").append(escape(name)).append("</td>");
+			cells(html, collector.get("count"), collector.get("timeMs"));
+			html.append("</tr>\n");
+		});
+		html.append("</table>\n");
+
+		html.append("<h2>Configuration</h2>\n<table>\n");
+		((Map<String, Object>) report.get("config")).forEach((name, value) -> html.append("<tr><td>")
+				.append(escape(name)).append("</td><td>").append(escape(String.valueOf(value))).append("</td></tr>\n"));
+		html.append("</table>\n</body>\n</html>\n");
+		return html.toString();
+	}
+
+	private static void cells(StringBuilder html, Object... values) {
+		for (Object value : values) {
+			html.append("<td>").append(escape(String.valueOf(value))).append("</td>");
+		}
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
@@ -0,0 +1,36 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+/**
+ * The flows driven by the load test.
+ *
+ * @author Noah Anderson
+ */
+public enum Operation {
+
+	UPLOAD("upload"), DOWNLOAD("download"), LIST("list"), REGISTER("register"), LOGIN("login"),
+
+	/**
+	 * Removal of the oldest document of an account which reached its document
+	 * limit. Never picked directly, only performed before an upload.
+	 */
+	REMOVE("remove");
+
+	private final String name;
+
+	Operation(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public static Operation fromName(String name) {
+		for (Operation operation : values()) {
+			if (operation.name.equalsIgnoreCase(name) && operation != REMOVE) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException("Unknown operation " + name);
+	}
+}
@@ -0,0 +1,74 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of a single {@link Operation}. Latencies of
+ * successful exchanges are recorded in nanoseconds into an HdrHistogram
+ * {@link Recorder}, which clients record into without contention and which is
+ * read once the run is over.
+ *
+ * @author Noah Anderson
+ */
+class OperationStatistics {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Operation operation;
+	private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder documentBytes = new LongAdder();
+
+	OperationStatistics(Operation operation) {
+		this.operation = operation;
+	}
+
+	/**
+	 * Records a successful exchange.
+	 *
+	 * @param latencyNanos  the latency of the exchange
+	 * @param documentBytes the size of the document content transferred, or
+	 *                      {@code 0} if none was
+	 */
+	void recordSuccess(long latencyNanos, long documentBytes) {
+		recorder.recordValue(latencyNanos);
+		this.documentBytes.add(documentBytes);
+	}
+
+	void recordError() {
+		errors.increment();
+	}
+
+	/**
+	 * Discards everything recorded so far, such as the samples of the warmup.
+	 */
+	void reset() {
+		recorder.reset();
+		errors.reset();
+		documentBytes.reset();
+	}
+
+	/**
+	 * Gets the latencies recorded since the last call or {@link #reset()}.
+	 *
+	 * @return the recorded latencies in nanoseconds
+	 */
+	Histogram takeHistogram() {
+		return recorder.getIntervalHistogram();
+	}
+
+	long getErrors() {
+		return errors.sum();
+	}
+
+	long getDocumentBytes() {
+		return documentBytes.sum();
+	}
+
+	Operation getOperation() {
+		return operation;
+	}
+}
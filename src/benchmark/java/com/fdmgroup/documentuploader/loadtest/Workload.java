@@ -0,0 +1,324 @@
+package com.fdmgroup.documentuploader.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The requests made by the load test clients. Each call to
+ * {@link #runOnce(SplittableRandom)} picks an {@link Operation} by its weight
+ * and performs it against one of the registered accounts. Only the HTTP
+ * exchange itself is timed, so building request bodies and reading identifiers
+ * from responses does not count towards the recorded latencies.
+ *
+ * @author Noah Anderson
+ */
+class Workload {
+
+	private static final String PASSWORD = "LoadTest!1";
+	private static final String EXTENSION = ".bin";
+
+	private final LoadTestClient client;
+	private final ObjectMapper objectMapper;
+	private final int maxDocumentsPerAccount;
+	private final Map<Operation, OperationStatistics> statistics = new EnumMap<>(Operation.class);
+	private final WeightedChoice<Operation> operations;
+	private final WeightedChoice<String> encodedContents;
+	private final Map<String, Integer> contentSizes = new LinkedHashMap<>();
+	private final List<AccountHandle> accounts = new CopyOnWriteArrayList<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	private volatile boolean recording;
+
+	Workload(LoadTestClient client, ObjectMapper objectMapper, LoadTestConfig config) {
+		this.client = client;
+		this.objectMapper = objectMapper;
+		this.maxDocumentsPerAccount = config.getMaxDocumentsPerAccount();
+		for (Operation operation : Operation.values()) {
+			statistics.put(operation, new OperationStatistics(operation));
+		}
+		this.operations = new WeightedChoice<>(config.getMix());
+
+		SplittableRandom random = new SplittableRandom(config.getSeed());
+		Map<String, Integer> contentWeights = new LinkedHashMap<>();
+		config.getFileSizes().forEach((size, weight) -> {
+			byte[] content = new byte[size];
+			for (int i = 0; i < size; i++) {
+				content[i] = (byte) random.nextInt(256);
+			}
+			String encoded = Base64.getEncoder().encodeToString(content);
+			contentWeights.put(encoded, weight);
+			contentSizes.put(encoded, size);
+		});
+		this.encodedContents = new WeightedChoice<>(contentWeights);
+	}
+
+	/**
+	 * Registers a new user and account outside of any measurement and adds the
+	 * account to those used by the workload.
+	 *
+	 * @throws IllegalStateException if the registration fails
+	 */
+	void seedAccount() {
+		String email = nextEmail();
+		if (!client.post("/register", registrationBody(email)).isSuccessful()) {
+			throw new IllegalStateException("Could not register " + email);
+		}
+		JsonNode user = readTree(client.get("/users?email=" + LoadTestClient.encode(email)));
+		JsonNode account = readTree(client.get("/accounts?ownerId=" + user.path("id").asLong()));
+		accounts.add(new AccountHandle(account.path("id").asLong(), user.path("id").asLong(), email));
+	}
+
+	void runOnce(SplittableRandom random) {
+		switch (operations.next(random)) {
+		case UPLOAD:
+			upload(random);
+			break;
+		case DOWNLOAD:
+			download(random);
+			break;
+		case LIST:
+			list(random);
+			break;
+		case REGISTER:
+			register();
+			break;
+		case LOGIN:
+			login(random);
+			break;
+		default:
+			throw new IllegalStateException("Operation cannot be picked directly");
+		}
+	}
+
+	/**
+	 * Starts recording the latencies of every operation performed from now on,
+	 * discarding anything recorded before.
+	 */
+	void startRecording() {
+		statistics.values().forEach(OperationStatistics::reset);
+		recording = true;
+	}
+
+	void stopRecording() {
+		recording = false;
+	}
+
+	Map<Operation, OperationStatistics> getStatistics() {
+		return statistics;
+	}
+
+	int getAccountCount() {
+		return accounts.size();
+	}
+
+	private void upload(SplittableRandom random) {
+		AccountHandle account = pickAccount(random);
+		DocumentHandle evicted = account.evictOldestIfFull(maxDocumentsPerAccount);
+		if (evicted != null) {
+			timed(Operation.REMOVE, () -> client.delete("/accounts/" + account.accountId
+					+ "/documents?documentName=" + LoadTestClient.encode(evicted.name)));
+		}
+
+		String name = "document-" + sequence.incrementAndGet();
+		String content = encodedContents.next(random);
+		int size = contentSizes.get(content);
+		byte[] body = ("{\"name\":\"" + name + "\",\"extension\":\"" + EXTENSION + "\",\"content\":\"" + content
+				+ "\"}").getBytes(StandardCharsets.US_ASCII);
+		LoadTestClient.Response response = timed(Operation.UPLOAD, size,
+				() -> client.put("/accounts/" + account.accountId + "/documents", body));
+		if (response.isSuccessful()) {
+			for (JsonNode document : readTree(response).path("documents")) {
+				if (name.equals(document.path("name").asText())) {
+					account.add(new DocumentHandle(document.path("id").asLong(), name, size));
+				}
+			}
+		}
+	}
+
+	private void download(SplittableRandom random) {
+		DocumentHandle document = pickAccount(random).pickDocument(random);
+		if (document == null) {
+			upload(random);
+			return;
+		}
+		timed(Operation.DOWNLOAD, document.size, () -> client.get("/documents?id=" + document.id));
+	}
+
+	private void list(SplittableRandom random) {
+		AccountHandle account = pickAccount(random);
+		timed(Operation.LIST, () -> client.get("/accounts?userId=" + account.userId));
+	}
+
+	private void register() {
+		byte[] body = registrationBody(nextEmail());
+		timed(Operation.REGISTER, () -> client.post("/register", body));
+	}
+
+	private void login(SplittableRandom random) {
+		AccountHandle account = pickAccount(random);
+		ObjectNode credentials = objectMapper.createObjectNode();
+		credentials.put("email", account.email);
+		credentials.put("password", PASSWORD);
+		byte[] body = toBytes(credentials);
+		timed(Operation.LOGIN, () -> client.post("/users/authenticate", body));
+	}
+
+	private LoadTestClient.Response timed(Operation operation, Supplier<LoadTestClient.Response> exchange) {
+		return timed(operation, 0L, exchange);
+	}
+
+	private LoadTestClient.Response timed(Operation operation, long documentBytes,
+			Supplier<LoadTestClient.Response> exchange) {
+		long start = System.nanoTime();
+		LoadTestClient.Response response = exchange.get();
+		long latency = System.nanoTime() - start;
+		if (recording) {
+			OperationStatistics operationStatistics = statistics.get(operation);
+			if (response.isSuccessful()) {
+				operationStatistics.recordSuccess(latency, documentBytes);
+			} else {
+				operationStatistics.recordError();
+			}
+		}
+		return response;
+	}
+
+	private AccountHandle pickAccount(SplittableRandom random) {
+		return accounts.get(random.nextInt(accounts.size()));
+	}
+
+	private String nextEmail() {
+		return "load-test-" + sequence.incrementAndGet() + "@example.com";
+	}
+
+	private byte[] registrationBody(String email) {
+		ObjectNode wrapper = objectMapper.createObjectNode();
+		ObjectNode user = wrapper.putObject("user");
+		user.put("email", email);
+		user.put("password", PASSWORD);
+		user.put("firstName", "Load");
+		user.put("lastName", "Test");
+
+		ObjectNode account = wrapper.putObject("account");
+		account.put("name", "account-" + email);
+		account.set("owner", user.deepCopy());
+		account.put("serviceLevel", "ENTERPRISE");
+		account.putArray("users");
+		account.putArray("documents");
+
+		ObjectNode authGroup = wrapper.putObject("authGroup");
+		authGroup.put("email", email);
+		authGroup.put("role", "ROLE_USER");
+		return toBytes(wrapper);
+	}
+
+	private byte[] toBytes(JsonNode node) {
+		try {
+			return objectMapper.writeValueAsBytes(node);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private JsonNode readTree(LoadTestClient.Response response) {
+		try {
+			return objectMapper.readTree(response.getBody());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * An account registered by the workload and the documents uploaded to it, in
+	 * upload order.
+	 */
+	private static class AccountHandle {
+
+		private final long accountId;
+		private final long userId;
+		private final String email;
+		private final List<DocumentHandle> documents = new ArrayList<>();
+
+		AccountHandle(long accountId, long userId, String email) {
+			this.accountId = accountId;
+			this.userId = userId;
+			this.email = email;
+		}
+
+		synchronized void add(DocumentHandle document) {
+			documents.add(document);
+		}
+
+		synchronized DocumentHandle pickDocument(SplittableRandom random) {
+			return documents.isEmpty() ? null : documents.get(random.nextInt(documents.size()));
+		}
+
+		synchronized DocumentHandle evictOldestIfFull(int maxDocuments) {
+			return documents.size() >= maxDocuments ? documents.remove(0) : null;
+		}
+	}
+
+	private static class DocumentHandle {
+
+		private final long id;
+		private final String name;
+		private final int size;
+
+		DocumentHandle(long id, String name, int size) {
+			this.id = id;
+			this.name = name;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Picks values at random in proportion to their weights.
+	 */
+	private static class WeightedChoice<T> {
+
+		private final List<T> values = new ArrayList<>();
+		private final int[] cumulativeWeights;
+		private final int totalWeight;
+
+		WeightedChoice(Map<T, Integer> weights) {
+			this.cumulativeWeights = new int[weights.size()];
+			int total = 0;
+			for (Map.Entry<T, Integer> entry : weights.entrySet()) {
+				if (entry.getValue() < 0) {
+					throw new IllegalArgumentException("Weights cannot be negative");
+				}
+				total += entry.getValue();
+				cumulativeWeights[values.size()] = total;
+				values.add(entry.getKey());
+			}
+			if (total == 0) {
+				throw new IllegalArgumentException("At least one weight must be positive");
+			}
+			this.totalWeight = total;
+		}
+
+		T next(SplittableRandom random) {
+			int point = random.nextInt(totalWeight);
+			int index = 0;
+			while (cumulativeWeights[index] <= point) {
+				index++;
+			}
+			return values.get(index);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.fdmgroup.documentuploader.actuator;
+
+import com.fdmgroup.documentuploader.model.jfr.RecordingStatus;
+import com.fdmgroup.documentuploader.service.jfr.AbstractFlightRecordingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * <p>
+ * Actuator endpoint, {@code /actuator/jfr}, which manages a bounded Flight
+ * Recorder recording on demand:
+ * </p>
+ * <ul>
+ * <li>{@code GET /actuator/jfr} returns the status of the current
+ * recording</li>
+ * <li>{@code POST /actuator/jfr} starts a recording, optionally for the given
+ * {@code duration}</li>
+ * <li>{@code DELETE /actuator/jfr} stops the running recording</li>
+ * <li>{@code GET /actuator/jfr/{id}} downloads the data recorded so far</li>
+ * </ul>
+ * <p>
+ * The endpoint is not authenticated and a recording can hold sensitive data,
+ * so it is disabled by default. It is only created when
+ * {@code app.flight-recorder.enabled} is set, and only reachable once
+ * {@code jfr} is added to {@code management.endpoints.web.exposure.include},
+ * which should only be done where the management endpoints are not publicly
+ * reachable, such as on a separate {@code management.server.port}.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnProperty(prefix = "app.flight-recorder", name = "enabled", havingValue = "true")
+public class FlightRecordingEndpoint {
+
+	private final AbstractFlightRecordingService flightRecordingService;
+
+	@Autowired
+	public FlightRecordingEndpoint(AbstractFlightRecordingService flightRecordingService) {
+		super();
+		this.flightRecordingService = flightRecordingService;
+	}
+
+	@ReadOperation
+	public WebEndpointResponse<RecordingStatus> status() {
+		return responseOf(flightRecordingService.status(), WebEndpointResponse.STATUS_NOT_FOUND);
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<RecordingStatus> start(@Nullable Duration duration) {
+		if (!flightRecordingService.isAvailable()) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+		}
+		return responseOf(flightRecordingService.start(duration), 409);
+	}
+
+	@DeleteOperation
+	public WebEndpointResponse<RecordingStatus> stop() {
+		return responseOf(flightRecordingService.stop(), WebEndpointResponse.STATUS_NOT_FOUND);
+	}
+
+	@ReadOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+		Optional<Path> file = flightRecordingService.dump(id);
+		if (!file.isPresent()) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		return new WebEndpointResponse<>(new TemporaryFileResource(file.get()));
+	}
+
+	private static <T> WebEndpointResponse<T> responseOf(Optional<T> body, int statusWhenEmpty) {
+		return body.map(WebEndpointResponse::new).orElseGet(() -> new WebEndpointResponse<>(statusWhenEmpty));
+	}
+
+	/**
+	 * Static inner class of {@link FlightRecordingEndpoint} which deletes the
+	 * file it represents once it has been read.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static class TemporaryFileResource extends FileSystemResource {
+
+		TemporaryFileResource(Path file) {
+			super(file);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new FilterInputStream(super.getInputStream()) {
+
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						Files.deleteIfExists(getFile().toPath());
+					}
+				}
+			};
+		}
+
+		@Override
+		public boolean isFile() {
+			return false;
+		}
+	}
+}
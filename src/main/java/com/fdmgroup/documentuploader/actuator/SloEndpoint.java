@@ -0,0 +1,32 @@
+package com.fdmgroup.documentuploader.actuator;
+
+import com.fdmgroup.documentuploader.model.slo.SloSnapshot;
+import com.fdmgroup.documentuploader.service.slo.AbstractRequestSloService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint, {@code /actuator/slo}, which exposes the current
+ * {@link SloSnapshot} of every tier as JSON.
+ *
+ * @author Noah Anderson
+ */
+@Component
+@Endpoint(id = "slo")
+public class SloEndpoint {
+
+	private final AbstractRequestSloService requestSloService;
+
+	@Autowired
+	public SloEndpoint(AbstractRequestSloService requestSloService) {
+		super();
+		this.requestSloService = requestSloService;
+	}
+
+	@ReadOperation
+	public SloSnapshot snapshot() {
+		return requestSloService.snapshot();
+	}
+}
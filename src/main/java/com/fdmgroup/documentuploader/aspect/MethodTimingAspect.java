@@ -0,0 +1,182 @@
+package com.fdmgroup.documentuploader.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Aspect which records the latency, errors and number of in-flight calls of
+ * every public method of the {@code Abstract*Service} implementations and
+ * {@code *Repository} interfaces, tagged with the layer, class and method
+ * called:
+ * </p>
+ * <ul>
+ * <li>{@value #DURATION_METRIC}: a timer of every call</li>
+ * <li>{@value #ERRORS_METRIC}: a counter of calls which threw an exception</li>
+ * <li>{@value #ACTIVE_METRIC}: a gauge of the calls currently in progress</li>
+ * </ul>
+ * <p>
+ * The meters of every intercepted method are registered once the application
+ * context is ready and looked up by proxy class and method name on each call,
+ * so a call allocates nothing beyond what Spring AOP itself does. The aspect
+ * runs before any other advice, so service timings include the commit of their
+ * transaction.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.method-metrics", name = "enabled", havingValue = "true")
+public class MethodTimingAspect implements SmartInitializingSingleton {
+
+	static final String DURATION_METRIC = "method.invocation.duration";
+	static final String ERRORS_METRIC = "method.invocation.errors";
+	static final String ACTIVE_METRIC = "method.invocation.active";
+
+	private static final String SERVICE_POINTCUT = "execution(public * com.fdmgroup.documentuploader.service..Abstract*Service+.*(..))";
+	private static final String REPOSITORY_POINTCUT = "execution(public * com.fdmgroup.documentuploader.repository..*Repository+.*(..))";
+	private static final String POINTCUT = SERVICE_POINTCUT + " || " + REPOSITORY_POINTCUT;
+	private static final String BASE_PACKAGE = "com.fdmgroup.documentuploader.";
+	private static final String REPOSITORY_PACKAGE = BASE_PACKAGE + "repository";
+
+	private final MeterRegistry meterRegistry;
+	private final ApplicationContext applicationContext;
+
+	/**
+	 * Meters of each intercepted method, keyed by the class of the proxy through
+	 * which it is called and then by method name. Overloads share their meters.
+	 */
+	private final Map<Class<?>, Map<String, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+	/**
+	 * The same meters keyed by their tags, so proxy classes resolving to the same
+	 * class share a single in-flight gauge.
+	 */
+	private final Map<Tags, MethodMeters> metersByTags = new ConcurrentHashMap<>();
+
+	@Autowired
+	public MethodTimingAspect(MeterRegistry meterRegistry, ApplicationContext applicationContext) {
+		super();
+		this.meterRegistry = meterRegistry;
+		this.applicationContext = applicationContext;
+	}
+
+	@Around(POINTCUT)
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		MethodMeters methodMeters = metersFor(joinPoint.getThis(), joinPoint.getSignature().getName());
+		methodMeters.active.incrementAndGet();
+		long start = System.nanoTime();
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			methodMeters.errors.increment();
+			throw e;
+		} finally {
+			methodMeters.duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			methodMeters.active.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Registers the meters of every method of the service and repository
+	 * interfaces intercepted by this aspect, including those repositories
+	 * inherit from Spring Data, so they are reported from startup rather than
+	 * from their first call.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(POINTCUT);
+		for (String beanName : applicationContext.getBeanDefinitionNames()) {
+			if (!applicationContext.isSingleton(beanName)) {
+				continue;
+			}
+			Class<?> beanClass = applicationContext.getType(beanName);
+			if (beanClass == null || !pointcut.getClassFilter().matches(beanClass)) {
+				continue;
+			}
+			Object bean = applicationContext.getBean(beanName);
+			for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(beanClass)) {
+				if (!type.getName().startsWith(BASE_PACKAGE)) {
+					continue;
+				}
+				for (Method method : type.getMethods()) {
+					metersFor(bean, method.getName());
+				}
+			}
+		}
+	}
+
+	private MethodMeters metersFor(Object proxy, String methodName) {
+		Map<String, MethodMeters> methods = meters.get(proxy.getClass());
+		if (methods == null) {
+			methods = meters.computeIfAbsent(proxy.getClass(), key -> new ConcurrentHashMap<>());
+		}
+		MethodMeters methodMeters = methods.get(methodName);
+		if (methodMeters == null) {
+			methodMeters = methods.computeIfAbsent(methodName,
+					name -> metersByTags.computeIfAbsent(tagsFor(proxy, name), MethodMeters::new));
+		}
+		return methodMeters;
+	}
+
+	/**
+	 * Gets the tags identifying calls through the given proxy. Repository proxies
+	 * are named after the repository interface they implement, any other proxy
+	 * after the class of the object it proxies.
+	 */
+	private static Tags tagsFor(Object proxy, String methodName) {
+		for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxy.getClass())) {
+			if (type.getName().startsWith(REPOSITORY_PACKAGE)) {
+				return Tags.of("layer", "repository", "class", type.getSimpleName(), "method", methodName);
+			}
+		}
+		return Tags.of("layer", "service", "class", AopProxyUtils.ultimateTargetClass(proxy).getSimpleName(), "method",
+				methodName);
+	}
+
+	/**
+	 * Inner class of {@link MethodTimingAspect} which holds the meters of a
+	 * single method.
+	 *
+	 * @author Noah Anderson
+	 */
+	private class MethodMeters {
+
+		private final Timer duration;
+		private final Counter errors;
+		private final AtomicInteger active;
+
+		MethodMeters(Tags tags) {
+			this.duration = Timer.builder(DURATION_METRIC).tags(tags).register(meterRegistry);
+			this.errors = Counter.builder(ERRORS_METRIC).tags(tags).register(meterRegistry);
+			this.active = new AtomicInteger();
+			Gauge.builder(ACTIVE_METRIC, active, AtomicInteger::get).tags(tags).strongReference(true)
+					.register(meterRegistry);
+		}
+	}
+}
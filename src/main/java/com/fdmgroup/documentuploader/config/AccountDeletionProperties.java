@@ -0,0 +1,73 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of the scheduled job which deletes the
+ * documents of deleted accounts in the background.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.account-deletion")
+public class AccountDeletionProperties {
+
+	/**
+	 * Cron expression describing when the deletion job runs.
+	 */
+	private final String cron;
+
+	/**
+	 * The maximum number of documents deleted by a single transaction.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The maximum number of batches deleted in a single run, after which the
+	 * remaining documents are left for the next run.
+	 */
+	private final int maxBatchesPerRun;
+
+	/**
+	 * Pause taken between two batches to limit the load put on the database.
+	 */
+	private final Duration pauseBetweenBatches;
+
+	/**
+	 * How long the lock of a run is held for if the node running it dies.
+	 */
+	private final Duration lockAtMostFor;
+
+	public AccountDeletionProperties(String cron, int batchSize, int maxBatchesPerRun, Duration pauseBetweenBatches,
+			Duration lockAtMostFor) {
+		super();
+		this.cron = cron;
+		this.batchSize = batchSize;
+		this.maxBatchesPerRun = maxBatchesPerRun;
+		this.pauseBetweenBatches = pauseBetweenBatches;
+		this.lockAtMostFor = lockAtMostFor;
+	}
+
+	public String getCron() {
+		return cron;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getMaxBatchesPerRun() {
+		return maxBatchesPerRun;
+	}
+
+	public Duration getPauseBetweenBatches() {
+		return pauseBetweenBatches;
+	}
+
+	public Duration getLockAtMostFor() {
+		return lockAtMostFor;
+	}
+}
@@ -0,0 +1,36 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.filter.AccountLimitFilter;
+import com.fdmgroup.documentuploader.service.ratelimit.AccountRequestLimiter;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link AccountLimitFilter} which enforces the request rate and
+ * concurrency limits of each account on the accounts routes.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.account-limit", name = "enabled", havingValue = "true")
+public class AccountLimitConfiguration {
+
+	@Bean
+	public FilterRegistrationBean<AccountLimitFilter> accountLimitFilter(ServiceLevelResolver serviceLevelResolver,
+			AccountLimitProperties accountLimitProperties, ApplicationProperties applicationProperties,
+			MeterRegistry meterRegistry) {
+		String accountsUri = applicationProperties.getRequestUris().getAccounts();
+		FilterRegistrationBean<AccountLimitFilter> registration = new FilterRegistrationBean<>(
+				new AccountLimitFilter(serviceLevelResolver, accountLimitProperties,
+						new AccountRequestLimiter(accountLimitProperties.getTableSize()), meterRegistry,
+						accountsUri));
+		registration.addUrlPatterns(accountsUri, accountsUri + "/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+		return registration;
+	}
+}
@@ -0,0 +1,90 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Encapsulates the request rate and concurrency limits applied to the
+ * requests made on behalf of an account, by the {@link ServiceLevel} of the
+ * account.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.account-limit")
+public class AccountLimitProperties {
+
+	/**
+	 * The limits of accounts with each service level. Accounts with a service
+	 * level which has no limits configured are not limited.
+	 */
+	private final Map<ServiceLevel, Limit> limits;
+
+	/**
+	 * The number of accounts the limiter can track at once. Rounded up to a power
+	 * of two.
+	 */
+	private final int tableSize;
+
+	public AccountLimitProperties(Map<ServiceLevel, Limit> limits, int tableSize) {
+		super();
+		this.limits = limits;
+		this.tableSize = tableSize;
+	}
+
+	public Map<ServiceLevel, Limit> getLimits() {
+		return limits;
+	}
+
+	public int getTableSize() {
+		return tableSize;
+	}
+
+	/**
+	 * Gets the limits of accounts with the given service level.
+	 *
+	 * @param serviceLevel the service level
+	 * @return the limits, or {@code null} if accounts with the given service
+	 *         level are not limited
+	 */
+	public Limit getLimit(ServiceLevel serviceLevel) {
+		return limits == null ? null : limits.get(serviceLevel);
+	}
+
+	/**
+	 * Static inner class of {@link AccountLimitProperties} which encapsulates the
+	 * token bucket an account takes a permit from for every request, and the
+	 * number of requests it may have in flight at once.
+	 *
+	 * @author Noah Anderson
+	 */
+	public static class Limit {
+
+		private final int capacity;
+		private final Duration refillPeriod;
+		private final int maxConcurrentRequests;
+
+		public Limit(int capacity, Duration refillPeriod, int maxConcurrentRequests) {
+			super();
+			this.capacity = capacity;
+			this.refillPeriod = refillPeriod;
+			this.maxConcurrentRequests = maxConcurrentRequests;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public Duration getRefillPeriod() {
+			return refillPeriod;
+		}
+
+		public int getMaxConcurrentRequests() {
+			return maxConcurrentRequests;
+		}
+	}
+}
@@ -57,9 +57,16 @@ public class ApplicationProperties {
 		private final String confirmToken;
 		private final String resetPassword;
 		private final String token;
+		private final String authenticate;
+		private final String bulkDelete;
+		private final String deletions;
+		private final String export;
+		private final String importArchive;
+		private final String content;
 
 		public RequestUris(String users, String accounts, String register, String documents, String authGroup,
-				String isEnabled, String confirmToken, String resetPassword, String token) {
+				String isEnabled, String confirmToken, String resetPassword, String token, String authenticate,
+				String bulkDelete, String deletions, String export, String importArchive, String content) {
 			this.users = users;
 			this.accounts = accounts;
 			this.register = register;
@@ -69,6 +76,12 @@ public class ApplicationProperties {
 			this.confirmToken = confirmToken;
 			this.resetPassword = resetPassword;
 			this.token = token;
+			this.authenticate = authenticate;
+			this.bulkDelete = bulkDelete;
+			this.deletions = deletions;
+			this.export = export;
+			this.importArchive = importArchive;
+			this.content = content;
 		}
 
 		public String getUsers() {
@@ -106,6 +119,30 @@ public class ApplicationProperties {
 		public String getToken() {
 			return token;
 		}
+
+		public String getAuthenticate() {
+			return authenticate;
+		}
+
+		public String getBulkDelete() {
+			return bulkDelete;
+		}
+
+		public String getDeletions() {
+			return deletions;
+		}
+
+		public String getExport() {
+			return export;
+		}
+
+		public String getImportArchive() {
+			return importArchive;
+		}
+
+		public String getContent() {
+			return content;
+		}
 	}
 
 	/**
@@ -0,0 +1,76 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Encapsulates the configuration of imports of ZIP and TAR archives into an
+ * account, including the limits which guard against decompression bombs.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.archive-import")
+public class ArchiveImportProperties {
+
+	/**
+	 * The maximum number of file entries read from one archive. The import stops
+	 * at the first entry beyond it.
+	 */
+	private final int maxEntries;
+
+	/**
+	 * The maximum uncompressed size of a single entry. Larger entries are
+	 * skipped.
+	 */
+	private final DataSize maxEntrySize;
+
+	/**
+	 * The maximum uncompressed size of all entries together. The import stops
+	 * once it is exceeded.
+	 */
+	private final DataSize maxTotalSize;
+
+	/**
+	 * The maximum ratio of uncompressed bytes extracted to compressed bytes
+	 * received. The import stops once it is exceeded.
+	 */
+	private final int maxExpansionRatio;
+
+	/**
+	 * The number of uncompressed bytes extracted before the expansion ratio is
+	 * checked, so that a few small, highly compressible files are accepted.
+	 */
+	private final DataSize expansionRatioThreshold;
+
+	public ArchiveImportProperties(int maxEntries, DataSize maxEntrySize, DataSize maxTotalSize,
+			int maxExpansionRatio, DataSize expansionRatioThreshold) {
+		super();
+		this.maxEntries = maxEntries;
+		this.maxEntrySize = maxEntrySize;
+		this.maxTotalSize = maxTotalSize;
+		this.maxExpansionRatio = maxExpansionRatio;
+		this.expansionRatioThreshold = expansionRatioThreshold;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public DataSize getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	public DataSize getMaxTotalSize() {
+		return maxTotalSize;
+	}
+
+	public int getMaxExpansionRatio() {
+		return maxExpansionRatio;
+	}
+
+	public DataSize getExpansionRatioThreshold() {
+		return expansionRatioThreshold;
+	}
+}
@@ -0,0 +1,52 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.config.RateLimitProperties.Bucket;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * Encapsulates the configuration of the rate limiters which bound how often
+ * authentication may be attempted, so passwords cannot be guessed quickly and
+ * the cost of verifying them cannot be used to exhaust the hashing pool.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.authentication-rate-limit")
+public class AuthenticationRateLimitProperties {
+
+	/**
+	 * Limit applied to each email authentication is attempted for.
+	 */
+	private final Bucket email;
+
+	/**
+	 * Limit applied to each client address attempting authentication.
+	 */
+	private final Bucket client;
+
+	/**
+	 * The maximum number of keys tracked by each limiter before the least
+	 * recently used keys are evicted.
+	 */
+	private final int maxTrackedKeys;
+
+	public AuthenticationRateLimitProperties(Bucket email, Bucket client, int maxTrackedKeys) {
+		super();
+		this.email = email;
+		this.client = client;
+		this.maxTrackedKeys = maxTrackedKeys;
+	}
+
+	public Bucket getEmail() {
+		return email;
+	}
+
+	public Bucket getClient() {
+		return client;
+	}
+
+	public int getMaxTrackedKeys() {
+		return maxTrackedKeys;
+	}
+}
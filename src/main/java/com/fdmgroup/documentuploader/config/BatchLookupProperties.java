@@ -0,0 +1,65 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Encapsulates the configuration of the lookups of users, accounts and
+ * documents by a list of ids.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.batch-lookup")
+public class BatchLookupProperties {
+
+	/**
+	 * The maximum number of ids accepted in one request.
+	 */
+	private final int maxIds;
+
+	/**
+	 * The maximum number of ids bound to a single {@code IN} list. Larger
+	 * lookups are split into one query per chunk, keeping every query within the
+	 * bind parameter limits of the database.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * The maximum number of document ids accepted in one request. Documents are
+	 * returned with their content, so far fewer are accepted than users or
+	 * accounts.
+	 */
+	private final int maxDocumentIds;
+
+	/**
+	 * The maximum total size of the content of the documents returned by one
+	 * request, checked before any content is loaded.
+	 */
+	private final DataSize maxDocumentContentSize;
+
+	public BatchLookupProperties(int maxIds, int chunkSize, int maxDocumentIds, DataSize maxDocumentContentSize) {
+		super();
+		this.maxIds = maxIds;
+		this.chunkSize = chunkSize;
+		this.maxDocumentIds = maxDocumentIds;
+		this.maxDocumentContentSize = maxDocumentContentSize;
+	}
+
+	public int getMaxIds() {
+		return maxIds;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public int getMaxDocumentIds() {
+		return maxDocumentIds;
+	}
+
+	public DataSize getMaxDocumentContentSize() {
+		return maxDocumentContentSize;
+	}
+}
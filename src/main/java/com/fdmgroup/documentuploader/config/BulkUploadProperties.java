@@ -0,0 +1,40 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * Encapsulates the configuration of bulk document uploads to an account.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.bulk-upload")
+public class BulkUploadProperties {
+
+	/**
+	 * The number of documents inserted per transaction. Each transaction sends
+	 * its document and join rows as JDBC batches.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The maximum number of documents accepted in one request. Further documents
+	 * are rejected.
+	 */
+	private final int maxDocuments;
+
+	public BulkUploadProperties(int batchSize, int maxDocuments) {
+		super();
+		this.batchSize = batchSize;
+		this.maxDocuments = maxDocuments;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getMaxDocuments() {
+		return maxDocuments;
+	}
+}
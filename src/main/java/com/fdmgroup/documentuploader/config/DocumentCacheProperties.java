@@ -0,0 +1,53 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Encapsulates the configuration of the cache of document contents served by
+ * downloads.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.document-cache")
+public class DocumentCacheProperties {
+
+	/**
+	 * The maximum number of content bytes held at once. A size of zero disables
+	 * the cache.
+	 */
+	private final DataSize maxSize;
+
+	/**
+	 * The size of the largest document cached. Larger documents are always read
+	 * from the database.
+	 */
+	private final DataSize maxEntrySize;
+
+	/**
+	 * The number of distinct documents whose access frequency is estimated when
+	 * deciding whether to admit a document.
+	 */
+	private final int expectedEntries;
+
+	public DocumentCacheProperties(DataSize maxSize, DataSize maxEntrySize, int expectedEntries) {
+		super();
+		this.maxSize = maxSize;
+		this.maxEntrySize = maxEntrySize;
+		this.expectedEntries = expectedEntries;
+	}
+
+	public DataSize getMaxSize() {
+		return maxSize;
+	}
+
+	public DataSize getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	public int getExpectedEntries() {
+		return expectedEntries;
+	}
+}
@@ -0,0 +1,71 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Encapsulates the configuration of ZIP exports of the documents of an
+ * account.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.document-export")
+public class DocumentExportProperties {
+
+	/**
+	 * The number of document rows the JDBC driver fetches per round trip. Only
+	 * this many documents are held in memory at once.
+	 */
+	private final int fetchSize;
+
+	/**
+	 * The size in bytes of the buffer between the ZIP stream and the response.
+	 */
+	private final int bufferSize;
+
+	/**
+	 * Extensions of formats which are already compressed, such as {@code .png}.
+	 * Documents with these extensions are written without being compressed
+	 * again. Compared ignoring case.
+	 */
+	private final Set<String> storedExtensions;
+
+	/**
+	 * The maximum number of exports which may stream at once. Each export holds
+	 * a database connection until its response is written, so this should stay
+	 * well below the size of the connection pool.
+	 */
+	private final int maxConcurrentExports;
+
+	public DocumentExportProperties(int fetchSize, int bufferSize, Set<String> storedExtensions,
+			int maxConcurrentExports) {
+		super();
+		this.fetchSize = fetchSize;
+		this.bufferSize = bufferSize;
+		this.maxConcurrentExports = maxConcurrentExports;
+		this.storedExtensions = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		if (storedExtensions != null) {
+			this.storedExtensions.addAll(storedExtensions);
+		}
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public Set<String> getStoredExtensions() {
+		return storedExtensions;
+	}
+
+	public int getMaxConcurrentExports() {
+		return maxConcurrentExports;
+	}
+}
@@ -0,0 +1,74 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of the Flight Recorder recordings which can
+ * be started on demand.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.flight-recorder")
+public class FlightRecorderProperties {
+
+	/**
+	 * The name of the JDK event settings to record with, {@code default} or
+	 * {@code profile}.
+	 */
+	private final String settings;
+
+	/**
+	 * How long a recording runs when no duration is requested.
+	 */
+	private final Duration defaultDuration;
+
+	/**
+	 * The longest a recording may run before it stops on its own.
+	 */
+	private final Duration maxDuration;
+
+	/**
+	 * How long recorded data is kept before it is discarded.
+	 */
+	private final Duration maxAge;
+
+	/**
+	 * How much recorded data is kept on disk before the oldest is discarded.
+	 */
+	private final DataSize maxSize;
+
+	public FlightRecorderProperties(String settings, Duration defaultDuration, Duration maxDuration,
+			Duration maxAge, DataSize maxSize) {
+		super();
+		this.settings = settings;
+		this.defaultDuration = defaultDuration;
+		this.maxDuration = maxDuration;
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+	}
+
+	public String getSettings() {
+		return settings;
+	}
+
+	public Duration getDefaultDuration() {
+		return defaultDuration;
+	}
+
+	public Duration getMaxDuration() {
+		return maxDuration;
+	}
+
+	public Duration getMaxAge() {
+		return maxAge;
+	}
+
+	public DataSize getMaxSize() {
+		return maxSize;
+	}
+}
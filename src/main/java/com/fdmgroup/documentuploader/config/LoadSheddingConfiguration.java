@@ -0,0 +1,45 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.filter.LoadSheddingFilter;
+import com.fdmgroup.documentuploader.filter.RouteMatcher;
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Registers the {@link LoadSheddingFilter} which limits the uploads in flight
+ * with an {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.load-shedding", name = "enabled", havingValue = "true")
+public class LoadSheddingConfiguration {
+
+	@Bean
+	public AdaptiveConcurrencyLimiter uploadConcurrencyLimiter(LoadSheddingProperties loadSheddingProperties,
+			MeterRegistry meterRegistry) {
+		return new AdaptiveConcurrencyLimiter(loadSheddingProperties, meterRegistry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+			AdaptiveConcurrencyLimiter uploadConcurrencyLimiter, ApplicationProperties applicationProperties) {
+		ApplicationProperties.RequestUris uris = applicationProperties.getRequestUris();
+		String accountDocuments = uris.getAccounts() + "/*" + uris.getDocuments();
+
+		RouteMatcher uploadRoutes = new RouteMatcher()
+				.add(HttpMethod.POST, uris.getDocuments(), accountDocuments, accountDocuments + uris.getImportArchive())
+				.add(HttpMethod.PUT, accountDocuments);
+
+		FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+				new LoadSheddingFilter(uploadConcurrencyLimiter, uploadRoutes));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+		return registration;
+	}
+}
@@ -0,0 +1,72 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * Encapsulates the configuration of the adaptive concurrency limit applied to
+ * the endpoints which upload documents.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.load-shedding")
+public class LoadSheddingProperties {
+
+	/**
+	 * The number of uploads allowed in flight before any latency was observed.
+	 */
+	private final int initialLimit;
+
+	/**
+	 * The lowest the limit may fall to, however high the latency.
+	 */
+	private final int minLimit;
+
+	/**
+	 * The highest the limit may rise to, however low the latency.
+	 */
+	private final int maxLimit;
+
+	/**
+	 * The fraction, between 0 and 1, of each newly computed limit applied to the
+	 * current limit. Lower values change the limit more slowly.
+	 */
+	private final double smoothing;
+
+	/**
+	 * The number of samples after which the latency without load is measured
+	 * again, so the limit follows lasting changes in latency.
+	 */
+	private final int probeInterval;
+
+	public LoadSheddingProperties(int initialLimit, int minLimit, int maxLimit, double smoothing,
+			int probeInterval) {
+		super();
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.smoothing = smoothing;
+		this.probeInterval = probeInterval;
+	}
+
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	public double getSmoothing() {
+		return smoothing;
+	}
+
+	public int getProbeInterval() {
+		return probeInterval;
+	}
+}
@@ -0,0 +1,66 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of password hashing and of the dedicated
+ * thread pool it runs on.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+
+	/**
+	 * The bcrypt cost factor, between 4 and 31. Each increment doubles the time
+	 * taken to hash a password. Stored hashes with a lower cost are rehashed
+	 * the next time their user authenticates.
+	 */
+	private final int strength;
+
+	/**
+	 * The number of threads hashing passwords. Values below one use half of
+	 * the available processors, leaving the rest to request handling.
+	 */
+	private final int poolSize;
+
+	/**
+	 * The maximum number of hashing tasks waiting for a thread before further
+	 * tasks are rejected.
+	 */
+	private final int queueCapacity;
+
+	/**
+	 * The maximum time a request waits for its hashing task, including the time
+	 * spent in the queue.
+	 */
+	private final Duration timeout;
+
+	public PasswordHashingProperties(int strength, int poolSize, int queueCapacity, Duration timeout) {
+		super();
+		this.strength = strength;
+		this.poolSize = poolSize;
+		this.queueCapacity = queueCapacity;
+		this.timeout = timeout;
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+}
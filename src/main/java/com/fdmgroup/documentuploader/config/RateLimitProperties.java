@@ -0,0 +1,79 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of the rate limiters which guard the
+ * endpoints that send emails, such as password reset and registration
+ * confirmation emails.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+	/**
+	 * Limit applied to each recipient email address.
+	 */
+	private final Bucket email;
+
+	/**
+	 * Limit applied to each client address sending requests.
+	 */
+	private final Bucket client;
+
+	/**
+	 * The maximum number of keys tracked by each limiter before the least
+	 * recently used keys are evicted.
+	 */
+	private final int maxTrackedKeys;
+
+	public RateLimitProperties(Bucket email, Bucket client, int maxTrackedKeys) {
+		super();
+		this.email = email;
+		this.client = client;
+		this.maxTrackedKeys = maxTrackedKeys;
+	}
+
+	public Bucket getEmail() {
+		return email;
+	}
+
+	public Bucket getClient() {
+		return client;
+	}
+
+	public int getMaxTrackedKeys() {
+		return maxTrackedKeys;
+	}
+
+	/**
+	 * Static inner class of {@link RateLimitProperties} which encapsulates the
+	 * size of a token bucket and the time it takes to refill completely.
+	 *
+	 * @author Noah Anderson
+	 */
+	public static class Bucket {
+
+		private final int capacity;
+		private final Duration refillPeriod;
+
+		public Bucket(int capacity, Duration refillPeriod) {
+			super();
+			this.capacity = capacity;
+			this.refillPeriod = refillPeriod;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public Duration getRefillPeriod() {
+			return refillPeriod;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the execution of the {@link org.springframework.scheduling.annotation.Scheduled
+ * Scheduled} jobs of the application.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+}
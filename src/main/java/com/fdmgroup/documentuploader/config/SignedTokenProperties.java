@@ -0,0 +1,87 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Encapsulates the configuration of the stateless, HMAC signed confirmation
+ * and password reset tokens.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.signed-tokens")
+public class SignedTokenProperties {
+
+	/**
+	 * Whether newly issued tokens are signed. Signed tokens which were already
+	 * issued are verified regardless of this flag.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The id of the key in {@link #keys} used to sign new tokens.
+	 */
+	private final String activeKeyId;
+
+	/**
+	 * Base64 encoded HMAC secrets by key id. Every key listed here is accepted
+	 * when verifying, so a key is rotated out by first changing the
+	 * {@link #activeKeyId} and removing the old key once its tokens expired.
+	 */
+	private final Map<String, String> keys;
+
+	/**
+	 * How long registration confirmation tokens are valid for.
+	 */
+	private final Duration confirmationTtl;
+
+	/**
+	 * How long password reset tokens are valid for.
+	 */
+	private final Duration passwordResetTtl;
+
+	/**
+	 * The maximum number of consumed tokens remembered in memory.
+	 */
+	private final int consumedCacheSize;
+
+	public SignedTokenProperties(boolean enabled, String activeKeyId, Map<String, String> keys,
+			Duration confirmationTtl, Duration passwordResetTtl, int consumedCacheSize) {
+		super();
+		this.enabled = enabled;
+		this.activeKeyId = activeKeyId;
+		this.keys = keys == null ? Collections.emptyMap() : keys;
+		this.confirmationTtl = confirmationTtl;
+		this.passwordResetTtl = passwordResetTtl;
+		this.consumedCacheSize = consumedCacheSize;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public String getActiveKeyId() {
+		return activeKeyId;
+	}
+
+	public Map<String, String> getKeys() {
+		return keys;
+	}
+
+	public Duration getConfirmationTtl() {
+		return confirmationTtl;
+	}
+
+	public Duration getPasswordResetTtl() {
+		return passwordResetTtl;
+	}
+
+	public int getConsumedCacheSize() {
+		return consumedCacheSize;
+	}
+}
@@ -0,0 +1,127 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encapsulates the latency service level objectives of each
+ * {@link ServiceLevel} and the settings of the request instrumentation which
+ * tracks them.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.slo")
+public class SloProperties {
+
+	/**
+	 * The fraction of requests, between 0 and 1, which must complete within the
+	 * latency objective of their service level without a server error.
+	 */
+	private final double objective;
+
+	/**
+	 * The latency objective of requests made on behalf of an account with each
+	 * service level.
+	 */
+	private final Map<ServiceLevel, Duration> latencyObjectives;
+
+	/**
+	 * The latency objective of requests which cannot be attributed to an account,
+	 * which includes every request outside of the accounts routes.
+	 */
+	private final Duration defaultLatencyObjective;
+
+	/**
+	 * The sliding windows the burn rate of each tier is computed over, such as a
+	 * short window which reacts quickly and a long one which filters out brief
+	 * spikes.
+	 */
+	private final List<Duration> burnRateWindows;
+
+	/**
+	 * The maximum number of account service levels cached by the resolver.
+	 */
+	private final int resolverCacheSize;
+
+	/**
+	 * How long a resolved service level is cached before it is looked up again.
+	 */
+	private final Duration resolverCacheTtl;
+
+	/**
+	 * The maximum number of accounts whose request counts are tracked.
+	 */
+	private final int maxTrackedTenants;
+
+	/**
+	 * The number of busiest accounts included in a snapshot.
+	 */
+	private final int topTenants;
+
+	public SloProperties(double objective, Map<ServiceLevel, Duration> latencyObjectives,
+			Duration defaultLatencyObjective, List<Duration> burnRateWindows, int resolverCacheSize,
+			Duration resolverCacheTtl, int maxTrackedTenants, int topTenants) {
+		super();
+		this.objective = objective;
+		this.latencyObjectives = latencyObjectives;
+		this.defaultLatencyObjective = defaultLatencyObjective;
+		this.burnRateWindows = burnRateWindows;
+		this.resolverCacheSize = resolverCacheSize;
+		this.resolverCacheTtl = resolverCacheTtl;
+		this.maxTrackedTenants = maxTrackedTenants;
+		this.topTenants = topTenants;
+	}
+
+	public double getObjective() {
+		return objective;
+	}
+
+	public Map<ServiceLevel, Duration> getLatencyObjectives() {
+		return latencyObjectives;
+	}
+
+	public Duration getDefaultLatencyObjective() {
+		return defaultLatencyObjective;
+	}
+
+	public List<Duration> getBurnRateWindows() {
+		return burnRateWindows;
+	}
+
+	public int getResolverCacheSize() {
+		return resolverCacheSize;
+	}
+
+	public Duration getResolverCacheTtl() {
+		return resolverCacheTtl;
+	}
+
+	public int getMaxTrackedTenants() {
+		return maxTrackedTenants;
+	}
+
+	public int getTopTenants() {
+		return topTenants;
+	}
+
+	/**
+	 * Gets the latency objective of requests made on behalf of an account with
+	 * the given service level.
+	 *
+	 * @param serviceLevel the service level, or {@code null} if the request
+	 *                     cannot be attributed to an account
+	 * @return the latency objective
+	 */
+	public Duration getLatencyObjective(ServiceLevel serviceLevel) {
+		if (serviceLevel == null || latencyObjectives == null) {
+			return defaultLatencyObjective;
+		}
+		return latencyObjectives.getOrDefault(serviceLevel, defaultLatencyObjective);
+	}
+}
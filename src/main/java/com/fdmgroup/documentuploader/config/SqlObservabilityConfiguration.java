@@ -0,0 +1,56 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.sql.SqlStatisticsFilter;
+import com.fdmgroup.documentuploader.sql.SqlStatisticsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@link DataSource} in a proxy which reports every
+ * statement to a {@link SqlStatisticsListener}, and registers the
+ * {@link SqlStatisticsFilter} which attributes statements to requests.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-observability", name = "enabled", havingValue = "true")
+public class SqlObservabilityConfiguration {
+
+	@Bean
+	public static BeanPostProcessor sqlObservabilityDataSourcePostProcessor(
+			ObjectProvider<SqlObservabilityProperties> sqlObservabilityProperties,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+				return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+						.listener(new SqlStatisticsListener(sqlObservabilityProperties.getObject(),
+								meterRegistry.getObject()))
+						.build();
+			}
+		};
+	}
+
+	@Bean
+	public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+			SqlObservabilityProperties sqlObservabilityProperties, MeterRegistry meterRegistry) {
+		FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+				new SqlStatisticsFilter(sqlObservabilityProperties, meterRegistry));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+		return registration;
+	}
+}
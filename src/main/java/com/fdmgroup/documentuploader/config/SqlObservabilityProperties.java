@@ -0,0 +1,63 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of the statistics kept about the SQL
+ * statements executed through the application's data source.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.sql-observability")
+public class SqlObservabilityProperties {
+
+	/**
+	 * Statements taking at least this long are considered slow.
+	 */
+	private final Duration slowQueryThreshold;
+
+	/**
+	 * The fraction of slow statements, between 0 and 1, which are logged.
+	 */
+	private final double slowQuerySampleRate;
+
+	/**
+	 * The number of times an identical statement may run within one request
+	 * before the request is flagged as a possible N+1 query.
+	 */
+	private final int repeatedStatementThreshold;
+
+	/**
+	 * The maximum number of distinct statements tracked per request.
+	 */
+	private final int maxDistinctStatements;
+
+	public SqlObservabilityProperties(Duration slowQueryThreshold, double slowQuerySampleRate,
+			int repeatedStatementThreshold, int maxDistinctStatements) {
+		super();
+		this.slowQueryThreshold = slowQueryThreshold;
+		this.slowQuerySampleRate = slowQuerySampleRate;
+		this.repeatedStatementThreshold = repeatedStatementThreshold;
+		this.maxDistinctStatements = maxDistinctStatements;
+	}
+
+	public Duration getSlowQueryThreshold() {
+		return slowQueryThreshold;
+	}
+
+	public double getSlowQuerySampleRate() {
+		return slowQuerySampleRate;
+	}
+
+	public int getRepeatedStatementThreshold() {
+		return repeatedStatementThreshold;
+	}
+
+	public int getMaxDistinctStatements() {
+		return maxDistinctStatements;
+	}
+}
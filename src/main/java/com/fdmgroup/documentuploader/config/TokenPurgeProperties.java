@@ -0,0 +1,72 @@
+package com.fdmgroup.documentuploader.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the configuration of the scheduled job which purges expired
+ * and used confirmation and password reset tokens.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.token-purge")
+public class TokenPurgeProperties {
+
+	/**
+	 * Cron expression describing when the purge job runs.
+	 */
+	private final String cron;
+
+	/**
+	 * The maximum number of rows deleted by a single statement and transaction.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The maximum number of batches deleted per table in a single run.
+	 */
+	private final int maxBatchesPerRun;
+
+	/**
+	 * Pause taken between two batches to limit the load put on the database.
+	 */
+	private final Duration pauseBetweenBatches;
+
+	/**
+	 * How long the lock of a run is held for if the node running it dies.
+	 */
+	private final Duration lockAtMostFor;
+
+	public TokenPurgeProperties(String cron, int batchSize, int maxBatchesPerRun, Duration pauseBetweenBatches,
+			Duration lockAtMostFor) {
+		super();
+		this.cron = cron;
+		this.batchSize = batchSize;
+		this.maxBatchesPerRun = maxBatchesPerRun;
+		this.pauseBetweenBatches = pauseBetweenBatches;
+		this.lockAtMostFor = lockAtMostFor;
+	}
+
+	public String getCron() {
+		return cron;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getMaxBatchesPerRun() {
+		return maxBatchesPerRun;
+	}
+
+	public Duration getPauseBetweenBatches() {
+		return pauseBetweenBatches;
+	}
+
+	public Duration getLockAtMostFor() {
+		return lockAtMostFor;
+	}
+}
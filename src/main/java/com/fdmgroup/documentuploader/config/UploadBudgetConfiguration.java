@@ -0,0 +1,55 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.filter.RouteMatcher;
+import com.fdmgroup.documentuploader.filter.UploadBudgetFilter;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Registers the {@link UploadBudgetFilter} which bounds the upload bytes held
+ * in memory with an {@link UploadByteBudget}. Archive imports stream their
+ * request body, so the filter does not cover them; the archive import service
+ * reserves the entries it buffers from the same budget instead.
+ * {@link MultipartProperties} are only available in a servlet web application,
+ * so their defaults are used outside of one.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.upload-budget", name = "enabled", havingValue = "true")
+public class UploadBudgetConfiguration {
+
+	@Bean
+	public UploadByteBudget uploadByteBudget(UploadBudgetProperties uploadBudgetProperties,
+			MeterRegistry meterRegistry) {
+		return new UploadByteBudget(uploadBudgetProperties, meterRegistry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<UploadBudgetFilter> uploadBudgetFilter(UploadByteBudget uploadByteBudget,
+			UploadBudgetProperties uploadBudgetProperties, ObjectProvider<MultipartProperties> multipartProperties,
+			ServiceLevelResolver serviceLevelResolver, ApplicationProperties applicationProperties,
+			MeterRegistry meterRegistry) {
+		ApplicationProperties.RequestUris uris = applicationProperties.getRequestUris();
+		String accountDocuments = uris.getAccounts() + "/*" + uris.getDocuments();
+
+		RouteMatcher uploadRoutes = new RouteMatcher().add(HttpMethod.POST, uris.getDocuments(), accountDocuments)
+				.add(HttpMethod.PUT, accountDocuments);
+
+		FilterRegistrationBean<UploadBudgetFilter> registration = new FilterRegistrationBean<>(
+				new UploadBudgetFilter(uploadByteBudget, uploadBudgetProperties.getMaxWait(),
+						multipartProperties.getIfAvailable(MultipartProperties::new).getMaxRequestSize().toBytes(),
+						uploadRoutes, serviceLevelResolver, meterRegistry, uris.getAccounts()));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+		return registration;
+	}
+}
@@ -0,0 +1,84 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Encapsulates the budget of upload bytes which may be held in memory at once,
+ * across all uploads, and the share of it available to each
+ * {@link ServiceLevel}.
+ *
+ * @author Noah Anderson
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "app.upload-budget")
+public class UploadBudgetProperties {
+
+	/**
+	 * The maximum number of upload bytes in flight across all uploads.
+	 */
+	private final DataSize maxInFlight;
+
+	/**
+	 * How long an upload waits for enough of the budget to become available
+	 * before it is rejected.
+	 */
+	private final Duration maxWait;
+
+	/**
+	 * The fraction, between 0 and 1, of the budget the uploads of all accounts
+	 * with each service level may hold at once.
+	 */
+	private final Map<ServiceLevel, Double> shares;
+
+	/**
+	 * The fraction of the budget held at most by uploads which cannot be
+	 * attributed to an account, or whose service level has no share configured.
+	 */
+	private final double defaultShare;
+
+	public UploadBudgetProperties(DataSize maxInFlight, Duration maxWait, Map<ServiceLevel, Double> shares,
+			double defaultShare) {
+		super();
+		this.maxInFlight = maxInFlight;
+		this.maxWait = maxWait;
+		this.shares = shares;
+		this.defaultShare = defaultShare;
+	}
+
+	public DataSize getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public Duration getMaxWait() {
+		return maxWait;
+	}
+
+	public Map<ServiceLevel, Double> getShares() {
+		return shares;
+	}
+
+	public double getDefaultShare() {
+		return defaultShare;
+	}
+
+	/**
+	 * Gets the share of the budget of uploads made on behalf of an account with
+	 * the given service level.
+	 *
+	 * @param serviceLevel the service level, or {@code null} if the upload cannot
+	 *                     be attributed to an account
+	 * @return the share of the budget
+	 */
+	public double getShare(ServiceLevel serviceLevel) {
+		if (serviceLevel == null || shares == null) {
+			return defaultShare;
+		}
+		return shares.getOrDefault(serviceLevel, defaultShare);
+	}
+}
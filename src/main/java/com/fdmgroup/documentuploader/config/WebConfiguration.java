@@ -0,0 +1,36 @@
+package com.fdmgroup.documentuploader.config;
+
+import com.fdmgroup.documentuploader.interceptor.RequestSloInterceptor;
+import com.fdmgroup.documentuploader.service.slo.AbstractRequestSloService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the interceptors applied to every controller call.
+ *
+ * @author Noah Anderson
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.slo", name = "enabled", havingValue = "true")
+public class WebConfiguration implements WebMvcConfigurer {
+
+	private final AbstractRequestSloService requestSloService;
+	private final ApplicationProperties applicationProperties;
+
+	@Autowired
+	public WebConfiguration(AbstractRequestSloService requestSloService,
+			ApplicationProperties applicationProperties) {
+		super();
+		this.requestSloService = requestSloService;
+		this.applicationProperties = applicationProperties;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new RequestSloInterceptor(requestSloService,
+				applicationProperties.getRequestUris().getAccounts())).excludePathPatterns("/error");
+	}
+}
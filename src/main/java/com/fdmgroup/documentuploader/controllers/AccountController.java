@@ -1,16 +1,33 @@
 package com.fdmgroup.documentuploader.controllers;
 
+import com.fdmgroup.documentuploader.config.ApplicationProperties;
+import com.fdmgroup.documentuploader.config.ApplicationProperties.RequestUris;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteCriteria;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.view.FieldSelection;
+import com.fdmgroup.documentuploader.service.account.AbstractAccountDeletionService;
 import com.fdmgroup.documentuploader.service.account.AbstractAccountService;
+import com.fdmgroup.documentuploader.service.document.AbstractArchiveImportService;
+import com.fdmgroup.documentuploader.service.document.AbstractBulkDocumentService;
+import com.fdmgroup.documentuploader.service.document.AbstractDocumentExportService;
+import com.fdmgroup.documentuploader.service.view.AbstractViewService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,22 +38,55 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Api(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 @RestController
 @RequestMapping("${app.request-uris.accounts}")
 public class AccountController {
 
+	private static final String EXPORT_MEDIA_TYPE = "application/zip";
+
+	private static final String TAR_MEDIA_TYPE = "application/x-tar";
+	private static final String GZIP_MEDIA_TYPE = "application/gzip";
+	private static final String X_GZIP_MEDIA_TYPE = "application/x-gzip";
+
 	private final AbstractAccountService accountService;
+	private final AbstractBulkDocumentService bulkDocumentService;
+	private final AbstractAccountDeletionService accountDeletionService;
+	private final AbstractDocumentExportService documentExportService;
+	private final AbstractArchiveImportService archiveImportService;
+	private final AbstractViewService viewService;
+	private final ApplicationProperties applicationProperties;
 
 	@Autowired
-	public AccountController(AbstractAccountService accountService) {
+	public AccountController(AbstractAccountService accountService, AbstractBulkDocumentService bulkDocumentService,
+			AbstractAccountDeletionService accountDeletionService, AbstractDocumentExportService documentExportService,
+			AbstractArchiveImportService archiveImportService, AbstractViewService viewService,
+			ApplicationProperties applicationProperties) {
 		super();
 		this.accountService = accountService;
+		this.bulkDocumentService = bulkDocumentService;
+		this.accountDeletionService = accountDeletionService;
+		this.documentExportService = documentExportService;
+		this.archiveImportService = archiveImportService;
+		this.viewService = viewService;
+		this.applicationProperties = applicationProperties;
 	}
 
 	@ApiOperation(value = "Create a new account", response = Account.class)
@@ -67,27 +117,122 @@ public class AccountController {
 
 	@ApiOperation(value = "Retrieve an existing account", response = Account.class)
 	@ApiResponses(value = {
-			@ApiResponse(code = 200, message = "Successfully retrieved account(s)")
+			@ApiResponse(code = 200, message = "Successfully retrieved account(s)"),
+			@ApiResponse(code = 304, message = "The account(s) are unchanged since the validators given"),
+			@ApiResponse(code = 400, message = "An unknown field or association, or too many ids were requested")
 	})
 	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<Object> getAccount(@RequestParam(value = "id", required = false) Long accountId,
 			@RequestParam(value = "name", required = false) String accountName,
 			@RequestParam(value = "ownerId", required = false) Long ownerId,
-			@RequestParam(value = "userId", required = false) Long userId) {
-		Object body;
+			@RequestParam(value = "userId", required = false) Long userId,
+			@RequestParam(value = "ids", required = false) List<Long> accountIds,
+			@RequestParam(value = "fields", required = false) String fields,
+			@RequestParam(value = "expand", required = false) String expand,
+			WebRequest webRequest) {
+		FieldSelection selection = FieldSelection.parse(fields, expand);
+		if (selection != null) {
+			return ResponseEntity.ok(getAccountView(accountId, accountName, ownerId, userId, accountIds, selection));
+		}
+
+		if (accountId != null && isConditional(webRequest)) {
+			Optional<AccountVersion> version = accountService.getAccountVersionById(accountId);
+			if (version.isPresent() && webRequest.checkNotModified(eTagOf(accountId, version.get().getVersion()),
+					lastModifiedOf(version.get().getModifiedAt()))) {
+				return null;
+			}
+		}
+
+		ResponseEntity<Object> response;
 		if (accountId != null) {
-			body = accountService.getAccountById(accountId);
+			response = withValidators(accountService.getAccountById(accountId));
 		} else if (accountName != null) {
-			body = accountService.getAccountByName(accountName);
+			response = withValidators(accountService.getAccountByName(accountName));
 		} else if (ownerId != null) {
-			body = accountService.getAccountByOwnerId(ownerId);
+			response = withValidators(accountService.getAccountByOwnerId(ownerId));
 		} else if (userId != null) {
-			body = accountService.getAccountsByUserId(userId);
+			response = withValidators(accountService.getAccountsByUserId(userId));
+		} else if (accountIds != null) {
+			response = withValidators(accountService.getAccountsByIds(accountIds));
 		} else {
-			body = null;
+			response = ResponseEntity.ok(null);
 		}
 
-		return ResponseEntity.ok(body);
+		return response;
+	}
+
+	/**
+	 * Retrieves the sparse view of the account(s) selected by the first given
+	 * lookup. Views carry no validators, as their entity tag would have to
+	 * differ from that of the full account.
+	 */
+	private Object getAccountView(Long accountId, String accountName, Long ownerId, Long userId,
+			List<Long> accountIds, FieldSelection selection) {
+		if (accountId != null) {
+			return viewService.getAccountViewById(accountId, selection);
+		} else if (accountName != null) {
+			return viewService.getAccountViewByName(accountName, selection);
+		} else if (ownerId != null) {
+			return viewService.getAccountViewByOwnerId(ownerId, selection);
+		} else if (userId != null) {
+			return viewService.getAccountViewsByUserId(userId, selection);
+		} else if (accountIds != null) {
+			return viewService.getAccountViewsByIds(accountIds, selection);
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the given request carries a validator, so that the version
+	 * of an account is only looked up ahead of loading it when the lookup can
+	 * save the load.
+	 */
+	private static boolean isConditional(WebRequest webRequest) {
+		return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+				|| webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+	}
+
+	/**
+	 * Builds the response for a single account, with an {@code ETag} and
+	 * {@code Last-Modified} header if it was found. Spring answers
+	 * {@code 304 Not Modified} itself when they match the request.
+	 * 
+	 * @param account the found {@link Account}, if any
+	 * @return the response for the account
+	 */
+	private static ResponseEntity<Object> withValidators(Optional<Account> account) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		account.ifPresent(found -> response.eTag(eTagOf(found.getId(), found.getVersion()))
+				.lastModified(lastModifiedOf(found.getModifiedAt())));
+		return response.body(account);
+	}
+
+	/**
+	 * Builds the response for a list of accounts, with an {@code ETag} derived
+	 * from the versions of all of them.
+	 * 
+	 * @param accounts the found {@link Account accounts}
+	 * @return the response for the accounts
+	 */
+	private static ResponseEntity<Object> withValidators(List<Account> accounts) {
+		String versions = accounts.stream().map(account -> eTagOf(account.getId(), account.getVersion()))
+				.collect(Collectors.joining(","));
+		return ResponseEntity.ok()
+				.eTag(DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)))
+				.body(accounts);
+	}
+
+	/**
+	 * Builds the strong entity tag of the given version of an account. It changes
+	 * with every change to the account and its documents, but not with changes
+	 * to the profiles of its users.
+	 */
+	private static String eTagOf(long accountId, long version) {
+		return accountId + "-" + version;
+	}
+
+	private static long lastModifiedOf(Date modifiedAt) {
+		return modifiedAt == null ? -1L : modifiedAt.getTime();
 	}
 
 	@ApiOperation(value = "Add a new document to an existing account")
@@ -104,6 +249,84 @@ public class AccountController {
 		return ResponseEntity.ok(accountWithDocumentAdded);
 	}
 
+	@ApiOperation(value = "Add many new documents to an existing account in one multipart request", response = BulkUploadResult.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully added every document to the account with the given account id"),
+			@ApiResponse(code = 207, message = "Some documents were not added, see the status of each item"),
+			@ApiResponse(code = 404, message = "No account exists with the given account id")
+	})
+	@PostMapping(value = "/{id}" + "${app.request-uris.documents}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<BulkUploadResult> addDocumentsToAccount(@RequestParam("files") List<MultipartFile> files,
+			@PathVariable("id") long accountId) {
+		Iterator<Document> documents = files.stream().map(AccountController::toDocument).iterator();
+		BulkUploadResult result = bulkDocumentService.addDocumentsToAccountByAccountId(accountId, documents);
+		HttpStatus status = result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+		return ResponseEntity.status(status).body(result);
+	}
+
+	@ApiOperation(value = "Add the files of a ZIP or TAR archive to an existing account as new documents", response = BulkUploadResult.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully added every file of the archive to the account with the given account id"),
+			@ApiResponse(code = 207, message = "Some files were not added, see the status of each item"),
+			@ApiResponse(code = 400, message = "The request body is neither a ZIP nor a TAR archive"),
+			@ApiResponse(code = 404, message = "No account exists with the given account id")
+	})
+	@PostMapping(value = "/{id}" + "${app.request-uris.documents}" + "${app.request-uris.import-archive}",
+			consumes = { EXPORT_MEDIA_TYPE, TAR_MEDIA_TYPE, GZIP_MEDIA_TYPE, X_GZIP_MEDIA_TYPE,
+					MediaType.APPLICATION_OCTET_STREAM_VALUE },
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<BulkUploadResult> importArchiveToAccount(InputStream archive,
+			@PathVariable("id") long accountId) throws IOException {
+		BulkUploadResult result = archiveImportService.importArchiveToAccountByAccountId(accountId, archive);
+		HttpStatus status = result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+		return ResponseEntity.status(status).body(result);
+	}
+
+	@ApiOperation(value = "Download the documents of an existing account as a single ZIP archive")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Streaming the documents of the account with the given account id"),
+			@ApiResponse(code = 404, message = "No account exists with the given account id"),
+			@ApiResponse(code = 503, message = "Too many exports are streaming, the request should be retried later")
+	})
+	@GetMapping(value = "/{id}" + "${app.request-uris.documents}" + "${app.request-uris.export}", produces = EXPORT_MEDIA_TYPE)
+	public ResponseEntity<StreamingResponseBody> exportDocumentsOfAccount(@PathVariable("id") long accountId,
+			@RequestParam(value = "namePrefix", required = false) String namePrefix,
+			@RequestParam(value = "extension", required = false) String extension) {
+		String fileName = documentExportService.getExportFileName(accountId);
+		documentExportService.acquireExport();
+		StreamingResponseBody body = outputStream -> {
+			try {
+				documentExportService.exportDocumentsOfAccount(accountId, namePrefix, extension, outputStream);
+			} finally {
+				documentExportService.releaseExport();
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(EXPORT_MEDIA_TYPE))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.builder("attachment").filename(fileName, StandardCharsets.UTF_8).build()
+								.toString())
+				.body(body);
+	}
+
+	/**
+	 * Creates a {@link Document} from an uploaded file, splitting its file name
+	 * into the name and extension of the document. The content of the file is
+	 * only read when this method is called.
+	 * 
+	 * @param file the uploaded file
+	 * @return the created {@code Document}, without a {@code extension} if the
+	 *         file name has none
+	 */
+	private static Document toDocument(MultipartFile file) {
+		try {
+			return Document.fromFileName(file.getBytes(), file.getOriginalFilename());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read uploaded file " + file.getOriginalFilename(), e);
+		}
+	}
+
 	@ApiOperation(value = "Remove a document from an existing account")
 	@ApiResponses(value = {
 			@ApiResponse(code = 200, message = "Successfully removed a document from an account with the given account id"),
@@ -117,4 +340,49 @@ public class AccountController {
 				accountId);
 		return ResponseEntity.ok(accountWithDocumentRemoved);
 	}
+
+	@ApiOperation(value = "Remove every document matching the given criteria from an existing account", response = BulkDeleteResult.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully removed every matching document from the account with the given account id"),
+			@ApiResponse(code = 207, message = "Some matching documents could not be removed"),
+			@ApiResponse(code = 400, message = "No criteria were given"),
+			@ApiResponse(code = 404, message = "No account exists with the given account id")
+	})
+	@PostMapping(value = "/{id}" + "${app.request-uris.documents}" + "${app.request-uris.bulk-delete}",
+			consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<BulkDeleteResult> removeDocumentsFromAccount(@Valid @RequestBody BulkDeleteCriteria criteria,
+			@PathVariable("id") long accountId) {
+		BulkDeleteResult result = bulkDocumentService.deleteDocumentsFromAccountByAccountId(accountId, criteria);
+		HttpStatus status = result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+		return ResponseEntity.status(status).body(result);
+	}
+
+	@ApiOperation(value = "Delete an existing account and all of its documents in the background", response = AccountDeletion.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 202, message = "The account was marked deleted and its documents will be deleted in the background"),
+			@ApiResponse(code = 404, message = "No account exists with the given account id")
+	})
+	@DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<AccountDeletion> deleteAccount(@PathVariable("id") long accountId) {
+		AccountDeletion deletion = accountDeletionService.requestDeletion(accountId);
+		RequestUris requestUris = applicationProperties.getRequestUris();
+		return ResponseEntity
+				.accepted()
+				.location(ServletUriComponentsBuilder.fromCurrentContextPath()
+						.path(requestUris.getAccounts() + requestUris.getDeletions() + "/{id}")
+						.buildAndExpand(deletion.getId()).toUri())
+				.body(deletion);
+	}
+
+	@ApiOperation(value = "Retrieve the progress of an account deletion", response = AccountDeletion.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully retrieved the account deletion"),
+			@ApiResponse(code = 404, message = "No account deletion exists with the given id")
+	})
+	@GetMapping(value = "${app.request-uris.deletions}/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<AccountDeletion> getAccountDeletion(@PathVariable("id") long deletionId) {
+		AccountDeletion deletion = accountDeletionService.getDeletionById(deletionId).orElseThrow(
+				() -> new EntityNotFoundException(AccountDeletion.class, "id", String.valueOf(deletionId)));
+		return ResponseEntity.ok(deletion);
+	}
 }
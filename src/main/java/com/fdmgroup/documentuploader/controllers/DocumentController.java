@@ -1,12 +1,17 @@
 package com.fdmgroup.documentuploader.controllers;
 
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.document.DocumentVersion;
 import com.fdmgroup.documentuploader.service.document.AbstractDocumentService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,17 +24,33 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Api(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 @RestController
 @RequestMapping("${app.request-uris.documents}")
 public class DocumentController {
 
+	/**
+	 * Content addressed responses never change, so clients may keep them for a
+	 * year without revalidating. They are private, so shared caches never serve
+	 * a document to anyone but the client which requested it.
+	 */
+	private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().getHeaderValue()
+			+ ", immutable";
+	private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+	private static final String DIGEST_FIELD = "digest";
+
 	private final AbstractDocumentService documentService;
 
 	@Autowired
@@ -54,11 +75,35 @@ public class DocumentController {
 
 	@ApiOperation(value = "Retrieves a document from the database", response = Document.class)
 	@ApiResponses(value = {
-			@ApiResponse(code = 200, message = "Successfully retrieved a document from the database")
+			@ApiResponse(code = 200, message = "Successfully retrieved a document from the database"),
+			@ApiResponse(code = 304, message = "The document is unchanged since the validators given"),
+			@ApiResponse(code = 400, message = "Too many ids, or documents too large in total, were requested")
 	})
 	@GetMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Optional<Document>> getDocument(@RequestParam(value = "id", required = false) Long documentId,
-										  @RequestParam(value = "documentName", required = false) String documentName) {
+	public ResponseEntity<?> getDocument(@RequestParam(value = "id", required = false) Long documentId,
+										  @RequestParam(value = "documentName", required = false) String documentName,
+										  @RequestParam(value = "ids", required = false) List<Long> documentIds,
+										  WebRequest webRequest) {
+		if (documentId == null && documentName == null && documentIds != null) {
+			return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(documentService.getDocumentsByIds(documentIds));
+		}
+
+		if (isConditional(webRequest)) {
+			Optional<DocumentVersion> version;
+			if (documentId != null) {
+				version = documentService.getDocumentVersionById(documentId);
+			} else if (documentName != null) {
+				version = documentService.getDocumentVersionByName(documentName);
+			} else {
+				version = Optional.empty();
+			}
+			if (version.isPresent() && isNotModified(version.get(), webRequest)) {
+				return null;
+			}
+		}
+
 		Optional<Document> body;
 		if (documentId != null) {
 			body = documentService.getDocumentById(documentId);
@@ -68,9 +113,66 @@ public class DocumentController {
 			body = Optional.empty();
 		}
 
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		body.filter(document -> document.getDigest() != null)
+				.ifPresent(document -> response.eTag(document.getDigest())
+						.lastModified(lastModifiedOf(document.getUploadedAt())));
+		return response.body(body);
+	}
+
+	@ApiOperation(value = "Retrieves the content of a document by its SHA-256 digest, named after the digest")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully retrieved the content"),
+			@ApiResponse(code = 304, message = "The content is already held by the client"),
+			@ApiResponse(code = 404, message = "No document has content with the given digest")
+	})
+	@GetMapping(value = "${app.request-uris.content}/{digest}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<byte[]> getDocumentContent(@PathVariable("digest") String digest, WebRequest webRequest) {
+		String normalizedDigest = digest.toLowerCase(Locale.ROOT);
+		if (!DIGEST.matcher(normalizedDigest).matches()) {
+			throw new EntityNotFoundException(Document.class, DIGEST_FIELD, digest);
+		}
+		if (webRequest.checkNotModified(normalizedDigest)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).header(HttpHeaders.CACHE_CONTROL, IMMUTABLE).build();
+		}
+		byte[] content = documentService.getContentByDigest(normalizedDigest)
+				.orElseThrow(() -> new EntityNotFoundException(Document.class, DIGEST_FIELD, digest));
 		return ResponseEntity.ok()
-				.contentType(MediaType.APPLICATION_JSON)
-				.body(body);
+				.header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.builder("attachment").filename(normalizedDigest).build().toString())
+				.body(content);
+	}
+
+	/**
+	 * Checks the conditional headers of the request against the digest and
+	 * upload time of a document. Documents uploaded before digests were recorded
+	 * have no validators and are never reported as unmodified.
+	 * 
+	 * @param version    the {@link DocumentVersion} of the requested document
+	 * @param webRequest the current request
+	 * @return {@code true} if the client already holds the document, in which case
+	 *         the response has been set to {@code 304 Not Modified}
+	 */
+	private static boolean isNotModified(DocumentVersion version, WebRequest webRequest) {
+		if (version.getDigest() == null) {
+			return false;
+		}
+		return webRequest.checkNotModified(version.getDigest(), lastModifiedOf(version.getUploadedAt()));
+	}
+
+	/**
+	 * Checks whether the given request carries a validator, so that the version
+	 * of a document is only looked up ahead of loading it when the lookup can
+	 * save the load.
+	 */
+	private static boolean isConditional(WebRequest webRequest) {
+		return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+				|| webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+	}
+
+	private static long lastModifiedOf(Date uploadedAt) {
+		return uploadedAt == null ? -1L : uploadedAt.getTime();
 	}
 
 	@ApiOperation(value = "Deletes an existing document from the database")
@@ -1,6 +1,7 @@
 package com.fdmgroup.documentuploader.controllers;
 
 import com.fdmgroup.documentuploader.model.registration.RegistrationWrapper;
+import com.fdmgroup.documentuploader.service.ratelimit.AbstractEmailRateLimitService;
 import com.fdmgroup.documentuploader.service.register.AbstractRegisterService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 @Api(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -25,21 +27,27 @@ import javax.validation.Valid;
 public class RegisterController {
 
 	private final AbstractRegisterService registerService;
+	private final AbstractEmailRateLimitService emailRateLimitService;
 
 	@Autowired
-	public RegisterController(AbstractRegisterService registerService) {
+	public RegisterController(AbstractRegisterService registerService,
+			AbstractEmailRateLimitService emailRateLimitService) {
 		super();
 		this.registerService = registerService;
+		this.emailRateLimitService = emailRateLimitService;
 	}
 
 	@ApiOperation(value = "Registers a new account")
 	@ApiResponses(value = {
 			@ApiResponse(code = 204, message = "Account successfully created."),
 			@ApiResponse(code = 400, message = "Invalid request body"),
+			@ApiResponse(code = 429, message = "Too many registrations were made for the email or by the client")
 	})
 	@ResponseStatus(HttpStatus.NO_CONTENT)
 	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Void> registerNewUser(@Valid @RequestBody RegistrationWrapper wrapper) {
+	public ResponseEntity<Void> registerNewUser(@Valid @RequestBody RegistrationWrapper wrapper,
+			HttpServletRequest request) {
+		emailRateLimitService.acquirePermit(wrapper.getUser().getEmail(), request.getRemoteAddr());
 		registerService.processRegistration(wrapper);
 		return ResponseEntity.noContent().build();
 	}
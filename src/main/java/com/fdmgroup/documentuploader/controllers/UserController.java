@@ -1,7 +1,13 @@
 package com.fdmgroup.documentuploader.controllers;
 
+import com.fdmgroup.documentuploader.model.user.AuthenticatedUser;
+import com.fdmgroup.documentuploader.model.user.Credentials;
 import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.model.view.FieldSelection;
+import com.fdmgroup.documentuploader.service.ratelimit.AbstractAuthenticationRateLimitService;
+import com.fdmgroup.documentuploader.service.ratelimit.AbstractEmailRateLimitService;
 import com.fdmgroup.documentuploader.service.user.AbstractUserService;
+import com.fdmgroup.documentuploader.service.view.AbstractViewService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -21,9 +27,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 import java.util.Optional;
 
 @Api(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -33,23 +41,41 @@ import java.util.Optional;
 public class UserController {
 
 	private final AbstractUserService userService;
+	private final AbstractEmailRateLimitService emailRateLimitService;
+	private final AbstractAuthenticationRateLimitService authenticationRateLimitService;
+	private final AbstractViewService viewService;
 
 	@Autowired
-	public UserController(AbstractUserService userService) {
+	public UserController(AbstractUserService userService, AbstractEmailRateLimitService emailRateLimitService,
+			AbstractAuthenticationRateLimitService authenticationRateLimitService, AbstractViewService viewService) {
 		super();
 		this.userService = userService;
+		this.emailRateLimitService = emailRateLimitService;
+		this.authenticationRateLimitService = authenticationRateLimitService;
+		this.viewService = viewService;
 	}
 
 	@ApiOperation(value = "Retrieve an existing user", response = User.class)
-	@ApiResponses(value = { @ApiResponse(code = 200, message = "Successfully retrieved user") })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Successfully retrieved user"),
+			@ApiResponse(code = 400, message = "An unknown field or too many ids were requested")
+	})
 	@GetMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Optional<User>> getUser(@RequestParam(value = "email", required = false) String userEmail,
-												   @RequestParam(value = "id", required = false) Long userId) {
-		Optional<User> body;
+	public ResponseEntity<Object> getUser(@RequestParam(value = "email", required = false) String userEmail,
+												@RequestParam(value = "id", required = false) Long userId,
+												@RequestParam(value = "ids", required = false) List<Long> userIds,
+												@RequestParam(value = "fields", required = false) String fields,
+												@RequestParam(value = "expand", required = false) String expand) {
+		FieldSelection selection = FieldSelection.parse(fields, expand);
+		Object body;
 		if (userEmail != null) {
-			body = userService.getUserByEmail(userEmail);
+			body = selection == null ? userService.getUserByEmail(userEmail)
+					: viewService.getUserViewByEmail(userEmail, selection);
 		} else if (userId != null) {
-			body = userService.getUserById(userId);
+			body = selection == null ? userService.getUserById(userId) : viewService.getUserViewById(userId, selection);
+		} else if (userIds != null) {
+			body = selection == null ? userService.getUsersByIds(userIds)
+					: viewService.getUserViewsByIds(userIds, selection);
 		} else {
 			body = Optional.empty();
 		}
@@ -70,6 +96,25 @@ public class UserController {
 		return ResponseEntity.ok(updatedUser);
 	}
 
+	@ApiOperation(value = "Authenticate a user with their email and password", response = AuthenticatedUser.class)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Email and password match, the user is returned without their password"),
+			@ApiResponse(code = 400, message = "No email or password was given"),
+			@ApiResponse(code = 401, message = "No user was found with the given email or the password does not match"),
+			@ApiResponse(code = 429, message = "Too many authentication attempts were made for the email or by the client"),
+			@ApiResponse(code = 503, message = "Passwords cannot currently be verified, the request should be retried later")
+	})
+	@PostMapping(value = "${app.request-uris.authenticate}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<AuthenticatedUser> authenticate(@Valid @RequestBody Credentials credentials,
+			HttpServletRequest request) {
+		authenticationRateLimitService.acquirePermit(credentials.getEmail(), request.getRemoteAddr());
+		Optional<User> optionalUser = userService.authenticate(credentials.getEmail(), credentials.getPassword());
+		if (!optionalUser.isPresent()) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		return ResponseEntity.ok(new AuthenticatedUser(optionalUser.get()));
+	}
+
 	@ApiOperation(value = "Check if the account registered with the given email is enabled", response = Boolean.class)
 	@ApiResponses(value = {
 			@ApiResponse(code = 200, message = "User exists and may or may not be enabled"),
@@ -85,11 +130,13 @@ public class UserController {
 	@ApiOperation(value = "Sends an email to the provided email with instructions on how to reset their password")
 	@ApiResponses(value = {
 			@ApiResponse(code = 204, message = "Email was sent to the email given with instructions on how to reset their password"),
-			@ApiResponse(code = 400, message = "No user was found with the given email")
+			@ApiResponse(code = 400, message = "No user was found with the given email"),
+			@ApiResponse(code = 429, message = "Too many password reset requests were made for the email or by the client")
 	})
 	@ResponseStatus(HttpStatus.NO_CONTENT)
 	@PostMapping(value = "/{email}" + "${app.request-uris.reset-password}")
-	public ResponseEntity<Void> resetPassword(@PathVariable("email") String userEmail) {
+	public ResponseEntity<Void> resetPassword(@PathVariable("email") String userEmail, HttpServletRequest request) {
+		emailRateLimitService.acquirePermit(userEmail, request.getRemoteAddr());
 		userService.sendResetPasswordEmail(userEmail);
 		return ResponseEntity.noContent().build();
 	}
@@ -2,12 +2,15 @@ package com.fdmgroup.documentuploader.events;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.util.Collections;
+import java.util.List;
+
 import com.fdmgroup.documentuploader.model.account.Account;
 import com.fdmgroup.documentuploader.model.document.Document;
 
 /**
- * Event created when a {@link Document} is added to or removed from an
- * {@link Account}.
+ * Event created when one or more {@link Document documents} are added to or
+ * removed from an {@link Account}.
  * 
  * @author Noah Aderson
  */
@@ -17,9 +20,15 @@ public class AccountDocumentEvent extends ApplicationEvent {
 
 	/**
 	 * The {@link Document} which was added to or removed from the
-	 * {@link AccountDocumentEvent#account account}.
+	 * {@link AccountDocumentEvent#account account}, or {@code null} if the event
+	 * covers several documents.
 	 */
 	private final Document document;
+	/**
+	 * The names of every {@link Document} which was added to or removed from the
+	 * {@link AccountDocumentEvent#account account}.
+	 */
+	private final List<String> documentNames;
 	/**
 	 * The {@link Account} which had a {@link Document} added to or removed from it.
 	 */
@@ -45,6 +54,28 @@ public class AccountDocumentEvent extends ApplicationEvent {
 	public AccountDocumentEvent(Document document, Account account, boolean wasAddedToAccount) {
 		super(document);
 		this.document = document;
+		this.documentNames = Collections.singletonList(document.getName());
+		this.account = account;
+		this.wasAddedToAccount = wasAddedToAccount;
+	}
+
+	/**
+	 * Creates a new instance of {@link AccountDocumentEvent} covering several
+	 * documents added to or removed from the given {@code account} at once.
+	 * 
+	 * @param documentNames     the names of the {@link Document documents} which
+	 *                          were added to or removed from the given
+	 *                          {@code account}
+	 * @param account           the {@link Account} which the documents were added
+	 *                          to or removed from
+	 * @param wasAddedToAccount {@code true} if the documents were added to the
+	 *                          given {@code account}. Otherwise, should be
+	 *                          {@code false}.
+	 */
+	public AccountDocumentEvent(List<String> documentNames, Account account, boolean wasAddedToAccount) {
+		super(account);
+		this.document = null;
+		this.documentNames = Collections.unmodifiableList(documentNames);
 		this.account = account;
 		this.wasAddedToAccount = wasAddedToAccount;
 	}
@@ -53,6 +84,10 @@ public class AccountDocumentEvent extends ApplicationEvent {
 		return document;
 	}
 
+	public List<String> getDocumentNames() {
+		return documentNames;
+	}
+
 	public Account getAccount() {
 		return account;
 	}
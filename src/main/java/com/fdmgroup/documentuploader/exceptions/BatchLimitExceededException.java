@@ -0,0 +1,41 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+/**
+ * Exception thrown when a batch lookup names more ids, or more content, than a
+ * single request may.
+ *
+ * @author Noah Anderson
+ */
+public class BatchLimitExceededException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 2750114187315560932L;
+
+	/**
+	 * Instantiates a new {@code BatchLimitExceededException} for a lookup of the
+	 * type of {@code clazz}.
+	 *
+	 * @param clazz     the class type of the entities looked up
+	 * @param requested the number of distinct ids requested
+	 * @param maxIds    the maximum number of ids accepted
+	 */
+	public BatchLimitExceededException(Class<?> clazz, int requested, int maxIds) {
+		super("Cannot look up " + requested + " " + clazz.getSimpleName() + " ids at once, at most " + maxIds
+				+ " are accepted");
+	}
+
+	/**
+	 * Instantiates a new {@code BatchLimitExceededException} for a lookup of the
+	 * type of {@code clazz} whose content is too large to return at once.
+	 *
+	 * @param clazz          the class type of the entities looked up
+	 * @param requestedBytes the total size of the content requested
+	 * @param maxBytes       the maximum total size accepted
+	 */
+	public BatchLimitExceededException(Class<?> clazz, long requestedBytes, long maxBytes) {
+		super("Cannot look up " + clazz.getSimpleName() + " content of " + requestedBytes
+				+ " bytes at once, at most " + maxBytes + " bytes are accepted");
+	}
+}
@@ -0,0 +1,25 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+/**
+ * Exception thrown when an export could not be started because the maximum
+ * number of exports are already streaming.
+ *
+ * @author Noah Anderson
+ */
+public class ExportLimitExceededException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 6093317742518290845L;
+
+	/**
+	 * Instantiates a new {@code ExportLimitExceededException} with the given
+	 * {@code maxConcurrentExports}.
+	 * 
+	 * @param maxConcurrentExports the number of exports which may stream at once
+	 */
+	public ExportLimitExceededException(int maxConcurrentExports) {
+		super("The maximum of " + maxConcurrentExports + " concurrent exports has been reached");
+	}
+}
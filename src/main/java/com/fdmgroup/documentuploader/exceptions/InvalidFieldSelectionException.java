@@ -0,0 +1,32 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+import java.util.Collection;
+
+/**
+ * Exception thrown when a request selects a field or expands an association
+ * which the requested entity does not have or does not expose.
+ *
+ * @author Noah Anderson
+ */
+public class InvalidFieldSelectionException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 6417301858244412716L;
+
+	/**
+	 * Instantiates a new {@code InvalidFieldSelectionException} for the type of
+	 * {@code clazz}.
+	 *
+	 * @param clazz     the class type of the requested entity
+	 * @param parameter the query parameter which named the {@code unknown} names
+	 * @param unknown   the names which are not supported
+	 * @param supported the names which are supported
+	 */
+	public InvalidFieldSelectionException(Class<?> clazz, String parameter, Collection<String> unknown,
+			Collection<String> supported) {
+		super("The " + clazz.getSimpleName() + " does not support " + parameter + " " + unknown
+				+ ", supported values are " + supported);
+	}
+}
@@ -0,0 +1,26 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+/**
+ * Exception thrown when a password could not be hashed or verified because the
+ * password hashing pool is saturated.
+ *
+ * @author Noah Anderson
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 4127016559431927708L;
+
+	/**
+	 * Instantiates a new {@code PasswordHashingUnavailableException} with the
+	 * given {@code reason}.
+	 * 
+	 * @param reason why the password could not be processed
+	 * @param cause  the underlying exception, if any
+	 */
+	public PasswordHashingUnavailableException(String reason, Throwable cause) {
+		super("Password hashing is currently unavailable: " + reason, cause);
+	}
+}
@@ -0,0 +1,38 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+/**
+ * Exception thrown when a client has exceeded the number of requests it may
+ * make within a period of time.
+ *
+ * @author Noah Anderson
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = -2093349573187720114L;
+
+	/**
+	 * The number of seconds the client should wait before retrying.
+	 */
+	private final long retryAfterSeconds;
+
+	/**
+	 * Instantiates a new {@code RateLimitExceededException} for the given
+	 * {@code limit} which will permit another request after
+	 * {@code retryAfterSeconds}.
+	 *
+	 * @param limit             the name of the limit which was exceeded
+	 * @param retryAfterSeconds the number of seconds the client should wait
+	 *                          before retrying
+	 */
+	public RateLimitExceededException(String limit, long retryAfterSeconds) {
+		super("Too many requests for " + limit + ", retry after " + retryAfterSeconds + " seconds");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
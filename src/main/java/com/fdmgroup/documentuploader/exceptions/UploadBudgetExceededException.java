@@ -0,0 +1,42 @@
+package com.fdmgroup.documentuploader.exceptions;
+
+/**
+ * Exception thrown when an upload could not be given the memory it needs from
+ * the budget of upload bytes in flight, either because the budget stayed
+ * exhausted for too long or because the upload is larger than its share of
+ * the budget.
+ *
+ * @author Noah Anderson
+ */
+public class UploadBudgetExceededException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 6018245129880432417L;
+
+	/**
+	 * {@code true} if the upload is larger than its whole share of the budget,
+	 * so retrying it can never succeed.
+	 */
+	private final boolean exceedsShare;
+
+	/**
+	 * Instantiates a new {@code UploadBudgetExceededException} for an upload of
+	 * the given number of {@code bytes}.
+	 *
+	 * @param bytes        the number of bytes of the upload, or read so far if
+	 *                     its length is unknown
+	 * @param exceedsShare {@code true} if the upload is larger than its share of
+	 *                     the budget
+	 */
+	public UploadBudgetExceededException(long bytes, boolean exceedsShare) {
+		super(exceedsShare ? "Upload of " + bytes + " bytes exceeds the upload budget"
+				: "Too many upload bytes in flight to accept " + bytes + " more bytes, retry later");
+		this.exceedsShare = exceedsShare;
+	}
+
+	public boolean isExceedsShare() {
+		return exceedsShare;
+	}
+}
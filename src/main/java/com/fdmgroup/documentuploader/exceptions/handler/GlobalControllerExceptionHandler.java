@@ -3,8 +3,15 @@ package com.fdmgroup.documentuploader.exceptions.handler;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
+import com.fdmgroup.documentuploader.exceptions.ExportLimitExceededException;
+import com.fdmgroup.documentuploader.exceptions.InvalidFieldSelectionException;
 import com.fdmgroup.documentuploader.exceptions.InvalidTokenException;
+import com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException;
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import com.fdmgroup.documentuploader.exceptions.UploadBudgetExceededException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -49,17 +56,21 @@ public class GlobalControllerExceptionHandler {
 
 	/**
 	 * Custom exception handler for all thrown custom
-	 * {@link EntityNotFoundException}, {@link EntityCouldNotBeSavedException} and
-	 * {@link InvalidTokenException} objects.
+	 * {@link EntityNotFoundException}, {@link EntityCouldNotBeSavedException},
+	 * {@link InvalidTokenException}, {@link InvalidFieldSelectionException} and
+	 * {@link BatchLimitExceededException} objects.
 	 * 
 	 * @param e the thrown exception
 	 * @return {@link ResponseEntity} encapsulating the response object
 	 */
 	@ExceptionHandler(value = { EntityNotFoundException.class, EntityCouldNotBeSavedException.class,
-			InvalidTokenException.class })
+			InvalidTokenException.class, InvalidFieldSelectionException.class,
+			BatchLimitExceededException.class })
 	public ResponseEntity<Object> handleCustomExceptions(Exception e) {
 		String message = e.getMessage();
-		if (e instanceof EntityCouldNotBeSavedException || e instanceof InvalidTokenException) {
+		if (e instanceof EntityCouldNotBeSavedException || e instanceof InvalidTokenException
+				|| e instanceof InvalidFieldSelectionException
+				|| e instanceof BatchLimitExceededException) {
 			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(message);
 		}
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(message);
@@ -76,4 +87,53 @@ public class GlobalControllerExceptionHandler {
 	public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException e) {
 		return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(e.getMessage());
 	}
+
+	/**
+	 * Custom exception handler for all thrown custom
+	 * {@link RateLimitExceededException} objects.
+	 * 
+	 * @param e the thrown exception
+	 * @return {@link ResponseEntity} with a {@code Retry-After} header
+	 *         encapsulating the response object
+	 */
+	@ExceptionHandler(value = { RateLimitExceededException.class })
+	public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException e) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+				.contentType(MediaType.APPLICATION_JSON).body(e.getMessage());
+	}
+
+	/**
+	 * Custom exception handler for all thrown custom
+	 * {@link PasswordHashingUnavailableException} and
+	 * {@link ExportLimitExceededException} objects.
+	 * 
+	 * @param e the thrown exception
+	 * @return {@link ResponseEntity} with a {@code Retry-After} header
+	 *         encapsulating the response object
+	 */
+	@ExceptionHandler(value = { PasswordHashingUnavailableException.class, ExportLimitExceededException.class })
+	public ResponseEntity<Object> handleUnavailableExceptions(RuntimeException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.contentType(MediaType.APPLICATION_JSON).body(e.getMessage());
+	}
+
+	/**
+	 * Custom exception handler for all thrown custom
+	 * {@link UploadBudgetExceededException} objects.
+	 * 
+	 * @param e the thrown exception
+	 * @return {@link ResponseEntity} encapsulating the response object, with a
+	 *         {@code Retry-After} header unless the upload can never fit the
+	 *         budget
+	 */
+	@ExceptionHandler(value = { UploadBudgetExceededException.class })
+	public ResponseEntity<Object> handleUploadBudgetExceededException(UploadBudgetExceededException e) {
+		if (e.isExceedsShare()) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).contentType(MediaType.APPLICATION_JSON)
+					.body(e.getMessage());
+		}
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.contentType(MediaType.APPLICATION_JSON).body(e.getMessage());
+	}
 }
@@ -0,0 +1,173 @@
+package com.fdmgroup.documentuploader.filter;
+
+import com.fdmgroup.documentuploader.config.AccountLimitProperties;
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.service.ratelimit.AccountRequestLimiter;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Filter which enforces the request rate and concurrency limits of the
+ * {@link ServiceLevel} of the account a request is made on behalf of, so a
+ * single busy account cannot exhaust the threads and database connections
+ * shared with every other account.
+ * </p>
+ * <p>
+ * Requests are attributed to an account when they are made to the accounts
+ * routes and identify the account by an {@code id} path segment, or by an
+ * {@code id} request parameter on the accounts route itself. Other requests,
+ * and requests for accounts which do not exist, are not limited. Rejected
+ * requests are answered with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header, and counted in {@value #REJECTED_METRIC}.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class AccountLimitFilter extends OncePerRequestFilter {
+
+	static final String REJECTED_METRIC = "account.limit.rejected";
+
+	private static final String ACCOUNT_ID = "id";
+	private static final String RATE = "rate";
+	private static final String CONCURRENCY = "concurrency";
+
+	private final ServiceLevelResolver serviceLevelResolver;
+	private final AccountLimitProperties accountLimitProperties;
+	private final AccountRequestLimiter limiter;
+	private final MeterRegistry meterRegistry;
+	private final String accountsUri;
+
+	public AccountLimitFilter(ServiceLevelResolver serviceLevelResolver,
+			AccountLimitProperties accountLimitProperties, AccountRequestLimiter limiter, MeterRegistry meterRegistry,
+			String accountsUri) {
+		super();
+		this.serviceLevelResolver = serviceLevelResolver;
+		this.accountLimitProperties = accountLimitProperties;
+		this.limiter = limiter;
+		this.meterRegistry = meterRegistry;
+		this.accountsUri = accountsUri;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Long accountId = accountIdOf(request);
+		Optional<ServiceLevel> serviceLevel = accountId == null ? Optional.empty()
+				: serviceLevelResolver.resolve(accountId);
+		AccountLimitProperties.Limit limit = serviceLevel.map(accountLimitProperties::getLimit).orElse(null);
+		if (limit == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long result = limiter.tryAcquire(accountId, limit.getCapacity(), limit.getRefillPeriod(),
+				limit.getMaxConcurrentRequests());
+		if (result == AccountRequestLimiter.CONCURRENCY_EXCEEDED) {
+			reject(response, serviceLevel.get(), CONCURRENCY, 1L);
+			return;
+		}
+		if (result > 0) {
+			reject(response, serviceLevel.get(), RATE, TimeUnit.NANOSECONDS.toSeconds(result - 1) + 1);
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (result == AccountRequestLimiter.ACQUIRED) {
+				releaseOnCompletion(request, accountId);
+			}
+		}
+	}
+
+	/**
+	 * Releases the concurrency slot of the account once the given request
+	 * completes, which for an asynchronous request, such as a streamed export, is
+	 * only once its response has been written.
+	 */
+	private void releaseOnCompletion(HttpServletRequest request, long accountId) {
+		if (!request.isAsyncStarted()) {
+			limiter.release(accountId);
+			return;
+		}
+		request.getAsyncContext().addListener(new AsyncListener() {
+
+			@Override
+			public void onComplete(AsyncEvent event) {
+				limiter.release(accountId);
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+		});
+	}
+
+	private void reject(HttpServletResponse response, ServiceLevel serviceLevel, String reason,
+			long retryAfterSeconds) throws IOException {
+		Counter.builder(REJECTED_METRIC).description("Requests rejected by the limits of their account")
+				.tag("serviceLevel", serviceLevel.name()).tag("reason", reason).register(meterRegistry).increment();
+
+		RateLimitExceededException e = new RateLimitExceededException("account " + reason, retryAfterSeconds);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.getWriter().write(e.getMessage());
+	}
+
+	/**
+	 * Gets the id of the account the given request is made on behalf of.
+	 *
+	 * @return the id of the account, or {@code null} if the request is not made
+	 *         on behalf of an account
+	 */
+	private Long accountIdOf(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (path.equals(accountsUri)) {
+			return parseId(request.getParameter(ACCOUNT_ID));
+		}
+		if (!path.startsWith(accountsUri + "/")) {
+			return null;
+		}
+		String rest = path.substring(accountsUri.length() + 1);
+		int end = rest.indexOf('/');
+		return parseId(end < 0 ? rest : rest.substring(0, end));
+	}
+
+	private static Long parseId(String id) {
+		if (id == null) {
+			return null;
+		}
+		try {
+			return Long.valueOf(id);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.fdmgroup.documentuploader.filter;
+
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter;
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter.Outcome;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * <p>
+ * Filter which admits requests to the routes which upload documents through
+ * an {@link AdaptiveConcurrencyLimiter}. Once the limit is reached, further
+ * uploads are shed with {@code 503 Service Unavailable} before their body is
+ * read, so the uploads in flight keep the heap and database connections they
+ * need, and reads are never held back.
+ * </p>
+ * <p>
+ * Uploads answered with a server error count as dropped, lowering the limit.
+ * Those answered with a client error did no work worth measuring and do not
+ * inform the limit.
+ * </p>
+ * <p>
+ * The latency sampled excludes the time spent reading the body of the upload,
+ * whether through its input stream or by the container parsing its parts.
+ * That time grows with the size of the upload and the speed of the client
+ * rather than with the load on the server, so a mix of small and large
+ * uploads would otherwise read as queueing and collapse the limit.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+	static final String RETRY_AFTER_SECONDS = "1";
+
+	private static final String MESSAGE = "Too many uploads in progress, retry after " + RETRY_AFTER_SECONDS
+			+ " seconds";
+
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final RouteMatcher limitedRoutes;
+
+	/**
+	 * @param limiter       the limiter uploads are admitted through
+	 * @param limitedRoutes the routes which upload documents
+	 */
+	public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, RouteMatcher limitedRoutes) {
+		super();
+		this.limiter = limiter;
+		this.limitedRoutes = limitedRoutes;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !limitedRoutes.matches(request);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!limiter.tryAcquire()) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+			response.getWriter().write(MESSAGE);
+			return;
+		}
+
+		TimedRequest timedRequest = new TimedRequest(request);
+		long start = System.nanoTime();
+		Outcome outcome = Outcome.DROPPED;
+		try {
+			filterChain.doFilter(timedRequest, response);
+			outcome = outcomeOf(response.getStatus());
+		} finally {
+			limiter.release(System.nanoTime() - start - timedRequest.readNanos, outcome);
+		}
+	}
+
+	private static Outcome outcomeOf(int status) {
+		if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+			return Outcome.DROPPED;
+		}
+		return status >= HttpStatus.BAD_REQUEST.value() ? Outcome.IGNORED : Outcome.SUCCESS;
+	}
+
+	/**
+	 * Static inner class of {@link LoadSheddingFilter} which wraps an upload,
+	 * measuring the time spent reading its body.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static class TimedRequest extends HttpServletRequestWrapper {
+
+		private ServletInputStream inputStream;
+		private long readNanos;
+
+		TimedRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (inputStream == null) {
+				inputStream = new TimedInputStream(super.getInputStream());
+			}
+			return inputStream;
+		}
+
+		@Override
+		public Collection<Part> getParts() throws IOException, ServletException {
+			long start = System.nanoTime();
+			try {
+				return super.getParts();
+			} finally {
+				readNanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public Part getPart(String name) throws IOException, ServletException {
+			long start = System.nanoTime();
+			try {
+				return super.getPart(name);
+			} finally {
+				readNanos += System.nanoTime() - start;
+			}
+		}
+
+		/**
+		 * Inner class of {@link TimedRequest} which adds the time spent in reads
+		 * of the wrapped stream to the time spent reading the body.
+		 *
+		 * @author Noah Anderson
+		 */
+		private class TimedInputStream extends ServletInputStream {
+
+			private final ServletInputStream delegate;
+
+			TimedInputStream(ServletInputStream delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public int read() throws IOException {
+				long start = System.nanoTime();
+				try {
+					return delegate.read();
+				} finally {
+					readNanos += System.nanoTime() - start;
+				}
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				long start = System.nanoTime();
+				try {
+					return delegate.read(b, off, len);
+				} finally {
+					readNanos += System.nanoTime() - start;
+				}
+			}
+
+			@Override
+			public boolean isFinished() {
+				return delegate.isFinished();
+			}
+
+			@Override
+			public boolean isReady() {
+				return delegate.isReady();
+			}
+
+			@Override
+			public void setReadListener(ReadListener readListener) {
+				delegate.setReadListener(readListener);
+			}
+		}
+	}
+}
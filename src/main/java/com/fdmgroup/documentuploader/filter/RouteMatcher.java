@@ -0,0 +1,54 @@
+package com.fdmgroup.documentuploader.filter;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches requests against a set of routes, each given as a method and an Ant
+ * style path pattern, so a filter can apply to some routes only.
+ *
+ * @author Noah Anderson
+ */
+public class RouteMatcher {
+
+	private final Map<HttpMethod, List<String>> routes = new EnumMap<>(HttpMethod.class);
+	private final PathMatcher pathMatcher = new AntPathMatcher();
+
+	/**
+	 * Adds routes with the given {@code method} and path {@code patterns}.
+	 *
+	 * @param method   the method of the routes
+	 * @param patterns the path patterns of the routes
+	 * @return this {@code RouteMatcher}
+	 */
+	public RouteMatcher add(HttpMethod method, String... patterns) {
+		routes.computeIfAbsent(method, key -> new ArrayList<>()).addAll(Arrays.asList(patterns));
+		return this;
+	}
+
+	/**
+	 * Checks if the given {@code request} was made to one of the routes.
+	 *
+	 * @param request the request
+	 * @return {@code true} if the request matches a route. Otherwise, returns
+	 *         {@code false}.
+	 */
+	public boolean matches(HttpServletRequest request) {
+		HttpMethod method = HttpMethod.resolve(request.getMethod());
+		if (method == null) {
+			return false;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return routes.getOrDefault(method, Collections.emptyList()).stream()
+				.anyMatch(pattern -> pathMatcher.match(pattern, path));
+	}
+}
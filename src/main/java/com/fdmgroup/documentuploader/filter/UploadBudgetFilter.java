@@ -0,0 +1,281 @@
+package com.fdmgroup.documentuploader.filter;
+
+import com.fdmgroup.documentuploader.exceptions.UploadBudgetExceededException;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * <p>
+ * Filter which reserves the bytes of every upload from the
+ * {@link UploadByteBudget} before its body is read, and releases them once the
+ * upload completes, so the memory held by uploads stays bounded however large
+ * or numerous they are.
+ * </p>
+ * <p>
+ * Uploads with a {@code Content-Length} reserve all of it up front. Uploads
+ * streamed without one reserve their bytes incrementally as the body is read,
+ * {@value #STREAMED_CHUNK_SIZE} bytes at a time. Multipart uploads are parsed
+ * by the container rather than read through the request, so those without a
+ * {@code Content-Length} reserve the maximum size of a multipart request.
+ * Archive imports are not routed through this filter, as their body is
+ * streamed; the entries they buffer are reserved by the import itself.
+ * </p>
+ * <p>
+ * An upload which waited the configured time without its bytes becoming
+ * available is answered with {@code 503 Service Unavailable} and a
+ * {@code Retry-After} header, and one larger than the share of the budget of
+ * its service level with {@code 413 Payload Too Large}. Both are counted in
+ * {@value #REJECTED_METRIC}.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class UploadBudgetFilter extends OncePerRequestFilter {
+
+	static final String REJECTED_METRIC = "upload.budget.rejected";
+	static final int STREAMED_CHUNK_SIZE = 64 * 1024;
+
+	private static final String UNATTRIBUTED = "NONE";
+
+	private final UploadByteBudget budget;
+	private final Duration maxWait;
+	private final long maxMultipartRequestSize;
+	private final RouteMatcher uploadRoutes;
+	private final ServiceLevelResolver serviceLevelResolver;
+	private final MeterRegistry meterRegistry;
+	private final String accountsUri;
+
+	/**
+	 * @param budget                  the budget the bytes of uploads are reserved
+	 *                                from
+	 * @param maxWait                 how long an upload waits for its bytes at
+	 *                                most
+	 * @param maxMultipartRequestSize the maximum size of a multipart request
+	 * @param uploadRoutes            the routes which upload documents
+	 * @param serviceLevelResolver    resolves the service level of the account
+	 *                                an upload is made to
+	 * @param meterRegistry           the registry rejections are counted in
+	 * @param accountsUri             the uri of the accounts routes
+	 */
+	public UploadBudgetFilter(UploadByteBudget budget, Duration maxWait, long maxMultipartRequestSize,
+			RouteMatcher uploadRoutes, ServiceLevelResolver serviceLevelResolver, MeterRegistry meterRegistry,
+			String accountsUri) {
+		super();
+		this.budget = budget;
+		this.maxWait = maxWait;
+		this.maxMultipartRequestSize = maxMultipartRequestSize;
+		this.uploadRoutes = uploadRoutes;
+		this.serviceLevelResolver = serviceLevelResolver;
+		this.meterRegistry = meterRegistry;
+		this.accountsUri = accountsUri;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !uploadRoutes.matches(request);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		ServiceLevel serviceLevel = serviceLevelOf(request);
+		long bytes = request.getContentLengthLong();
+		if (bytes < 0 && !isMultipart(request)) {
+			BudgetedRequest budgetedRequest = new BudgetedRequest(request, serviceLevel);
+			try {
+				filterChain.doFilter(budgetedRequest, response);
+			} finally {
+				budgetedRequest.release();
+			}
+			return;
+		}
+
+		if (bytes < 0) {
+			bytes = maxMultipartRequestSize;
+		}
+		try {
+			reserve(serviceLevel, bytes, bytes);
+		} catch (UploadBudgetExceededException e) {
+			reject(response, e);
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			budget.release(serviceLevel, bytes);
+		}
+	}
+
+	/**
+	 * Reserves the given number of {@code bytes} from the budget for an upload
+	 * which needs {@code total} bytes including those.
+	 *
+	 * @throws UploadBudgetExceededException if the bytes could not be reserved
+	 */
+	private void reserve(ServiceLevel serviceLevel, long bytes, long total) {
+		boolean exceedsShare = !budget.fits(serviceLevel, total);
+		try {
+			if (!exceedsShare && budget.tryReserve(serviceLevel, bytes, maxWait)) {
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Counter.builder(REJECTED_METRIC).description("Uploads rejected because the upload budget was exceeded")
+				.tag("serviceLevel", serviceLevel == null ? UNATTRIBUTED : serviceLevel.name())
+				.tag("reason", exceedsShare ? "too-large" : "exhausted").register(meterRegistry).increment();
+		throw new UploadBudgetExceededException(total, exceedsShare);
+	}
+
+	private static void reject(HttpServletResponse response, UploadBudgetExceededException e) throws IOException {
+		if (e.isExceedsShare()) {
+			response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+		} else {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+		}
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.getWriter().write(e.getMessage());
+	}
+
+	private static boolean isMultipart(HttpServletRequest request) {
+		String contentType = request.getContentType();
+		return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+	}
+
+	/**
+	 * Gets the service level of the account the given upload is made to.
+	 *
+	 * @return the service level, or {@code null} if the upload is not made to an
+	 *         existing account
+	 */
+	private ServiceLevel serviceLevelOf(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (!path.startsWith(accountsUri + "/")) {
+			return null;
+		}
+		String rest = path.substring(accountsUri.length() + 1);
+		int end = rest.indexOf('/');
+		try {
+			long accountId = Long.parseLong(end < 0 ? rest : rest.substring(0, end));
+			return serviceLevelResolver.resolve(accountId).orElse(null);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Inner class of {@link UploadBudgetFilter} which wraps an upload without a
+	 * {@code Content-Length}, reserving the bytes of its body from the budget
+	 * before they are read.
+	 *
+	 * @author Noah Anderson
+	 */
+	private class BudgetedRequest extends HttpServletRequestWrapper {
+
+		private final ServiceLevel serviceLevel;
+		private ServletInputStream inputStream;
+		private long reserved;
+		private long read;
+
+		BudgetedRequest(HttpServletRequest request, ServiceLevel serviceLevel) {
+			super(request);
+			this.serviceLevel = serviceLevel;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (inputStream == null) {
+				inputStream = new BudgetedInputStream(super.getInputStream());
+			}
+			return inputStream;
+		}
+
+		/**
+		 * Ensures at least {@code length} more bytes than read so far are reserved,
+		 * reserving another chunk if not.
+		 */
+		private void ensureReserved(int length) {
+			while (read + length > reserved) {
+				reserve(serviceLevel, STREAMED_CHUNK_SIZE, reserved + STREAMED_CHUNK_SIZE);
+				reserved += STREAMED_CHUNK_SIZE;
+			}
+		}
+
+		private void release() {
+			if (reserved > 0) {
+				budget.release(serviceLevel, reserved);
+				reserved = 0;
+			}
+		}
+
+		/**
+		 * Inner class of {@link BudgetedRequest} which reserves bytes before reading
+		 * them from the wrapped stream.
+		 *
+		 * @author Noah Anderson
+		 */
+		private class BudgetedInputStream extends ServletInputStream {
+
+			private final ServletInputStream delegate;
+
+			BudgetedInputStream(ServletInputStream delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public int read() throws IOException {
+				ensureReserved(1);
+				int b = delegate.read();
+				if (b >= 0) {
+					read++;
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				ensureReserved(Math.min(len, STREAMED_CHUNK_SIZE));
+				int count = delegate.read(b, off, (int) Math.min(len, reserved - read));
+				if (count > 0) {
+					read += count;
+				}
+				return count;
+			}
+
+			@Override
+			public boolean isFinished() {
+				return delegate.isFinished();
+			}
+
+			@Override
+			public boolean isReady() {
+				return delegate.isReady();
+			}
+
+			@Override
+			public void setReadListener(ReadListener readListener) {
+				delegate.setReadListener(readListener);
+			}
+		}
+	}
+}
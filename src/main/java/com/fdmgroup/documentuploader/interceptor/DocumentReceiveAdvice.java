@@ -0,0 +1,95 @@
+package com.fdmgroup.documentuploader.interceptor;
+
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.UploadPhase;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Advice which records the {@link UploadPhase#RECEIVE receive} phase of a
+ * document upload, the reading and deserializing of a {@link Document}
+ * request body, as a {@link DocumentUploadEvent}.
+ *
+ * @author Noah Anderson
+ */
+@ControllerAdvice
+public class DocumentReceiveAdvice extends RequestBodyAdviceAdapter {
+
+	static final String EVENT_ATTRIBUTE = DocumentReceiveAdvice.class.getName() + ".event";
+
+	private static final String ACCOUNT_ID = "id";
+
+	private final ServiceLevelResolver serviceLevelResolver;
+
+	@Autowired
+	public DocumentReceiveAdvice(ServiceLevelResolver serviceLevelResolver) {
+		super();
+		this.serviceLevelResolver = serviceLevelResolver;
+	}
+
+	@Override
+	public boolean supports(MethodParameter methodParameter, Type targetType,
+			Class<? extends HttpMessageConverter<?>> converterType) {
+		return Document.class.equals(targetType);
+	}
+
+	@Override
+	public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+			Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		long bytes = Math.max(0L, inputMessage.getHeaders().getContentLength());
+		DocumentUploadEvent event = DocumentUploadEvent.start(UploadPhase.RECEIVE, accountIdOf(), bytes);
+		RequestContextHolder.currentRequestAttributes().setAttribute(EVENT_ATTRIBUTE, event,
+				RequestAttributes.SCOPE_REQUEST);
+		return inputMessage;
+	}
+
+	@Override
+	public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+			Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+		DocumentUploadEvent event = (DocumentUploadEvent) attributes.getAttribute(EVENT_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if (event != null) {
+			attributes.removeAttribute(EVENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			long accountId = accountIdOf();
+			ServiceLevel serviceLevel = accountId == 0L || !event.isEnabled() ? null
+					: serviceLevelResolver.resolve(accountId).orElse(null);
+			event.finish(serviceLevel);
+		}
+		return body;
+	}
+
+	/**
+	 * Gets the id of the account a document is being uploaded to from the
+	 * {@code id} path variable of the current request.
+	 *
+	 * @return the id of the account, or {@code 0} if the request has none
+	 */
+	@SuppressWarnings("unchecked")
+	private static long accountIdOf() {
+		Map<String, String> variables = (Map<String, String>) RequestContextHolder.currentRequestAttributes()
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		String id = variables == null ? null : variables.get(ACCOUNT_ID);
+		if (id == null) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(id);
+		} catch (NumberFormatException e) {
+			return 0L;
+		}
+	}
+}
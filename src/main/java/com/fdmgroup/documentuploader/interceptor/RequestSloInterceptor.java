@@ -0,0 +1,80 @@
+package com.fdmgroup.documentuploader.interceptor;
+
+import com.fdmgroup.documentuploader.service.slo.AbstractRequestSloService;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * <p>
+ * Interceptor which times every controller call and hands it to the
+ * {@link AbstractRequestSloService}, tagged with the route template which
+ * handled it and the account it was made on behalf of.
+ * </p>
+ * <p>
+ * Requests are attributed to an account when they are made to the accounts
+ * routes and identify the account by an {@code id} path variable or request
+ * parameter. Other requests are recorded as unattributed.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class RequestSloInterceptor implements HandlerInterceptor {
+
+	static final String START_ATTRIBUTE = RequestSloInterceptor.class.getName() + ".start";
+
+	private static final String UNKNOWN_ROUTE = "UNKNOWN";
+	private static final String ACCOUNT_ID = "id";
+
+	private final AbstractRequestSloService requestSloService;
+	private final String accountsUri;
+
+	public RequestSloInterceptor(AbstractRequestSloService requestSloService, String accountsUri) {
+		super();
+		this.requestSloService = requestSloService;
+		this.accountsUri = accountsUri;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object start = request.getAttribute(START_ATTRIBUTE);
+		if (!(start instanceof Long)) {
+			return;
+		}
+		long durationNanos = System.nanoTime() - (Long) start;
+
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String route = pattern == null ? UNKNOWN_ROUTE : pattern.toString();
+		int status = ex != null && response.getStatus() < 500 ? 500 : response.getStatus();
+		requestSloService.record(route, status, accountIdOf(request, route), durationNanos);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Long accountIdOf(HttpServletRequest request, String route) {
+		if (!route.startsWith(accountsUri)) {
+			return null;
+		}
+		Map<String, String> uriVariables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String id = uriVariables != null && uriVariables.containsKey(ACCOUNT_ID) ? uriVariables.get(ACCOUNT_ID)
+				: request.getParameter(ACCOUNT_ID);
+		if (id == null) {
+			return null;
+		}
+		try {
+			return Long.valueOf(id);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.fdmgroup.documentuploader.jfr;
+
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>
+ * Flight Recorder event covering a single {@link UploadPhase} of a document
+ * upload.
+ * </p>
+ * <p>
+ * Events are created through {@link #start(UploadPhase, long, long)} and
+ * committed through {@link #finish(ServiceLevel)}. When no recording has the
+ * event enabled, neither method does more than a field check.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Name("com.fdmgroup.documentuploader.DocumentUpload")
+@Label("Document Upload Phase")
+@Category({ "Document Uploader", "Uploads" })
+@Description("A single phase of a document upload")
+@StackTrace(false)
+public class DocumentUploadEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Account Id")
+	@Description("The account the document is uploaded to, 0 if it is not uploaded to an account")
+	long accountId;
+
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+
+	@Label("Service Level")
+	String serviceLevel;
+
+	/**
+	 * Starts timing the given {@code phase} of an upload.
+	 *
+	 * @param phase     the phase being timed
+	 * @param accountId the id of the account the document is uploaded to, or
+	 *                  {@code 0} if there is none
+	 * @param bytes     the size of the document's content
+	 * @return the started event
+	 */
+	public static DocumentUploadEvent start(UploadPhase phase, long accountId, long bytes) {
+		DocumentUploadEvent event = new DocumentUploadEvent();
+		if (event.isEnabled()) {
+			event.phase = phase.name();
+			event.accountId = accountId;
+			event.bytes = bytes;
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Stops timing the phase and commits the event if it lasted longer than the
+	 * threshold of the recordings it is enabled in.
+	 *
+	 * @param serviceLevel the service level of the account, or {@code null} if it
+	 *                     is not known
+	 */
+	public void finish(ServiceLevel serviceLevel) {
+		end();
+		if (shouldCommit()) {
+			this.serviceLevel = serviceLevel == null ? null : serviceLevel.name();
+			commit();
+		}
+	}
+}
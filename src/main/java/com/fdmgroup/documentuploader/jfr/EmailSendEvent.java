@@ -0,0 +1,67 @@
+package com.fdmgroup.documentuploader.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the hand off of a single email to the mail
+ * server. Only the domain of the recipient is recorded.
+ *
+ * @author Noah Anderson
+ */
+@Name("com.fdmgroup.documentuploader.EmailSend")
+@Label("Email Send")
+@Category({ "Document Uploader", "Notifications" })
+@Description("An email handed to the mail server")
+@StackTrace(false)
+public class EmailSendEvent extends Event {
+
+	@Label("Recipient Domain")
+	String recipientDomain;
+
+	@Label("Bytes")
+	@Description("The length of the subject and body")
+	@DataAmount
+	long bytes;
+
+	@Label("Succeeded")
+	boolean succeeded;
+
+	/**
+	 * Starts timing an email send.
+	 *
+	 * @param to      the recipient of the email
+	 * @param subject the subject of the email
+	 * @param message the body of the email
+	 * @return the started event
+	 */
+	public static EmailSendEvent start(String to, String subject, String message) {
+		EmailSendEvent event = new EmailSendEvent();
+		if (event.isEnabled()) {
+			int at = to == null ? -1 : to.lastIndexOf('@');
+			event.recipientDomain = at < 0 ? null : to.substring(at + 1);
+			event.bytes = (subject == null ? 0 : subject.length()) + (message == null ? 0 : message.length());
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Stops timing the send and commits the event if it lasted longer than the
+	 * threshold of the recordings it is enabled in.
+	 *
+	 * @param succeeded {@code true} if the mail server accepted the email
+	 */
+	public void finish(boolean succeeded) {
+		end();
+		if (shouldCommit()) {
+			this.succeeded = succeeded;
+			commit();
+		}
+	}
+}
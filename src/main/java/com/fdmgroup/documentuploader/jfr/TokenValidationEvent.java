@@ -0,0 +1,65 @@
+package com.fdmgroup.documentuploader.jfr;
+
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the verification of a single confirmation or
+ * password reset token, whether signed or stored.
+ *
+ * @author Noah Anderson
+ */
+@Name("com.fdmgroup.documentuploader.TokenValidation")
+@Label("Token Validation")
+@Category({ "Document Uploader", "Tokens" })
+@Description("The verification of a confirmation or password reset token")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+	@Label("Purpose")
+	String purpose;
+
+	@Label("Valid")
+	boolean valid;
+
+	@Label("User Id")
+	@Description("The user the token was issued to, 0 if it is not valid")
+	long userId;
+
+	/**
+	 * Starts timing a token verification.
+	 *
+	 * @param purpose the purpose the token is verified for
+	 * @return the started event
+	 */
+	public static TokenValidationEvent start(TokenPurpose purpose) {
+		TokenValidationEvent event = new TokenValidationEvent();
+		if (event.isEnabled()) {
+			event.purpose = purpose.name();
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Stops timing the verification and commits the event if it lasted longer
+	 * than the threshold of the recordings it is enabled in.
+	 *
+	 * @param valid  {@code true} if the token was valid
+	 * @param userId the user the token was issued to, or {@code 0} if it is not
+	 *               valid
+	 */
+	public void finish(boolean valid, long userId) {
+		end();
+		if (shouldCommit()) {
+			this.valid = valid;
+			this.userId = userId;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.fdmgroup.documentuploader.jfr;
+
+/**
+ * The phases a document goes through when it is uploaded, each recorded as a
+ * {@link DocumentUploadEvent}.
+ *
+ * @author Noah Anderson
+ */
+public enum UploadPhase {
+
+	/**
+	 * Reading and deserializing the request body.
+	 */
+	RECEIVE,
+
+	/**
+	 * Loading the account and checking the document is not already on it.
+	 */
+	VALIDATE,
+
+	/**
+	 * Saving the document.
+	 */
+	PERSIST,
+
+	/**
+	 * Saving the account with the document added to it.
+	 */
+	ATTACH,
+
+	/**
+	 * Publishing the event which notifies the users of the account.
+	 */
+	PUBLISH
+}
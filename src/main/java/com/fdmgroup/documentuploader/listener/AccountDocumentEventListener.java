@@ -30,6 +30,18 @@ public class AccountDocumentEventListener implements ApplicationListener<Account
 	private static final String A_FILE_NAMED = "A file named ";
 	private static final String HAS_BEEN_ADDED = " has been added to the account named ";
 	private static final String HAS_BEEN_REMOVED = " has been removed from the account named ";
+	private static final String FILES_ADDED_SUBJECT = "Files Have Been Added To One Of Your Accounts";
+	private static final String FILES_REMOVED_SUBJECT = "Files Have Been Removed From One Of Your Accounts";
+	private static final String FILES_NAMED = " files named ";
+	private static final String HAVE_BEEN_ADDED = " have been added to the account named ";
+	private static final String HAVE_BEEN_REMOVED = " have been removed from the account named ";
+	private static final String AND = " and ";
+	private static final String MORE = " more";
+
+	/**
+	 * The most file names listed in an email about several files.
+	 */
+	private static final int MAX_LISTED_NAMES = 20;
 	
 	/**
 	 * Service class which is responsible for all operations relating to emails.
@@ -65,8 +77,15 @@ public class AccountDocumentEventListener implements ApplicationListener<Account
 		Account account = event.getAccount();
 		boolean wasAddedToAccount = event.wasAddedToAccount();
 		
-		String subject = wasAddedToAccount ? FILE_ADDED_SUBJECT : FILE_REMOVED_SUBJECT;
-		String message = createEmailMessage(document, account, wasAddedToAccount);
+		String subject;
+		String message;
+		if (document != null) {
+			subject = wasAddedToAccount ? FILE_ADDED_SUBJECT : FILE_REMOVED_SUBJECT;
+			message = createEmailMessage(document, account, wasAddedToAccount);
+		} else {
+			subject = wasAddedToAccount ? FILES_ADDED_SUBJECT : FILES_REMOVED_SUBJECT;
+			message = createEmailMessage(event.getDocumentNames(), account, wasAddedToAccount);
+		}
 		List<String> userEmails = getEmailsOfUsersOnAccount(account);
 		
 		sendEmailToUsers(userEmails, subject, message);
@@ -114,6 +133,59 @@ public class AccountDocumentEventListener implements ApplicationListener<Account
 		String accountName = account.getName();
 		sb.append(Strings.quote(accountName));
 		
+		appendLoginLink(sb);
+		
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the message of the email to be sent when several documents were
+	 * added to or removed from the given {@link Account} at once. At most
+	 * {@value #MAX_LISTED_NAMES} of the names are listed.
+	 * 
+	 * @param documentNames     the names of the documents which were added to or
+	 *                          removed from the given {@code Account}
+	 * @param account           the {@code Account} being used
+	 * @param wasAddedToAccount should equal {@code true} if the documents were
+	 *                          added to the given {@code account}. Otherwise,
+	 *                          should equal {@code false}
+	 * @return the created message
+	 */
+	private String createEmailMessage(List<String> documentNames, Account account, boolean wasAddedToAccount) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(documentNames.size());
+		sb.append(FILES_NAMED);
+		
+		int listed = Math.min(documentNames.size(), MAX_LISTED_NAMES);
+		sb.append(documentNames.stream()
+				.limit(listed)
+				.map(Strings::quote)
+				.collect(Collectors.joining(", ")));
+		if (listed < documentNames.size()) {
+			sb.append(AND);
+			sb.append(documentNames.size() - listed);
+			sb.append(MORE);
+		}
+		
+		if (wasAddedToAccount) {
+			sb.append(HAVE_BEEN_ADDED);
+		} else {
+			sb.append(HAVE_BEEN_REMOVED);
+		}
+		
+		sb.append(Strings.quote(account.getName()));
+		
+		appendLoginLink(sb);
+		
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the link to the login page of the application to the given message.
+	 * 
+	 * @param sb the message being created
+	 */
+	private void appendLoginLink(StringBuilder sb) {
 		sb.append(Strings.LINE_SEPARATOR);
 
 		String hostUrl = applicationProperties.getHostUrl();
@@ -122,8 +194,6 @@ public class AccountDocumentEventListener implements ApplicationListener<Account
 		sb.append(hostUrl);
 		sb.append("/login");
 		sb.append(" to login to the application and view your account!");
-		
-		return sb.toString();
 	}
 	
 	/**
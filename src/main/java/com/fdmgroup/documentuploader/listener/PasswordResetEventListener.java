@@ -7,11 +7,14 @@ import com.fdmgroup.documentuploader.config.ApplicationProperties;
 import com.fdmgroup.documentuploader.config.ApplicationProperties.MailSettings;
 import com.fdmgroup.documentuploader.events.PasswordResetEvent;
 import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
 import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
 import com.fdmgroup.documentuploader.service.email.AbstractEmailService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
 import org.springframework.stereotype.Component;
 
 /**
@@ -42,12 +45,26 @@ public class PasswordResetEventListener implements ApplicationListener<PasswordR
      */
     private final ApplicationProperties applicationProperties;
 
+    /**
+     * Service which issues signed tokens when they are enabled.
+     */
+    private final AbstractSignedTokenService signedTokenService;
+
+    /**
+     * Mints the values of stored {@link PasswordResetToken} instances.
+     */
+    private final TokenGenerator tokenGenerator;
+
     @Autowired
-    public PasswordResetEventListener(PasswordResetTokenRepository passwordResetTokenRepository, AbstractEmailService emailService, ApplicationProperties applicationProperties) {
+    public PasswordResetEventListener(PasswordResetTokenRepository passwordResetTokenRepository, AbstractEmailService emailService,
+                                      ApplicationProperties applicationProperties, AbstractSignedTokenService signedTokenService,
+                                      TokenGenerator tokenGenerator) {
         super();
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.emailService = emailService;
         this.applicationProperties = applicationProperties;
+        this.signedTokenService = signedTokenService;
+        this.tokenGenerator = tokenGenerator;
     }
 
     @Override
@@ -63,13 +80,15 @@ public class PasswordResetEventListener implements ApplicationListener<PasswordR
      */
     private void sendPasswordResetEmail(PasswordResetEvent event) {
         User user = event.getUser();
-        PasswordResetToken passwordResetToken = createAndSavePasswordResetToken(user);
+        String token = signedTokenService.isEnabled()
+                ? signedTokenService.issue(user.getId(), TokenPurpose.RESET_PASSWORD)
+                : createAndSavePasswordResetToken(user).getToken();
 
         MailSettings mailSettings = applicationProperties.getMailSettings();
         String to = user.getEmail();
         String subject = mailSettings.getResetPasswordSubject();
         String message = mailSettings.getResetPasswordMessage() +  applicationProperties.getHostUrl()
-                + "/user/changePassword?token=" + passwordResetToken.getToken();
+                + "/user/changePassword?token=" + token;
         emailService.sendEmail(to, subject, message);
     }
 
@@ -81,7 +100,7 @@ public class PasswordResetEventListener implements ApplicationListener<PasswordR
      * @return saved {@code PasswordResetToken }
      */
     private PasswordResetToken createAndSavePasswordResetToken(User user) {
-        PasswordResetToken passwordResetToken = new PasswordResetToken(user);
+        PasswordResetToken passwordResetToken = new PasswordResetToken(user, tokenGenerator);
         return passwordResetTokenRepository.save(passwordResetToken);
     }
 }
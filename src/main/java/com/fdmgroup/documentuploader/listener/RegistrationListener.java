@@ -9,9 +9,12 @@ import com.fdmgroup.documentuploader.config.ApplicationProperties;
 import com.fdmgroup.documentuploader.config.ApplicationProperties.MailSettings;
 import com.fdmgroup.documentuploader.events.OnRegistrationCompleteEvent;
 import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
 import com.fdmgroup.documentuploader.service.email.AbstractEmailService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
 
 /**
  * Listener which completes an action upon detection of
@@ -43,13 +46,30 @@ public class RegistrationListener implements ApplicationListener<OnRegistrationC
 	 */
 	private final ApplicationProperties applicationProperties;
 
+	/**
+	 * Service which issues signed tokens when they are enabled.
+	 * 
+	 * @see AbstractSignedTokenService
+	 */
+	private final AbstractSignedTokenService signedTokenService;
+
+	/**
+	 * Mints the values of stored {@link ConfirmationToken} instances.
+	 * 
+	 * @see TokenGenerator
+	 */
+	private final TokenGenerator tokenGenerator;
+
 	@Autowired
 	public RegistrationListener(ConfirmationTokenRepository confirmationTokenRepository, AbstractEmailService emailService,
-			ApplicationProperties applicationProperties) {
+			ApplicationProperties applicationProperties, AbstractSignedTokenService signedTokenService,
+			TokenGenerator tokenGenerator) {
 		super();
 		this.confirmationTokenRepository = confirmationTokenRepository;
 		this.emailService = emailService;
 		this.applicationProperties = applicationProperties;
+		this.signedTokenService = signedTokenService;
+		this.tokenGenerator = tokenGenerator;
 	}
 
 	@Async
@@ -66,13 +86,15 @@ public class RegistrationListener implements ApplicationListener<OnRegistrationC
 	 */
 	private void sendConfirmationEmail(OnRegistrationCompleteEvent event) {
 		User user = event.getUser();
-		ConfirmationToken confirmationToken = createAndSaveConfirmationToken(user);
+		String token = signedTokenService.isEnabled()
+				? signedTokenService.issue(user.getId(), TokenPurpose.CONFIRM_ACCOUNT)
+				: createAndSaveConfirmationToken(user).getToken();
 
 		MailSettings mailSettings = applicationProperties.getMailSettings();
 		String to = user.getEmail();
 		String subject = mailSettings.getConfirmAccountSubject();
 		String message = mailSettings.getConfirmAccountMessage() + applicationProperties.getHostUrl()
-				+ mailSettings.getConfirmAccountPath() + confirmationToken.getToken();
+				+ mailSettings.getConfirmAccountPath() + token;
 		emailService.sendEmail(to, subject, message);
 	}
 
@@ -84,7 +106,7 @@ public class RegistrationListener implements ApplicationListener<OnRegistrationC
 	 * @return saved {@code ConfirmationToken}
 	 */
 	private ConfirmationToken createAndSaveConfirmationToken(User user) {
-		ConfirmationToken confirmationToken = new ConfirmationToken(user);
+		ConfirmationToken confirmationToken = new ConfirmationToken(user, tokenGenerator);
 		return confirmationTokenRepository.save(confirmationToken);
 	}
 }
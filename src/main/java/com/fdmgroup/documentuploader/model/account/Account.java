@@ -1,8 +1,11 @@
 package com.fdmgroup.documentuploader.model.account;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.model.user.User;
 import io.swagger.annotations.ApiModelProperty;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -17,19 +20,30 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.PrePersist;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.util.Date;
 import java.util.Set;
 
 /**
  * Encapsulates information related to an account which exists within the
- * system.
+ * system. An account which is being deleted is {@link #isDeleted() marked} so
+ * and is no longer found by any query until its deletion completes.
+ * <p>
+ * The {@link #getVersion() version} counts the changes made to an account and
+ * its documents. It is never written through this entity; every change
+ * increments it with a single update instead.
+ * </p>
  * 
  * @author Noah Anderson
  */
 @Entity
+@Where(clause = "deleted = false")
 public class Account implements Serializable {
 
 	/**
@@ -42,7 +56,7 @@ public class Account implements Serializable {
 	@Id
 	@Column(name = "account_id")
 	@GeneratedValue(generator = "account_gen", strategy = GenerationType.SEQUENCE)
-	@SequenceGenerator(name = "account_gen", sequenceName = "account_seq", allocationSize = 1)
+	@SequenceGenerator(name = "account_gen", sequenceName = "account_seq", allocationSize = 50)
 	private long id;
 
 	@ApiModelProperty(notes = "Name of the Account.",
@@ -78,6 +92,23 @@ public class Account implements Serializable {
 			@JoinColumn(name = "document_id") })
 	private Set<Document> documents;
 
+	@JsonIgnore
+	@Column(nullable = false)
+	private boolean deleted;
+
+	@ApiModelProperty(notes = "The number of changes made to the Account and its documents. Set by the server.",
+		example = "3")
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Column(nullable = false, updatable = false)
+	private long version;
+
+	@ApiModelProperty(notes = "When the Account or its documents were last changed. Set by the server.",
+		example = "2020-10-19T12:00:00.000+00:00")
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "modified_at", updatable = false)
+	private Date modifiedAt;
+
 	public Account() {
 		super();
 	}
@@ -142,6 +173,39 @@ public class Account implements Serializable {
 		this.documents = documents;
 	}
 
+	public boolean isDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public Date getModifiedAt() {
+		return modifiedAt;
+	}
+
+	public void setModifiedAt(Date modifiedAt) {
+		this.modifiedAt = modifiedAt;
+	}
+
+	/**
+	 * Records the creation of this account as its first modification.
+	 */
+	@PrePersist
+	void onPrePersist() {
+		version = 0L;
+		modifiedAt = new Date();
+	}
+
 	@Override
 	public String toString() {
 		return "Account [id=" + id + ", name=" + name + ", owner=" + owner + ", serviceLevel=" + serviceLevel
@@ -0,0 +1,149 @@
+package com.fdmgroup.documentuploader.model.account;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * Tracks the progress of deleting an {@link Account}. The account is marked
+ * deleted as soon as this is created, while its documents are deleted in the
+ * background. The {@code accountId} is not a foreign key, so that the progress
+ * can still be queried once the account row itself is gone.
+ * 
+ * @author Noah Anderson
+ */
+@ApiModel(description = "The progress of deleting an account.")
+@Entity
+@Table(name = "account_deletion", indexes = {
+		@Index(name = "account_deletion_account_idx", columnList = "account_id", unique = true),
+		@Index(name = "account_deletion_status_idx", columnList = "status") })
+public class AccountDeletion {
+
+	@ApiModelProperty(notes = "Unique identifier of the AccountDeletion.", example = "1")
+	@Id
+	@Column(name = "account_deletion_id")
+	@GeneratedValue(generator = "account_deletion_gen", strategy = GenerationType.SEQUENCE)
+	@SequenceGenerator(name = "account_deletion_gen", sequenceName = "account_deletion_seq", allocationSize = 50)
+	private long id;
+
+	@ApiModelProperty(notes = "The id of the Account being deleted.", example = "1")
+	@Column(name = "account_id", nullable = false, updatable = false)
+	private long accountId;
+
+	@ApiModelProperty(notes = "The name of the Account being deleted.", example = "Account Name")
+	@Column(name = "account_name", nullable = false, updatable = false)
+	private String accountName;
+
+	@ApiModelProperty(notes = "The stage the deletion has reached.", example = "RUNNING")
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private AccountDeletionStatus status;
+
+	@ApiModelProperty(notes = "The number of documents on the Account when its deletion was requested.", example = "1000")
+	@Column(name = "documents_total", nullable = false)
+	private long documentsTotal;
+
+	@ApiModelProperty(notes = "The number of documents deleted so far.", example = "250")
+	@Column(name = "documents_deleted", nullable = false)
+	private long documentsDeleted;
+
+	@ApiModelProperty(notes = "When the deletion was requested.")
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "requested_at", nullable = false)
+	private Date requestedAt;
+
+	@ApiModelProperty(notes = "When the deletion completed, or null if it has not.")
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "completed_at")
+	private Date completedAt;
+
+	@ApiModelProperty(notes = "Why the deletion failed, or null if it has not.")
+	@Column(name = "failure_message")
+	private String failureMessage;
+
+	public AccountDeletion() {
+		super();
+	}
+
+	public AccountDeletion(long accountId, String accountName, long documentsTotal, Date requestedAt) {
+		super();
+		this.accountId = accountId;
+		this.accountName = accountName;
+		this.status = AccountDeletionStatus.PENDING;
+		this.documentsTotal = documentsTotal;
+		this.requestedAt = requestedAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public long getAccountId() {
+		return accountId;
+	}
+
+	public String getAccountName() {
+		return accountName;
+	}
+
+	public AccountDeletionStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(AccountDeletionStatus status) {
+		this.status = status;
+	}
+
+	public long getDocumentsTotal() {
+		return documentsTotal;
+	}
+
+	public long getDocumentsDeleted() {
+		return documentsDeleted;
+	}
+
+	public void setDocumentsDeleted(long documentsDeleted) {
+		this.documentsDeleted = documentsDeleted;
+	}
+
+	public Date getRequestedAt() {
+		return requestedAt;
+	}
+
+	public Date getCompletedAt() {
+		return completedAt;
+	}
+
+	public void setCompletedAt(Date completedAt) {
+		this.completedAt = completedAt;
+	}
+
+	public String getFailureMessage() {
+		return failureMessage;
+	}
+
+	public void setFailureMessage(String failureMessage) {
+		this.failureMessage = failureMessage;
+	}
+
+	@Override
+	public String toString() {
+		return "AccountDeletion [id=" + id + ", accountId=" + accountId + ", accountName=" + accountName
+				+ ", status=" + status + ", documentsTotal=" + documentsTotal + ", documentsDeleted="
+				+ documentsDeleted + ", requestedAt=" + requestedAt + ", completedAt=" + completedAt
+				+ ", failureMessage=" + failureMessage + "]";
+	}
+}
@@ -0,0 +1,30 @@
+package com.fdmgroup.documentuploader.model.account;
+
+/**
+ * Contains constant objects representing the stages an
+ * {@link AccountDeletion} goes through.
+ * 
+ * @author Noah Anderson
+ */
+public enum AccountDeletionStatus {
+
+	/**
+	 * The account has been marked deleted and waits for the deletion job.
+	 */
+	PENDING,
+
+	/**
+	 * The documents of the account are being deleted in batches.
+	 */
+	RUNNING,
+
+	/**
+	 * Every document and the account itself have been deleted.
+	 */
+	COMPLETED,
+
+	/**
+	 * A batch could not be deleted. Requesting the deletion again resumes it.
+	 */
+	FAILED
+}
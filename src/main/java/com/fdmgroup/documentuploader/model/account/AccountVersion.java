@@ -0,0 +1,17 @@
+package com.fdmgroup.documentuploader.model.account;
+
+import java.util.Date;
+
+/**
+ * Projection of an {@link Account} onto the fields its HTTP validators are
+ * built from, which can be read without loading the account, its users or its
+ * documents.
+ * 
+ * @author Noah Anderson
+ */
+public interface AccountVersion {
+
+	long getVersion();
+
+	Date getModifiedAt();
+}
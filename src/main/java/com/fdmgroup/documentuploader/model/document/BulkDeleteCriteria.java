@@ -0,0 +1,96 @@
+package com.fdmgroup.documentuploader.model.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.AssertTrue;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Encapsulates which documents of an account a bulk deletion removes. A
+ * document is removed only if it matches every criterion which is given, so
+ * at least one must be given.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.document.BulkDocumentService
+ *      BulkDocumentService
+ */
+@ApiModel(description = "Selects the documents of an account to delete. Every given criterion must match.")
+public class BulkDeleteCriteria {
+
+	@ApiModelProperty(notes = "The names of the Documents to delete.", example = "[\"wordDoc\"]")
+	private List<String> names;
+
+	@ApiModelProperty(notes = "The ids of the Documents to delete.", example = "[1, 2]")
+	private List<Long> ids;
+
+	@ApiModelProperty(notes = "The extension of the Documents to delete.", example = ".docx")
+	private String extension;
+
+	@ApiModelProperty(notes = "Only Documents uploaded before this time are deleted.",
+			example = "2020-10-19T12:00:00.000+00:00")
+	private Date uploadedBefore;
+
+	public BulkDeleteCriteria() {
+	}
+
+	public BulkDeleteCriteria(List<String> names, List<Long> ids, String extension, Date uploadedBefore) {
+		this.names = names;
+		this.ids = ids;
+		this.extension = extension;
+		this.uploadedBefore = uploadedBefore;
+	}
+
+	public List<String> getNames() {
+		return names == null ? Collections.emptyList() : names;
+	}
+
+	public void setNames(List<String> names) {
+		this.names = names;
+	}
+
+	public List<Long> getIds() {
+		return ids == null ? Collections.emptyList() : ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public void setExtension(String extension) {
+		this.extension = extension;
+	}
+
+	public Date getUploadedBefore() {
+		return uploadedBefore;
+	}
+
+	public void setUploadedBefore(Date uploadedBefore) {
+		this.uploadedBefore = uploadedBefore;
+	}
+
+	/**
+	 * Checks that at least one criterion is given, so that a request can never
+	 * delete every document of an account by accident.
+	 *
+	 * @return {@code true} if any criterion is given, {@code false} otherwise
+	 */
+	@JsonIgnore
+	@AssertTrue(message = "{bulk-delete.criteria.not-empty}")
+	public boolean isSelective() {
+		return !getNames().isEmpty() || !getIds().isEmpty() || extension != null || uploadedBefore != null;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkDeleteCriteria [names=" + names + ", ids=" + ids + ", extension=" + extension
+				+ ", uploadedBefore=" + uploadedBefore + "]";
+	}
+}
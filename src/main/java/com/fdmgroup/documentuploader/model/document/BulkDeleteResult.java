@@ -0,0 +1,61 @@
+package com.fdmgroup.documentuploader.model.document;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Encapsulates the outcome of a bulk deletion of documents from an account.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.document.BulkDocumentService
+ *      BulkDocumentService
+ */
+@ApiModel(description = "The outcome of a bulk deletion of documents from an account.")
+public class BulkDeleteResult {
+
+	@ApiModelProperty(notes = "The id of the Account the documents were deleted from.", example = "1")
+	private final long accountId;
+
+	@ApiModelProperty(notes = "The number of documents deleted from the Account.", example = "10")
+	private final int deleted;
+
+	@ApiModelProperty(notes = "The number of matching documents which could not be deleted.", example = "0")
+	private final int failed;
+
+	@ApiModelProperty(notes = "The ids of the deleted Documents.")
+	private final List<Long> documentIds;
+
+	@ApiModelProperty(notes = "The names of the deleted Documents.")
+	private final List<String> documentNames;
+
+	public BulkDeleteResult(long accountId, List<Long> documentIds, List<String> documentNames, int failed) {
+		this.accountId = accountId;
+		this.documentIds = Collections.unmodifiableList(documentIds);
+		this.documentNames = Collections.unmodifiableList(documentNames);
+		this.deleted = documentIds.size();
+		this.failed = failed;
+	}
+
+	public long getAccountId() {
+		return accountId;
+	}
+
+	public int getDeleted() {
+		return deleted;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public List<Long> getDocumentIds() {
+		return documentIds;
+	}
+
+	public List<String> getDocumentNames() {
+		return documentNames;
+	}
+}
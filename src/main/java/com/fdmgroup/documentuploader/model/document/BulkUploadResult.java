@@ -0,0 +1,134 @@
+package com.fdmgroup.documentuploader.model.document;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Encapsulates the outcome of a bulk upload of documents to an account, with
+ * one {@link Item} per document in the order they were uploaded.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.document.BulkDocumentService
+ *      BulkDocumentService
+ */
+@ApiModel(description = "The outcome of a bulk upload of documents to an account.")
+public class BulkUploadResult {
+
+	@ApiModelProperty(notes = "The id of the Account the documents were uploaded to.", example = "1")
+	private final long accountId;
+
+	@ApiModelProperty(notes = "The number of documents added to the Account.", example = "10")
+	private final int created;
+
+	@ApiModelProperty(notes = "The number of documents which were not added to the Account.", example = "0")
+	private final int failed;
+
+	@ApiModelProperty(notes = "The outcome of each document, in the order they were uploaded.")
+	private final List<Item> items;
+
+	public BulkUploadResult(long accountId, List<Item> items) {
+		this.accountId = accountId;
+		this.items = Collections.unmodifiableList(items);
+		this.created = (int) items.stream().filter(item -> item.getStatus() == Status.CREATED).count();
+		this.failed = items.size() - created;
+	}
+
+	public long getAccountId() {
+		return accountId;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	/**
+	 * The outcome of a single document of a bulk upload.
+	 *
+	 * @author Noah Anderson
+	 */
+	public enum Status {
+
+		/**
+		 * The document was added to the account.
+		 */
+		CREATED,
+
+		/**
+		 * A document with the same name is already on the account or appears
+		 * earlier in the same upload.
+		 */
+		DUPLICATE,
+
+		/**
+		 * The document has no name, extension or content.
+		 */
+		INVALID,
+
+		/**
+		 * The upload held more documents than a single request may, or than the
+		 * service level of the account allows.
+		 */
+		REJECTED,
+
+		/**
+		 * The document could not be saved.
+		 */
+		FAILED
+	}
+
+	/**
+	 * Static inner class of {@link BulkUploadResult} which encapsulates the
+	 * outcome of a single document.
+	 *
+	 * @author Noah Anderson
+	 */
+	@ApiModel(description = "The outcome of a single document of a bulk upload.")
+	public static class Item {
+
+		@ApiModelProperty(notes = "The name of the Document.", example = "wordDoc")
+		private final String name;
+
+		@ApiModelProperty(notes = "Whether the Document was added and, if not, why.", example = "CREATED")
+		private final Status status;
+
+		@ApiModelProperty(notes = "The id of the created Document, or null if it was not created.", example = "1")
+		private final Long documentId;
+
+		@ApiModelProperty(notes = "Why the Document was not added, or null if it was.")
+		private final String message;
+
+		public Item(String name, Status status, Long documentId, String message) {
+			this.name = name;
+			this.status = status;
+			this.documentId = documentId;
+			this.message = message;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		public Long getDocumentId() {
+			return documentId;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+}
@@ -1,19 +1,29 @@
 package com.fdmgroup.documentuploader.model.document;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import org.springframework.util.StringUtils;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
+import javax.persistence.PrePersist;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Date;
 
 /**
  * Encapsulates information related to a document/file uploaded from a client to
@@ -24,6 +34,7 @@ import java.util.Arrays;
  */
 @ApiModel(description = "Represents a document which has been uploaded to an account.")
 @Entity
+@Table(indexes = @Index(name = "document_digest_idx", columnList = "digest"))
 public class Document implements Serializable {
 
 	/**
@@ -31,12 +42,14 @@ public class Document implements Serializable {
 	 */
 	private static final long serialVersionUID = 5454232325451663784L;
 
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
 	@ApiModelProperty(notes = "Unique identifier of the Document.",
 			example = "1", required = true)
 	@Id
 	@Column(name = "document_id")
 	@GeneratedValue(generator = "document_gen", strategy = GenerationType.SEQUENCE)
-	@SequenceGenerator(name = "document_gen", sequenceName = "document_seq", allocationSize = 1)
+	@SequenceGenerator(name = "document_gen", sequenceName = "document_seq", allocationSize = 50)
 	private long id;
 
 	@ApiModelProperty(notes = "The content of the Document",
@@ -58,6 +71,19 @@ public class Document implements Serializable {
 	@Column(nullable = false, updatable = false)
 	private String extension;
 
+	@ApiModelProperty(notes = "When the Document was uploaded. Set by the server.",
+		example = "2020-10-19T12:00:00.000+00:00")
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "uploaded_at", updatable = false)
+	private Date uploadedAt;
+
+	@ApiModelProperty(notes = "Hex encoded SHA-256 digest of the content of the Document. Set by the server.",
+		example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Column(length = 64, updatable = false)
+	private String digest;
+
 	public Document() {
 	}
 
@@ -69,6 +95,24 @@ public class Document implements Serializable {
 		this.extension = extension;
 	}
 
+	/**
+	 * Creates a {@code Document} from the name of a file, splitting it at its
+	 * last dot into the name and extension of the document. Any directories in
+	 * front of the file name are dropped.
+	 * 
+	 * @param content  the content of the file
+	 * @param fileName the name of the file, possibly a path
+	 * @return the created {@code Document}, without a {@code extension} if the
+	 *         file name has none
+	 */
+	public static Document fromFileName(byte[] content, String fileName) {
+		String baseName = StringUtils.getFilename(fileName == null ? null : fileName.replace('\\', '/'));
+		int dot = baseName == null ? -1 : baseName.lastIndexOf('.');
+		String name = dot < 0 ? baseName : baseName.substring(0, dot);
+		String extension = dot < 0 ? null : baseName.substring(dot);
+		return new Document(content, name, extension);
+	}
+
 	public long getId() {
 		return id;
 	}
@@ -101,6 +145,58 @@ public class Document implements Serializable {
 		this.extension = extension;
 	}
 
+	public Date getUploadedAt() {
+		return uploadedAt;
+	}
+
+	public void setUploadedAt(Date uploadedAt) {
+		this.uploadedAt = uploadedAt;
+	}
+
+	public String getDigest() {
+		return digest;
+	}
+
+	public void setDigest(String digest) {
+		this.digest = digest;
+	}
+
+	/**
+	 * Records when this document was uploaded, unless that was already set, and
+	 * the digest of its content.
+	 */
+	@PrePersist
+	void onPrePersist() {
+		if (uploadedAt == null) {
+			uploadedAt = new Date();
+		}
+		if (content != null) {
+			digest = digestOf(content);
+		}
+	}
+
+	/**
+	 * Computes the hex encoded SHA-256 digest of the given {@code content}, which
+	 * identifies a document by its content alone.
+	 * 
+	 * @param content the content of a document
+	 * @return the lower case hex encoded digest, 64 characters long
+	 */
+	public static String digestOf(byte[] content) {
+		byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+		}
+		char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[2 * i] = HEX[(hash[i] >> 4) & 0xF];
+			hex[2 * i + 1] = HEX[hash[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
 	@Override
 	public String toString() {
 		return "Document [id=" + id + ", content=" + Arrays.toString(content) + ", name=" + name + ", extension="
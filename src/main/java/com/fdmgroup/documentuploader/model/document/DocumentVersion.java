@@ -0,0 +1,16 @@
+package com.fdmgroup.documentuploader.model.document;
+
+import java.util.Date;
+
+/**
+ * Projection of a {@link Document} onto the fields its HTTP validators are
+ * built from, which can be read without loading its content.
+ * 
+ * @author Noah Anderson
+ */
+public interface DocumentVersion {
+
+	String getDigest();
+
+	Date getUploadedAt();
+}
@@ -0,0 +1,95 @@
+package com.fdmgroup.documentuploader.model.jfr;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Encapsulates the state of an on demand Flight Recorder recording.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.jfr.FlightRecordingService
+ *      FlightRecordingService
+ */
+public class RecordingStatus {
+
+	private final long id;
+	private final String name;
+	private final String state;
+	private final String settings;
+	private final Instant startTime;
+	private final Instant stopTime;
+	private final Duration duration;
+	private final Duration maxAge;
+	private final long maxSize;
+	private final long size;
+
+	/**
+	 * Creates a new instance of {@link RecordingStatus}.
+	 *
+	 * @param id        the id of the recording, used to download it
+	 * @param name      the name of the recording
+	 * @param state     the state of the recording, such as {@code RUNNING} or
+	 *                  {@code STOPPED}
+	 * @param settings  the name of the event settings recorded with
+	 * @param startTime when the recording started
+	 * @param stopTime  when the recording stopped, or {@code null} if it is
+	 *                  running
+	 * @param duration  how long the recording runs before it stops on its own
+	 * @param maxAge    how long recorded data is kept
+	 * @param maxSize   how many bytes of recorded data are kept
+	 * @param size      how many bytes have been recorded so far
+	 */
+	public RecordingStatus(long id, String name, String state, String settings, Instant startTime, Instant stopTime,
+			Duration duration, Duration maxAge, long maxSize, long size) {
+		this.id = id;
+		this.name = name;
+		this.state = state;
+		this.settings = settings;
+		this.startTime = startTime;
+		this.stopTime = stopTime;
+		this.duration = duration;
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+		this.size = size;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public String getSettings() {
+		return settings;
+	}
+
+	public Instant getStartTime() {
+		return startTime;
+	}
+
+	public Instant getStopTime() {
+		return stopTime;
+	}
+
+	public Duration getDuration() {
+		return duration;
+	}
+
+	public Duration getMaxAge() {
+		return maxAge;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public long getSize() {
+		return size;
+	}
+}
@@ -1,22 +1,23 @@
 package com.fdmgroup.documentuploader.model.registration;
 
-import java.sql.Timestamp;
-import java.util.Calendar;
+import java.time.Duration;
 import java.util.Date;
-import java.util.UUID;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
 
 /**
  * Registration confirmation token created upon successful account creation. 
@@ -28,13 +29,14 @@ import com.fdmgroup.documentuploader.model.user.User;
  * @see com.fdmgroup.documentuploader.listener.RegistrationListener RegistrationListener
  */
 @Entity
+@Table(indexes = { @Index(name = "confirmation_token_expiry_idx", columnList = "expiry_date") })
 public class ConfirmationToken {
 
-	private static final int EXPIRATION = 60 * 24;
+	private static final Duration VALIDITY = Duration.ofDays(1);
 
 	@Id
 	@GeneratedValue(generator = "token_gen", strategy = GenerationType.SEQUENCE)
-	@SequenceGenerator(name = "token_gen", sequenceName = "token_seq", allocationSize = 1)
+	@SequenceGenerator(name = "token_gen", sequenceName = "token_seq", allocationSize = 50)
 	@Column(name = "user_id")
 	private long id;
 
@@ -42,6 +44,7 @@ public class ConfirmationToken {
 	private String token;
 
 	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "expiry_date")
 	private Date expiryDate;
 
 	@OneToOne
@@ -52,19 +55,18 @@ public class ConfirmationToken {
 		super();
 	}
 
-	public ConfirmationToken(User user) {
+	/**
+	 * Creates a new {@code ConfirmationToken} for the given {@code user} which is
+	 * valid for one day.
+	 * 
+	 * @param user           the {@link User} the token is issued to
+	 * @param tokenGenerator mints the token value and its expiry date
+	 */
+	public ConfirmationToken(User user, TokenGenerator tokenGenerator) {
 		super();
 		this.user = user;
-		this.expiryDate = getExpiryDate(EXPIRATION);
-		this.token = UUID.randomUUID().toString();
-	}
-
-	private Date getExpiryDate(int expiryTimeInMinutes) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(new Timestamp(cal.getTime().getTime()));
-		cal.add(Calendar.MINUTE, expiryTimeInMinutes);
-
-		return new Date(cal.getTime().getTime());
+		this.expiryDate = tokenGenerator.expiryAfter(VALIDITY);
+		this.token = tokenGenerator.nextToken();
 	}
 
 	public long getId() {
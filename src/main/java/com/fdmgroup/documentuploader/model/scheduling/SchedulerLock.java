@@ -0,0 +1,67 @@
+package com.fdmgroup.documentuploader.model.scheduling;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * Row based lock used to make sure a scheduled job only runs on a single node
+ * at a time when the application is deployed more than once against the same
+ * database. A lock is held by a node until {@code lockedUntil} has passed or
+ * the node releases it.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.scheduling.SchedulerLockService SchedulerLockService
+ */
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLock {
+
+	@Id
+	@Column(name = "name", length = 64)
+	private String name;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "locked_until", nullable = false)
+	private Date lockedUntil;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "locked_at", nullable = false)
+	private Date lockedAt;
+
+	@Column(name = "locked_by", nullable = false)
+	private String lockedBy;
+
+	public SchedulerLock() {
+		super();
+	}
+
+	public SchedulerLock(String name, Date lockedAt, Date lockedUntil, String lockedBy) {
+		super();
+		this.name = name;
+		this.lockedAt = lockedAt;
+		this.lockedUntil = lockedUntil;
+		this.lockedBy = lockedBy;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Date getLockedUntil() {
+		return lockedUntil;
+	}
+
+	public Date getLockedAt() {
+		return lockedAt;
+	}
+
+	public String getLockedBy() {
+		return lockedBy;
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.fdmgroup.documentuploader.model.slo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point in time view of the request latencies and service level objective
+ * compliance of every tier, as exposed by the {@code slo} actuator endpoint.
+ * Counts and latencies cover every request since the application started, while
+ * burn rates cover the configured sliding windows. Requests which cannot be
+ * attributed to an account, which includes every request outside of the
+ * accounts routes, are reported under the {@code NONE} tier.
+ *
+ * @author Noah Anderson
+ */
+public class SloSnapshot {
+
+	private final Instant timestamp;
+	private final double objective;
+	private final List<Tier> tiers;
+	private final List<Tenant> topTenants;
+
+	public SloSnapshot(Instant timestamp, double objective, List<Tier> tiers, List<Tenant> topTenants) {
+		super();
+		this.timestamp = timestamp;
+		this.objective = objective;
+		this.tiers = tiers;
+		this.topTenants = topTenants;
+	}
+
+	public Instant getTimestamp() {
+		return timestamp;
+	}
+
+	public double getObjective() {
+		return objective;
+	}
+
+	public List<Tier> getTiers() {
+		return tiers;
+	}
+
+	public List<Tenant> getTopTenants() {
+		return topTenants;
+	}
+
+	/**
+	 * Static inner class of {@link SloSnapshot} which encapsulates the requests
+	 * of a single tier. The full latency distribution is included as a base64
+	 * encoded, compressed HdrHistogram of nanosecond latencies, so the
+	 * distributions of several instances can be merged exactly.
+	 *
+	 * @author Noah Anderson
+	 */
+	public static class Tier {
+
+		private final String serviceLevel;
+		private final double latencyObjectiveMs;
+		private final long requests;
+		private final long good;
+		private final long bad;
+		private final Map<String, Double> burnRates;
+		private final Map<String, Double> latencyMs;
+		private final Map<String, Route> routes;
+		private final String histogram;
+
+		public Tier(String serviceLevel, double latencyObjectiveMs, long requests, long good, long bad,
+				Map<String, Double> burnRates, Map<String, Double> latencyMs, Map<String, Route> routes, String histogram) {
+			super();
+			this.serviceLevel = serviceLevel;
+			this.latencyObjectiveMs = latencyObjectiveMs;
+			this.requests = requests;
+			this.good = good;
+			this.bad = bad;
+			this.burnRates = burnRates;
+			this.latencyMs = latencyMs;
+			this.routes = routes;
+			this.histogram = histogram;
+		}
+
+		public String getServiceLevel() {
+			return serviceLevel;
+		}
+
+		public double getLatencyObjectiveMs() {
+			return latencyObjectiveMs;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public long getGood() {
+			return good;
+		}
+
+		public long getBad() {
+			return bad;
+		}
+
+		/**
+		 * Gets the rate at which the error budget is consumed over each sliding
+		 * window: the fraction of bad requests in the window divided by the
+		 * fraction the objective allows. A burn rate above {@code 1} exhausts the
+		 * budget before the end of the objective's window.
+		 *
+		 * @return the burn rate of each window, keyed by its length such as
+		 *         {@code 5m} or {@code 1h}
+		 */
+		public Map<String, Double> getBurnRates() {
+			return burnRates;
+		}
+
+		public Map<String, Double> getLatencyMs() {
+			return latencyMs;
+		}
+
+		public Map<String, Route> getRoutes() {
+			return routes;
+		}
+
+		public String getHistogram() {
+			return histogram;
+		}
+	}
+
+	/**
+	 * Static inner class of {@link SloSnapshot} which encapsulates the requests
+	 * of a tier to a single route.
+	 *
+	 * @author Noah Anderson
+	 */
+	public static class Route {
+
+		private final long requests;
+		private final double p99Ms;
+
+		public Route(long requests, double p99Ms) {
+			super();
+			this.requests = requests;
+			this.p99Ms = p99Ms;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public double getP99Ms() {
+			return p99Ms;
+		}
+	}
+
+	/**
+	 * Static inner class of {@link SloSnapshot} which encapsulates the requests
+	 * made on behalf of a single account.
+	 *
+	 * @author Noah Anderson
+	 */
+	public static class Tenant {
+
+		private final long accountId;
+		private final String serviceLevel;
+		private final long requests;
+		private final long bad;
+
+		public Tenant(long accountId, String serviceLevel, long requests, long bad) {
+			super();
+			this.accountId = accountId;
+			this.serviceLevel = serviceLevel;
+			this.requests = requests;
+			this.bad = bad;
+		}
+
+		public long getAccountId() {
+			return accountId;
+		}
+
+		public String getServiceLevel() {
+			return serviceLevel;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public long getBad() {
+			return bad;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.fdmgroup.documentuploader.model.token;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * Records that the signed token with the given {@code nonce} has been used. Rows
+ * are only needed until the token expires, after which the signature check
+ * rejects it anyway, and are removed by the token purge job.
+ *
+ * @author Noah Anderson
+ */
+@Entity
+@Table(name = "consumed_token", indexes = { @Index(name = "consumed_token_expiry_idx", columnList = "expiry_date") })
+public class ConsumedToken implements Persistable<Long> {
+
+	@Id
+	@Column(name = "nonce")
+	private long nonce;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "expiry_date", nullable = false)
+	private Date expiryDate;
+
+	public ConsumedToken() {
+		super();
+	}
+
+	public ConsumedToken(long nonce, Date expiryDate) {
+		super();
+		this.nonce = nonce;
+		this.expiryDate = expiryDate;
+	}
+
+	@Override
+	public Long getId() {
+		return nonce;
+	}
+
+	/**
+	 * Always {@code true} so saving a {@code ConsumedToken} inserts it, failing
+	 * if the token has already been consumed, instead of merging it.
+	 */
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+	public Date getExpiryDate() {
+		return expiryDate;
+	}
+}
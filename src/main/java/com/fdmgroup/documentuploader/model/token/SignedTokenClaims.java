@@ -0,0 +1,58 @@
+package com.fdmgroup.documentuploader.model.token;
+
+import java.time.Instant;
+
+/**
+ * The verified contents of a signed token.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.token.SignedTokenService SignedTokenService
+ */
+public class SignedTokenClaims {
+
+	private final String keyId;
+	private final TokenPurpose purpose;
+	private final long userId;
+	private final Instant expiry;
+	private final long nonce;
+
+	public SignedTokenClaims(String keyId, TokenPurpose purpose, long userId, Instant expiry, long nonce) {
+		this.keyId = keyId;
+		this.purpose = purpose;
+		this.userId = userId;
+		this.expiry = expiry;
+		this.nonce = nonce;
+	}
+
+	public String getKeyId() {
+		return keyId;
+	}
+
+	public TokenPurpose getPurpose() {
+		return purpose;
+	}
+
+	public long getUserId() {
+		return userId;
+	}
+
+	public Instant getExpiry() {
+		return expiry;
+	}
+
+	/**
+	 * Gets the random value which uniquely identifies the token, used to record
+	 * that it has been consumed.
+	 *
+	 * @return the nonce of the token
+	 */
+	public long getNonce() {
+		return nonce;
+	}
+
+	@Override
+	public String toString() {
+		return "SignedTokenClaims [keyId=" + keyId + ", purpose=" + purpose + ", userId=" + userId + ", expiry="
+				+ expiry + "]";
+	}
+}
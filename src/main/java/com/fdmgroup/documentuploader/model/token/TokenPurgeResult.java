@@ -0,0 +1,77 @@
+package com.fdmgroup.documentuploader.model.token;
+
+import java.time.Duration;
+
+/**
+ * Encapsulates the outcome of a single run of the token purge job.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.token.TokenPurgeService TokenPurgeService
+ */
+public class TokenPurgeResult {
+
+	private final long confirmationTokensPurged;
+	private final long passwordResetTokensPurged;
+	private final long consumedTokensPurged;
+	private final int batches;
+	private final boolean complete;
+	private final Duration elapsed;
+
+	/**
+	 * Creates a new instance of {@link TokenPurgeResult}.
+	 *
+	 * @param confirmationTokensPurged  the number of confirmation tokens deleted
+	 * @param passwordResetTokensPurged the number of password reset tokens deleted
+	 * @param consumedTokensPurged      the number of expired consumed signed token
+	 *                                  records deleted
+	 * @param batches                   the number of batches processed
+	 * @param complete                  {@code false} if the run stopped because it
+	 *                                  reached its batch limit or was interrupted
+	 *                                  while rows were left to delete
+	 * @param elapsed                   the time the run took
+	 */
+	public TokenPurgeResult(long confirmationTokensPurged, long passwordResetTokensPurged,
+			long consumedTokensPurged, int batches, boolean complete, Duration elapsed) {
+		this.confirmationTokensPurged = confirmationTokensPurged;
+		this.passwordResetTokensPurged = passwordResetTokensPurged;
+		this.consumedTokensPurged = consumedTokensPurged;
+		this.batches = batches;
+		this.complete = complete;
+		this.elapsed = elapsed;
+	}
+
+	public long getConfirmationTokensPurged() {
+		return confirmationTokensPurged;
+	}
+
+	public long getPasswordResetTokensPurged() {
+		return passwordResetTokensPurged;
+	}
+
+	public long getConsumedTokensPurged() {
+		return consumedTokensPurged;
+	}
+
+	public long getTotalPurged() {
+		return confirmationTokensPurged + passwordResetTokensPurged + consumedTokensPurged;
+	}
+
+	public int getBatches() {
+		return batches;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public Duration getElapsed() {
+		return elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenPurgeResult [confirmationTokensPurged=" + confirmationTokensPurged
+				+ ", passwordResetTokensPurged=" + passwordResetTokensPurged + ", consumedTokensPurged=" + consumedTokensPurged + ", batches=" + batches
+				+ ", complete=" + complete + ", elapsed=" + elapsed + "]";
+	}
+}
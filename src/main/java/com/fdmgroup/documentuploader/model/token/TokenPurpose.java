@@ -0,0 +1,11 @@
+package com.fdmgroup.documentuploader.model.token;
+
+/**
+ * The action a signed token authorizes. The purpose is part of the signed
+ * payload so a token issued for one action can never be used for another.
+ *
+ * @author Noah Anderson
+ */
+public enum TokenPurpose {
+	CONFIRM_ACCOUNT, RESET_PASSWORD
+}
@@ -28,7 +28,7 @@ public class AuthGroup {
 			example = "1", required = true)
 	@Id
 	@GeneratedValue(generator = "AUTH_GROUP_ID_GENERATOR", strategy = GenerationType.SEQUENCE)
-	@SequenceGenerator(name = "AUTH_GROUP_ID_GENERATOR", sequenceName = "AUTH_GROUP_ID_SEQUENCE", allocationSize = 1)
+	@SequenceGenerator(name = "AUTH_GROUP_ID_GENERATOR", sequenceName = "AUTH_GROUP_ID_SEQUENCE", allocationSize = 50)
 	private long id;
 
 	@ApiModelProperty(notes = "The username of the AuthGroup. Must be in the format of an email.",
@@ -0,0 +1,64 @@
+package com.fdmgroup.documentuploader.model.user;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Encapsulates the {@link User} returned by a successful authentication. The
+ * password is left out, so neither its hash nor, for users whose password has
+ * not been hashed yet, the password itself is ever echoed back.
+ *
+ * @author Noah Anderson
+ */
+@ApiModel(description = "Represents a user who has just authenticated.")
+public class AuthenticatedUser {
+
+	@ApiModelProperty(notes = "Unique identifier of the User.", example = "1")
+	private final long id;
+
+	@ApiModelProperty(notes = "The email of the User.", example = "email@gmail.com")
+	private final String email;
+
+	@ApiModelProperty(notes = "The first name of the User.", example = "John")
+	private final String firstName;
+
+	@ApiModelProperty(notes = "The last name of the User.", example = "Doe")
+	private final String lastName;
+
+	@ApiModelProperty(notes = "Whether the account of the User has been activated.", example = "true")
+	private final boolean enabled;
+
+	public AuthenticatedUser(User user) {
+		super();
+		this.id = user.getId();
+		this.email = user.getEmail();
+		this.firstName = user.getFirstName();
+		this.lastName = user.getLastName();
+		this.enabled = user.isEnabled();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public String toString() {
+		return "AuthenticatedUser [id=" + id + ", email=" + email + "]";
+	}
+}
@@ -0,0 +1,56 @@
+package com.fdmgroup.documentuploader.model.user;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Encapsulates the email and password a {@link User} authenticates with. They
+ * are sent in the request body so the password never appears in a URL, where
+ * access and proxy logs would record it.
+ *
+ * @author Noah Anderson
+ */
+@ApiModel(description = "The email and password a user authenticates with.")
+public class Credentials {
+
+	@ApiModelProperty(notes = "The email of the User.", example = "example@example.com", required = true)
+	@NotBlank(message = "{user.email.not-empty}")
+	private String email;
+
+	@ApiModelProperty(notes = "The password of the User.", example = "!Qazse4", required = true)
+	@NotBlank(message = "{user.password.not-empty}")
+	private String password;
+
+	public Credentials() {
+		super();
+	}
+
+	public Credentials(String email, String password) {
+		super();
+		this.email = email;
+		this.password = password;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public void setPassword(String password) {
+		this.password = password;
+	}
+
+	@Override
+	public String toString() {
+		return "Credentials [email=" + email + "]";
+	}
+}
@@ -5,18 +5,20 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
-import java.sql.Timestamp;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
+
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.UUID;
 
 /**
  * Token generated upon receiving a request to reset the password of a {@link User}.
@@ -25,13 +27,14 @@ import java.util.UUID;
  * @author Noah Anderson
  */
 @Entity
+@Table(indexes = { @Index(name = "password_reset_token_expiry_idx", columnList = "expiry_date") })
 public class PasswordResetToken {
 
-    private static final int EXPIRATION = 60 * 24;
+    private static final Duration VALIDITY = Duration.ofDays(1);
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PASSWORD_RESET_TOKEN_GEN")
-    @SequenceGenerator(name = "PASSWORD_RESET_TOKEN_GEN", sequenceName = "PASSWORD_RESET_TOKEN_ID_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "PASSWORD_RESET_TOKEN_GEN", sequenceName = "PASSWORD_RESET_TOKEN_ID_SEQ", allocationSize = 50)
     private long id;
 
     @Column(name = "token", unique = true, nullable = false, updatable = false)
@@ -42,6 +45,7 @@ public class PasswordResetToken {
     private User user;
 
     @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expiry_date")
     private Date expiryDate;
 
     private boolean isUsed;
@@ -50,19 +54,18 @@ public class PasswordResetToken {
         super();
     }
 
-    public PasswordResetToken(User user) {
+    /**
+     * Creates a new {@code PasswordResetToken} for the given {@code user} which is
+     * valid for one day.
+     *
+     * @param user           the {@link User} the token is issued to
+     * @param tokenGenerator mints the token value and its expiry date
+     */
+    public PasswordResetToken(User user, TokenGenerator tokenGenerator) {
         super();
         this.user = user;
-        this.token = UUID.randomUUID().toString();
-        this.expiryDate = getExpiryDate(EXPIRATION);
-    }
-
-    private Date getExpiryDate(int expiryTimeInMinutes) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(new Timestamp(cal.getTime().getTime()));
-        cal.add(Calendar.MINUTE, expiryTimeInMinutes);
-
-        return new Date(cal.getTime().getTime());
+        this.token = tokenGenerator.nextToken();
+        this.expiryDate = tokenGenerator.expiryAfter(VALIDITY);
     }
 
     public String getToken() {
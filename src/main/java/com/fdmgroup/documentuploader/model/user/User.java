@@ -32,7 +32,7 @@ public class User implements Serializable {
 			example = "1", required = true)
 	@Id
 	@GeneratedValue(generator = "user_gen", strategy = GenerationType.SEQUENCE)
-	@SequenceGenerator(name = "user_gen", sequenceName = "user_seq", allocationSize = 1)
+	@SequenceGenerator(name = "user_gen", sequenceName = "user_seq", allocationSize = 50)
 	@Column(name = "user_id")
 	private long id;
 
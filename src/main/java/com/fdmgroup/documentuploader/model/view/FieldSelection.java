@@ -0,0 +1,99 @@
+package com.fdmgroup.documentuploader.model.view;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Encapsulates the {@code fields} and {@code expand} query parameters of a
+ * request, which select the properties of an entity and the associations of
+ * it to fetch. An empty set of fields selects every property; associations are
+ * only fetched when expanded.
+ *
+ * @author Noah Anderson
+ * @see com.fdmgroup.documentuploader.service.view.ViewService ViewService
+ */
+public final class FieldSelection {
+
+	private final Set<String> fields;
+	private final Set<String> expansions;
+
+	private FieldSelection(Set<String> fields, Set<String> expansions) {
+		this.fields = fields;
+		this.expansions = expansions;
+	}
+
+	/**
+	 * Parses the comma separated {@code fields} and {@code expand} query
+	 * parameters of a request.
+	 *
+	 * @param fields the requested properties, {@code null} for all of them
+	 * @param expand the requested associations, {@code null} for none
+	 * @return the {@code FieldSelection}, or {@code null} if neither parameter
+	 *         was given and the full entity is requested
+	 */
+	public static FieldSelection parse(String fields, String expand) {
+		if (fields == null && expand == null) {
+			return null;
+		}
+		return new FieldSelection(split(fields), split(expand));
+	}
+
+	private static Set<String> split(String parameter) {
+		if (parameter == null) {
+			return Collections.emptySet();
+		}
+		Set<String> names = Arrays.stream(parameter.split(","))
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		return Collections.unmodifiableSet(names);
+	}
+
+	/**
+	 * Gets the selected properties, in the order they were requested.
+	 *
+	 * @return the selected properties, empty if all of them are selected
+	 */
+	public Set<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Gets the associations to fetch, in the order they were requested.
+	 *
+	 * @return the associations to fetch
+	 */
+	public Set<String> getExpansions() {
+		return expansions;
+	}
+
+	public boolean isExpanded(String association) {
+		return expansions.contains(association);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fields, expansions);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof FieldSelection)) {
+			return false;
+		}
+		FieldSelection other = (FieldSelection) obj;
+		return fields.equals(other.fields) && expansions.equals(other.expansions);
+	}
+
+	@Override
+	public String toString() {
+		return "FieldSelection [fields=" + fields + ", expansions=" + expansions + "]";
+	}
+}
@@ -0,0 +1,55 @@
+package com.fdmgroup.documentuploader.repository;
+
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+import com.fdmgroup.documentuploader.model.account.AccountDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository which performs database operations on {@link AccountDeletion}
+ * objects.
+ * 
+ * @author Noah Anderson
+ */
+@Repository
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+
+	/**
+	 * Attempts to retrieve the {@link AccountDeletion} of the account with the
+	 * given {@code accountId}.
+	 * 
+	 * @param accountId the {@code id} of the account
+	 * @return {@code empty} {@link Optional} if the deletion of the account was
+	 *         never requested. Otherwise, an {@code Optional} encapsulating the
+	 *         found {@code AccountDeletion}
+	 */
+	Optional<AccountDeletion> findByAccountId(long accountId);
+
+	/**
+	 * Retrieves every {@link AccountDeletion} with one of the given
+	 * {@code statuses}, oldest first.
+	 * 
+	 * @param statuses the statuses to search for
+	 * @return {@link List} containing the found {@code AccountDeletion} objects
+	 */
+	List<AccountDeletion> findByStatusInOrderByIdAsc(Collection<AccountDeletionStatus> statuses);
+
+	/**
+	 * Adds {@code count} to the number of documents deleted by the
+	 * {@link AccountDeletion} with the given {@code id}, without loading it.
+	 * 
+	 * @param id    the {@code id} of the {@code AccountDeletion}
+	 * @param count the number of documents deleted by the latest batch
+	 * @return the number of updated rows
+	 */
+	@Modifying
+	@Query("UPDATE AccountDeletion d SET d.documentsDeleted = d.documentsDeleted + :count WHERE d.id = :id")
+	int incrementDocumentsDeleted(@Param("id") long id, @Param("count") long count);
+}
@@ -1,12 +1,18 @@
 package com.fdmgroup.documentuploader.repository;
 
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.model.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,10 +47,10 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 	 *         accessible to a {@code User} with an {@code id} equaling the given
 	 *         {@code userId}
 	 */
-	@Query(value="SELECT a.account_id, a.name, a.owner_id, a.service_level FROM ACCOUNT a "
+	@Query(value="SELECT a.account_id, a.name, a.owner_id, a.service_level, a.deleted, a.version, a.modified_at FROM ACCOUNT a "
 									+ "JOIN ACCOUNT_USERS au "
 									+ "ON a.account_id = au.account_id "
-									+ "WHERE au.user_id = :id", nativeQuery=true)
+									+ "WHERE au.user_id = :id AND a.deleted = false", nativeQuery=true)
 	List<Account> findAccountsByUserId(@Param("id") long id);
 	
 	/**
@@ -59,11 +65,95 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 	Optional<Account> findByName(String name);
 
 	/**
-	 * Checks if a {@link Account} exists with the given email.
+	 * Checks if a {@link Account} exists with the given email. Accounts which
+	 * are still being deleted are included, as their name stays in use until
+	 * their deletion completes.
 	 *
 	 * @param name the account {@code name} to search for
 	 * @return {@code true} if a {@code Account} is found with the given name,
 	 *         {@code false} otherwise
 	 */
-	boolean existsByName(String name);
+	@Query(value = "SELECT COUNT(*) > 0 FROM ACCOUNT a WHERE a.name = :name", nativeQuery = true)
+	boolean existsByName(@Param("name") String name);
+
+	/**
+	 * Retrieves only the {@link ServiceLevel} of the {@link Account} with the
+	 * given {@code id}, without loading the account itself.
+	 *
+	 * @param id the {@code id} of the {@code Account}
+	 * @return {@code empty} {@link Optional} if no account exists with the given
+	 *         {@code id}. Otherwise, an {@code Optional} encapsulating its
+	 *         {@code ServiceLevel}
+	 */
+	@Query("SELECT a.serviceLevel FROM Account a WHERE a.id = :id")
+	Optional<ServiceLevel> findServiceLevelById(@Param("id") long id);
+
+	/**
+	 * Retrieves only the names of the {@link Document documents} on the
+	 * {@link Account} with the given {@code id}, without loading their content.
+	 *
+	 * @param id the {@code id} of the {@code Account}
+	 * @return the names of the documents on the {@code Account}, empty if it has
+	 *         none or does not exist
+	 */
+	@Query("SELECT d.name FROM Account a JOIN a.documents d WHERE a.id = :id")
+	List<String> findDocumentNamesById(@Param("id") long id);
+
+	/**
+	 * Counts the {@link Document documents} on the {@link Account} with the given
+	 * {@code id} which were uploaded at or after the given {@code since}.
+	 *
+	 * @param id    the {@code id} of the {@code Account}
+	 * @param since the earliest upload time counted
+	 * @return the number of documents uploaded since then
+	 */
+	@Query("SELECT COUNT(d) FROM Account a JOIN a.documents d WHERE a.id = :id AND d.uploadedAt >= :since")
+	long countDocumentsUploadedSince(@Param("id") long id, @Param("since") Date since);
+
+	/**
+	 * Retrieves the {@link Account accounts} with the given {@code ids} together
+	 * with their owners and users in a single query.
+	 *
+	 * @param ids the {@code id}s of the {@code Account}s
+	 * @return the found accounts, in no particular order
+	 */
+	@Query("SELECT DISTINCT a FROM Account a JOIN FETCH a.owner LEFT JOIN FETCH a.users WHERE a.id IN :ids")
+	List<Account> findAllWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Retrieves the {@link Account accounts} with the given {@code ids} together
+	 * with their {@link Document documents} in a single query. Run after
+	 * {@link #findAllWithUsersByIdIn(Collection)} in the same transaction, it
+	 * initializes the documents of the accounts already loaded without a product
+	 * of users and documents.
+	 *
+	 * @param ids the {@code id}s of the {@code Account}s
+	 * @return the found accounts, in no particular order
+	 */
+	@Query("SELECT DISTINCT a FROM Account a LEFT JOIN FETCH a.documents WHERE a.id IN :ids")
+	List<Account> findAllWithDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Retrieves only the version and modification time of the {@link Account}
+	 * with the given {@code id}, without loading the account itself.
+	 *
+	 * @param id the {@code id} of the {@code Account}
+	 * @return {@code empty} {@link Optional} if no account exists with the given
+	 *         {@code id}. Otherwise, an {@code Optional} encapsulating its
+	 *         {@code AccountVersion}
+	 */
+	@Query("SELECT a.version AS version, a.modifiedAt AS modifiedAt FROM Account a WHERE a.id = :id")
+	Optional<AccountVersion> findVersionById(@Param("id") long id);
+
+	/**
+	 * Records a change to the {@link Account} with the given {@code id} or its
+	 * documents by incrementing its version.
+	 *
+	 * @param id         the {@code id} of the {@code Account}
+	 * @param modifiedAt the time of the change
+	 * @return the number of updated rows
+	 */
+	@Modifying
+	@Query("UPDATE Account a SET a.version = a.version + 1, a.modifiedAt = :modifiedAt WHERE a.id = :id")
+	int incrementVersion(@Param("id") long id, @Param("modifiedAt") Date modifiedAt);
 }
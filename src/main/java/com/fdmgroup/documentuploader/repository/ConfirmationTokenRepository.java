@@ -1,8 +1,15 @@
 package com.fdmgroup.documentuploader.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
@@ -26,5 +33,28 @@ public interface ConfirmationTokenRepository extends JpaRepository<ConfirmationT
 	 * 			object otherwise.
 	 */
 	Optional<ConfirmationToken> findByToken(String token);
+
+	/**
+	 * Retrieves the {@code id} of {@link ConfirmationToken} objects which expired
+	 * before the given {@code now}, oldest first.
+	 * 
+	 * @param now      the point in time tokens must have expired before
+	 * @param pageable bounds the number of ids returned
+	 * @return {@link List} containing the ids of expired {@code ConfirmationToken}
+	 *         objects
+	 */
+	@Query("SELECT t.id FROM ConfirmationToken t WHERE t.expiryDate < :now ORDER BY t.expiryDate")
+	List<Long> findExpiredTokenIds(@Param("now") Date now, Pageable pageable);
+
+	/**
+	 * Deletes every {@link ConfirmationToken} with an {@code id} in the given
+	 * {@code ids} using a single statement.
+	 * 
+	 * @param ids the ids of the {@code ConfirmationToken} objects to delete
+	 * @return the number of deleted rows
+	 */
+	@Modifying
+	@Query("DELETE FROM ConfirmationToken t WHERE t.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
 	
 }
@@ -0,0 +1,45 @@
+package com.fdmgroup.documentuploader.repository;
+
+import com.fdmgroup.documentuploader.model.token.ConsumedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository which performs database operations on {@link ConsumedToken}
+ * objects.
+ *
+ * @author Noah Anderson
+ */
+@Repository
+public interface ConsumedTokenRepository extends JpaRepository<ConsumedToken, Long> {
+
+	/**
+	 * Retrieves the nonces of {@link ConsumedToken} objects whose token expired
+	 * before the given {@code now}, oldest first.
+	 *
+	 * @param now      the point in time tokens must have expired before
+	 * @param pageable bounds the number of nonces returned
+	 * @return {@link List} containing the nonces of expired tokens
+	 */
+	@Query("SELECT t.nonce FROM ConsumedToken t WHERE t.expiryDate < :now ORDER BY t.expiryDate")
+	List<Long> findExpiredTokenIds(@Param("now") Date now, Pageable pageable);
+
+	/**
+	 * Deletes every {@link ConsumedToken} with a nonce in the given {@code ids}
+	 * using a single statement.
+	 *
+	 * @param ids the nonces of the {@code ConsumedToken} objects to delete
+	 * @return the number of deleted rows
+	 */
+	@Modifying
+	@Query("DELETE FROM ConsumedToken t WHERE t.nonce IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,11 +1,15 @@
 package com.fdmgroup.documentuploader.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.document.DocumentVersion;
 
 /**
  * Repository which performs CRUD database operations on {@link Document}
@@ -28,4 +32,50 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
 	 */
 	Optional<Document> findByName(String name);
 
+	/**
+	 * Retrieves only the digest and upload time of the {@link Document} with the
+	 * given {@code id}, without loading its content.
+	 * 
+	 * @param id the {@code id} of the {@code Document}
+	 * @return {@code empty} {@link Optional} if no document exists with the given
+	 *         {@code id}. Otherwise, an {@code Optional} encapsulating its
+	 *         {@code DocumentVersion}
+	 */
+	@Query("SELECT d.digest AS digest, d.uploadedAt AS uploadedAt FROM Document d WHERE d.id = :id")
+	Optional<DocumentVersion> findVersionById(@Param("id") long id);
+
+	/**
+	 * Retrieves only the digest and upload time of the {@link Document} with the
+	 * given {@code name}, without loading its content.
+	 * 
+	 * @param name the name of the {@code Document}
+	 * @return {@code empty} {@link Optional} if no document exists with the given
+	 *         {@code name}. Otherwise, an {@code Optional} encapsulating its
+	 *         {@code DocumentVersion}
+	 */
+	@Query("SELECT d.digest AS digest, d.uploadedAt AS uploadedAt FROM Document d WHERE d.name = :name")
+	Optional<DocumentVersion> findVersionByName(@Param("name") String name);
+
+	/**
+	 * Retrieves the {@code id} of a {@link Document} whose content has the given
+	 * {@code digest}. The content of documents with equal digests is
+	 * interchangeable, so the lowest {@code id} is returned. The document may
+	 * belong to any account, so nothing but its content may be exposed.
+	 * 
+	 * @param digest the hex encoded SHA-256 digest of the content
+	 * @return {@code empty} {@link Optional} if no document has the given content
+	 */
+	@Query("SELECT MIN(d.id) FROM Document d WHERE d.digest = :digest")
+	Optional<Long> findIdByDigest(@Param("digest") String digest);
+
+	/**
+	 * Sums the size of the content of the {@link Document} instances with the
+	 * given {@code ids}, without loading their content.
+	 * 
+	 * @param ids the {@code id} of each {@code Document}
+	 * @return the total size of their content in bytes
+	 */
+	@Query("SELECT COALESCE(SUM(LENGTH(d.content)), 0) FROM Document d WHERE d.id IN :ids")
+	long sumContentSizeByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -1,9 +1,16 @@
 package com.fdmgroup.documentuploader.repository;
 
 import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,4 +32,27 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
 	 *         {@code Optional} is returned.
 	 */
 	Optional<PasswordResetToken> findByToken(String token);
+
+	/**
+	 * Retrieves the {@code id} of {@link PasswordResetToken} objects which have
+	 * been used or expired before the given {@code now}, oldest first.
+	 *
+	 * @param now      the point in time tokens must have expired before
+	 * @param pageable bounds the number of ids returned
+	 * @return {@link List} containing the ids of used or expired
+	 *         {@code PasswordResetToken} objects
+	 */
+	@Query("SELECT t.id FROM PasswordResetToken t WHERE t.expiryDate < :now OR t.isUsed = true ORDER BY t.expiryDate")
+	List<Long> findExpiredOrUsedTokenIds(@Param("now") Date now, Pageable pageable);
+
+	/**
+	 * Deletes every {@link PasswordResetToken} with an {@code id} in the given
+	 * {@code ids} using a single statement.
+	 *
+	 * @param ids the ids of the {@code PasswordResetToken} objects to delete
+	 * @return the number of deleted rows
+	 */
+	@Modifying
+	@Query("DELETE FROM PasswordResetToken t WHERE t.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
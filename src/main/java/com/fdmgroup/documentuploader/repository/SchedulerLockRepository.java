@@ -0,0 +1,49 @@
+package com.fdmgroup.documentuploader.repository;
+
+import com.fdmgroup.documentuploader.model.scheduling.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository which performs database operations on {@link SchedulerLock}
+ * objects such as acquiring and releasing them.
+ *
+ * @author Noah Anderson
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+	/**
+	 * Takes the {@link SchedulerLock} with the given {@code name} if it is not
+	 * currently held by any node.
+	 *
+	 * @param name        the {@code name} of the {@code SchedulerLock}
+	 * @param now         the current time
+	 * @param lockedUntil the time the lock is held until unless released sooner
+	 * @param lockedBy    identifies the node taking the lock
+	 * @return {@code 1} if the lock was taken, {@code 0} otherwise
+	 */
+	@Modifying
+	@Query("UPDATE SchedulerLock l SET l.lockedAt = :now, l.lockedUntil = :lockedUntil, l.lockedBy = :lockedBy "
+			+ "WHERE l.name = :name AND l.lockedUntil <= :now")
+	int acquire(@Param("name") String name, @Param("now") Date now, @Param("lockedUntil") Date lockedUntil,
+			@Param("lockedBy") String lockedBy);
+
+	/**
+	 * Releases the {@link SchedulerLock} with the given {@code name} if it is held
+	 * by the node identified by {@code lockedBy}.
+	 *
+	 * @param name     the {@code name} of the {@code SchedulerLock}
+	 * @param now      the current time
+	 * @param lockedBy identifies the node releasing the lock
+	 * @return {@code 1} if the lock was released, {@code 0} otherwise
+	 */
+	@Modifying
+	@Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :lockedBy")
+	int release(@Param("name") String name, @Param("now") Date now, @Param("lockedBy") String lockedBy);
+}
@@ -0,0 +1,57 @@
+package com.fdmgroup.documentuploader.scheduling;
+
+import com.fdmgroup.documentuploader.config.AccountDeletionProperties;
+import com.fdmgroup.documentuploader.service.account.AbstractAccountDeletionService;
+import com.fdmgroup.documentuploader.service.scheduling.AbstractSchedulerLockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job which works through requested account deletions through the
+ * {@link AbstractAccountDeletionService}. Only the node holding the
+ * {@value #LOCK_NAME} lock runs, so an account is never deleted by two nodes
+ * at once.
+ *
+ * @author Noah Anderson
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.account-deletion", name = "enabled", havingValue = "true")
+public class AccountDeletionJob {
+
+	static final String LOCK_NAME = "account-deletion";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccountDeletionJob.class);
+
+	private final AbstractAccountDeletionService accountDeletionService;
+	private final AbstractSchedulerLockService schedulerLockService;
+	private final AccountDeletionProperties accountDeletionProperties;
+
+	@Autowired
+	public AccountDeletionJob(AbstractAccountDeletionService accountDeletionService,
+			AbstractSchedulerLockService schedulerLockService, AccountDeletionProperties accountDeletionProperties) {
+		super();
+		this.accountDeletionService = accountDeletionService;
+		this.schedulerLockService = schedulerLockService;
+		this.accountDeletionProperties = accountDeletionProperties;
+	}
+
+	@Scheduled(cron = "${app.account-deletion.cron}")
+	public void processPendingDeletions() {
+		if (!schedulerLockService.tryLock(LOCK_NAME, accountDeletionProperties.getLockAtMostFor())) {
+			LOGGER.debug("Account deletion skipped, another node holds the {} lock", LOCK_NAME);
+			return;
+		}
+		try {
+			int completed = accountDeletionService.processPendingDeletions();
+			if (completed > 0) {
+				LOGGER.info("Completed the deletion of {} accounts", completed);
+			}
+		} finally {
+			schedulerLockService.unlock(LOCK_NAME);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.fdmgroup.documentuploader.scheduling;
+
+import com.fdmgroup.documentuploader.config.TokenPurgeProperties;
+import com.fdmgroup.documentuploader.model.token.TokenPurgeResult;
+import com.fdmgroup.documentuploader.service.scheduling.AbstractSchedulerLockService;
+import com.fdmgroup.documentuploader.service.token.AbstractTokenPurgeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * <p>
+ * Scheduled job which purges expired and used tokens through the
+ * {@link AbstractTokenPurgeService}. Only the node holding the
+ * {@value #LOCK_NAME} lock runs a purge, so running more than one node never
+ * results in concurrent purges.
+ * </p>
+ * <p>
+ * The rows purged by each run are recorded in the {@value #ROWS_METRIC}
+ * distribution summary, and the rows purged from each table are counted in
+ * {@value #PURGED_METRIC}, tagged by table.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.token-purge", name = "enabled", havingValue = "true")
+public class TokenPurgeJob {
+
+	static final String LOCK_NAME = "token-purge";
+	static final String ROWS_METRIC = "token.purge.rows";
+	static final String PURGED_METRIC = "token.purge.purged";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TokenPurgeJob.class);
+
+	private final AbstractTokenPurgeService tokenPurgeService;
+	private final AbstractSchedulerLockService schedulerLockService;
+	private final TokenPurgeProperties tokenPurgeProperties;
+	private final DistributionSummary rowsPerRun;
+	private final Counter confirmationTokensPurged;
+	private final Counter passwordResetTokensPurged;
+	private final Counter consumedTokensPurged;
+
+	/**
+	 * The result of the last run completed by this node.
+	 */
+	private volatile TokenPurgeResult lastResult;
+
+	@Autowired
+	public TokenPurgeJob(AbstractTokenPurgeService tokenPurgeService,
+			AbstractSchedulerLockService schedulerLockService, TokenPurgeProperties tokenPurgeProperties,
+			MeterRegistry meterRegistry) {
+		super();
+		this.tokenPurgeService = tokenPurgeService;
+		this.schedulerLockService = schedulerLockService;
+		this.tokenPurgeProperties = tokenPurgeProperties;
+		this.rowsPerRun = DistributionSummary.builder(ROWS_METRIC).description("Rows purged per token purge run")
+				.baseUnit("rows").register(meterRegistry);
+		this.confirmationTokensPurged = purgedCounter("confirmation_token", meterRegistry);
+		this.passwordResetTokensPurged = purgedCounter("password_reset_token", meterRegistry);
+		this.consumedTokensPurged = purgedCounter("consumed_token", meterRegistry);
+	}
+
+	private static Counter purgedCounter(String table, MeterRegistry meterRegistry) {
+		return Counter.builder(PURGED_METRIC).description("Rows purged by the token purge job by table")
+				.tag("table", table).baseUnit("rows").register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${app.token-purge.cron}")
+	public void purgeExpiredTokens() {
+		if (!schedulerLockService.tryLock(LOCK_NAME, tokenPurgeProperties.getLockAtMostFor())) {
+			LOGGER.debug("Token purge skipped, another node holds the {} lock", LOCK_NAME);
+			return;
+		}
+		try {
+			TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+			this.lastResult = result;
+			rowsPerRun.record(result.getTotalPurged());
+			confirmationTokensPurged.increment(result.getConfirmationTokensPurged());
+			passwordResetTokensPurged.increment(result.getPasswordResetTokensPurged());
+			consumedTokensPurged.increment(result.getConsumedTokensPurged());
+			LOGGER.info(
+					"Purged {} confirmation tokens, {} password reset tokens and {} consumed tokens in {} batches ({} ms, complete={})",
+					result.getConfirmationTokensPurged(), result.getPasswordResetTokensPurged(),
+					result.getConsumedTokensPurged(), result.getBatches(),
+					result.getElapsed().toMillis(), result.isComplete());
+		} finally {
+			schedulerLockService.unlock(LOCK_NAME);
+		}
+	}
+
+	public Optional<TokenPurgeResult> getLastResult() {
+		return Optional.ofNullable(lastResult);
+	}
+}
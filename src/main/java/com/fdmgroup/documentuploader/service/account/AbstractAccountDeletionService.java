@@ -0,0 +1,51 @@
+package com.fdmgroup.documentuploader.service.account;
+
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+
+import java.util.Optional;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to deleting
+ * {@link Account} objects in the background.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+public interface AbstractAccountDeletionService {
+
+	/**
+	 * Marks the {@link Account} with an {@code id} equaling the value of
+	 * {@code accountId} deleted and records an {@link AccountDeletion} for the
+	 * background job to work through. Requesting the deletion of an account
+	 * again returns its existing {@code AccountDeletion}, resuming it if it
+	 * failed.
+	 * 
+	 * @param accountId the {@code id} of the {@code Account} to delete
+	 * @return the {@code AccountDeletion} tracking the progress of the deletion
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	AccountDeletion requestDeletion(long accountId);
+
+	/**
+	 * Attempts to retrieve the {@link AccountDeletion} with the given {@code id}.
+	 * 
+	 * @param id the {@code id} of the {@code AccountDeletion}
+	 * @return {@code empty} {@link Optional} if none is found. Otherwise, an
+	 *         {@code Optional} encapsulating the found {@code AccountDeletion}
+	 */
+	Optional<AccountDeletion> getDeletionById(long id);
+
+	/**
+	 * Works through every pending or running {@link AccountDeletion}, oldest
+	 * first, deleting the documents of each account in batches and then the
+	 * account itself. Stops once the configured number of batches per run is
+	 * reached, leaving the rest for the next run.
+	 * 
+	 * @return the number of deletions completed by this run
+	 */
+	int processPendingDeletions();
+}
@@ -1,8 +1,10 @@
 package com.fdmgroup.documentuploader.service.account;
 
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.model.user.User;
 
@@ -49,6 +51,29 @@ public interface AbstractAccountService {
 	 */
 	Optional<Account> getAccountById(long id);
 
+	/**
+	 * Retrieves the {@link Account} objects with the given {@code ids}.
+	 * 
+	 * @param ids the {@code id}s of the {@code Account}s to retrieve
+	 * @return {@link List} containing the found {@code Account} objects in the
+	 *         order of their first occurrence in {@code ids}. Ids which are not
+	 *         found are left out
+	 * @throws BatchLimitExceededException when more distinct ids are given than
+	 *                                     a single lookup accepts
+	 */
+	List<Account> getAccountsByIds(List<Long> ids);
+
+	/**
+	 * Retrieves the {@link AccountVersion} of the {@link Account} with the
+	 * {@code id} given, without loading the account itself.
+	 * 
+	 * @param id the {@code id} of an {@code Account}
+	 * @return {@code empty} {@link Optional} if no {@code Account} is found with
+	 *         the given {@code id}. Otherwise, an {@code Optional} wrapping its
+	 *         {@code AccountVersion} is returned
+	 */
+	Optional<AccountVersion> getAccountVersionById(long id);
+
 	/**
 	 * Retrieves all {@link Account} objects which a {@link User} with an {@code id}
 	 * equaling the given {@code userId} can access.
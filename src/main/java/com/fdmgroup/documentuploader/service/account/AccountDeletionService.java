@@ -0,0 +1,256 @@
+package com.fdmgroup.documentuploader.service.account;
+
+import com.fdmgroup.documentuploader.config.AccountDeletionProperties;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+import com.fdmgroup.documentuploader.model.account.AccountDeletionStatus;
+import com.fdmgroup.documentuploader.repository.AccountDeletionRepository;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.service.document.DocumentContentCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractAccountDeletionService}.
+ * </p>
+ * <p>
+ * Requesting a deletion only flips the {@code deleted} flag of the account, so
+ * it disappears from every query at once, and records an
+ * {@link AccountDeletion}. The documents are never loaded. Instead, each batch
+ * selects the ids of up to {@link AccountDeletionProperties#getBatchSize()
+ * batchSize} documents from the join table and deletes their join rows and
+ * document rows, blobs included, in its own short transaction together with
+ * the progress it made. A deletion interrupted by a restart or a failure
+ * therefore resumes where it stopped. The account row is deleted once no
+ * document is left on it.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class AccountDeletionService implements AbstractAccountDeletionService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccountDeletionService.class);
+	private static final String COUNT_DOCUMENTS = "SELECT COUNT(*) FROM account_documents WHERE account_id = :accountId";
+	private static final String SELECT_DOCUMENT_IDS = "SELECT document_id FROM account_documents WHERE account_id = :accountId "
+			+ "ORDER BY document_id FETCH FIRST :batchSize ROWS ONLY";
+	private static final String DELETE_ACCOUNT_DOCUMENTS = "DELETE FROM account_documents WHERE account_id = :accountId AND document_id IN (:documentIds)";
+	private static final String DELETE_DOCUMENTS = "DELETE FROM document WHERE document_id IN (:documentIds)";
+	private static final String DELETE_ACCOUNT_USERS = "DELETE FROM account_users WHERE account_id = :accountId";
+	private static final String DELETE_EMPTY_ACCOUNT = "DELETE FROM account WHERE account_id = :accountId "
+			+ "AND NOT EXISTS (SELECT 1 FROM account_documents ad WHERE ad.account_id = :accountId)";
+	private static final List<AccountDeletionStatus> UNFINISHED = Arrays.asList(AccountDeletionStatus.PENDING,
+			AccountDeletionStatus.RUNNING);
+	private static final int MAX_FAILURE_MESSAGE_LENGTH = 255;
+	private static final String ID = "id";
+
+	private final AccountRepository accountRepository;
+	private final AccountDeletionRepository accountDeletionRepository;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final AccountDeletionProperties accountDeletionProperties;
+	private final DocumentContentCache documentContentCache;
+
+	@Autowired
+	public AccountDeletionService(AccountRepository accountRepository,
+			AccountDeletionRepository accountDeletionRepository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, AccountDeletionProperties accountDeletionProperties,
+			DocumentContentCache documentContentCache) {
+		super();
+		this.accountRepository = accountRepository;
+		this.accountDeletionRepository = accountDeletionRepository;
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.accountDeletionProperties = accountDeletionProperties;
+		this.documentContentCache = documentContentCache;
+	}
+
+	@Transactional
+	@Override
+	public AccountDeletion requestDeletion(long accountId) {
+		Optional<AccountDeletion> existing = accountDeletionRepository.findByAccountId(accountId);
+		if (existing.isPresent()) {
+			AccountDeletion deletion = existing.get();
+			if (deletion.getStatus() == AccountDeletionStatus.FAILED) {
+				deletion.setStatus(AccountDeletionStatus.PENDING);
+				deletion.setFailureMessage(null);
+			}
+			return deletion;
+		}
+
+		Account account = accountRepository.findById(accountId)
+				.orElseThrow(() -> new EntityNotFoundException(Account.class, ID, String.valueOf(accountId)));
+		account.setDeleted(true);
+		Long documents = jdbcTemplate.queryForObject(COUNT_DOCUMENTS,
+				new MapSqlParameterSource("accountId", accountId), Long.class);
+		return accountDeletionRepository
+				.save(new AccountDeletion(accountId, account.getName(), documents == null ? 0L : documents, new Date()));
+	}
+
+	@Override
+	public Optional<AccountDeletion> getDeletionById(long id) {
+		return accountDeletionRepository.findById(id);
+	}
+
+	@Override
+	public int processPendingDeletions() {
+		Run run = new Run();
+		for (AccountDeletion deletion : accountDeletionRepository.findByStatusInOrderByIdAsc(UNFINISHED)) {
+			try {
+				if (!process(deletion, run)) {
+					break;
+				}
+				run.completed++;
+			} catch (RuntimeException e) {
+				LOGGER.warn("Could not delete account {}", deletion.getAccountId(), e);
+				String message = String.valueOf(e.getMessage());
+				update(deletion.getId(), failed -> {
+					failed.setStatus(AccountDeletionStatus.FAILED);
+					failed.setFailureMessage(message.length() > MAX_FAILURE_MESSAGE_LENGTH
+							? message.substring(0, MAX_FAILURE_MESSAGE_LENGTH)
+							: message);
+				});
+			}
+		}
+		return run.completed;
+	}
+
+	/**
+	 * Deletes the documents of the account of the given {@code deletion} in
+	 * batches, then the account itself.
+	 * 
+	 * @param deletion the deletion to work on
+	 * @param run      the progress made by this run so far
+	 * @return {@code true} if the deletion completed. Otherwise, returns
+	 *         {@code false} because the run reached its number of batches or was
+	 *         interrupted.
+	 */
+	private boolean process(AccountDeletion deletion, Run run) {
+		if (deletion.getStatus() == AccountDeletionStatus.PENDING) {
+			update(deletion.getId(), running -> running.setStatus(AccountDeletionStatus.RUNNING));
+		}
+		int batchSize = Math.max(1, accountDeletionProperties.getBatchSize());
+		MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", deletion.getAccountId())
+				.addValue("batchSize", batchSize);
+		while (run.batches < accountDeletionProperties.getMaxBatchesPerRun()) {
+			if (run.batches > 0 && !pauseBetweenBatches()) {
+				return false;
+			}
+			List<Long> deleted = transactionTemplate.execute(status -> deleteBatch(deletion.getId(), parameters));
+			run.batches++;
+			if (deleted != null) {
+				documentContentCache.invalidateAll(deleted);
+			}
+			if (deleted != null && deleted.size() < batchSize && Boolean.TRUE.equals(
+					transactionTemplate.execute(status -> deleteAccount(deletion.getId(), parameters, status)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Deletes the next batch of documents, along with the rows joining them to
+	 * the account, and records the progress made.
+	 * 
+	 * @param deletionId the {@code id} of the {@link AccountDeletion}
+	 * @param parameters holds the {@code id} of the account and the batch size
+	 * @return the {@code id} of each document deleted
+	 */
+	private List<Long> deleteBatch(long deletionId, MapSqlParameterSource parameters) {
+		List<Long> documentIds = jdbcTemplate.queryForList(SELECT_DOCUMENT_IDS, parameters, Long.class);
+		if (documentIds.isEmpty()) {
+			return documentIds;
+		}
+		MapSqlParameterSource batch = new MapSqlParameterSource(parameters.getValues()).addValue("documentIds",
+				documentIds);
+		jdbcTemplate.update(DELETE_ACCOUNT_DOCUMENTS, batch);
+		jdbcTemplate.update(DELETE_DOCUMENTS, batch);
+		accountDeletionRepository.incrementDocumentsDeleted(deletionId, documentIds.size());
+		return documentIds;
+	}
+
+	/**
+	 * Deletes the account and the rows joining it to its users, then marks the
+	 * deletion completed. Nothing is deleted if a document was added to the
+	 * account since the last batch.
+	 * 
+	 * @param deletionId the {@code id} of the {@link AccountDeletion}
+	 * @param parameters holds the {@code id} of the account
+	 * @param status     the status of the transaction, rolled back if the
+	 *                   account still has documents
+	 * @return {@code true} if the account was deleted, {@code false} otherwise
+	 */
+	private boolean deleteAccount(long deletionId, MapSqlParameterSource parameters,
+			TransactionStatus status) {
+		jdbcTemplate.update(DELETE_ACCOUNT_USERS, parameters);
+		if (jdbcTemplate.update(DELETE_EMPTY_ACCOUNT, parameters) == 0) {
+			status.setRollbackOnly();
+			return false;
+		}
+		accountDeletionRepository.findById(deletionId).ifPresent(completed -> {
+			completed.setStatus(AccountDeletionStatus.COMPLETED);
+			completed.setCompletedAt(new Date());
+		});
+		return true;
+	}
+
+	/**
+	 * Loads the {@link AccountDeletion} with the given {@code id} in a new
+	 * transaction and applies the given {@code change} to it.
+	 * 
+	 * @param id     the {@code id} of the {@code AccountDeletion}
+	 * @param change the change to apply
+	 */
+	private void update(long id, Consumer<AccountDeletion> change) {
+		transactionTemplate.executeWithoutResult(status -> accountDeletionRepository.findById(id).ifPresent(change));
+	}
+
+	/**
+	 * Sleeps for the configured pause between two batches.
+	 *
+	 * @return {@code false} if the thread was interrupted while sleeping.
+	 *         Otherwise, returns {@code true}.
+	 */
+	private boolean pauseBetweenBatches() {
+		long pauseMillis = accountDeletionProperties.getPauseBetweenBatches().toMillis();
+		if (pauseMillis <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(pauseMillis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Progress made by a single run.
+	 */
+	private static class Run {
+
+		private int batches;
+		private int completed;
+	}
+}
@@ -1,23 +1,37 @@
 package com.fdmgroup.documentuploader.service.account;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
 import com.fdmgroup.documentuploader.events.AccountDocumentEvent;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.UploadPhase;
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.service.coalescing.SingleFlight;
 import com.fdmgroup.documentuploader.service.document.AbstractDocumentService;
+import com.fdmgroup.documentuploader.util.BatchLookupUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +39,14 @@ import java.util.stream.Collectors;
  * Implementing class of {@link AbstractAccountService} which performs
  * operations related to {@link Account} objects.
  * </p>
+ * <p>
+ * Concurrent identical lookups outside of a transaction share a single
+ * database call through a {@link SingleFlight}. The call runs in a read-only
+ * transaction of its own which initializes the users and documents of the
+ * accounts found, so the shared accounts can be read from any thread. Lookups
+ * within a transaction always query the database, as the caller expects
+ * accounts managed by its own persistence context.
+ * </p>
  *
  * @author Noah Anderson
  */
@@ -43,15 +65,32 @@ public class AccountService implements AbstractAccountService {
 	private final AccountRepository accountRepository;
 	private final AbstractDocumentService documentService;
 	private final ApplicationEventPublisher eventPublisher;
+	private final BatchLookupProperties batchLookupProperties;
+	private final TransactionTemplate readOnlyTransaction;
+	private final SingleFlight<Long, Optional<Account>> accountsById;
+	private final SingleFlight<Long, Optional<AccountVersion>> accountVersionsById;
+	private final SingleFlight<String, Optional<Account>> accountsByName;
+	private final SingleFlight<Long, Optional<Account>> accountsByOwnerId;
+	private final SingleFlight<Long, List<Account>> accountsByUserId;
 
 	@Autowired
 	public AccountService(MessageSource messageSource, AccountRepository accountRepository,
-			AbstractDocumentService documentService, ApplicationEventPublisher eventPublisher) {
+			AbstractDocumentService documentService, ApplicationEventPublisher eventPublisher,
+			BatchLookupProperties batchLookupProperties, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry) {
 		super();
 		this.messageSource = messageSource;
 		this.accountRepository = accountRepository;
 		this.documentService = documentService;
 		this.eventPublisher = eventPublisher;
+		this.batchLookupProperties = batchLookupProperties;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.accountsById = new SingleFlight<>("account.id", meterRegistry);
+		this.accountVersionsById = new SingleFlight<>("account.version", meterRegistry);
+		this.accountsByName = new SingleFlight<>("account.name", meterRegistry);
+		this.accountsByOwnerId = new SingleFlight<>("account.owner", meterRegistry);
+		this.accountsByUserId = new SingleFlight<>("account.user", meterRegistry);
 	}
 
 	@Override
@@ -65,55 +104,142 @@ public class AccountService implements AbstractAccountService {
 		return accountRepository.save(account);
 	}
 
+	@Transactional
 	@Override
 	public Account update(Account account) {
-		boolean isExistingAccount = accountRepository.existsById(account.getId());
-		if (!isExistingAccount) {
-			throw new EntityNotFoundException(Account.class, ACCOUNT, String.valueOf(account.getId()));
-		}
-		return accountRepository.save(account);
+		AccountVersion version = accountRepository.findVersionById(account.getId())
+				.orElseThrow(() -> new EntityNotFoundException(Account.class, ACCOUNT, String.valueOf(account.getId())));
+		account.setVersion(version.getVersion());
+		account.setModifiedAt(version.getModifiedAt());
+		Account updatedAccount = accountRepository.save(account);
+		recordChange(updatedAccount);
+		return updatedAccount;
 	}
 
 	@Override
 	public Optional<Account> getAccountById(long id) {
-		return accountRepository.findById(id);
+		return coalesce(accountsById, id, () -> accountRepository.findById(id).map(AccountService::initialize));
+	}
+
+	/**
+	 * Loads each chunk of accounts with two queries, one fetching their owners
+	 * and users and one fetching their documents, instead of initializing the
+	 * collections of every account separately.
+	 */
+	@Transactional
+	@Override
+	public List<Account> getAccountsByIds(List<Long> ids) {
+		return BatchLookupUtil.findAllInOrder(Account.class, ids, batchLookupProperties, chunk -> {
+			List<Account> accounts = accountRepository.findAllWithUsersByIdIn(chunk);
+			if (!accounts.isEmpty()) {
+				accountRepository.findAllWithDocumentsByIdIn(chunk);
+			}
+			return accounts;
+		}, Account::getId);
+	}
+
+	@Override
+	public Optional<AccountVersion> getAccountVersionById(long id) {
+		return coalesce(accountVersionsById, id, () -> accountRepository.findVersionById(id));
 	}
 
 	@Override
 	public List<Account> getAccountsByUserId(long userId) {
-		return accountRepository.findAccountsByUserId(userId);
+		return coalesce(accountsByUserId, userId, () -> {
+			List<Account> accounts = accountRepository.findAccountsByUserId(userId);
+			accounts.forEach(AccountService::initialize);
+			return accounts;
+		});
 	}
 
 	@Override
 	public Optional<Account> getAccountByOwnerId(long ownerId) {
-		return accountRepository.findByOwnerId(ownerId);
+		return coalesce(accountsByOwnerId, ownerId,
+				() -> accountRepository.findByOwnerId(ownerId).map(AccountService::initialize));
 	}
 
 	@Override
 	public Optional<Account> getAccountByName(String accountName) {
-		return accountRepository.findByName(accountName);
+		return coalesce(accountsByName, accountName,
+				() -> accountRepository.findByName(accountName).map(AccountService::initialize));
+	}
+
+	/**
+	 * Runs the given {@code lookup} through the given {@code singleFlight} in a
+	 * read-only transaction, unless a transaction is already active.
+	 *
+	 * @param singleFlight the {@link SingleFlight} of the lookup
+	 * @param key          the arguments of the lookup
+	 * @param lookup       queries the database
+	 * @return the result of the {@code lookup}, which may be shared with
+	 *         concurrent callers
+	 */
+	private <K, V> V coalesce(SingleFlight<K, V> singleFlight, K key, Supplier<V> lookup) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return lookup.get();
+		}
+		return singleFlight.execute(key, () -> readOnlyTransaction.execute(status -> lookup.get()));
+	}
+
+	/**
+	 * Initializes the lazily loaded users and documents of the given
+	 * {@link Account}, so they can be read once its persistence context is
+	 * closed or from another thread.
+	 *
+	 * @param account the {@code Account} to initialize
+	 * @return the given {@code account}
+	 */
+	private static Account initialize(Account account) {
+		Hibernate.initialize(account.getUsers());
+		Hibernate.initialize(account.getDocuments());
+		return account;
 	}
 
 	@Transactional
 	@Override
 	public Account addDocumentToAccountByAccountId(Document document, long accountId) {
+		long bytes = document.getContent() == null ? 0L : document.getContent().length;
+
+		DocumentUploadEvent phase = DocumentUploadEvent.start(UploadPhase.VALIDATE, accountId, bytes);
 		Account account = getAccount(accountId);
+		ServiceLevel serviceLevel = account.getServiceLevel();
 		Set<Document> accountDocuments = account.getDocuments();
 		if (isDocumentInDocumentSet(accountDocuments, document)) {
 			throw new EntityCouldNotBeSavedException(Document.class,
 					messageSource.getMessage("account.documents.is-on-account", null, Locale.getDefault())
 							+ document.getName());
 		}
-		Document uploadedDocument = documentService.uploadDocument(document);
+		phase.finish(serviceLevel);
+
+		Document uploadedDocument = documentService.uploadDocument(document, accountId, serviceLevel);
+
+		phase = DocumentUploadEvent.start(UploadPhase.ATTACH, accountId, bytes);
 		accountDocuments.add(uploadedDocument);
 		account.setDocuments(accountDocuments);
-
 		Account updatedAccount = accountRepository.save(account);
+		recordChange(updatedAccount);
+		phase.finish(serviceLevel);
+
+		phase = DocumentUploadEvent.start(UploadPhase.PUBLISH, accountId, bytes);
 		createAndPublishAccountDocumentEvent(document, updatedAccount, true);
+		phase.finish(serviceLevel);
 
 		return updatedAccount;
 	}
 
+	/**
+	 * Increments the version of the given {@link Account}, both in the database
+	 * and on the instance returned to the caller.
+	 *
+	 * @param account the changed {@code Account}
+	 */
+	private void recordChange(Account account) {
+		Date modifiedAt = new Date();
+		accountRepository.incrementVersion(account.getId(), modifiedAt);
+		account.setVersion(account.getVersion() + 1);
+		account.setModifiedAt(modifiedAt);
+	}
+
 	/**
 	 * Retrieves an {@link Account} with the given {@code accountId}.
 	 *
@@ -183,6 +309,7 @@ public class AccountService implements AbstractAccountService {
 		accountDocuments.remove(document);
 		account.setDocuments(accountDocuments);
 		Account updatedAccount = accountRepository.save(account);
+		recordChange(updatedAccount);
 
 		createAndPublishAccountDocumentEvent(document, account, false);
 
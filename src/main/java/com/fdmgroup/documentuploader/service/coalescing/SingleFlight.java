@@ -0,0 +1,107 @@
+package com.fdmgroup.documentuploader.service.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Collapses concurrent calls for the same key into a single call. The first
+ * caller of a key runs the loader; callers arriving while that call is in
+ * flight wait for it and receive the same result, or the same exception.
+ * </p>
+ * <p>
+ * Nothing is kept once a call completes, so a caller arriving afterwards runs
+ * the loader again. Results are shared between threads and must therefore not
+ * be modified by callers.
+ * </p>
+ *
+ * @param <K> the type of the keys identifying calls
+ * @param <V> the type of the results of calls
+ *
+ * @author Noah Anderson
+ */
+public class SingleFlight<K, V> {
+
+	static final String METRIC_PREFIX = "lookup.coalescing";
+
+	private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+	private final Counter executedCalls;
+	private final Counter coalescedCalls;
+
+	/**
+	 * @param lookup        the name of the lookup, used to tag the metrics
+	 * @param meterRegistry the registry the metrics are registered with
+	 */
+	public SingleFlight(String lookup, MeterRegistry meterRegistry) {
+		this.executedCalls = Counter.builder(METRIC_PREFIX + ".calls")
+				.description("Lookups by whether they ran or joined an identical lookup already in flight")
+				.tag("lookup", lookup).tag("result", "executed").register(meterRegistry);
+		this.coalescedCalls = Counter.builder(METRIC_PREFIX + ".calls")
+				.description("Lookups by whether they ran or joined an identical lookup already in flight")
+				.tag("lookup", lookup).tag("result", "coalesced").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".in.flight", calls, Map::size)
+				.description("Lookups currently in flight").tag("lookup", lookup).register(meterRegistry);
+	}
+
+	/**
+	 * Runs the given {@code loader} unless a call for the given {@code key} is
+	 * already in flight, in which case the result of that call is awaited
+	 * instead.
+	 *
+	 * @param key    the key identifying the call
+	 * @param loader loads the result for the given {@code key}
+	 * @return the result of the call
+	 */
+	public V execute(K key, Supplier<V> loader) {
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+		if (inFlight != null) {
+			coalescedCalls.increment();
+			return await(inFlight);
+		}
+
+		executedCalls.increment();
+		try {
+			V result = loader.get();
+			call.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(key, call);
+		}
+	}
+
+	/**
+	 * Gets the number of calls currently in flight.
+	 *
+	 * @return the number of calls in flight
+	 */
+	public int inFlight() {
+		return calls.size();
+	}
+
+	private static <V> V await(CompletableFuture<V> call) {
+		try {
+			return call.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to
+ * importing the files of an archive into an {@link Account} as
+ * {@link Document} instances.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+public interface AbstractArchiveImportService {
+
+	/**
+	 * Extracts every file of the ZIP or TAR {@code archive}, optionally
+	 * gzip-compressed, and adds it to the {@link Account} with an {@code id}
+	 * equaling the value of {@code accountId} as a {@link Document}. Entries are
+	 * extracted while the archive is read, so the archive is never held in
+	 * memory as a whole.
+	 * 
+	 * @param accountId the {@code id} of the {@code Account} to import into
+	 * @param archive   the stream of the archive
+	 * @return the outcome of each file, in the order of the archive, followed by
+	 *         the entries which were skipped or stopped the import
+	 * @throws EntityNotFoundException        when no {@code Account} is found
+	 *                                        with the given {@code accountId}
+	 * @throws EntityCouldNotBeSavedException when the stream is neither a ZIP
+	 *                                        nor a TAR archive
+	 * @throws IOException                    when the archive could not be read
+	 */
+	BulkUploadResult importArchiveToAccountByAccountId(long accountId, InputStream archive) throws IOException;
+}
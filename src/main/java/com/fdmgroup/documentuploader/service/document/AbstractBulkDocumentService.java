@@ -0,0 +1,89 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteCriteria;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.Document;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to adding
+ * many {@link Document} instances to or removing them from an {@link Account}
+ * at once.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+public interface AbstractBulkDocumentService {
+
+	/**
+	 * Adds every {@link Document} produced by {@code documents} to the
+	 * {@link Account} with an {@code id} equaling the value of {@code accountId}.
+	 * Documents are consumed one at a time, so that only a single batch of them
+	 * is held at once. Documents beyond what the
+	 * {@link com.fdmgroup.documentuploader.model.account.ServiceLevel
+	 * ServiceLevel} of the account allows are rejected.
+	 * 
+	 * @param accountId the {@code id} of the {@code Account} to add to
+	 * @param documents the documents to add
+	 * @return the outcome of each document. A document which cannot be added does
+	 *         not prevent the others from being added.
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents);
+
+	/**
+	 * Adds every {@link Document} produced by {@code documents} to the
+	 * {@link Account} with an {@code id} equaling the value of {@code accountId},
+	 * accepting at most {@code maxDocuments} documents instead of the configured
+	 * number per request. Documents beyond what the
+	 * {@link com.fdmgroup.documentuploader.model.account.ServiceLevel
+	 * ServiceLevel} of the account allows are rejected.
+	 * 
+	 * @param accountId    the {@code id} of the {@code Account} to add to
+	 * @param documents    the documents to add
+	 * @param maxDocuments the most documents to accept
+	 * @return the outcome of each document
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents,
+			int maxDocuments);
+
+	/**
+	 * Adds every {@link Document} produced by {@code documents} to the
+	 * {@link Account} with an {@code id} equaling the value of {@code accountId},
+	 * accepting at most {@code maxDocuments} documents, and hands each document to
+	 * {@code released} once it is no longer held: when it is rejected, or once
+	 * the batch it was inserted in has been committed or rolled back.
+	 * 
+	 * @param accountId    the {@code id} of the {@code Account} to add to
+	 * @param documents    the documents to add
+	 * @param maxDocuments the most documents to accept
+	 * @param released     called with each document which is no longer held
+	 * @return the outcome of each document
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents,
+			int maxDocuments, Consumer<Document> released);
+
+	/**
+	 * Deletes every {@link Document} on the {@link Account} with an {@code id}
+	 * equaling the value of {@code accountId} which matches all of the given
+	 * {@code criteria}. Names and ids which are not on the account are ignored.
+	 * 
+	 * @param accountId the {@code id} of the {@code Account} to delete from
+	 * @param criteria  selects the documents to delete
+	 * @return the documents which were deleted and the number which could not be
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	BulkDeleteResult deleteDocumentsFromAccountByAccountId(long accountId, BulkDeleteCriteria criteria);
+}
@@ -0,0 +1,66 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.exceptions.ExportLimitExceededException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.document.Document;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to
+ * exporting the {@link Document} instances of an {@link Account} as a single
+ * ZIP archive.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+public interface AbstractDocumentExportService {
+
+	/**
+	 * Gets the file name to give the export of the {@link Account} with an
+	 * {@code id} equaling the value of {@code accountId}.
+	 * 
+	 * @param accountId the {@code id} of the {@code Account}
+	 * @return the name of the account followed by {@code .zip}
+	 * @throws EntityNotFoundException when no {@code Account} is found with the
+	 *                                 given {@code accountId}
+	 */
+	String getExportFileName(long accountId);
+
+	/**
+	 * Reserves one of the exports which may stream at once. Every call which
+	 * returns must be followed by one call to {@link #releaseExport()} once the
+	 * export has been written.
+	 * 
+	 * @throws ExportLimitExceededException when the maximum number of exports
+	 *                                      are already streaming
+	 */
+	void acquireExport();
+
+	/**
+	 * Releases an export reserved by {@link #acquireExport()}.
+	 */
+	void releaseExport();
+
+	/**
+	 * Writes a ZIP archive holding every {@link Document} on the {@link Account}
+	 * with an {@code id} equaling the value of {@code accountId} to the given
+	 * {@code outputStream}. Documents are read from the database and written one
+	 * at a time, so memory use does not grow with the size of the documents.
+	 * Documents whose entry names would collide are given unique names.
+	 * 
+	 * @param accountId    the {@code id} of the {@code Account}
+	 * @param namePrefix   only documents with a name starting with this are
+	 *                     exported, or every document if {@code null}
+	 * @param extension    only documents with this extension are exported, or
+	 *                     every document if {@code null}
+	 * @param outputStream the stream to write the archive to, which is left open
+	 * @return the number of documents written to the archive
+	 * @throws IOException when the archive could not be written
+	 */
+	int exportDocumentsOfAccount(long accountId, String namePrefix, String extension, OutputStream outputStream)
+			throws IOException;
+}
@@ -1,10 +1,14 @@
 package com.fdmgroup.documentuploader.service.document;
 
+import java.util.List;
 import java.util.Optional;
 
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.document.DocumentVersion;
 
 /**
  * <p>
@@ -27,6 +31,21 @@ public interface AbstractDocumentService {
 	 */
 	Document uploadDocument(Document document);
 
+	/**
+	 * Uploads the given {@link Document} object to the data storage system used
+	 * on behalf of an account, attributing the upload to it.
+	 * 
+	 * @param document     the {@code Document} to upload
+	 * @param accountId    the id of the account the document is uploaded to, or
+	 *                     {@code 0} if there is none
+	 * @param serviceLevel the service level of the account, or {@code null} if it
+	 *                     is not known
+	 * @return the updated {@code Document} instance to use for further operations
+	 * @throws EntityCouldNotBeSavedException when the given {@code Document} could
+	 *                                        not be saved for any reason
+	 */
+	Document uploadDocument(Document document, long accountId, ServiceLevel serviceLevel);
+
 	/**
 	 * Retrieves a {@link Document} with an id matching the value of
 	 * {@code documentId}.
@@ -39,6 +58,19 @@ public interface AbstractDocumentService {
 	 */
 	Optional<Document> getDocumentById(long documentId);
 
+	/**
+	 * Retrieves the {@link Document} objects with the given {@code documentIds}.
+	 * 
+	 * @param documentIds the {@code id}s of the {@code Document}s to retrieve
+	 * @return {@link List} containing the found {@code Document} objects in the
+	 *         order of their first occurrence in {@code documentIds}. Ids which
+	 *         are not found are left out
+	 * @throws BatchLimitExceededException when more distinct ids are given, or
+	 *                                     their content is larger in total, than
+	 *                                     a single lookup accepts
+	 */
+	List<Document> getDocumentsByIds(List<Long> documentIds);
+
 	/**
 	 * Retrieves a {@link Document} with a name matching the value of
 	 * {@code fileName}.
@@ -51,6 +83,39 @@ public interface AbstractDocumentService {
 	 */
 	Optional<Document> getDocumentByName(String documentName);
 
+	/**
+	 * Retrieves the {@link DocumentVersion} of the {@link Document} with an id
+	 * matching the value of {@code documentId}, without loading its content.
+	 * 
+	 * @param documentId the {@code id} of a {@code Document}
+	 * @return {@code empty} {@link Optional} if no document is found with the given
+	 *         {@code documentId}. Otherwise, an {@code Optional} encapsulating its
+	 *         {@code DocumentVersion}
+	 */
+	Optional<DocumentVersion> getDocumentVersionById(long documentId);
+
+	/**
+	 * Retrieves the {@link DocumentVersion} of the {@link Document} with a name
+	 * matching the value of {@code documentName}, without loading its content.
+	 * 
+	 * @param documentName the name of a {@code Document}
+	 * @return {@code empty} {@link Optional} if no document is found with the given
+	 *         {@code documentName}. Otherwise, an {@code Optional} encapsulating
+	 *         its {@code DocumentVersion}
+	 */
+	Optional<DocumentVersion> getDocumentVersionByName(String documentName);
+
+	/**
+	 * Retrieves the content with the given {@code digest}. Any {@link Document}
+	 * with that content may be read, whichever account it belongs to, so only
+	 * the content is returned and none of its metadata.
+	 * 
+	 * @param digest the hex encoded SHA-256 digest of the content
+	 * @return {@code empty} {@link Optional} if no document has the given content.
+	 *         Otherwise, an {@code Optional} encapsulating the content
+	 */
+	Optional<byte[]> getContentByDigest(String digest);
+
 	/**
 	 * Deletes the {@link Document} associated with the given {@code documentId}.
 	 * 
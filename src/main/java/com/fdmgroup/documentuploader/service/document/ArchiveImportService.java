@@ -0,0 +1,370 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.config.ArchiveImportProperties;
+import com.fdmgroup.documentuploader.config.UploadBudgetProperties;
+import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Item;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Status;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.CountingInputStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractArchiveImportService}.
+ * </p>
+ * <p>
+ * The entries of the archive are handed to
+ * {@link AbstractBulkDocumentService} one at a time through an
+ * {@link Iterator}. The bulk service validates them, skips existing names,
+ * enforces the quota of the service level and inserts them in batches. Only
+ * the entry being read and the current batch are held in memory.
+ * </p>
+ * <p>
+ * Decompression bombs are guarded against while the archive is read. The
+ * import stops at the first entry which exceeds the number of entries, the
+ * total uncompressed size or the ratio of uncompressed bytes extracted to
+ * compressed bytes received. A single entry larger than a document may be is
+ * skipped, and only that many bytes of it are ever buffered.
+ * </p>
+ * <p>
+ * The import is not covered by the filter reserving the bytes of uploads, as
+ * its request body is streamed rather than held. Instead, the bytes of every
+ * entry are reserved from the {@link UploadByteBudget}, if one is configured,
+ * in chunks of {@value #RESERVATION_CHUNK} bytes as the entry is read. They are
+ * released once the bulk service no longer holds the document, so the budget
+ * covers the entry being read and the current batch. The import stops at the
+ * first entry whose bytes could not be reserved within the configured wait.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class ArchiveImportService implements AbstractArchiveImportService {
+
+	private static final int RESERVATION_CHUNK = 8192;
+
+	/**
+	 * Used to retrieve messages from messages.properties.
+	 */
+	private final MessageSource messageSource;
+	private final AbstractBulkDocumentService bulkDocumentService;
+	private final ArchiveImportProperties archiveImportProperties;
+	private final UploadByteBudget uploadByteBudget;
+	private final Duration maxWait;
+	private final ServiceLevelResolver serviceLevelResolver;
+
+	@Autowired
+	public ArchiveImportService(MessageSource messageSource, AbstractBulkDocumentService bulkDocumentService,
+			ArchiveImportProperties archiveImportProperties, ObjectProvider<UploadByteBudget> uploadByteBudget,
+			UploadBudgetProperties uploadBudgetProperties, ServiceLevelResolver serviceLevelResolver) {
+		super();
+		this.messageSource = messageSource;
+		this.bulkDocumentService = bulkDocumentService;
+		this.archiveImportProperties = archiveImportProperties;
+		this.uploadByteBudget = uploadByteBudget.getIfAvailable();
+		this.maxWait = uploadBudgetProperties.getMaxWait();
+		this.serviceLevelResolver = serviceLevelResolver;
+	}
+
+	@Override
+	public BulkUploadResult importArchiveToAccountByAccountId(long accountId, InputStream archive)
+			throws IOException {
+		CountingInputStream received = new CountingInputStream(archive);
+		ServiceLevel serviceLevel = uploadByteBudget == null ? null
+				: serviceLevelResolver.resolve(accountId).orElse(null);
+		ArchiveDocumentIterator documents = new ArchiveDocumentIterator(openArchive(received), received,
+				serviceLevel);
+		BulkUploadResult result;
+		try {
+			result = bulkDocumentService.addDocumentsToAccountByAccountId(accountId, documents,
+					archiveImportProperties.getMaxEntries(), documents::release);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			documents.releaseAll();
+		}
+		if (documents.skipped.isEmpty()) {
+			return result;
+		}
+		List<Item> items = new ArrayList<>(result.getItems());
+		items.addAll(documents.skipped);
+		return new BulkUploadResult(accountId, items);
+	}
+
+	/**
+	 * Opens the given stream as a ZIP or TAR archive, decompressing it first if
+	 * it is gzip-compressed.
+	 * 
+	 * @param received the stream of the archive
+	 * @return the {@link ArchiveInputStream} reading the entries of the archive
+	 * @throws IOException when the stream could not be read
+	 */
+	private ArchiveInputStream openArchive(InputStream received) throws IOException {
+		InputStream in = new BufferedInputStream(received);
+		try {
+			if (!CompressorStreamFactory.GZIP.equals(CompressorStreamFactory.detect(in))) {
+				throw unsupportedFormat();
+			}
+			in = new BufferedInputStream(new GzipCompressorInputStream(in));
+		} catch (CompressorException e) {
+			// not compressed, so it may be the archive itself
+		}
+		String format;
+		try {
+			format = ArchiveStreamFactory.detect(in);
+		} catch (ArchiveException e) {
+			throw unsupportedFormat();
+		}
+		if (ArchiveStreamFactory.ZIP.equals(format)) {
+			return new ZipArchiveInputStream(in, StandardCharsets.UTF_8.name(), true, true);
+		}
+		if (ArchiveStreamFactory.TAR.equals(format)) {
+			return new TarArchiveInputStream(in, StandardCharsets.UTF_8.name());
+		}
+		throw unsupportedFormat();
+	}
+
+	private EntityCouldNotBeSavedException unsupportedFormat() {
+		return new EntityCouldNotBeSavedException(Document.class, getMessage("archive-import.unsupported-format"));
+	}
+
+	private String getMessage(String code) {
+		return messageSource.getMessage(code, null, Locale.getDefault());
+	}
+
+	/**
+	 * Inner class of {@link ArchiveImportService} which turns the file entries
+	 * of an archive into {@link Document} instances as they are read, applying
+	 * the limits of {@link ArchiveImportProperties}.
+	 *
+	 * @author Noah Anderson
+	 */
+	private class ArchiveDocumentIterator implements Iterator<Document> {
+
+		private final ArchiveInputStream entries;
+		private final CountingInputStream received;
+		private final ServiceLevel serviceLevel;
+		private final long maxEntrySize;
+		private final long maxTotalSize;
+		private final long expansionRatioThreshold;
+
+		/**
+		 * The entries which were skipped or stopped the import.
+		 */
+		private final List<Item> skipped = new ArrayList<>();
+
+		/**
+		 * The bytes reserved for each document read but not yet released.
+		 */
+		private final Map<Document, Long> reservations = new IdentityHashMap<>();
+
+		private Document next;
+		private boolean done;
+		private boolean budgetExhausted;
+		private int entryCount;
+		private long extracted;
+		private long entryReserved;
+
+		private ArchiveDocumentIterator(ArchiveInputStream entries, CountingInputStream received,
+				ServiceLevel serviceLevel) {
+			this.entries = entries;
+			this.received = received;
+			this.serviceLevel = serviceLevel;
+			this.maxEntrySize = archiveImportProperties.getMaxEntrySize().toBytes();
+			this.maxTotalSize = archiveImportProperties.getMaxTotalSize().toBytes();
+			this.expansionRatioThreshold = archiveImportProperties.getExpansionRatioThreshold().toBytes();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null && !done) {
+				next = readNextDocument();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Document next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Document document = next;
+			next = null;
+			return document;
+		}
+
+		/**
+		 * Reads entries until the next file which may be imported.
+		 * 
+		 * @return the {@link Document} of the file, or {@code null} once the
+		 *         archive is exhausted or the import was stopped
+		 */
+		private Document readNextDocument() {
+			try {
+				ArchiveEntry entry;
+				while ((entry = entries.getNextEntry()) != null) {
+					if (entry.isDirectory()) {
+						continue;
+					}
+					String name = entry.getName();
+					if (++entryCount > archiveImportProperties.getMaxEntries()) {
+						return stop(name, getMessage("archive-import.too-many-entries")
+								+ archiveImportProperties.getMaxEntries());
+					}
+					if (!entries.canReadEntryData(entry)) {
+						skip(name, getMessage("archive-import.unreadable-entry"));
+						continue;
+					}
+					byte[] content = entry.getSize() > maxEntrySize ? null : readEntry();
+					if (budgetExhausted) {
+						return stop(name, getMessage("archive-import.budget-exhausted"));
+					}
+					if (content == null) {
+						skip(name, getMessage("archive-import.entry-too-large")
+								+ archiveImportProperties.getMaxEntrySize());
+						continue;
+					}
+					extracted += content.length;
+					if (extracted > maxTotalSize) {
+						return stop(name, getMessage("archive-import.too-large")
+								+ archiveImportProperties.getMaxTotalSize());
+					}
+					if (extracted > expansionRatioThreshold
+							&& extracted > archiveImportProperties.getMaxExpansionRatio() * received.getBytesRead()) {
+						return stop(name, getMessage("archive-import.expansion-ratio-exceeded")
+								+ archiveImportProperties.getMaxExpansionRatio());
+					}
+					Document document = Document.fromFileName(content, name);
+					reservations.put(document, entryReserved);
+					entryReserved = 0;
+					return document;
+				}
+				done = true;
+				return null;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Reads the current entry, reading no more than one byte past the maximum
+		 * size of an entry, and reserving its bytes before they are read.
+		 * 
+		 * @return the content of the entry, or {@code null} if it is larger than
+		 *         the maximum size or its bytes could not be reserved
+		 * @throws IOException when the entry could not be read
+		 */
+		private byte[] readEntry() throws IOException {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[RESERVATION_CHUNK];
+			long copied = 0;
+			while (copied < entryReserved || reserveChunk()) {
+				int read = entries.read(buffer, 0, (int) Math.min(entryReserved - copied, maxEntrySize + 1 - copied));
+				if (read <= 0) {
+					return content.toByteArray();
+				}
+				content.write(buffer, 0, read);
+				copied += read;
+				if (copied > maxEntrySize) {
+					return null;
+				}
+			}
+			budgetExhausted = true;
+			return null;
+		}
+
+		/**
+		 * Reserves another {@value #RESERVATION_CHUNK} bytes for the current entry.
+		 * 
+		 * @return {@code true} if the bytes were reserved, {@code false} if they did
+		 *         not become available within the configured wait
+		 */
+		private boolean reserveChunk() {
+			if (uploadByteBudget != null) {
+				try {
+					if (!uploadByteBudget.tryReserve(serviceLevel, RESERVATION_CHUNK, maxWait)) {
+						return false;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			entryReserved += RESERVATION_CHUNK;
+			return true;
+		}
+
+		/**
+		 * Releases the bytes reserved for the given {@code document} once the bulk
+		 * service no longer holds it.
+		 */
+		private void release(Document document) {
+			Long bytes = reservations.remove(document);
+			if (bytes != null) {
+				releaseBytes(bytes);
+			}
+		}
+
+		/**
+		 * Releases every byte still reserved, once the import has ended.
+		 */
+		private void releaseAll() {
+			reservations.values().forEach(this::releaseBytes);
+			reservations.clear();
+			releaseBytes(entryReserved);
+			entryReserved = 0;
+		}
+
+		private void releaseBytes(long bytes) {
+			if (uploadByteBudget != null && bytes > 0) {
+				uploadByteBudget.release(serviceLevel, bytes);
+			}
+		}
+
+		private void skip(String name, String message) {
+			releaseBytes(entryReserved);
+			entryReserved = 0;
+			skipped.add(new Item(name, Status.REJECTED, null, message));
+		}
+
+		private Document stop(String name, String message) {
+			skip(name, message);
+			done = true;
+			return null;
+		}
+	}
+}
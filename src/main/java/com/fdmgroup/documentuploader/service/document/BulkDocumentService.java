@@ -0,0 +1,389 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.config.BulkUploadProperties;
+import com.fdmgroup.documentuploader.events.AccountDocumentEvent;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.UploadPhase;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteCriteria;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Item;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Status;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractBulkDocumentService}.
+ * </p>
+ * <p>
+ * The account and the names of its documents are loaded once. Every document
+ * is validated against them and against the documents before it in the same
+ * upload. Valid documents are then inserted in batches of
+ * {@link BulkUploadProperties#getBatchSize() batchSize}. Each batch runs in its
+ * own transaction and sends its document rows and its join rows as JDBC
+ * batches. A failed batch is rolled back and reported without affecting the
+ * others. A single {@link AccountDocumentEvent} covering every added document
+ * is published at the end. Every committed batch increments the version of the
+ * account. Loading the account, inserting each batch and publishing the event
+ * are recorded as {@link DocumentUploadEvent} phases, those of a batch with its
+ * total size.
+ * </p>
+ * <p>
+ * A bulk deletion finds the ids of the matching documents with one query
+ * scoped to the account. It then deletes them in chunks of
+ * {@link BulkUploadProperties#getBatchSize() batchSize}, each in its own
+ * transaction. Every chunk takes one {@code DELETE} against the join table and
+ * one against the document table, so the account is never loaded or saved
+ * again, and increments the version of the account. A single
+ * {@link AccountDocumentEvent} covering every deleted document is published at
+ * the end.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class BulkDocumentService implements AbstractBulkDocumentService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BulkDocumentService.class);
+	private static final String INSERT_ACCOUNT_DOCUMENT = "INSERT INTO account_documents (account_id, document_id) VALUES (?, ?)";
+	private static final String DELETE_ACCOUNT_DOCUMENTS = "DELETE FROM account_documents WHERE account_id = :accountId AND document_id IN (:documentIds)";
+	private static final String DELETE_DOCUMENTS = "DELETE FROM document WHERE document_id IN (:documentIds)";
+	private static final String ID = "id";
+	private static final String NAME = "name";
+
+	/**
+	 * Used to retrieve messages from messages.properties.
+	 */
+	private final MessageSource messageSource;
+	private final AccountRepository accountRepository;
+	private final EntityManager entityManager;
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Validator validator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BulkUploadProperties bulkUploadProperties;
+	private final DocumentContentCache documentContentCache;
+
+	@Autowired
+	public BulkDocumentService(MessageSource messageSource, AccountRepository accountRepository,
+			EntityManager entityManager, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			Validator validator, ApplicationEventPublisher eventPublisher, BulkUploadProperties bulkUploadProperties,
+			DocumentContentCache documentContentCache) {
+		super();
+		this.messageSource = messageSource;
+		this.accountRepository = accountRepository;
+		this.entityManager = entityManager;
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.validator = validator;
+		this.eventPublisher = eventPublisher;
+		this.bulkUploadProperties = bulkUploadProperties;
+		this.documentContentCache = documentContentCache;
+	}
+
+	@Override
+	public BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents) {
+		return addDocumentsToAccountByAccountId(accountId, documents, bulkUploadProperties.getMaxDocuments());
+	}
+
+	@Override
+	public BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents,
+			int maxDocuments) {
+		return addDocumentsToAccountByAccountId(accountId, documents, maxDocuments, document -> {
+		});
+	}
+
+	@Override
+	public BulkUploadResult addDocumentsToAccountByAccountId(long accountId, Iterator<Document> documents,
+			int maxDocuments, Consumer<Document> released) {
+		Set<String> names = new HashSet<>();
+		int[] quota = new int[1];
+		DocumentUploadEvent phase = DocumentUploadEvent.start(UploadPhase.VALIDATE, accountId, 0L);
+		Account account = transactionTemplate.execute(status -> {
+			Account found = getAccountWithUsers(accountId);
+			names.addAll(accountRepository.findDocumentNamesById(accountId));
+			quota[0] = getRemainingQuota(found, names.size());
+			return found;
+		});
+		ServiceLevel serviceLevel = account.getServiceLevel();
+		phase.finish(serviceLevel);
+
+		int batchSize = Math.max(1, bulkUploadProperties.getBatchSize());
+		int accepted = 0;
+		List<Item> items = new ArrayList<>();
+		List<Document> batch = new ArrayList<>(batchSize);
+		List<Integer> positions = new ArrayList<>(batchSize);
+		List<String> addedNames = new ArrayList<>();
+
+		while (documents.hasNext()) {
+			Document document = documents.next();
+			String name = document.getName();
+			if (items.size() >= maxDocuments) {
+				items.add(new Item(name, Status.REJECTED, null,
+						getMessage("bulk-upload.too-many-documents") + maxDocuments));
+				released.accept(document);
+				continue;
+			}
+			Set<ConstraintViolation<Document>> violations = validator.validate(document);
+			if (!violations.isEmpty()) {
+				items.add(new Item(name, Status.INVALID, null, violations.stream()
+						.map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" "))));
+				released.accept(document);
+				continue;
+			}
+			if (names.contains(name)) {
+				items.add(new Item(name, Status.DUPLICATE, null, getMessage("account.documents.is-on-account") + name));
+				released.accept(document);
+				continue;
+			}
+			if (accepted >= quota[0]) {
+				items.add(new Item(name, Status.REJECTED, null,
+						getMessage("bulk-upload.quota-exceeded") + account.getServiceLevel()));
+				released.accept(document);
+				continue;
+			}
+			names.add(name);
+			accepted++;
+			positions.add(items.size());
+			items.add(null);
+			batch.add(document);
+			if (batch.size() == batchSize) {
+				insertBatch(accountId, serviceLevel, batch, positions, items, names, addedNames, released);
+			}
+		}
+		insertBatch(accountId, serviceLevel, batch, positions, items, names, addedNames, released);
+
+		if (!addedNames.isEmpty()) {
+			phase = DocumentUploadEvent.start(UploadPhase.PUBLISH, accountId, 0L);
+			eventPublisher.publishEvent(new AccountDocumentEvent(addedNames, account, true));
+			phase.finish(serviceLevel);
+		}
+		return new BulkUploadResult(accountId, items);
+	}
+
+	@Override
+	public BulkDeleteResult deleteDocumentsFromAccountByAccountId(long accountId, BulkDeleteCriteria criteria) {
+		List<Long> matchingIds = new ArrayList<>();
+		Map<Long, String> matchingNames = new HashMap<>();
+		Account account = transactionTemplate.execute(status -> {
+			Account found = getAccountWithUsers(accountId);
+			for (Tuple document : findMatchingDocuments(accountId, criteria)) {
+				Long documentId = document.get(ID, Long.class);
+				matchingIds.add(documentId);
+				matchingNames.put(documentId, document.get(NAME, String.class));
+			}
+			return found;
+		});
+
+		int batchSize = Math.max(1, bulkUploadProperties.getBatchSize());
+		List<Long> deletedIds = new ArrayList<>();
+		List<String> deletedNames = new ArrayList<>();
+		int failed = 0;
+		for (int from = 0; from < matchingIds.size(); from += batchSize) {
+			List<Long> chunk = matchingIds.subList(from, Math.min(from + batchSize, matchingIds.size()));
+			MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", accountId)
+					.addValue("documentIds", chunk);
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					namedParameterJdbcTemplate.update(DELETE_ACCOUNT_DOCUMENTS, parameters);
+					namedParameterJdbcTemplate.update(DELETE_DOCUMENTS, parameters);
+					accountRepository.incrementVersion(accountId, new Date());
+				});
+				documentContentCache.invalidateAll(chunk);
+				deletedIds.addAll(chunk);
+				chunk.forEach(documentId -> deletedNames.add(matchingNames.get(documentId)));
+			} catch (RuntimeException e) {
+				LOGGER.warn("Could not delete a chunk of {} documents from account {}", chunk.size(), accountId, e);
+				failed += chunk.size();
+			}
+		}
+
+		if (!deletedNames.isEmpty()) {
+			eventPublisher.publishEvent(new AccountDocumentEvent(deletedNames, account, false));
+		}
+		return new BulkDeleteResult(accountId, deletedIds, deletedNames, failed);
+	}
+
+	/**
+	 * Gets how many more documents the {@link ServiceLevel} of the given
+	 * {@code account} allows it, both in total and in the current month.
+	 * 
+	 * @param account   the account documents are added to
+	 * @param documents the number of documents already on the account
+	 * @return the number of documents which may still be added, or
+	 *         {@link Integer#MAX_VALUE} if the service level is unlimited
+	 */
+	private int getRemainingQuota(Account account, int documents) {
+		ServiceLevel serviceLevel = account.getServiceLevel();
+		long remaining = Integer.MAX_VALUE;
+		if (serviceLevel.getMaxUploads() >= 0) {
+			remaining = Math.min(remaining, serviceLevel.getMaxUploads() - (long) documents);
+		}
+		if (serviceLevel.getMaxUploadsPerMonth() >= 0) {
+			Date startOfMonth = Date.from(LocalDate.now().withDayOfMonth(1).atStartOfDay(ZoneId.systemDefault())
+					.toInstant());
+			remaining = Math.min(remaining, serviceLevel.getMaxUploadsPerMonth()
+					- accountRepository.countDocumentsUploadedSince(account.getId(), startOfMonth));
+		}
+		return (int) Math.max(0L, remaining);
+	}
+
+	/**
+	 * Gets the {@link Account} with the given {@code accountId} with its users
+	 * loaded, so that they can still be emailed once the transaction has ended.
+	 * 
+	 * @param accountId the {@code id} of the account
+	 * @return the found account
+	 * @throws EntityNotFoundException when no account is found
+	 */
+	private Account getAccountWithUsers(long accountId) {
+		Account account = accountRepository.findById(accountId)
+				.orElseThrow(() -> new EntityNotFoundException(Account.class, ID, String.valueOf(accountId)));
+		Hibernate.initialize(account.getUsers());
+		return account;
+	}
+
+	/**
+	 * Finds the id and name of every document on the account which matches all
+	 * of the given {@code criteria}, without loading the documents themselves.
+	 * 
+	 * @param accountId the {@code id} of the account
+	 * @param criteria  the criteria the documents must match
+	 * @return a {@link Tuple} holding the {@value #ID} and {@value #NAME} of
+	 *         each matching document, in order of id
+	 */
+	private List<Tuple> findMatchingDocuments(long accountId, BulkDeleteCriteria criteria) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Account> account = query.from(Account.class);
+		Join<Account, Document> document = account.join("documents");
+
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(builder.equal(account.get(ID), accountId));
+		if (!criteria.getNames().isEmpty()) {
+			predicates.add(document.get(NAME).in(criteria.getNames()));
+		}
+		if (!criteria.getIds().isEmpty()) {
+			predicates.add(document.get(ID).in(criteria.getIds()));
+		}
+		if (criteria.getExtension() != null) {
+			predicates.add(builder.equal(document.get("extension"), criteria.getExtension()));
+		}
+		if (criteria.getUploadedBefore() != null) {
+			predicates.add(builder.lessThan(document.<Date> get("uploadedAt"), criteria.getUploadedBefore()));
+		}
+
+		query.multiselect(document.get(ID).alias(ID), document.get(NAME).alias(NAME))
+				.where(predicates.toArray(new Predicate[0]))
+				.orderBy(builder.asc(document.get(ID)));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	/**
+	 * Inserts the given {@code batch} of documents and the rows joining them to
+	 * the account in one transaction, records the outcome of each at its
+	 * position in {@code items} and clears the batch.
+	 * 
+	 * @param accountId    the {@code id} of the account the documents are added
+	 *                     to
+	 * @param serviceLevel the service level of the account
+	 * @param batch        the documents to insert
+	 * @param positions    the position in {@code items} of each document in the
+	 *                     {@code batch}
+	 * @param items        the outcome of every document so far
+	 * @param names        the names of the documents on the account, from which
+	 *                     the names of the batch are removed if it fails
+	 * @param addedNames   the names of the documents added so far
+	 * @param released     called with each document of the batch once it is
+	 *                     cleared
+	 */
+	private void insertBatch(long accountId, ServiceLevel serviceLevel, List<Document> batch,
+			List<Integer> positions, List<Item> items, Set<String> names, List<String> addedNames,
+			Consumer<Document> released) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		long bytes = batch.stream().mapToLong(document -> document.getContent() == null ? 0L
+				: document.getContent().length).sum();
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				DocumentUploadEvent phase = DocumentUploadEvent.start(UploadPhase.PERSIST, accountId, bytes);
+				batch.forEach(entityManager::persist);
+				entityManager.flush();
+				phase.finish(serviceLevel);
+
+				phase = DocumentUploadEvent.start(UploadPhase.ATTACH, accountId, bytes);
+				jdbcTemplate.batchUpdate(INSERT_ACCOUNT_DOCUMENT, batch, batch.size(), (statement, document) -> {
+					statement.setLong(1, accountId);
+					statement.setLong(2, document.getId());
+				});
+				accountRepository.incrementVersion(accountId, new Date());
+				entityManager.clear();
+				phase.finish(serviceLevel);
+			});
+			for (int i = 0; i < batch.size(); i++) {
+				Document document = batch.get(i);
+				items.set(positions.get(i), new Item(document.getName(), Status.CREATED, document.getId(), null));
+				addedNames.add(document.getName());
+			}
+		} catch (RuntimeException e) {
+			LOGGER.warn("Could not add a batch of {} documents to account {}", batch.size(), accountId, e);
+			String message = getMessage("bulk-upload.failed");
+			for (int i = 0; i < batch.size(); i++) {
+				String name = batch.get(i).getName();
+				items.set(positions.get(i), new Item(name, Status.FAILED, null, message));
+				names.remove(name);
+			}
+		}
+		batch.forEach(released);
+		batch.clear();
+		positions.clear();
+	}
+
+	private String getMessage(String code) {
+		return messageSource.getMessage(code, null, Locale.getDefault());
+	}
+}
@@ -0,0 +1,421 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.config.DocumentCacheProperties;
+import com.fdmgroup.documentuploader.model.document.Document;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * Cache of the contents of downloaded {@link Document} instances, bounded by
+ * the total number of content bytes held rather than by the number of
+ * documents.
+ * </p>
+ * <p>
+ * Admission follows W-TinyLFU. New documents enter a small LRU window holding
+ * one percent of the bytes. Documents leaving the window compete with the least
+ * recently used documents of the main region, and the one read more often
+ * according to a {@link FrequencySketch} stays. The main region is a segmented
+ * LRU: documents read again move from probation into a protected segment
+ * holding eighty percent of its bytes. A burst of documents read only once
+ * therefore never displaces the documents most downloads are for.
+ * </p>
+ * <p>
+ * A document larger than the window would leave it straight away, so it skips
+ * the window and competes for the main region as soon as it is offered. That
+ * decision is made before its buffer is allocated, so a document which is
+ * refused admission never costs any direct memory.
+ * </p>
+ * <p>
+ * Contents are stored in direct buffers, outside of the heap, so a full cache
+ * neither enlarges the heap nor has its bytes copied by the garbage collector.
+ * The direct memory of the JVM ({@code -XX:MaxDirectMemorySize}) must allow for
+ * {@code app.document-cache.max-size}. Contents are immutable, so entries are
+ * only invalidated when their document is deleted. Hits, misses, bytes saved,
+ * evictions, the size and the hit ratio are published as
+ * {@value #METRIC_PREFIX} metrics.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Component
+public class DocumentContentCache {
+
+	static final String METRIC_PREFIX = "document.content.cache";
+
+	private static final double WINDOW_FRACTION = 0.01;
+	private static final double PROTECTED_FRACTION = 0.8;
+
+	private final long maxSize;
+	private final long maxEntrySize;
+	private final long[] maxRegionSizes = new long[Region.values().length];
+	private final long[] regionSizes = new long[Region.values().length];
+	private final FrequencySketch sketch;
+	private final IntFunction<ByteBuffer> allocator;
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private final Map<Region, LinkedHashMap<Long, Entry>> regions = new HashMap<>();
+
+	/**
+	 * Incremented by every invalidation, so that a document read before it was
+	 * deleted is not cached afterwards.
+	 */
+	private long generation;
+
+	private long hits;
+	private long misses;
+	private long bytesSaved;
+	private long evictions;
+
+	@Autowired
+	public DocumentContentCache(DocumentCacheProperties documentCacheProperties, MeterRegistry meterRegistry) {
+		this(documentCacheProperties, meterRegistry, ByteBuffer::allocateDirect);
+	}
+
+	public DocumentContentCache(DocumentCacheProperties documentCacheProperties, MeterRegistry meterRegistry,
+			IntFunction<ByteBuffer> allocator) {
+		super();
+		this.allocator = allocator;
+		this.maxSize = Math.max(0L, documentCacheProperties.getMaxSize().toBytes());
+		long windowSize = Math.max(1L, (long) (maxSize * WINDOW_FRACTION));
+		long mainSize = Math.max(0L, maxSize - windowSize);
+		maxRegionSizes[Region.WINDOW.ordinal()] = windowSize;
+		maxRegionSizes[Region.PROTECTED.ordinal()] = (long) (mainSize * PROTECTED_FRACTION);
+		maxRegionSizes[Region.PROBATION.ordinal()] = mainSize;
+		this.maxEntrySize = Math.min(mainSize, documentCacheProperties.getMaxEntrySize().toBytes());
+		this.sketch = new FrequencySketch(Math.max(1, documentCacheProperties.getExpectedEntries()));
+		for (Region region : Region.values()) {
+			regions.put(region, new LinkedHashMap<>());
+		}
+		registerMetrics(meterRegistry);
+	}
+
+	/**
+	 * Gets the cached copy of the {@link Document} with the given
+	 * {@code documentId}, recording the read for admission decisions.
+	 *
+	 * @param documentId the {@code id} of a {@code Document}
+	 * @return a copy of the cached {@code Document}, or {@code null} if it is not
+	 *         cached
+	 */
+	public Document get(long documentId) {
+		if (maxSize == 0) {
+			return null;
+		}
+		Entry entry;
+		synchronized (this) {
+			sketch.increment(documentId);
+			entry = entries.get(documentId);
+			if (entry == null) {
+				misses++;
+				return null;
+			}
+			hits++;
+			bytesSaved += entry.weight;
+			onHit(entry);
+		}
+		return entry.toDocument();
+	}
+
+	/**
+	 * Gets the current generation of this cache, to be passed to
+	 * {@link #put(Document, long)} once the document has been read.
+	 *
+	 * @return the number of invalidations so far
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+
+	/**
+	 * Offers the given {@link Document} to this cache. Documents larger than the
+	 * maximum entry size are ignored, as are documents read before any
+	 * invalidation which happened since {@code generation} was taken.
+	 *
+	 * @param document   the {@code Document} read from the database
+	 * @param generation the {@link #generation()} taken before it was read
+	 */
+	public void put(Document document, long generation) {
+		byte[] content = document.getContent();
+		if (content == null || content.length == 0 || content.length > maxEntrySize) {
+			return;
+		}
+		boolean bypassesWindow = content.length > maxSize(Region.WINDOW);
+		synchronized (this) {
+			if (generation != this.generation || entries.containsKey(document.getId())) {
+				return;
+			}
+			if (bypassesWindow && !isAdmissible(document.getId(), content.length)) {
+				evictions++;
+				return;
+			}
+		}
+
+		ByteBuffer buffer = allocator.apply(content.length);
+		buffer.put(content).flip();
+		synchronized (this) {
+			if (generation != this.generation || entries.containsKey(document.getId())) {
+				return;
+			}
+			Entry entry = new Entry(document, buffer);
+			entries.put(entry.key, entry);
+			if (bypassesWindow) {
+				admit(entry);
+				return;
+			}
+			moveTo(entry, Region.WINDOW);
+			LinkedHashMap<Long, Entry> window = regions.get(Region.WINDOW);
+			while (size(Region.WINDOW) > maxSize(Region.WINDOW) && !window.isEmpty()) {
+				admit(eldest(window));
+			}
+		}
+	}
+
+	/**
+	 * Removes the {@link Document} with the given {@code documentId}.
+	 *
+	 * @param documentId the {@code id} of a deleted {@code Document}
+	 */
+	public synchronized void invalidate(long documentId) {
+		generation++;
+		Entry entry = entries.get(documentId);
+		if (entry != null) {
+			remove(entry);
+		}
+	}
+
+	/**
+	 * Removes every {@link Document} with one of the given {@code documentIds}.
+	 *
+	 * @param documentIds the {@code id} of each deleted {@code Document}
+	 */
+	public synchronized void invalidateAll(Collection<Long> documentIds) {
+		for (Long documentId : documentIds) {
+			invalidate(documentId);
+		}
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Gets the fraction of reads which were served from this cache.
+	 *
+	 * @return the hit ratio, or {@code 0} if nothing has been read yet
+	 */
+	public synchronized double getHitRatio() {
+		long requests = hits + misses;
+		return requests == 0 ? 0.0 : (double) hits / requests;
+	}
+
+	/**
+	 * Gets the number of content bytes served from this cache rather than read
+	 * from the database.
+	 *
+	 * @return the bytes saved
+	 */
+	public synchronized long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Gets the number of content bytes currently held.
+	 *
+	 * @return the size of this cache in bytes
+	 */
+	public synchronized long getSize() {
+		long size = 0;
+		for (long regionSize : regionSizes) {
+			size += regionSize;
+		}
+		return size;
+	}
+
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Checks whether an entry of the given weight would be admitted into the main
+	 * region, making the same comparisons as {@link #admit(Entry)} without
+	 * evicting anything.
+	 */
+	private boolean isAdmissible(long key, long weight) {
+		int candidateFrequency = sketch.frequency(key);
+		long excess = size(Region.PROBATION) + size(Region.PROTECTED) + weight - maxSize(Region.PROBATION);
+		for (Region region : new Region[] { Region.PROBATION, Region.PROTECTED }) {
+			for (Entry victim : regions.get(region).values()) {
+				if (excess <= 0) {
+					return true;
+				}
+				if (sketch.frequency(victim.key) >= candidateFrequency) {
+					return false;
+				}
+				excess -= victim.weight;
+			}
+		}
+		return excess <= 0;
+	}
+
+	/**
+	 * Moves the given entry, leaving the window or offered too large for it,
+	 * into probation if it is read more often than each entry it has to evict,
+	 * or evicts it otherwise.
+	 */
+	private void admit(Entry candidate) {
+		int candidateFrequency = sketch.frequency(candidate.key);
+		while (size(Region.PROBATION) + size(Region.PROTECTED) + candidate.weight > maxSize(Region.PROBATION)) {
+			Entry victim = eldest(regions.get(Region.PROBATION));
+			if (victim == null) {
+				victim = eldest(regions.get(Region.PROTECTED));
+			}
+			if (victim == null || sketch.frequency(victim.key) >= candidateFrequency) {
+				evict(candidate);
+				return;
+			}
+			evict(victim);
+		}
+		moveTo(candidate, Region.PROBATION);
+	}
+
+	private void onHit(Entry entry) {
+		if (entry.region == Region.WINDOW) {
+			moveTo(entry, Region.WINDOW);
+			return;
+		}
+		moveTo(entry, Region.PROTECTED);
+		LinkedHashMap<Long, Entry> protectedRegion = regions.get(Region.PROTECTED);
+		while (size(Region.PROTECTED) > maxSize(Region.PROTECTED) && protectedRegion.size() > 1) {
+			moveTo(eldest(protectedRegion), Region.PROBATION);
+		}
+	}
+
+	/**
+	 * Moves the given entry to the most recently used end of the given region,
+	 * which may be the region it is already in.
+	 */
+	private void moveTo(Entry entry, Region region) {
+		if (entry.region != null) {
+			regions.get(entry.region).remove(entry.key);
+			regionSizes[entry.region.ordinal()] -= entry.weight;
+		}
+		entry.region = region;
+		regions.get(region).put(entry.key, entry);
+		regionSizes[region.ordinal()] += entry.weight;
+	}
+
+	private void evict(Entry entry) {
+		remove(entry);
+		evictions++;
+	}
+
+	private void remove(Entry entry) {
+		entries.remove(entry.key);
+		if (entry.region != null) {
+			regions.get(entry.region).remove(entry.key);
+			regionSizes[entry.region.ordinal()] -= entry.weight;
+		}
+	}
+
+	private long size(Region region) {
+		return regionSizes[region.ordinal()];
+	}
+
+	private long maxSize(Region region) {
+		return maxRegionSizes[region.ordinal()];
+	}
+
+	private static Entry eldest(LinkedHashMap<Long, Entry> region) {
+		Iterator<Entry> iterator = region.values().iterator();
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	private void registerMetrics(MeterRegistry meterRegistry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", this, DocumentContentCache::getHitCount)
+				.description("Reads of document contents by whether they were served from the cache")
+				.tag("result", "hit").register(meterRegistry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", this, DocumentContentCache::getMissCount)
+				.description("Reads of document contents by whether they were served from the cache")
+				.tag("result", "miss").register(meterRegistry);
+		FunctionCounter.builder(METRIC_PREFIX + ".bytes.saved", this, DocumentContentCache::getBytesSaved)
+				.description("Content bytes served from the cache rather than read from the database")
+				.baseUnit("bytes").register(meterRegistry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", this, DocumentContentCache::getEvictionCount)
+				.description("Documents evicted or refused admission to make room").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, DocumentContentCache::getSize)
+				.description("Content bytes held off-heap by the cache").baseUnit("bytes").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, DocumentContentCache::getHitRatio)
+				.description("Fraction of reads of document contents served from the cache").register(meterRegistry);
+	}
+
+	/**
+	 * The regions of the cache. Probation is bounded by the size of the whole
+	 * main region, as it holds whatever protected does not.
+	 */
+	private enum Region {
+		WINDOW, PROBATION, PROTECTED
+	}
+
+	/**
+	 * Static inner class of {@link DocumentContentCache} which holds the content
+	 * of a document off-heap alongside the fields needed to rebuild it.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static class Entry {
+
+		private final long key;
+		private final String name;
+		private final String extension;
+		private final Long uploadedAt;
+		private final String digest;
+		private final ByteBuffer content;
+		private final int weight;
+		private Region region;
+
+		Entry(Document document, ByteBuffer content) {
+			this.key = document.getId();
+			this.name = document.getName();
+			this.extension = document.getExtension();
+			this.uploadedAt = document.getUploadedAt() == null ? null : document.getUploadedAt().getTime();
+			this.digest = document.getDigest();
+			this.content = content;
+			this.weight = content.remaining();
+		}
+
+		/**
+		 * Copies the content back onto the heap. The buffer is never written
+		 * after creation, so this is safe outside of the lock, even once the
+		 * entry has been evicted.
+		 */
+		Document toDocument() {
+			byte[] bytes = new byte[weight];
+			content.duplicate().get(bytes);
+			Document document = new Document(bytes, name, extension);
+			document.setId(key);
+			document.setUploadedAt(uploadedAt == null ? null : new Date(uploadedAt));
+			document.setDigest(digest);
+			return document;
+		}
+	}
+}
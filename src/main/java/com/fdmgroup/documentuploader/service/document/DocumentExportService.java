@@ -0,0 +1,217 @@
+package com.fdmgroup.documentuploader.service.document;
+
+import com.fdmgroup.documentuploader.config.DocumentExportProperties;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.exceptions.ExportLimitExceededException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractDocumentExportService}.
+ * </p>
+ * <p>
+ * The documents are selected with one JDBC query which the driver fetches
+ * {@link DocumentExportProperties#getFetchSize() fetchSize} rows at a time.
+ * The content of each row is copied from its binary stream straight into the
+ * ZIP entry, so no {@code Document} entity is ever created. Documents with a
+ * {@link DocumentExportProperties#getStoredExtensions() stored extension} are
+ * written at compression level 0. Their bytes are copied as they are, without
+ * spending CPU on data which will not shrink. Level 0 is used rather than the
+ * {@code STORED} method because {@code STORED} needs the CRC of an entry
+ * before its data. That would mean reading each document twice.
+ * </p>
+ * <p>
+ * Each export holds a read-only transaction, and with it a database
+ * connection, until its whole response is written. At most
+ * {@link DocumentExportProperties#getMaxConcurrentExports()
+ * maxConcurrentExports} exports stream at once, so slow downloads cannot
+ * exhaust the connection pool; further exports are rejected rather than
+ * queued.
+ * </p>
+ * <p>
+ * Entry names are made safe by replacing path separators, which can make the
+ * names of two documents equal. The names already written are remembered for
+ * the length of an export, and a colliding document is given the id of the
+ * document as a suffix.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class DocumentExportService implements AbstractDocumentExportService {
+
+	private static final String SELECT_DOCUMENTS = "SELECT d.document_id, d.name, d.extension, d.uploaded_at, d.content "
+			+ "FROM document d JOIN account_documents ad ON ad.document_id = d.document_id "
+			+ "WHERE ad.account_id = :accountId";
+	private static final String NAME_STARTS_WITH = " AND d.name LIKE :namePrefix ESCAPE '\\'";
+	private static final String EXTENSION_EQUALS = " AND d.extension = :extension";
+	private static final String ORDER_BY_ID = " ORDER BY d.document_id";
+	private static final String ZIP = ".zip";
+	private static final String ID = "id";
+
+	private final AccountRepository accountRepository;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final DocumentExportProperties documentExportProperties;
+	private final Semaphore exports;
+
+	@Autowired
+	public DocumentExportService(AccountRepository accountRepository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, DocumentExportProperties documentExportProperties) {
+		super();
+		this.accountRepository = accountRepository;
+		JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		streamingJdbcTemplate.setFetchSize(documentExportProperties.getFetchSize());
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(streamingJdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.documentExportProperties = documentExportProperties;
+		this.exports = new Semaphore(documentExportProperties.getMaxConcurrentExports());
+	}
+
+	@Override
+	public String getExportFileName(long accountId) {
+		return accountRepository.findById(accountId)
+				.map(account -> account.getName() + ZIP)
+				.orElseThrow(() -> new EntityNotFoundException(Account.class, ID, String.valueOf(accountId)));
+	}
+
+	@Override
+	public void acquireExport() {
+		if (!exports.tryAcquire()) {
+			throw new ExportLimitExceededException(documentExportProperties.getMaxConcurrentExports());
+		}
+	}
+
+	@Override
+	public void releaseExport() {
+		exports.release();
+	}
+
+	@Override
+	public int exportDocumentsOfAccount(long accountId, String namePrefix, String extension,
+			OutputStream outputStream) throws IOException {
+		StringBuilder sql = new StringBuilder(SELECT_DOCUMENTS);
+		MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", accountId);
+		if (namePrefix != null && !namePrefix.isEmpty()) {
+			sql.append(NAME_STARTS_WITH);
+			parameters.addValue("namePrefix", escapeLikePattern(namePrefix) + "%");
+		}
+		if (extension != null && !extension.isEmpty()) {
+			sql.append(EXTENSION_EQUALS);
+			parameters.addValue("extension", extension.startsWith(".") ? extension : "." + extension);
+		}
+		sql.append(ORDER_BY_ID);
+
+		ZipOutputStream zip = new ZipOutputStream(
+				new BufferedOutputStream(outputStream, documentExportProperties.getBufferSize()));
+		Set<String> entryNames = new HashSet<>();
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), parameters,
+					(RowCallbackHandler) resultSet -> writeEntry(zip, resultSet, entryNames)));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		zip.finish();
+		zip.flush();
+		return entryNames.size();
+	}
+
+	/**
+	 * Writes the document in the current row of the given {@code resultSet} to
+	 * the given {@code zip} as a single entry.
+	 * 
+	 * @param zip        the archive being written
+	 * @param resultSet  positioned on the row of a document
+	 * @param entryNames the names of the entries written so far, which the name
+	 *                   of this entry is added to
+	 * @throws SQLException when a column could not be read
+	 */
+	private void writeEntry(ZipOutputStream zip, ResultSet resultSet, Set<String> entryNames) throws SQLException {
+		long id = resultSet.getLong("document_id");
+		String extension = resultSet.getString("extension");
+		boolean stored = extension != null && documentExportProperties.getStoredExtensions().contains(extension);
+
+		ZipEntry entry = new ZipEntry(toEntryName(id, resultSet.getString("name"), extension, entryNames));
+		Timestamp uploadedAt = resultSet.getTimestamp("uploaded_at");
+		if (uploadedAt != null) {
+			entry.setTime(uploadedAt.getTime());
+		}
+		try (InputStream content = resultSet.getBinaryStream("content")) {
+			zip.setLevel(stored ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+			zip.putNextEntry(entry);
+			if (content != null) {
+				StreamUtils.copy(content, zip);
+			}
+			zip.closeEntry();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates the name of the entry of a document from its name and extension.
+	 * Path separators are replaced, so that every entry is extracted into the
+	 * same directory. If the name is already taken, the {@code id} of the
+	 * document is added before the extension, followed by a counter should that
+	 * name be taken as well.
+	 * 
+	 * @param id         the {@code id} of the document, used if it has no name
+	 * @param name       the name of the document
+	 * @param extension  the extension of the document, possibly {@code null}
+	 * @param entryNames the names of the entries written so far, which the
+	 *                   returned name is added to
+	 * @return the name of the entry, unique within {@code entryNames}
+	 */
+	private static String toEntryName(long id, String name, String extension, Set<String> entryNames) {
+		String baseName = sanitize(name == null || name.trim().isEmpty() ? "document-" + id : name);
+		String suffix = extension == null ? "" : sanitize(extension);
+		String entryName = baseName + suffix;
+		for (int attempt = 1; !entryNames.add(entryName); attempt++) {
+			entryName = baseName + " (" + id + (attempt == 1 ? "" : "-" + attempt) + ")" + suffix;
+		}
+		return entryName;
+	}
+
+	private static String sanitize(String fileName) {
+		return fileName.replaceAll("[/\\\\:\\p{Cntrl}]", "_");
+	}
+
+	/**
+	 * Escapes the characters with a special meaning in a {@code LIKE} pattern,
+	 * so that the given {@code value} only matches itself.
+	 * 
+	 * @param value the value to escape
+	 * @return the escaped value
+	 */
+	private static String escapeLikePattern(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -1,6 +1,10 @@
 package com.fdmgroup.documentuploader.service.document;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,16 +12,28 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.UploadPhase;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.document.DocumentVersion;
 import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.util.BatchLookupUtil;
 
 /**
  * <p>
  * Implementing class of {@link AbstractDocumentService} which performs
  * operations related to {@link Document} objects.
  * </p>
+ * <p>
+ * Documents retrieved by id are served from the {@link DocumentContentCache}
+ * when possible, so that the contents of frequently downloaded documents are
+ * not read from the database every time.
+ * </p>
  * 
  * @author Noah Anderson
  */
@@ -32,28 +48,86 @@ public class DocumentService implements AbstractDocumentService {
 	 */
 	private final MessageSource messageSource;
 	private final DocumentRepository documentRepository;
+	private final DocumentContentCache documentContentCache;
+	private final BatchLookupProperties batchLookupProperties;
 	
 	@Autowired
-	public DocumentService(MessageSource messageSource, DocumentRepository documentRepository) {
+	public DocumentService(MessageSource messageSource, DocumentRepository documentRepository,
+			DocumentContentCache documentContentCache, BatchLookupProperties batchLookupProperties) {
 		super();
 		this.messageSource = messageSource;
 		this.documentRepository = documentRepository;
+		this.documentContentCache = documentContentCache;
+		this.batchLookupProperties = batchLookupProperties;
 	}
 
 	@Override
 	public Document uploadDocument(Document document) {
+		return uploadDocument(document, 0L, null);
+	}
+
+	@Override
+	public Document uploadDocument(Document document, long accountId, ServiceLevel serviceLevel) {
+		DocumentUploadEvent phase = DocumentUploadEvent.start(UploadPhase.PERSIST, accountId,
+				document.getContent() == null ? 0L : document.getContent().length);
 		long documentId = document.getId();
 		boolean documentExists = documentRepository.existsById(documentId);
 		if (documentExists) {
 			throw new EntityCouldNotBeSavedException(Document.class,
 					messageSource.getMessage("document.exists", null, Locale.getDefault()));
 		}
-		return documentRepository.save(document);
+		Document savedDocument = documentRepository.save(document);
+		phase.finish(serviceLevel);
+		return savedDocument;
 	}
 
 	@Override
 	public Optional<Document> getDocumentById(long documentId) {
-		return documentRepository.findById(documentId);
+		Document cached = documentContentCache.get(documentId);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+		long generation = documentContentCache.generation();
+		Optional<Document> document = documentRepository.findById(documentId);
+		document.ifPresent(found -> documentContentCache.put(found, generation));
+		return document;
+	}
+
+	/**
+	 * Serves every document held by the {@link DocumentContentCache} from it, and
+	 * queries only the rest, adding them to the cache. The size of the content
+	 * of the rest is summed before it is loaded, so a lookup whose content would
+	 * exceed the maximum is rejected without loading any of it.
+	 */
+	@Override
+	public List<Document> getDocumentsByIds(List<Long> documentIds) {
+		List<Long> ids = BatchLookupUtil.distinctIds(Document.class, documentIds,
+				batchLookupProperties.getMaxDocumentIds());
+		Map<Long, Document> found = new HashMap<>();
+		List<Long> missed = new ArrayList<>();
+		long contentSize = 0;
+		for (Long id : ids) {
+			Document cached = documentContentCache.get(id);
+			if (cached != null) {
+				found.put(id, cached);
+				contentSize += cached.getContent().length;
+			} else {
+				missed.add(id);
+			}
+		}
+		contentSize += BatchLookupUtil.sumInChunks(missed, batchLookupProperties,
+				documentRepository::sumContentSizeByIdIn);
+		long maxContentSize = batchLookupProperties.getMaxDocumentContentSize().toBytes();
+		if (contentSize > maxContentSize) {
+			throw new BatchLimitExceededException(Document.class, contentSize, maxContentSize);
+		}
+		long generation = documentContentCache.generation();
+		BatchLookupUtil.findInChunks(missed, batchLookupProperties, documentRepository::findAllById, Document::getId)
+				.forEach((id, document) -> {
+					documentContentCache.put(document, generation);
+					found.put(id, document);
+				});
+		return BatchLookupUtil.inOrder(ids, found);
 	}
 
 	@Override
@@ -61,6 +135,21 @@ public class DocumentService implements AbstractDocumentService {
 		return documentRepository.findByName(documentName);
 	}
 
+	@Override
+	public Optional<DocumentVersion> getDocumentVersionById(long documentId) {
+		return documentRepository.findVersionById(documentId);
+	}
+
+	@Override
+	public Optional<DocumentVersion> getDocumentVersionByName(String documentName) {
+		return documentRepository.findVersionByName(documentName);
+	}
+
+	@Override
+	public Optional<byte[]> getContentByDigest(String digest) {
+		return documentRepository.findIdByDigest(digest).flatMap(this::getDocumentById).map(Document::getContent);
+	}
+
 	@Override
 	public void deleteDocumentById(long documentId) {
 		boolean documentExists = documentRepository.existsById(documentId);
@@ -68,6 +157,7 @@ public class DocumentService implements AbstractDocumentService {
 			throw new EntityNotFoundException(Document.class, DOCUMENT_ID, String.valueOf(documentId));
 		}
 		documentRepository.deleteById(documentId);
+		documentContentCache.invalidate(documentId);
 	}
 
 }
@@ -0,0 +1,106 @@
+package com.fdmgroup.documentuploader.service.document;
+
+/**
+ * <p>
+ * Count-min sketch which estimates how often each key was seen recently, used
+ * to decide which of two documents is more worth caching.
+ * </p>
+ * <p>
+ * Each key maps to four 4-bit counters, sixteen of which are packed into every
+ * {@code long}, so the sketch costs half a byte per counter however many keys
+ * are seen. The estimate of a key is the smallest of its counters. Once the
+ * number of increments reaches ten times the number of counter groups, every
+ * counter is halved, so that frequencies decay and keys which were popular
+ * long ago do not hold on to the cache.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class FrequencySketch {
+
+	private static final int MAX_FREQUENCY = 15;
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long[] SEEDS = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL,
+			0xCBF29CE484222325L };
+
+	private final long[] table;
+	private final int sampleSize;
+	private int increments;
+
+	/**
+	 * Creates a new instance of {@link FrequencySketch}.
+	 *
+	 * @param expectedKeys the number of distinct keys expected to be tracked
+	 */
+	public FrequencySketch(int expectedKeys) {
+		if (expectedKeys < 1) {
+			throw new IllegalArgumentException("expectedKeys must be positive");
+		}
+		int length = Integer.highestOneBit(Math.max(2, expectedKeys) * 2 - 1);
+		this.table = new long[length];
+		this.sampleSize = 10 * length;
+	}
+
+	/**
+	 * Gets the estimated number of times the given {@code key} was seen.
+	 *
+	 * @param key the key to estimate
+	 * @return the estimate, between {@code 0} and {@code 15}
+	 */
+	public synchronized int frequency(long key) {
+		int frequency = MAX_FREQUENCY;
+		for (int i = 0; i < SEEDS.length; i++) {
+			frequency = Math.min(frequency, counter(key, i));
+		}
+		return frequency;
+	}
+
+	/**
+	 * Records one occurrence of the given {@code key}.
+	 *
+	 * @param key the key seen
+	 */
+	public synchronized void increment(long key) {
+		boolean incremented = false;
+		for (int i = 0; i < SEEDS.length; i++) {
+			int index = index(key, i);
+			int shift = shift(key, i);
+			if (((table[index] >>> shift) & 0xFL) < MAX_FREQUENCY) {
+				table[index] += 1L << shift;
+				incremented = true;
+			}
+		}
+		if (incremented && ++increments >= sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * Halves every counter.
+	 */
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		increments /= 2;
+	}
+
+	private int counter(long key, int seed) {
+		return (int) ((table[index(key, seed)] >>> shift(key, seed)) & 0xFL);
+	}
+
+	private int index(long key, int seed) {
+		long h = (key + SEEDS[seed]) * SEEDS[seed];
+		return (int) (h ^ (h >>> 32)) & (table.length - 1);
+	}
+
+	/**
+	 * Gets the offset of the counter of the given {@code seed} within its
+	 * {@code long}. Each seed uses its own quarter of the sixteen counters.
+	 */
+	private static int shift(long key, int seed) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		int slot = (int) (h >>> 62);
+		return ((seed << 2) + slot) << 2;
+	}
+}
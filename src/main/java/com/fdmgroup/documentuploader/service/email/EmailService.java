@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import com.fdmgroup.documentuploader.config.ApplicationProperties;
 import com.fdmgroup.documentuploader.config.ApplicationProperties.MailSettings;
+import com.fdmgroup.documentuploader.jfr.EmailSendEvent;
 
 /**
  * Implementing class of {@link AbstractEmailService}.
@@ -36,7 +37,14 @@ public class EmailService implements AbstractEmailService {
 	@Override
 	public void sendEmail(String to, String subject, String message) {
 		SimpleMailMessage email = createEmail(to, subject, message);
-		mailSender.send(email);
+		EmailSendEvent event = EmailSendEvent.start(to, subject, message);
+		boolean sent = false;
+		try {
+			mailSender.send(email);
+			sent = true;
+		} finally {
+			event.finish(sent);
+		}
 	}
 
 	/**
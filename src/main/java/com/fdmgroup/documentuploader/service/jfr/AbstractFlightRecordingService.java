@@ -0,0 +1,66 @@
+package com.fdmgroup.documentuploader.service.jfr;
+
+import com.fdmgroup.documentuploader.model.jfr.RecordingStatus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to starting,
+ * stopping and retrieving a bounded Flight Recorder recording on demand.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractFlightRecordingService {
+
+	/**
+	 * Checks whether Flight Recorder is available in the running JVM.
+	 *
+	 * @return {@code true} if recordings can be started
+	 */
+	boolean isAvailable();
+
+	/**
+	 * Starts a new recording, discarding the data of the previous one.
+	 *
+	 * @param duration how long the recording should run, or {@code null} for the
+	 *                 configured default. Capped at the configured maximum.
+	 * @return the status of the started recording, or an empty {@code Optional}
+	 *         if a recording is already running
+	 * @throws IllegalStateException if Flight Recorder is not available or the
+	 *                               configured settings cannot be read
+	 */
+	Optional<RecordingStatus> start(Duration duration);
+
+	/**
+	 * Stops the running recording. Its data is kept until the next recording is
+	 * started.
+	 *
+	 * @return the status of the stopped recording, or an empty {@code Optional}
+	 *         if there is no recording
+	 */
+	Optional<RecordingStatus> stop();
+
+	/**
+	 * Gets the status of the current recording.
+	 *
+	 * @return the status of the running or last stopped recording, or an empty
+	 *         {@code Optional} if none has been started
+	 */
+	Optional<RecordingStatus> status();
+
+	/**
+	 * Writes the data recorded so far by the recording with the given {@code id}
+	 * to a new temporary file, which the caller is responsible for deleting.
+	 *
+	 * @param id the id of the recording
+	 * @return the file written, or an empty {@code Optional} if the current
+	 *         recording does not have the given {@code id}
+	 * @throws IOException if the data could not be written
+	 */
+	Optional<Path> dump(long id) throws IOException;
+}
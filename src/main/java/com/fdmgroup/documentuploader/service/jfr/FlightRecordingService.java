@@ -0,0 +1,152 @@
+package com.fdmgroup.documentuploader.service.jfr;
+
+import com.fdmgroup.documentuploader.config.FlightRecorderProperties;
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.EmailSendEvent;
+import com.fdmgroup.documentuploader.jfr.TokenValidationEvent;
+import com.fdmgroup.documentuploader.model.jfr.RecordingStatus;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractFlightRecordingService} which keeps at
+ * most one on demand recording at a time.
+ * </p>
+ * <p>
+ * Every recording is bounded: it stops on its own after at most the configured
+ * maximum duration, and keeps no more than the configured age and size of data
+ * on disk.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "app.flight-recorder", name = "enabled", havingValue = "true")
+public class FlightRecordingService implements AbstractFlightRecordingService, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecordingService.class);
+	private static final String NAME_PREFIX = "document-uploader-";
+
+	private final FlightRecorderProperties flightRecorderProperties;
+
+	private Recording recording;
+
+	@Autowired
+	public FlightRecordingService(FlightRecorderProperties flightRecorderProperties) {
+		super();
+		this.flightRecorderProperties = flightRecorderProperties;
+		if (isAvailable()) {
+			FlightRecorder.register(DocumentUploadEvent.class);
+			FlightRecorder.register(EmailSendEvent.class);
+			FlightRecorder.register(TokenValidationEvent.class);
+		}
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return FlightRecorder.isAvailable();
+	}
+
+	@Override
+	public synchronized Optional<RecordingStatus> start(Duration duration) {
+		if (!isAvailable()) {
+			throw new IllegalStateException("Flight Recorder is not available in this JVM");
+		}
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			return Optional.empty();
+		}
+		Configuration configuration;
+		try {
+			configuration = Configuration.getConfiguration(flightRecorderProperties.getSettings());
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException(
+					"Could not read Flight Recorder settings " + flightRecorderProperties.getSettings(), e);
+		}
+		close();
+
+		Duration maxDuration = flightRecorderProperties.getMaxDuration();
+		Duration requested = duration == null || duration.isNegative() || duration.isZero()
+				? flightRecorderProperties.getDefaultDuration()
+				: duration;
+		Recording started = new Recording(configuration);
+		started.setToDisk(true);
+		started.setDuration(requested.compareTo(maxDuration) > 0 ? maxDuration : requested);
+		started.setMaxAge(flightRecorderProperties.getMaxAge());
+		started.setMaxSize(flightRecorderProperties.getMaxSize().toBytes());
+		started.setName(NAME_PREFIX + started.getId());
+		started.start();
+		this.recording = started;
+
+		LOGGER.info("Started Flight Recorder recording {} for {}", started.getName(), started.getDuration());
+		return Optional.of(statusOf(started));
+	}
+
+	@Override
+	public synchronized Optional<RecordingStatus> stop() {
+		if (recording == null) {
+			return Optional.empty();
+		}
+		if (recording.getState() == RecordingState.RUNNING) {
+			recording.stop();
+			LOGGER.info("Stopped Flight Recorder recording {}", recording.getName());
+		}
+		return Optional.of(statusOf(recording));
+	}
+
+	@Override
+	public synchronized Optional<RecordingStatus> status() {
+		return Optional.ofNullable(recording).map(this::statusOf);
+	}
+
+	@Override
+	public synchronized Optional<Path> dump(long id) throws IOException {
+		if (recording == null || recording.getId() != id || recording.getState() == RecordingState.NEW) {
+			return Optional.empty();
+		}
+		Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+		try {
+			recording.dump(file);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return Optional.of(file);
+	}
+
+	@Override
+	public synchronized void destroy() {
+		close();
+	}
+
+	private void close() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+	}
+
+	private RecordingStatus statusOf(Recording recording) {
+		return new RecordingStatus(recording.getId(), recording.getName(), recording.getState().name(),
+				flightRecorderProperties.getSettings(), recording.getStartTime(),
+				recording.getStopTime(), recording.getDuration(), recording.getMaxAge(), recording.getMaxSize(),
+				recording.getSize());
+	}
+}
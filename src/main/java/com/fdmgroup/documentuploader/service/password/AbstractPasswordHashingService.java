@@ -0,0 +1,45 @@
+package com.fdmgroup.documentuploader.service.password;
+
+import com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException;
+
+/**
+ * Service which hashes and verifies passwords.
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractPasswordHashingService {
+
+	/**
+	 * Hashes the given {@code rawPassword} with the configured cost factor.
+	 *
+	 * @param rawPassword the password to hash
+	 * @return the encoded hash
+	 * @throws PasswordHashingUnavailableException when the hashing pool is
+	 *                                             saturated
+	 */
+	String hash(String rawPassword);
+
+	/**
+	 * Checks if the given {@code rawPassword} matches the stored
+	 * {@code encodedPassword}. Stored values which are not hashes are compared
+	 * as they are.
+	 *
+	 * @param rawPassword     the password to check
+	 * @param encodedPassword the stored password
+	 * @return {@code true} if the passwords match, {@code false} otherwise.
+	 * @throws PasswordHashingUnavailableException when the hashing pool is
+	 *                                             saturated
+	 */
+	boolean matches(String rawPassword, String encodedPassword);
+
+	/**
+	 * Checks if the stored {@code encodedPassword} should be hashed again, either
+	 * because it is not hashed or because it was hashed with a lower cost factor
+	 * than is currently configured.
+	 *
+	 * @param encodedPassword the stored password
+	 * @return {@code true} if the password should be rehashed, {@code false}
+	 *         otherwise.
+	 */
+	boolean needsRehash(String encodedPassword);
+}
@@ -0,0 +1,176 @@
+package com.fdmgroup.documentuploader.service.password;
+
+import com.fdmgroup.documentuploader.config.PasswordHashingProperties;
+import com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractPasswordHashingService} which hashes
+ * passwords with bcrypt on a dedicated, bounded thread pool.
+ * </p>
+ * <p>
+ * Request threads hand their hashing work to the pool and wait for it up to the
+ * configured timeout. The pool is smaller than the number of processors and its
+ * queue is bounded, so a burst of registrations or logins fails fast with
+ * {@link PasswordHashingUnavailableException} instead of occupying every
+ * request thread and every core, which keeps document requests responsive.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class PasswordHashingService implements AbstractPasswordHashingService {
+
+	private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+	private final BCryptPasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutNanos;
+	private final Timer queueWaitTimer;
+	private final Timer hashTimer;
+	private final Timer matchTimer;
+	private final Counter rejectedCounter;
+	private final Counter timeoutCounter;
+
+	@Autowired
+	public PasswordHashingService(PasswordHashingProperties passwordHashingProperties, MeterRegistry meterRegistry) {
+		super();
+		this.passwordEncoder = new BCryptPasswordEncoder(passwordHashingProperties.getStrength());
+		int poolSize = passwordHashingProperties.getPoolSize() > 0 ? passwordHashingProperties.getPoolSize()
+				: Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(passwordHashingProperties.getQueueCapacity()), new HashingThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.timeoutNanos = passwordHashingProperties.getTimeout().toNanos();
+
+		this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+				.description("Time hashing tasks spend waiting for a thread of the pool").register(meterRegistry);
+		this.hashTimer = Timer.builder("password.hashing.duration").tag("operation", "hash").register(meterRegistry);
+		this.matchTimer = Timer.builder("password.hashing.duration").tag("operation", "match").register(meterRegistry);
+		this.rejectedCounter = Counter.builder("password.hashing.rejected").tag("reason", "queue-full")
+				.register(meterRegistry);
+		this.timeoutCounter = Counter.builder("password.hashing.rejected").tag("reason", "timeout")
+				.register(meterRegistry);
+		Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+				.register(meterRegistry);
+		Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String hash(String rawPassword) {
+		return execute(() -> passwordEncoder.encode(rawPassword), hashTimer);
+	}
+
+	@Override
+	public boolean matches(String rawPassword, String encodedPassword) {
+		if (encodedPassword == null || rawPassword == null) {
+			return false;
+		}
+		if (!isHashed(encodedPassword)) {
+			return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+					encodedPassword.getBytes(StandardCharsets.UTF_8));
+		}
+		return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchTimer);
+	}
+
+	@Override
+	public boolean needsRehash(String encodedPassword) {
+		return !isHashed(encodedPassword) || passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+
+	private static boolean isHashed(String encodedPassword) {
+		return encodedPassword != null && BCRYPT_PATTERN.matcher(encodedPassword).matches();
+	}
+
+	/**
+	 * Runs the given {@code task} on the hashing pool, recording the time it
+	 * waited in the queue and the time it ran for.
+	 *
+	 * @throws PasswordHashingUnavailableException when the queue is full, the
+	 *                                             timeout elapses or the calling
+	 *                                             thread is interrupted
+	 */
+	private <T> T execute(Callable<T> task, Timer durationTimer) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+				try {
+					return task.call();
+				} finally {
+					durationTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejectedCounter.increment();
+			throw new PasswordHashingUnavailableException("too many pending requests", e);
+		}
+
+		try {
+			return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timeoutCounter.increment();
+			throw new PasswordHashingUnavailableException("timed out", e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingUnavailableException("interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Creates daemon threads named after the pool, running slightly below normal
+	 * priority so request threads are scheduled first when cores are contended.
+	 */
+	private static class HashingThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY - 1);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that limit how often
+ * authentication may be attempted.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractAuthenticationRateLimitService {
+
+	/**
+	 * Takes a permit to attempt to authenticate as {@code userEmail} on behalf
+	 * of the client at {@code clientAddress}. Must be called before the password
+	 * is verified.
+	 *
+	 * @param userEmail     the email authentication is attempted for
+	 * @param clientAddress the address of the client making the request
+	 * @throws RateLimitExceededException when either the {@code userEmail} or the
+	 *                                    {@code clientAddress} has no permits left
+	 */
+	void acquirePermit(String userEmail, String clientAddress);
+}
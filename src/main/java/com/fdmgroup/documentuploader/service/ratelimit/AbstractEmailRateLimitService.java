@@ -0,0 +1,26 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that limit how often
+ * requests which result in an email being sent may be made.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractEmailRateLimitService {
+
+	/**
+	 * Takes a permit to send an email to {@code userEmail} on behalf of the client
+	 * at {@code clientAddress}. Must be called before any token is created or any
+	 * email is sent.
+	 *
+	 * @param userEmail     the email address which will receive an email
+	 * @param clientAddress the address of the client making the request
+	 * @throws RateLimitExceededException when either the {@code userEmail} or the
+	 *                                    {@code clientAddress} has no permits left
+	 */
+	void acquirePermit(String userEmail, String clientAddress);
+}
@@ -0,0 +1,244 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Limiter of the request rate and the requests in flight of each account. Each account takes a permit from a token bucket for every request
+ * and holds a concurrency slot until the request completes.
+ * </p>
+ * <p>
+ * Accounts are tracked in a fixed size open addressing table, so memory is
+ * bounded regardless of the number of accounts. Each slot holds an immutable
+ * {@link Slot}: the time at which the bucket of the account will next be full
+ * (the generic cell rate algorithm) and its requests in flight. Slots are
+ * replaced by compare-and-set. A slot whose account has a full bucket and
+ * nothing in flight is idle and may be taken over by another account, which
+ * loses the previous account nothing. When every slot an account may use is
+ * held by another active account, its request is let through untracked.
+ * </p>
+ * <p>
+ * Requests of an account which already holds a slot never lock. Takeovers are
+ * serialized per account by a lock striped on the home slot of the account, so
+ * two requests of the same account racing to take over different slots cannot
+ * both succeed and leave the account with two slots.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class AccountRequestLimiter {
+
+	/**
+	 * Returned when a permit and a concurrency slot were taken.
+	 */
+	public static final long ACQUIRED = 0L;
+
+	/**
+	 * Returned when the account already has its maximum number of requests in
+	 * flight.
+	 */
+	public static final long CONCURRENCY_EXCEEDED = -1L;
+
+	/**
+	 * Returned when the table had no slot for the account. The request is let
+	 * through and must not be released.
+	 */
+	public static final long UNTRACKED = Long.MIN_VALUE;
+
+	private static final int MAX_PROBES = 8;
+	private static final int TAKEOVER_LOCKS = 64;
+	private static final long RETRY = Long.MIN_VALUE + 1;
+
+	private final AtomicReferenceArray<Slot> slots;
+	private final Object[] takeoverLocks;
+	private final int mask;
+	private final LongSupplier nanoClock;
+
+	public AccountRequestLimiter(int tableSize) {
+		this(tableSize, System::nanoTime);
+	}
+
+	public AccountRequestLimiter(int tableSize, LongSupplier nanoClock) {
+		if (tableSize < 1) {
+			throw new IllegalArgumentException("tableSize must be positive");
+		}
+		int size = Integer.highestOneBit(Math.min(tableSize, 1 << 30));
+		size = size < tableSize ? size << 1 : size;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.takeoverLocks = new Object[Math.min(size, TAKEOVER_LOCKS)];
+		for (int i = 0; i < takeoverLocks.length; i++) {
+			takeoverLocks[i] = new Object();
+		}
+		this.mask = size - 1;
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Attempts to take a permit from the token bucket of the account with the
+	 * given {@code accountId} and one of its concurrency slots. A request which
+	 * acquired them must be {@link #release(long) released} once it completes.
+	 *
+	 * @param accountId             the id of the account
+	 * @param capacity              the size of the token bucket
+	 * @param refillPeriod          the time it takes the bucket to refill
+	 *                              completely
+	 * @param maxConcurrentRequests the maximum number of requests in flight
+	 * @return {@link #ACQUIRED}, {@link #CONCURRENCY_EXCEEDED},
+	 *         {@link #UNTRACKED} or, if the bucket is empty, the positive number
+	 *         of nanoseconds until a permit will be available
+	 */
+	public long tryAcquire(long accountId, int capacity, Duration refillPeriod, int maxConcurrentRequests) {
+		long emissionIntervalNanos = Math.max(1L, refillPeriod.toNanos() / Math.max(1, capacity));
+		long burstToleranceNanos = emissionIntervalNanos * (Math.max(1, capacity) - 1);
+		int home = indexOf(accountId);
+		while (true) {
+			long now = nanoClock.getAsLong();
+			int index = find(home, accountId, now);
+			if (index < 0) {
+				return UNTRACKED;
+			}
+			Slot slot = slots.get(index);
+			long result;
+			if (slot != null && slot.accountId == accountId) {
+				result = tryAcquire(index, slot, accountId, now, emissionIntervalNanos, burstToleranceNanos,
+						maxConcurrentRequests);
+			} else {
+				synchronized (takeoverLocks[home % takeoverLocks.length]) {
+					// A concurrent takeover may have claimed a slot for the account meanwhile
+					now = nanoClock.getAsLong();
+					index = find(home, accountId, now);
+					if (index < 0) {
+						return UNTRACKED;
+					}
+					result = tryAcquire(index, slots.get(index), accountId, now, emissionIntervalNanos,
+							burstToleranceNanos, maxConcurrentRequests);
+				}
+			}
+			if (result != RETRY) {
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Attempts to take a permit and a concurrency slot from the given
+	 * {@code slot}, which is either held by the account or free or idle. Slots
+	 * not held by the account may only be taken over under the takeover lock of
+	 * the account.
+	 *
+	 * @return the result of {@link #tryAcquire(long, int, Duration, int)}, or
+	 *         {@link #RETRY} if the slot changed concurrently
+	 */
+	private long tryAcquire(int index, Slot slot, long accountId, long now, long emissionIntervalNanos,
+			long burstToleranceNanos, int maxConcurrentRequests) {
+		boolean owned = slot != null && slot.accountId == accountId;
+		if (!owned && slot != null && !slot.isIdle(now)) {
+			return RETRY;
+		}
+
+		long theoreticalArrival = owned && slot.fullAt - now > 0 ? slot.fullAt : now;
+		int inFlight = owned ? slot.inFlight : 0;
+		if (inFlight >= maxConcurrentRequests) {
+			return CONCURRENCY_EXCEEDED;
+		}
+		long waitNanos = theoreticalArrival - burstToleranceNanos - now;
+		if (waitNanos > 0) {
+			return waitNanos;
+		}
+		if (slots.compareAndSet(index, slot,
+				new Slot(accountId, theoreticalArrival + emissionIntervalNanos, inFlight + 1))) {
+			return ACQUIRED;
+		}
+		return RETRY;
+	}
+
+	/**
+	 * Releases the concurrency slot taken by a request of the account with the
+	 * given {@code accountId}.
+	 *
+	 * @param accountId the id of the account
+	 */
+	public void release(long accountId) {
+		int home = indexOf(accountId);
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			int index = (home + probe) & mask;
+			Slot slot = slots.get(index);
+			while (slot != null && slot.accountId == accountId && slot.inFlight > 0) {
+				if (slots.compareAndSet(index, slot, new Slot(accountId, slot.fullAt, slot.inFlight - 1))) {
+					return;
+				}
+				slot = slots.get(index);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of requests the account with the given {@code accountId}
+	 * currently has in flight.
+	 *
+	 * @param accountId the id of the account
+	 * @return the number of requests in flight
+	 */
+	public int inFlight(long accountId) {
+		int home = indexOf(accountId);
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			Slot slot = slots.get((home + probe) & mask);
+			if (slot != null && slot.accountId == accountId) {
+				return slot.inFlight;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Finds the slot already held by the account, or else the first free or idle
+	 * slot it may take.
+	 *
+	 * @return the index of the slot, or {@code -1} if every slot the account may
+	 *         use is held by another active account
+	 */
+	private int find(int home, long accountId, long now) {
+		int available = -1;
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			int index = (home + probe) & mask;
+			Slot slot = slots.get(index);
+			if (slot != null && slot.accountId == accountId) {
+				return index;
+			}
+			if (available < 0 && (slot == null || slot.isIdle(now))) {
+				available = index;
+			}
+		}
+		return available;
+	}
+
+	private int indexOf(long accountId) {
+		int hash = Long.hashCode(accountId) * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	/**
+	 * Static inner class of {@link AccountRequestLimiter} which holds the state of
+	 * the limits of a single account.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static final class Slot {
+
+		private final long accountId;
+		private final long fullAt;
+		private final int inFlight;
+
+		Slot(long accountId, long fullAt, int inFlight) {
+			this.accountId = accountId;
+			this.fullAt = fullAt;
+			this.inFlight = inFlight;
+		}
+
+		boolean isIdle(long now) {
+			return inFlight == 0 && fullAt - now <= 0;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Concurrency limiter whose limit adapts to the latency of the calls it lets
+ * through, in the manner of TCP Vegas. The lowest latency observed is taken as
+ * the latency without load; the amount by which a sample exceeds it estimates
+ * how many calls are queued for a shared resource rather than being served.
+ * While that queue is short the limit grows, and once it grows long, or a call
+ * fails with a server error, the limit shrinks again.
+ * </p>
+ * <p>
+ * Calls are admitted without locking; only the limit is recomputed under a
+ * lock as calls complete. The latency without load is measured afresh every
+ * {@code probeInterval} samples, so the limit follows lasting changes.
+ * </p>
+ * <p>
+ * The following metrics are registered:
+ * </p>
+ * <ul>
+ * <li>{@value #METRIC_PREFIX}.limit: the current limit</li>
+ * <li>{@value #METRIC_PREFIX}.in.flight: the calls currently in flight</li>
+ * <li>{@value #METRIC_PREFIX}.limit.changes: changes of the limit, tagged by
+ * their direction</li>
+ * <li>{@value #METRIC_PREFIX}.shed: calls rejected because the limit was
+ * reached</li>
+ * </ul>
+ *
+ * @author Noah Anderson
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	static final String METRIC_PREFIX = "upload.concurrency";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double smoothing;
+	private final int probeInterval;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Counter increases;
+	private final Counter decreases;
+	private final Counter shed;
+
+	/**
+	 * The limit calls are admitted against, the rounded {@link #estimatedLimit}.
+	 */
+	private volatile int limit;
+
+	private double estimatedLimit;
+	private long noLoadRttNanos;
+	private int samplesSinceProbe;
+
+	public AdaptiveConcurrencyLimiter(LoadSheddingProperties loadSheddingProperties, MeterRegistry meterRegistry) {
+		if (loadSheddingProperties.getMinLimit() < 1
+				|| loadSheddingProperties.getMaxLimit() < loadSheddingProperties.getMinLimit()) {
+			throw new IllegalArgumentException("minLimit must be positive and not greater than maxLimit");
+		}
+		this.minLimit = loadSheddingProperties.getMinLimit();
+		this.maxLimit = loadSheddingProperties.getMaxLimit();
+		this.smoothing = Math.min(1.0, Math.max(0.0, loadSheddingProperties.getSmoothing()));
+		this.probeInterval = loadSheddingProperties.getProbeInterval();
+		this.estimatedLimit = clamp(loadSheddingProperties.getInitialLimit());
+		this.limit = (int) estimatedLimit;
+
+		Gauge.builder(METRIC_PREFIX + ".limit", this, AdaptiveConcurrencyLimiter::getLimit)
+				.description("Uploads currently allowed in flight").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+				.description("Uploads currently in flight").register(meterRegistry);
+		this.increases = Counter.builder(METRIC_PREFIX + ".limit.changes")
+				.description("Changes of the upload concurrency limit by direction").tag("direction", "increase")
+				.register(meterRegistry);
+		this.decreases = Counter.builder(METRIC_PREFIX + ".limit.changes")
+				.description("Changes of the upload concurrency limit by direction").tag("direction", "decrease")
+				.register(meterRegistry);
+		this.shed = Counter.builder(METRIC_PREFIX + ".shed")
+				.description("Uploads rejected because the concurrency limit was reached").register(meterRegistry);
+	}
+
+	/**
+	 * Attempts to admit a call. A call which was admitted must be
+	 * {@link #release(long, Outcome) released} once it completes.
+	 *
+	 * @return {@code true} if the call was admitted, {@code false} if the limit
+	 *         has been reached
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				shed.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases an admitted call and adapts the limit to its outcome.
+	 *
+	 * @param rttNanos the time the call took, in nanoseconds
+	 * @param outcome  the outcome of the call
+	 */
+	public void release(long rttNanos, Outcome outcome) {
+		int current = inFlight.getAndDecrement();
+		if (outcome != Outcome.IGNORED) {
+			update(rttNanos, outcome == Outcome.DROPPED, current);
+		}
+	}
+
+	private synchronized void update(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+		if (rttNanos <= 0) {
+			return;
+		}
+		if (probeInterval > 0 && ++samplesSinceProbe >= probeInterval) {
+			samplesSinceProbe = 0;
+			noLoadRttNanos = rttNanos;
+			return;
+		}
+		if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+			noLoadRttNanos = rttNanos;
+			return;
+		}
+
+		double step = Math.max(1.0, Math.log10(estimatedLimit));
+		double newLimit;
+		if (dropped) {
+			newLimit = estimatedLimit - step;
+		} else if (inFlightAtCompletion * 2 < estimatedLimit) {
+			// The limit was not what held the calls back, so latency says nothing about it
+			return;
+		} else {
+			double queueSize = Math.ceil(estimatedLimit * (1 - (double) noLoadRttNanos / rttNanos));
+			if (queueSize <= step) {
+				newLimit = estimatedLimit + 6 * step;
+			} else if (queueSize < 3 * step) {
+				newLimit = estimatedLimit + step;
+			} else if (queueSize > 6 * step) {
+				newLimit = estimatedLimit - step;
+			} else {
+				return;
+			}
+		}
+
+		estimatedLimit = (1 - smoothing) * estimatedLimit + smoothing * clamp(newLimit);
+		int previous = limit;
+		limit = (int) estimatedLimit;
+		if (limit > previous) {
+			increases.increment();
+		} else if (limit < previous) {
+			decreases.increment();
+		}
+		if (limit != previous) {
+			LOGGER.debug("Upload concurrency limit changed from {} to {}", previous, limit);
+		}
+	}
+
+	private double clamp(double value) {
+		return Math.min(maxLimit, Math.max(minLimit, value));
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * The outcomes of a call, by how they inform the limit.
+	 */
+	public enum Outcome {
+
+		/**
+		 * The call completed; its latency is a sample of the load.
+		 */
+		SUCCESS,
+
+		/**
+		 * The call failed because the service was overloaded or broken.
+		 */
+		DROPPED,
+
+		/**
+		 * The call was rejected without doing the work, for example because the
+		 * request was invalid, so its latency is not a sample of the load.
+		 */
+		IGNORED
+	}
+}
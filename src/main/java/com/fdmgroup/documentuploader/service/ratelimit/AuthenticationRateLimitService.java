@@ -0,0 +1,88 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.config.AuthenticationRateLimitProperties;
+import com.fdmgroup.documentuploader.config.RateLimitProperties.Bucket;
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractAuthenticationRateLimitService} which
+ * keeps one {@link TokenBucketLimiter} per email and one per client address in
+ * memory. Every attempt takes a permit, whether or not it succeeds, since each
+ * one costs a password verification.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class AuthenticationRateLimitService implements AbstractAuthenticationRateLimitService {
+
+	private static final String EMAIL = "authentication";
+	private static final String CLIENT = "client";
+
+	private final TokenBucketLimiter emailLimiter;
+	private final TokenBucketLimiter clientLimiter;
+
+	@Autowired
+	public AuthenticationRateLimitService(AuthenticationRateLimitProperties authenticationRateLimitProperties) {
+		this(createLimiter(authenticationRateLimitProperties.getEmail(),
+				authenticationRateLimitProperties.getMaxTrackedKeys()),
+				createLimiter(authenticationRateLimitProperties.getClient(),
+						authenticationRateLimitProperties.getMaxTrackedKeys()));
+	}
+
+	public AuthenticationRateLimitService(TokenBucketLimiter emailLimiter, TokenBucketLimiter clientLimiter) {
+		super();
+		this.emailLimiter = emailLimiter;
+		this.clientLimiter = clientLimiter;
+	}
+
+	private static TokenBucketLimiter createLimiter(Bucket bucket, int maxTrackedKeys) {
+		return new TokenBucketLimiter(bucket.getCapacity(), bucket.getRefillPeriod(), maxTrackedKeys);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Both limits are checked before a permit is taken from either, so an attempt
+	 * rejected by one limit does not use up a permit of the other.
+	 * </p>
+	 */
+	@Override
+	public synchronized void acquirePermit(String userEmail, String clientAddress) {
+		String emailKey = userEmail == null ? null : userEmail.trim().toLowerCase(Locale.ROOT);
+		if (clientAddress != null) {
+			check(clientLimiter.peek(clientAddress), CLIENT);
+		}
+		if (emailKey != null) {
+			check(emailLimiter.peek(emailKey), EMAIL);
+		}
+		if (clientAddress != null) {
+			check(clientLimiter.tryAcquire(clientAddress), CLIENT);
+		}
+		if (emailKey != null) {
+			check(emailLimiter.tryAcquire(emailKey), EMAIL);
+		}
+	}
+
+	/**
+	 * Checks the result of checking or taking a permit from a bucket.
+	 *
+	 * @param waitNanos the number of nanoseconds until a permit is available
+	 * @param limit     the name of the limit, used when reporting a failure
+	 * @throws RateLimitExceededException when no permit is available
+	 */
+	private static void check(long waitNanos, String limit) {
+		if (waitNanos > 0) {
+			long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+			throw new RateLimitExceededException(limit, retryAfterSeconds);
+		}
+	}
+}
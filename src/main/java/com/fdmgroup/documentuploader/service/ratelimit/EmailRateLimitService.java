@@ -0,0 +1,85 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.config.RateLimitProperties;
+import com.fdmgroup.documentuploader.config.RateLimitProperties.Bucket;
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractEmailRateLimitService} which keeps one
+ * {@link TokenBucketLimiter} per recipient email and one per client address in
+ * memory.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class EmailRateLimitService implements AbstractEmailRateLimitService {
+
+	private static final String EMAIL = "email";
+	private static final String CLIENT = "client";
+
+	private final TokenBucketLimiter emailLimiter;
+	private final TokenBucketLimiter clientLimiter;
+
+	@Autowired
+	public EmailRateLimitService(RateLimitProperties rateLimitProperties) {
+		this(createLimiter(rateLimitProperties.getEmail(), rateLimitProperties.getMaxTrackedKeys()),
+				createLimiter(rateLimitProperties.getClient(), rateLimitProperties.getMaxTrackedKeys()));
+	}
+
+	public EmailRateLimitService(TokenBucketLimiter emailLimiter, TokenBucketLimiter clientLimiter) {
+		super();
+		this.emailLimiter = emailLimiter;
+		this.clientLimiter = clientLimiter;
+	}
+
+	private static TokenBucketLimiter createLimiter(Bucket bucket, int maxTrackedKeys) {
+		return new TokenBucketLimiter(bucket.getCapacity(), bucket.getRefillPeriod(), maxTrackedKeys);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Both limits are checked before a permit is taken from either, so a request
+	 * rejected by one limit does not use up a permit of the other.
+	 * </p>
+	 */
+	@Override
+	public synchronized void acquirePermit(String userEmail, String clientAddress) {
+		String emailKey = userEmail == null ? null : userEmail.trim().toLowerCase(Locale.ROOT);
+		if (clientAddress != null) {
+			check(clientLimiter.peek(clientAddress), CLIENT);
+		}
+		if (emailKey != null) {
+			check(emailLimiter.peek(emailKey), EMAIL);
+		}
+		if (clientAddress != null) {
+			check(clientLimiter.tryAcquire(clientAddress), CLIENT);
+		}
+		if (emailKey != null) {
+			check(emailLimiter.tryAcquire(emailKey), EMAIL);
+		}
+	}
+
+	/**
+	 * Checks the result of checking or taking a permit from a bucket.
+	 *
+	 * @param waitNanos the number of nanoseconds until a permit is available
+	 * @param limit     the name of the limit, used when reporting a failure
+	 * @throws RateLimitExceededException when no permit is available
+	 */
+	private static void check(long waitNanos, String limit) {
+		if (waitNanos > 0) {
+			long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+			throw new RateLimitExceededException(limit, retryAfterSeconds);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Keyed token bucket limiter which allows up to {@code capacity} permits per
+ * key in a burst, refilling the bucket of each key completely once every
+ * {@code refillPeriod}.
+ * </p>
+ * <p>
+ * Rather than a count of permits, each bucket is stored as the time at which it
+ * will next be full (the generic cell rate algorithm), held as one entry per
+ * key in an access-ordered {@link LinkedHashMap}. The number of tracked keys
+ * is bounded; once the bound is reached, the least recently used key is
+ * evicted, which at worst grants that key a fresh bucket.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class TokenBucketLimiter {
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final int maxTrackedKeys;
+	private final LongSupplier nanoClock;
+	private final LinkedHashMap<String, Long> buckets;
+
+	public TokenBucketLimiter(int capacity, Duration refillPeriod, int maxTrackedKeys) {
+		this(capacity, refillPeriod, maxTrackedKeys, System::nanoTime);
+	}
+
+	public TokenBucketLimiter(int capacity, Duration refillPeriod, int maxTrackedKeys, LongSupplier nanoClock) {
+		if (capacity < 1 || maxTrackedKeys < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+			throw new IllegalArgumentException("capacity, refillPeriod and maxTrackedKeys must be positive");
+		}
+		this.emissionIntervalNanos = Math.max(1L, refillPeriod.toNanos() / capacity);
+		this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+		this.maxTrackedKeys = maxTrackedKeys;
+		this.nanoClock = nanoClock;
+		this.buckets = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+				return size() > TokenBucketLimiter.this.maxTrackedKeys;
+			}
+		};
+	}
+
+	/**
+	 * Attempts to take a single permit from the bucket associated with the given
+	 * {@code key}.
+	 *
+	 * @param key the key identifying a bucket
+	 * @return {@code 0} if a permit was taken. Otherwise, the number of
+	 *         nanoseconds until a permit will be available.
+	 */
+	public synchronized long tryAcquire(String key) {
+		long now = nanoClock.getAsLong();
+		long theoreticalArrival = theoreticalArrival(key, now);
+		long waitNanos = theoreticalArrival - burstToleranceNanos - now;
+		if (waitNanos > 0) {
+			return waitNanos;
+		}
+		buckets.put(key, theoreticalArrival + emissionIntervalNanos);
+		return 0L;
+	}
+
+	/**
+	 * Checks whether a permit is available in the bucket associated with the
+	 * given {@code key}, without taking it.
+	 *
+	 * @param key the key identifying a bucket
+	 * @return {@code 0} if a permit is available. Otherwise, the number of
+	 *         nanoseconds until a permit will be available.
+	 */
+	public synchronized long peek(String key) {
+		long now = nanoClock.getAsLong();
+		return Math.max(0L, theoreticalArrival(key, now) - burstToleranceNanos - now);
+	}
+
+	private long theoreticalArrival(String key, long now) {
+		Long fullAt = buckets.get(key);
+		return (fullAt == null || fullAt - now < 0) ? now : fullAt;
+	}
+
+	/**
+	 * Gets the number of keys currently being tracked.
+	 *
+	 * @return the number of tracked keys
+	 */
+	public synchronized int size() {
+		return buckets.size();
+	}
+}
@@ -0,0 +1,156 @@
+package com.fdmgroup.documentuploader.service.ratelimit;
+
+import com.fdmgroup.documentuploader.config.UploadBudgetProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Weighted semaphore bounding the upload bytes held in memory at once across
+ * all uploads. An upload reserves its bytes before its body is read and
+ * releases them once it completes.
+ * </p>
+ * <p>
+ * Besides the global budget, the uploads of all accounts with the same
+ * {@link ServiceLevel} may only hold their configured share of it, so uploads
+ * of one tier cannot starve another. A reservation is taken from the share
+ * first and from the global budget second, always in that order. The
+ * semaphores are fair, so a large upload waiting for the budget is not
+ * overtaken indefinitely by smaller ones. Bytes are counted in units of
+ * {@value #UNIT} bytes, rounded up.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class UploadByteBudget {
+
+	static final String METRIC_PREFIX = "upload.budget";
+
+	private static final int UNIT = 1024;
+
+	private final Semaphore global;
+	private final int globalPermits;
+	private final Map<ServiceLevel, Share> shares = new EnumMap<>(ServiceLevel.class);
+	private final Share defaultShare;
+
+	public UploadByteBudget(UploadBudgetProperties uploadBudgetProperties, MeterRegistry meterRegistry) {
+		long maxInFlight = uploadBudgetProperties.getMaxInFlight().toBytes();
+		if (maxInFlight < UNIT) {
+			throw new IllegalArgumentException("maxInFlight must be at least " + UNIT + " bytes");
+		}
+		this.globalPermits = (int) Math.min(Integer.MAX_VALUE, maxInFlight / UNIT);
+		this.global = new Semaphore(globalPermits, true);
+		for (ServiceLevel serviceLevel : ServiceLevel.values()) {
+			shares.put(serviceLevel, new Share(globalPermits, uploadBudgetProperties.getShare(serviceLevel)));
+		}
+		this.defaultShare = new Share(globalPermits, uploadBudgetProperties.getShare(null));
+
+		Gauge.builder(METRIC_PREFIX + ".in.flight", this, UploadByteBudget::getBytesInFlight)
+				.description("Upload bytes currently reserved in memory").baseUnit("bytes").register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".max", this, budget -> (double) budget.globalPermits * UNIT)
+				.description("The budget of upload bytes in memory").baseUnit("bytes").register(meterRegistry);
+	}
+
+	/**
+	 * Checks if an upload of the given number of {@code bytes} fits into the
+	 * share of the given {@code serviceLevel} at all.
+	 *
+	 * @param serviceLevel the service level, or {@code null} if the upload cannot
+	 *                     be attributed to an account
+	 * @param bytes        the number of bytes
+	 * @return {@code true} if the upload can be reserved once enough bytes are
+	 *         released. Otherwise, returns {@code false}.
+	 */
+	public boolean fits(ServiceLevel serviceLevel, long bytes) {
+		return permitsOf(bytes) <= shareOf(serviceLevel).permits;
+	}
+
+	/**
+	 * Reserves the given number of {@code bytes} for an upload, waiting up to
+	 * {@code maxWait} for enough of them to be released by other uploads.
+	 *
+	 * @param serviceLevel the service level, or {@code null} if the upload cannot
+	 *                     be attributed to an account
+	 * @param bytes        the number of bytes
+	 * @param maxWait      how long to wait at most
+	 * @return {@code true} if the bytes were reserved and must be
+	 *         {@link #release(ServiceLevel, long) released}. Otherwise, returns
+	 *         {@code false}.
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean tryReserve(ServiceLevel serviceLevel, long bytes, Duration maxWait) throws InterruptedException {
+		if (!fits(serviceLevel, bytes)) {
+			return false;
+		}
+		int permits = (int) permitsOf(bytes);
+		Semaphore share = shareOf(serviceLevel).semaphore;
+		long deadline = System.nanoTime() + maxWait.toNanos();
+		if (!share.tryAcquire(permits, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+			return false;
+		}
+		boolean reserved = false;
+		try {
+			reserved = global.tryAcquire(permits, Math.max(0L, deadline - System.nanoTime()),
+					TimeUnit.NANOSECONDS);
+			return reserved;
+		} finally {
+			if (!reserved) {
+				share.release(permits);
+			}
+		}
+	}
+
+	/**
+	 * Releases bytes reserved through {@link #tryReserve(ServiceLevel, long,
+	 * Duration)}.
+	 *
+	 * @param serviceLevel the service level the bytes were reserved for
+	 * @param bytes        the number of bytes
+	 */
+	public void release(ServiceLevel serviceLevel, long bytes) {
+		int permits = (int) permitsOf(bytes);
+		global.release(permits);
+		shareOf(serviceLevel).semaphore.release(permits);
+	}
+
+	/**
+	 * Gets the number of bytes currently reserved, rounded up to whole units.
+	 *
+	 * @return the number of bytes reserved
+	 */
+	public long getBytesInFlight() {
+		return (long) (globalPermits - global.availablePermits()) * UNIT;
+	}
+
+	private Share shareOf(ServiceLevel serviceLevel) {
+		return serviceLevel == null ? defaultShare : shares.get(serviceLevel);
+	}
+
+	private static long permitsOf(long bytes) {
+		return (Math.max(0L, bytes) + UNIT - 1) / UNIT;
+	}
+
+	/**
+	 * Static inner class of {@link UploadByteBudget} which holds the semaphore of
+	 * the share of the budget of a service level.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static final class Share {
+
+		private final int permits;
+		private final Semaphore semaphore;
+
+		Share(int globalPermits, double fraction) {
+			this.permits = (int) (globalPermits * Math.min(1.0, Math.max(0.0, fraction)));
+			this.semaphore = new Semaphore(permits, true);
+		}
+	}
+}
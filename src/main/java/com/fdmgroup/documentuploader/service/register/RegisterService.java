@@ -1,21 +1,28 @@
 package com.fdmgroup.documentuploader.service.register;
 
 import com.fdmgroup.documentuploader.events.OnRegistrationCompleteEvent;
+import com.fdmgroup.documentuploader.jfr.TokenValidationEvent;
 import com.fdmgroup.documentuploader.model.account.Account;
 import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
 import com.fdmgroup.documentuploader.model.registration.RegistrationWrapper;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.AuthGroup;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
 import com.fdmgroup.documentuploader.service.account.AbstractAccountService;
 import com.fdmgroup.documentuploader.service.authgroup.AbstractAuthGroupService;
+import com.fdmgroup.documentuploader.service.password.AbstractPasswordHashingService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
 import com.fdmgroup.documentuploader.service.user.AbstractUserService;
 import com.fdmgroup.documentuploader.util.ServletRequestUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.Calendar;
@@ -24,7 +31,14 @@ import java.util.Optional;
 import java.util.Set;
 
 /**
+ * <p>
  * Implementing class of {@link AbstractRegisterService}.
+ * </p>
+ * <p>
+ * The password of a registering {@link User} is hashed before the transaction
+ * which saves the registration is opened, so no transaction or database
+ * connection is held while the hash is computed.
+ * </p>
  * 
  * @author Noah Anderson
  */
@@ -37,23 +51,30 @@ public class RegisterService implements AbstractRegisterService {
 	private final AbstractAuthGroupService authGroupService;
 	private final ConfirmationTokenRepository confirmationTokenRepository;
 	private final ApplicationEventPublisher eventPublisher;
+	private final AbstractSignedTokenService signedTokenService;
+	private final AbstractPasswordHashingService passwordHashingService;
+	private final TransactionTemplate transactionTemplate;
 
 	@Autowired
 	public RegisterService(AbstractAccountService accountService, AbstractUserService userService,
 			AbstractAuthGroupService authGroupService, ConfirmationTokenRepository confirmationTokenRepository,
-			ApplicationEventPublisher eventPublisher) {
+			ApplicationEventPublisher eventPublisher, AbstractSignedTokenService signedTokenService,
+			AbstractPasswordHashingService passwordHashingService, PlatformTransactionManager transactionManager) {
 		this.accountService = accountService;
 		this.userService = userService;
 		this.authGroupService = authGroupService;
 		this.confirmationTokenRepository = confirmationTokenRepository;
 		this.eventPublisher = eventPublisher;
+		this.signedTokenService = signedTokenService;
+		this.passwordHashingService = passwordHashingService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Override
-	@Transactional
 	public User processRegistration(RegistrationWrapper wrapper) {
 		Account account = wrapper.getAccount();
 		User user = wrapper.getUser();
+		user.setPassword(passwordHashingService.hash(user.getPassword()));
 
 		Set<User> users = new HashSet<>();
 		users.add(user);
@@ -63,13 +84,15 @@ public class RegisterService implements AbstractRegisterService {
 
 		AuthGroup authGroup = wrapper.getAuthGroup();
 
-		user = userService.save(user);
-		authGroupService.save(authGroup);
-		accountService.save(account);
+		return transactionTemplate.execute(status -> {
+			User savedUser = userService.saveWithHashedPassword(wrapper.getUser());
+			authGroupService.save(authGroup);
+			accountService.save(account);
 
-		this.createAndPublishOnRegistrationCompleteEvent(user);
+			this.createAndPublishOnRegistrationCompleteEvent(savedUser);
 
-		return user;
+			return savedUser;
+		});
 	}
 
 	/**
@@ -94,20 +117,50 @@ public class RegisterService implements AbstractRegisterService {
 	@Transactional
 	@Override
 	public boolean activateAccountWithToken(String token) {
+		if (signedTokenService.isSignedToken(token)) {
+			return this.activateAccountWithSignedToken(token);
+		}
+
+		TokenValidationEvent event = TokenValidationEvent.start(TokenPurpose.CONFIRM_ACCOUNT);
 		Optional<ConfirmationToken> optionalToken = confirmationTokenRepository.findByToken(token);
-		if (!optionalToken.isPresent()) {
+		if (!optionalToken.isPresent() || isExpiredToken(optionalToken.get())) {
+			event.finish(false, 0L);
 			return false;
 		}
 
 		ConfirmationToken confirmationToken = optionalToken.get();
-		if (isExpiredToken(confirmationToken)) {
+		User user = confirmationToken.getUser();
+		event.finish(true, user.getId());
+		user.setEnabled(true);
+		userService.update(user);
+		confirmationTokenRepository.delete(confirmationToken);
+
+		return true;
+	}
+
+	/**
+	 * Enables the {@link User} a signed confirmation token was issued to,
+	 * consuming the token.
+	 * 
+	 * @param token the signed confirmation token
+	 * @return {@code true} if the account was activated, {@code false} if the
+	 *         token is invalid, expired or already used.
+	 */
+	private boolean activateAccountWithSignedToken(String token) {
+		Optional<SignedTokenClaims> optionalClaims = signedTokenService.verify(token, TokenPurpose.CONFIRM_ACCOUNT);
+		if (!optionalClaims.isPresent()) {
 			return false;
 		}
 
-		User user = confirmationToken.getUser();
+		SignedTokenClaims claims = optionalClaims.get();
+		Optional<User> optionalUser = userService.getUserById(claims.getUserId());
+		if (!optionalUser.isPresent() || !signedTokenService.consume(claims)) {
+			return false;
+		}
+
+		User user = optionalUser.get();
 		user.setEnabled(true);
 		userService.update(user);
-		confirmationTokenRepository.delete(confirmationToken);
 
 		return true;
 	}
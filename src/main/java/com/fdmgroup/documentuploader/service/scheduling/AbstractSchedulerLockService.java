@@ -0,0 +1,35 @@
+package com.fdmgroup.documentuploader.service.scheduling;
+
+import com.fdmgroup.documentuploader.model.scheduling.SchedulerLock;
+
+import java.time.Duration;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that coordinate
+ * scheduled jobs between nodes through {@link SchedulerLock} objects.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractSchedulerLockService {
+
+	/**
+	 * Attempts to take the {@link SchedulerLock} with the given {@code name}.
+	 *
+	 * @param name          the {@code name} of the lock to take
+	 * @param lockAtMostFor how long the lock is held for if this node never
+	 *                      releases it
+	 * @return {@code true} if this node now holds the lock. Otherwise, returns
+	 *         {@code false}.
+	 */
+	boolean tryLock(String name, Duration lockAtMostFor);
+
+	/**
+	 * Releases the {@link SchedulerLock} with the given {@code name} if it is held
+	 * by this node.
+	 *
+	 * @param name the {@code name} of the lock to release
+	 */
+	void unlock(String name);
+}
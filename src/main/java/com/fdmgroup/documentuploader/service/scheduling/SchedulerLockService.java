@@ -0,0 +1,86 @@
+package com.fdmgroup.documentuploader.service.scheduling;
+
+import com.fdmgroup.documentuploader.model.scheduling.SchedulerLock;
+import com.fdmgroup.documentuploader.repository.SchedulerLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractSchedulerLockService} which stores
+ * locks as rows of the {@code scheduler_lock} table. Every lock operation runs
+ * in its own transaction so that it is visible to other nodes immediately.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class SchedulerLockService implements AbstractSchedulerLockService {
+
+	/**
+	 * Identifies this node as the holder of a lock.
+	 */
+	private final String nodeId;
+	private final SchedulerLockRepository schedulerLockRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	@Autowired
+	public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+			PlatformTransactionManager transactionManager) {
+		super();
+		this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+		this.schedulerLockRepository = schedulerLockRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	public boolean tryLock(String name, Duration lockAtMostFor) {
+		Date now = new Date();
+		Date lockedUntil = new Date(now.getTime() + lockAtMostFor.toMillis());
+		Integer updated = transactionTemplate
+				.execute(status -> schedulerLockRepository.acquire(name, now, lockedUntil, nodeId));
+		if (updated != null && updated > 0) {
+			return true;
+		}
+		return insertLock(new SchedulerLock(name, now, lockedUntil, nodeId));
+	}
+
+	/**
+	 * Attempts to take a lock which has never been taken before by inserting its
+	 * row. Only one node can succeed since {@code name} is the primary key.
+	 *
+	 * @param lock the {@link SchedulerLock} to insert
+	 * @return {@code true} if the row was inserted. Otherwise, returns
+	 *         {@code false}.
+	 */
+	private boolean insertLock(SchedulerLock lock) {
+		try {
+			return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+				if (schedulerLockRepository.existsById(lock.getName())) {
+					return false;
+				}
+				schedulerLockRepository.saveAndFlush(lock);
+				return true;
+			}));
+		} catch (DataIntegrityViolationException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void unlock(String name) {
+		transactionTemplate.execute(status -> schedulerLockRepository.release(name, new Date(), nodeId));
+	}
+}
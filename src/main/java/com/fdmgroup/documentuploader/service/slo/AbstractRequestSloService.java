@@ -0,0 +1,35 @@
+package com.fdmgroup.documentuploader.service.slo;
+
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.slo.SloSnapshot;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to recording
+ * request latencies per {@link ServiceLevel} and tracking their service level
+ * objectives.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractRequestSloService {
+
+	/**
+	 * Records a completed request.
+	 *
+	 * @param route         the route template which handled the request
+	 * @param status        the HTTP status of the response
+	 * @param accountId     the id of the account the request was made on behalf
+	 *                      of, or {@code null} if it cannot be attributed to one
+	 * @param durationNanos the time taken to handle the request
+	 */
+	void record(String route, int status, Long accountId, long durationNanos);
+
+	/**
+	 * Gets the latencies of every tier since the application started and the
+	 * rates at which they burn their error budgets over recent sliding windows.
+	 *
+	 * @return the current {@link SloSnapshot}
+	 */
+	SloSnapshot snapshot();
+}
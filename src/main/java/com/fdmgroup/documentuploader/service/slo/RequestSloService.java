@@ -0,0 +1,421 @@
+package com.fdmgroup.documentuploader.service.slo;
+
+import com.fdmgroup.documentuploader.config.SloProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.slo.SloSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractRequestSloService} which attributes
+ * requests to the {@link ServiceLevel} of the account they were made on behalf
+ * of and judges them against the latency objective of that tier. A request is
+ * bad if it takes longer than its objective or fails with a server error.
+ * </p>
+ * <p>
+ * Every request is recorded twice. The {@value #REQUESTS_METRIC} timer, tagged
+ * with route, status class and service level, publishes a percentile histogram
+ * with a bucket at each objective, and the {@value #OUTCOMES_METRIC} counters
+ * count good and bad requests per service level; both are scraped from the
+ * Prometheus endpoint, where buckets and burn rates aggregate across instances.
+ * Each tier also records into an HdrHistogram {@link Recorder}, which backs the
+ * exact percentiles, burn rates and mergeable histograms of an
+ * {@link SloSnapshot}.
+ * </p>
+ * <p>
+ * Burn rates are computed over the configured sliding windows rather than since
+ * startup, so a tier which recovered long ago, or started burning its budget a
+ * few minutes ago, is reported as it is now. Each window counts good and bad
+ * requests in {@value #WINDOW_BUCKETS} buckets, so it slides forward one
+ * bucket at a time.
+ * </p>
+ * <p>
+ * Only requests to the accounts routes which name the account are attributed to
+ * its tier. Every other request, including those to the users, registration
+ * and document lookup routes, is recorded under {@value #UNATTRIBUTED} and
+ * judged against the default latency objective.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class RequestSloService implements AbstractRequestSloService {
+
+	static final String REQUESTS_METRIC = "http.server.tier.requests";
+	static final String OUTCOMES_METRIC = "slo.requests";
+	static final String UNATTRIBUTED = "NONE";
+
+	private static final String OUTCOMES_DESCRIPTION = "Requests which met or missed the latency objective of their service level";
+
+	private static final int WINDOW_BUCKETS = 60;
+	private static final int SIGNIFICANT_DIGITS = 3;
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+	private final MeterRegistry meterRegistry;
+	private final SloProperties sloProperties;
+	private final ServiceLevelResolver serviceLevelResolver;
+	private final LongSupplier nanoClock;
+	private final Map<String, TierStatistics> tiers = new LinkedHashMap<>();
+	private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<Long, TenantStatistics> tenants = new ConcurrentHashMap<>();
+
+	@Autowired
+	public RequestSloService(MeterRegistry meterRegistry, SloProperties sloProperties,
+			ServiceLevelResolver serviceLevelResolver) {
+		this(meterRegistry, sloProperties, serviceLevelResolver, System::nanoTime);
+	}
+
+	public RequestSloService(MeterRegistry meterRegistry, SloProperties sloProperties,
+			ServiceLevelResolver serviceLevelResolver, LongSupplier nanoClock) {
+		super();
+		this.meterRegistry = meterRegistry;
+		this.sloProperties = sloProperties;
+		this.serviceLevelResolver = serviceLevelResolver;
+		this.nanoClock = nanoClock;
+		for (ServiceLevel serviceLevel : ServiceLevel.values()) {
+			tiers.put(serviceLevel.name(),
+					new TierStatistics(serviceLevel.name(), sloProperties.getLatencyObjective(serviceLevel)));
+		}
+		tiers.put(UNATTRIBUTED, new TierStatistics(UNATTRIBUTED, sloProperties.getDefaultLatencyObjective()));
+	}
+
+	@Override
+	public void record(String route, int status, Long accountId, long durationNanos) {
+		ServiceLevel serviceLevel = null;
+		if (accountId != null) {
+			serviceLevel = serviceLevelResolver.resolve(accountId).orElse(null);
+		}
+		TierStatistics tier = tiers.get(serviceLevel == null ? UNATTRIBUTED : serviceLevel.name());
+		boolean bad = durationNanos > tier.objectiveNanos || status >= 500;
+
+		String statusClass = (status / 100) + "xx";
+		timers.computeIfAbsent(new TimerKey(route, statusClass, tier.name), this::registerTimer)
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+		tier.record(route, durationNanos, bad);
+		if (serviceLevel != null) {
+			recordTenant(accountId, serviceLevel, bad);
+		}
+	}
+
+	@Override
+	public synchronized SloSnapshot snapshot() {
+		double allowedBadFraction = 1.0 - sloProperties.getObjective();
+		List<SloSnapshot.Tier> tierSnapshots = new ArrayList<>();
+		for (TierStatistics tier : tiers.values()) {
+			tierSnapshots.add(tier.snapshot(allowedBadFraction));
+		}
+
+		List<SloSnapshot.Tenant> topTenants = tenants.entrySet().stream()
+				.sorted(Comparator.comparingLong(
+						(Map.Entry<Long, TenantStatistics> entry) -> entry.getValue().requests.sum()).reversed())
+				.limit(sloProperties.getTopTenants())
+				.map(entry -> new SloSnapshot.Tenant(entry.getKey(), entry.getValue().serviceLevel.name(),
+						entry.getValue().requests.sum(), entry.getValue().bad.sum()))
+				.collect(Collectors.toList());
+		return new SloSnapshot(Instant.now(), sloProperties.getObjective(), tierSnapshots, topTenants);
+	}
+
+	private Timer registerTimer(TimerKey key) {
+		return Timer.builder(REQUESTS_METRIC)
+				.description("Latency of requests by route, status class and service level of the calling account")
+				.tag("uri", key.route).tag("status", key.statusClass).tag("serviceLevel", key.serviceLevel)
+				.publishPercentileHistogram()
+				.serviceLevelObjectives(Duration.ofNanos(tiers.get(key.serviceLevel).objectiveNanos))
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Counts a request of the given account. Once the tracked limit is reached, a
+	 * new account replaces the least active one and inherits its activity, so
+	 * accounts which only made a few requests are evicted first and a newly busy
+	 * account is not evicted again before it can overtake them. Memory stays
+	 * bounded under a large number of tenants.
+	 */
+	private void recordTenant(long accountId, ServiceLevel serviceLevel, boolean bad) {
+		TenantStatistics tenant = tenants.get(accountId);
+		if (tenant == null) {
+			tenant = trackTenant(accountId, serviceLevel);
+			if (tenant == null) {
+				return;
+			}
+		}
+		tenant.requests.increment();
+		if (bad) {
+			tenant.bad.increment();
+		}
+	}
+
+	private TenantStatistics trackTenant(long accountId, ServiceLevel serviceLevel) {
+		int maxTrackedTenants = sloProperties.getMaxTrackedTenants();
+		if (maxTrackedTenants <= 0) {
+			return null;
+		}
+		synchronized (tenants) {
+			TenantStatistics tenant = tenants.get(accountId);
+			if (tenant != null) {
+				return tenant;
+			}
+			long inherited = 0;
+			if (tenants.size() >= maxTrackedTenants) {
+				Map.Entry<Long, TenantStatistics> leastActive = Collections.min(tenants.entrySet(),
+						Comparator.comparingLong(entry -> entry.getValue().activity()));
+				tenants.remove(leastActive.getKey());
+				inherited = leastActive.getValue().activity();
+			}
+			tenant = new TenantStatistics(serviceLevel, inherited);
+			tenants.put(accountId, tenant);
+			return tenant;
+		}
+	}
+
+	private static double toMillis(double nanos) {
+		return Math.round(nanos / NANOS_PER_MILLI * 1000.0) / 1000.0;
+	}
+
+	/**
+	 * Inner class of {@link RequestSloService} which holds the latencies and
+	 * outcomes of the requests of a single tier.
+	 *
+	 * @author Noah Anderson
+	 */
+	private class TierStatistics {
+
+		private final String name;
+		private final long objectiveNanos;
+		private final Counter good;
+		private final Counter bad;
+		private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+		private final Histogram accumulated = new Histogram(SIGNIFICANT_DIGITS);
+		private final Map<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+		private final List<OutcomeWindow> windows = new ArrayList<>();
+
+		TierStatistics(String name, Duration objective) {
+			this.name = name;
+			this.objectiveNanos = objective.toNanos();
+			for (Duration window : sloProperties.getBurnRateWindows()) {
+				windows.add(new OutcomeWindow(window));
+			}
+			this.good = Counter.builder(OUTCOMES_METRIC).description(OUTCOMES_DESCRIPTION)
+					.tag("serviceLevel", name).tag("outcome", "good").register(meterRegistry);
+			this.bad = Counter.builder(OUTCOMES_METRIC).description(OUTCOMES_DESCRIPTION)
+					.tag("serviceLevel", name).tag("outcome", "bad").register(meterRegistry);
+		}
+
+		void record(String route, long durationNanos, boolean isBad) {
+			recorder.recordValue(durationNanos);
+			routes.computeIfAbsent(route, key -> new RouteStatistics()).recorder.recordValue(durationNanos);
+			long now = nanoClock.getAsLong();
+			for (OutcomeWindow window : windows) {
+				window.record(now, isBad);
+			}
+			if (isBad) {
+				bad.increment();
+			} else {
+				good.increment();
+			}
+		}
+
+		/**
+		 * Adds everything recorded since the last snapshot to the accumulated
+		 * histograms and summarizes them. Only called while holding the lock of
+		 * the enclosing service.
+		 */
+		SloSnapshot.Tier snapshot(double allowedBadFraction) {
+			accumulated.add(recorder.getIntervalHistogram());
+			Map<String, Double> latencies = new LinkedHashMap<>();
+			for (double percentile : PERCENTILES) {
+				latencies.put(percentileName(percentile), toMillis(accumulated.getValueAtPercentile(percentile)));
+			}
+			latencies.put("max", toMillis(accumulated.getMaxValue()));
+
+			Map<String, SloSnapshot.Route> routeSnapshots = new LinkedHashMap<>();
+			routes.forEach((route, statistics) -> {
+				statistics.accumulated.add(statistics.recorder.getIntervalHistogram());
+				routeSnapshots.put(route, new SloSnapshot.Route(statistics.accumulated.getTotalCount(),
+						toMillis(statistics.accumulated.getValueAtPercentile(99.0))));
+			});
+
+			long goodCount = (long) good.count();
+			long badCount = (long) bad.count();
+			long requests = goodCount + badCount;
+			long now = nanoClock.getAsLong();
+			Map<String, Double> burnRates = new LinkedHashMap<>();
+			for (OutcomeWindow window : windows) {
+				burnRates.put(window.name, window.burnRate(now, allowedBadFraction));
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate(accumulated.getNeededByteBufferCapacity());
+			int length = accumulated.encodeIntoCompressedByteBuffer(buffer);
+			String encoded = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+
+			return new SloSnapshot.Tier(name, toMillis(objectiveNanos), requests, goodCount, badCount, burnRates,
+					latencies, routeSnapshots, encoded);
+		}
+
+		private String percentileName(double percentile) {
+			return "p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile));
+		}
+	}
+
+	/**
+	 * Static inner class of {@link RequestSloService} which counts the good and
+	 * bad requests of a tier over a sliding window. The window is divided into
+	 * {@value #WINDOW_BUCKETS} buckets, each reused once the window has moved
+	 * past it.
+	 *
+	 * @author Noah Anderson
+	 */
+	private static class OutcomeWindow {
+
+		private final String name;
+		private final long bucketNanos;
+		private final Bucket[] buckets = new Bucket[WINDOW_BUCKETS];
+
+		OutcomeWindow(Duration window) {
+			this.name = windowName(window);
+			this.bucketNanos = Math.max(1L, window.toNanos() / WINDOW_BUCKETS);
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new Bucket();
+			}
+		}
+
+		void record(long now, boolean isBad) {
+			long index = Math.floorDiv(now, bucketNanos);
+			Bucket bucket = buckets[(int) Math.floorMod(index, (long) WINDOW_BUCKETS)];
+			if (bucket.index != index) {
+				synchronized (bucket) {
+					if (bucket.index != index) {
+						bucket.good.reset();
+						bucket.bad.reset();
+						bucket.index = index;
+					}
+				}
+			}
+			(isBad ? bucket.bad : bucket.good).increment();
+		}
+
+		/**
+		 * Computes the burn rate over the buckets which are still inside the window
+		 * ending at {@code now}.
+		 */
+		double burnRate(long now, double allowedBadFraction) {
+			long current = Math.floorDiv(now, bucketNanos);
+			long goodCount = 0;
+			long badCount = 0;
+			for (Bucket bucket : buckets) {
+				long index = bucket.index;
+				if (index <= current && current - index < WINDOW_BUCKETS) {
+					goodCount += bucket.good.sum();
+					badCount += bucket.bad.sum();
+				}
+			}
+			long requests = goodCount + badCount;
+			return requests == 0 || allowedBadFraction <= 0 ? 0.0
+					: Math.round((double) badCount / requests / allowedBadFraction * 1000.0) / 1000.0;
+		}
+
+		private static String windowName(Duration window) {
+			long seconds = window.getSeconds();
+			if (seconds > 0 && seconds % 3600 == 0) {
+				return seconds / 3600 + "h";
+			}
+			if (seconds > 0 && seconds % 60 == 0) {
+				return seconds / 60 + "m";
+			}
+			return seconds + "s";
+		}
+	}
+
+	private static class Bucket {
+
+		private volatile long index = Long.MIN_VALUE;
+		private final LongAdder good = new LongAdder();
+		private final LongAdder bad = new LongAdder();
+	}
+
+	private static class RouteStatistics {
+
+		private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+		private final Histogram accumulated = new Histogram(SIGNIFICANT_DIGITS);
+	}
+
+	private static class TenantStatistics {
+
+		private final ServiceLevel serviceLevel;
+		private final long inherited;
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder bad = new LongAdder();
+
+		TenantStatistics(ServiceLevel serviceLevel, long inherited) {
+			this.serviceLevel = serviceLevel;
+			this.inherited = inherited;
+		}
+
+		/**
+		 * The requests counted since the account was tracked plus the activity
+		 * of the account it replaced, which bounds how busy the account has been
+		 * from above.
+		 */
+		long activity() {
+			return inherited + requests.sum();
+		}
+	}
+
+	private static class TimerKey {
+
+		private final String route;
+		private final String statusClass;
+		private final String serviceLevel;
+
+		TimerKey(String route, String statusClass, String serviceLevel) {
+			this.route = route;
+			this.statusClass = statusClass;
+			this.serviceLevel = serviceLevel;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof TimerKey)) {
+				return false;
+			}
+			TimerKey other = (TimerKey) o;
+			return route.equals(other.route) && statusClass.equals(other.statusClass)
+					&& serviceLevel.equals(other.serviceLevel);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(route, statusClass, serviceLevel);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.fdmgroup.documentuploader.service.slo;
+
+import com.fdmgroup.documentuploader.config.SloProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * Resolves the {@link ServiceLevel} of an account, so requests made on its
+ * behalf can be attributed to a tier.
+ * </p>
+ * <p>
+ * Service levels rarely change, so they are cached for a configurable time
+ * rather than looked up on every request. The number of cached accounts is
+ * bounded; once the bound is reached, the least recently used account is
+ * evicted. Accounts which do not exist are cached as well, so requests for
+ * unknown ids do not reach the database either.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Component
+public class ServiceLevelResolver {
+
+	private final AccountRepository accountRepository;
+	private final long ttlNanos;
+	private final int maxEntries;
+	private final LongSupplier nanoClock;
+	private final LinkedHashMap<Long, CachedServiceLevel> cache;
+
+	@Autowired
+	public ServiceLevelResolver(AccountRepository accountRepository, SloProperties sloProperties) {
+		this(accountRepository, sloProperties, System::nanoTime);
+	}
+
+	public ServiceLevelResolver(AccountRepository accountRepository, SloProperties sloProperties,
+			LongSupplier nanoClock) {
+		super();
+		this.accountRepository = accountRepository;
+		this.ttlNanos = sloProperties.getResolverCacheTtl().toNanos();
+		this.maxEntries = sloProperties.getResolverCacheSize();
+		this.nanoClock = nanoClock;
+		this.cache = new LinkedHashMap<Long, CachedServiceLevel>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, CachedServiceLevel> eldest) {
+				return size() > ServiceLevelResolver.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Resolves the {@link ServiceLevel} of the account with the given id.
+	 *
+	 * @param accountId the id of the account
+	 * @return {@code empty} {@link Optional} if no account exists with the given
+	 *         id. Otherwise, an {@code Optional} encapsulating its service level
+	 */
+	public Optional<ServiceLevel> resolve(long accountId) {
+		long now = nanoClock.getAsLong();
+		synchronized (cache) {
+			CachedServiceLevel cached = cache.get(accountId);
+			if (cached != null && cached.expiresAt - now > 0) {
+				return Optional.ofNullable(cached.serviceLevel);
+			}
+		}
+
+		ServiceLevel serviceLevel = accountRepository.findServiceLevelById(accountId).orElse(null);
+		synchronized (cache) {
+			cache.put(accountId, new CachedServiceLevel(serviceLevel, now + ttlNanos));
+		}
+		return Optional.ofNullable(serviceLevel);
+	}
+
+	/**
+	 * Gets the number of accounts currently cached.
+	 *
+	 * @return the number of cached accounts
+	 */
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	private static class CachedServiceLevel {
+
+		private final ServiceLevel serviceLevel;
+		private final long expiresAt;
+
+		CachedServiceLevel(ServiceLevel serviceLevel, long expiresAt) {
+			this.serviceLevel = serviceLevel;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
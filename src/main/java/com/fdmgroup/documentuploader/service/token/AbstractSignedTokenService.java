@@ -0,0 +1,73 @@
+package com.fdmgroup.documentuploader.service.token;
+
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+
+import java.util.Optional;
+
+/**
+ * Service which issues and verifies stateless tokens which carry their own
+ * user id, purpose and expiry under an HMAC signature.
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractSignedTokenService {
+
+	/**
+	 * Checks if newly issued tokens should be signed tokens.
+	 *
+	 * @return {@code true} if signed tokens are enabled, {@code false} otherwise.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Checks if the given {@code token} has the format of a signed token, as
+	 * opposed to a token stored in the data source.
+	 *
+	 * @param token the token to check
+	 * @return {@code true} if the token has the format of a signed token,
+	 *         {@code false} otherwise.
+	 */
+	boolean isSignedToken(String token);
+
+	/**
+	 * Issues a new signed token for the user with the given {@code userId}.
+	 *
+	 * @param userId  the id of the user the token is issued to
+	 * @param purpose the action the token authorizes
+	 * @return the encoded token
+	 */
+	String issue(long userId, TokenPurpose purpose);
+
+	/**
+	 * Verifies the signature, purpose and expiry of the given {@code token}
+	 * without accessing the data source.
+	 *
+	 * @param token   the encoded token
+	 * @param purpose the action the token must authorize
+	 * @return Empty optional if the token is malformed, forged, issued for another
+	 *         purpose, signed by an unknown key or expired. Otherwise, an optional
+	 *         containing the claims of the token.
+	 */
+	Optional<SignedTokenClaims> verify(String token, TokenPurpose purpose);
+
+	/**
+	 * Checks if the token with the given {@code claims} has already been used.
+	 *
+	 * @param claims the verified claims of a token
+	 * @return {@code true} if the token has been consumed, {@code false}
+	 *         otherwise.
+	 */
+	boolean isConsumed(SignedTokenClaims claims);
+
+	/**
+	 * Marks the token with the given {@code claims} as used. The token is
+	 * consumed in a transaction of its own, so it stays consumed even if the
+	 * current transaction, if any, rolls back.
+	 *
+	 * @param claims the verified claims of a token
+	 * @return {@code true} if the token was consumed by this call, {@code false}
+	 *         if it had already been consumed.
+	 */
+	boolean consume(SignedTokenClaims claims);
+}
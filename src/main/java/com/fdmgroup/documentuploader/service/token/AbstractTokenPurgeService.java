@@ -0,0 +1,26 @@
+package com.fdmgroup.documentuploader.service.token;
+
+import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
+import com.fdmgroup.documentuploader.model.token.TokenPurgeResult;
+import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that remove
+ * {@link ConfirmationToken} and {@link PasswordResetToken} objects which can no
+ * longer be used from the data source.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public interface AbstractTokenPurgeService {
+
+	/**
+	 * Deletes every expired {@link ConfirmationToken} and every used or expired
+	 * {@link PasswordResetToken} in bounded batches, each batch in its own
+	 * transaction.
+	 *
+	 * @return {@link TokenPurgeResult} describing the number of rows deleted
+	 */
+	TokenPurgeResult purgeExpiredTokens();
+}
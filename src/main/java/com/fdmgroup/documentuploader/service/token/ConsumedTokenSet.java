@@ -0,0 +1,135 @@
+package com.fdmgroup.documentuploader.service.token;
+
+/**
+ * <p>
+ * Bounded in-memory set of the nonces of consumed signed tokens, kept in two
+ * parallel primitive arrays using open addressing so that each entry costs
+ * sixteen bytes and no objects are allocated per entry.
+ * </p>
+ * <p>
+ * The set only remembers positive answers: a nonce which is absent may still
+ * have been consumed on another node or before a restart, so callers must fall
+ * back to the data source on a miss. Entries are dropped once their token has
+ * expired and, should the set still be full, it is cleared entirely, which only
+ * costs additional lookups in the data source.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class ConsumedTokenSet {
+
+	private static final long EMPTY = 0L;
+
+	private final int maxSize;
+	private long[] nonces;
+	private long[] expiries;
+	private int size;
+
+	/**
+	 * Creates a new instance of {@link ConsumedTokenSet}.
+	 *
+	 * @param maxSize the maximum number of nonces held at once
+	 */
+	public ConsumedTokenSet(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		this.maxSize = maxSize;
+		int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+		this.nonces = new long[capacity];
+		this.expiries = new long[capacity];
+	}
+
+	/**
+	 * Checks if the given {@code nonce} is known to have been consumed.
+	 *
+	 * @param nonce the nonce of a signed token
+	 * @return {@code true} if the nonce has been added to this set and not been
+	 *         evicted since, {@code false} otherwise.
+	 */
+	public synchronized boolean contains(long nonce) {
+		if (nonce == EMPTY) {
+			return false;
+		}
+		int mask = nonces.length - 1;
+		for (int i = index(nonce, mask);; i = (i + 1) & mask) {
+			long current = nonces[i];
+			if (current == nonce) {
+				return true;
+			}
+			if (current == EMPTY) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Adds the given {@code nonce} to this set until {@code expiryEpochSecond}.
+	 *
+	 * @param nonce             the nonce of a consumed signed token
+	 * @param expiryEpochSecond the time at which the token expires
+	 * @param nowEpochSecond    the current time, used to drop expired entries
+	 *                          when the set is full
+	 */
+	public synchronized void add(long nonce, long expiryEpochSecond, long nowEpochSecond) {
+		if (nonce == EMPTY || contains(nonce)) {
+			return;
+		}
+		if (size >= maxSize) {
+			rebuild(nowEpochSecond);
+		}
+		insert(nonce, expiryEpochSecond);
+	}
+
+	/**
+	 * Gets the number of nonces currently held.
+	 *
+	 * @return the size of this set
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private void insert(long nonce, long expiryEpochSecond) {
+		int mask = nonces.length - 1;
+		int i = index(nonce, mask);
+		while (nonces[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		nonces[i] = nonce;
+		expiries[i] = expiryEpochSecond;
+		size++;
+	}
+
+	/**
+	 * Re-inserts every entry which has not yet expired, clearing the set if it
+	 * would still be full afterwards. Rebuilding rather than removing in place
+	 * keeps the probe sequences free of tombstones.
+	 */
+	private void rebuild(long nowEpochSecond) {
+		long[] oldNonces = nonces;
+		long[] oldExpiries = expiries;
+		nonces = new long[oldNonces.length];
+		expiries = new long[oldExpiries.length];
+		size = 0;
+		int live = 0;
+		for (int i = 0; i < oldNonces.length; i++) {
+			if (oldNonces[i] != EMPTY && oldExpiries[i] > nowEpochSecond) {
+				live++;
+			}
+		}
+		if (live >= maxSize) {
+			return;
+		}
+		for (int i = 0; i < oldNonces.length; i++) {
+			if (oldNonces[i] != EMPTY && oldExpiries[i] > nowEpochSecond) {
+				insert(oldNonces[i], oldExpiries[i]);
+			}
+		}
+	}
+
+	private static int index(long nonce, int mask) {
+		long h = nonce * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+}
@@ -0,0 +1,272 @@
+package com.fdmgroup.documentuploader.service.token;
+
+import com.fdmgroup.documentuploader.config.SignedTokenProperties;
+import com.fdmgroup.documentuploader.jfr.TokenValidationEvent;
+import com.fdmgroup.documentuploader.model.token.ConsumedToken;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import com.fdmgroup.documentuploader.repository.ConsumedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractSignedTokenService} issuing tokens of the
+ * form {@code base64url(payload).base64url(HMAC-SHA256(payload))}, where the
+ * payload holds a format version, the key id, the purpose, the user id, the
+ * expiry and a random nonce.
+ * </p>
+ * <p>
+ * Verification needs no data source access. Only the single use check reaches
+ * the data source, and only when the nonce is not already known to the
+ * in-memory {@link ConsumedTokenSet}.
+ * </p>
+ * <p>
+ * A token is consumed in a transaction of its own, committed before
+ * {@link #consume(SignedTokenClaims)} returns. A token replayed concurrently on
+ * another node therefore fails only that transaction, never the transaction
+ * of the caller, and a nonce is only remembered once its row is committed.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class SignedTokenService implements AbstractSignedTokenService {
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final byte VERSION = 1;
+	private static final int MIN_KEY_BYTES = 32;
+	private static final int MAX_KEY_ID_BYTES = 16;
+	private static final char SEPARATOR = '.';
+
+	private final SignedTokenProperties signedTokenProperties;
+	private final ConsumedTokenRepository consumedTokenRepository;
+	private final ConsumedTokenSet consumedTokens;
+	private final Map<String, SigningKey> keys;
+	private final TokenGenerator tokenGenerator;
+	private final TransactionTemplate transactionTemplate;
+	private final Clock clock;
+
+	@Autowired
+	public SignedTokenService(SignedTokenProperties signedTokenProperties,
+			ConsumedTokenRepository consumedTokenRepository, TokenGenerator tokenGenerator,
+			PlatformTransactionManager transactionManager) {
+		this(signedTokenProperties, consumedTokenRepository, tokenGenerator, transactionManager, Clock.systemUTC());
+	}
+
+	public SignedTokenService(SignedTokenProperties signedTokenProperties,
+			ConsumedTokenRepository consumedTokenRepository, TokenGenerator tokenGenerator,
+			PlatformTransactionManager transactionManager, Clock clock) {
+		super();
+		this.signedTokenProperties = signedTokenProperties;
+		this.consumedTokenRepository = consumedTokenRepository;
+		this.tokenGenerator = tokenGenerator;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.consumedTokens = new ConsumedTokenSet(signedTokenProperties.getConsumedCacheSize());
+		this.keys = decodeKeys(signedTokenProperties);
+		this.clock = clock;
+	}
+
+	/**
+	 * Decodes the configured secrets, failing fast when signed tokens are
+	 * enabled but the active key is missing or too short.
+	 */
+	private static Map<String, SigningKey> decodeKeys(SignedTokenProperties properties) {
+		Map<String, SigningKey> decoded = new HashMap<>();
+		for (Map.Entry<String, String> entry : properties.getKeys().entrySet()) {
+			String keyId = entry.getKey();
+			byte[] secret;
+			try {
+				secret = Base64.getDecoder().decode(entry.getValue().trim());
+			} catch (IllegalArgumentException e) {
+				if (properties.isEnabled()) {
+					throw new IllegalStateException("Signed token key " + keyId + " is not valid base64", e);
+				}
+				continue;
+			}
+			if (secret.length < MIN_KEY_BYTES || keyId.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_ID_BYTES) {
+				if (properties.isEnabled()) {
+					throw new IllegalStateException("Signed token key " + keyId + " must be at least "
+							+ MIN_KEY_BYTES + " bytes with an id of at most " + MAX_KEY_ID_BYTES + " bytes");
+				}
+				continue;
+			}
+			decoded.put(keyId, new SigningKey(secret));
+		}
+		if (properties.isEnabled() && !decoded.containsKey(properties.getActiveKeyId())) {
+			throw new IllegalStateException("No signed token key configured for " + properties.getActiveKeyId());
+		}
+		return Collections.unmodifiableMap(decoded);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return signedTokenProperties.isEnabled();
+	}
+
+	@Override
+	public boolean isSignedToken(String token) {
+		return token != null && token.indexOf(SEPARATOR) > 0;
+	}
+
+	@Override
+	public String issue(long userId, TokenPurpose purpose) {
+		String keyId = signedTokenProperties.getActiveKeyId();
+		SigningKey key = keys.get(keyId);
+		if (key == null) {
+			throw new IllegalStateException("No signed token key configured for " + keyId);
+		}
+		Instant expiry = clock.instant().plus(ttlOf(purpose));
+		byte[] keyIdBytes = keyId.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer payload = ByteBuffer.allocate(3 + keyIdBytes.length + 3 * Long.BYTES);
+		payload.put(VERSION).put((byte) keyIdBytes.length).put(keyIdBytes).put((byte) purpose.ordinal())
+				.putLong(userId).putLong(expiry.getEpochSecond()).putLong(tokenGenerator.nextNonce());
+		byte[] payloadBytes = payload.array();
+
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		return encoder.encodeToString(payloadBytes) + SEPARATOR + encoder.encodeToString(key.sign(payloadBytes));
+	}
+
+	@Override
+	public Optional<SignedTokenClaims> verify(String token, TokenPurpose purpose) {
+		TokenValidationEvent event = TokenValidationEvent.start(purpose);
+		Optional<SignedTokenClaims> claims = verifySignedToken(token, purpose);
+		event.finish(claims.isPresent(), claims.isPresent() ? claims.get().getUserId() : 0L);
+		return claims;
+	}
+
+	private Optional<SignedTokenClaims> verifySignedToken(String token, TokenPurpose purpose) {
+		if (!isSignedToken(token)) {
+			return Optional.empty();
+		}
+		int separator = token.indexOf(SEPARATOR);
+		byte[] payload;
+		byte[] signature;
+		try {
+			Base64.Decoder decoder = Base64.getUrlDecoder();
+			payload = decoder.decode(token.substring(0, separator));
+			signature = decoder.decode(token.substring(separator + 1));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		if (payload.length < 2 || buffer.get() != VERSION) {
+			return Optional.empty();
+		}
+		int keyIdLength = buffer.get();
+		if (keyIdLength < 1 || keyIdLength > MAX_KEY_ID_BYTES
+				|| payload.length != 3 + keyIdLength + 3 * Long.BYTES) {
+			return Optional.empty();
+		}
+		byte[] keyIdBytes = new byte[keyIdLength];
+		buffer.get(keyIdBytes);
+		String keyId = new String(keyIdBytes, StandardCharsets.UTF_8);
+		SigningKey key = keys.get(keyId);
+		if (key == null || !MessageDigest.isEqual(key.sign(payload), signature)) {
+			return Optional.empty();
+		}
+
+		int purposeOrdinal = buffer.get();
+		long userId = buffer.getLong();
+		Instant expiry = Instant.ofEpochSecond(buffer.getLong());
+		long nonce = buffer.getLong();
+		if (purposeOrdinal != purpose.ordinal() || !expiry.isAfter(clock.instant())) {
+			return Optional.empty();
+		}
+		return Optional.of(new SignedTokenClaims(keyId, purpose, userId, expiry, nonce));
+	}
+
+	@Override
+	public boolean isConsumed(SignedTokenClaims claims) {
+		long nonce = claims.getNonce();
+		if (consumedTokens.contains(nonce)) {
+			return true;
+		}
+		if (consumedTokenRepository.existsById(nonce)) {
+			remember(claims);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean consume(SignedTokenClaims claims) {
+		if (consumedTokens.contains(claims.getNonce())) {
+			return false;
+		}
+		boolean consumed;
+		try {
+			consumed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+				if (consumedTokenRepository.existsById(claims.getNonce())) {
+					return false;
+				}
+				consumedTokenRepository
+						.saveAndFlush(new ConsumedToken(claims.getNonce(), Date.from(claims.getExpiry())));
+				return true;
+			}));
+		} catch (DataIntegrityViolationException e) {
+			consumed = false;
+		}
+		remember(claims);
+		return consumed;
+	}
+
+	private void remember(SignedTokenClaims claims) {
+		consumedTokens.add(claims.getNonce(), claims.getExpiry().getEpochSecond(), clock.instant().getEpochSecond());
+	}
+
+	private Duration ttlOf(TokenPurpose purpose) {
+		return purpose == TokenPurpose.CONFIRM_ACCOUNT ? signedTokenProperties.getConfirmationTtl()
+				: signedTokenProperties.getPasswordResetTtl();
+	}
+
+	/**
+	 * A single HMAC key, holding one initialized {@link Mac} per thread since
+	 * {@code Mac} instances are not thread safe and costly to create.
+	 */
+	private static class SigningKey {
+
+		private final ThreadLocal<Mac> mac;
+
+		private SigningKey(byte[] secret) {
+			SecretKeySpec keySpec = new SecretKeySpec(secret, ALGORITHM);
+			this.mac = ThreadLocal.withInitial(() -> {
+				try {
+					Mac instance = Mac.getInstance(ALGORITHM);
+					instance.init(keySpec);
+					return instance;
+				} catch (GeneralSecurityException e) {
+					throw new IllegalStateException("Could not initialize " + ALGORITHM, e);
+				}
+			});
+		}
+
+		private byte[] sign(byte[] payload) {
+			return mac.get().doFinal(payload);
+		}
+	}
+}
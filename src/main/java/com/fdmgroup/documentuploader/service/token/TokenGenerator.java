@@ -0,0 +1,129 @@
+package com.fdmgroup.documentuploader.service.token;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * <p>
+ * Mints the random values and expiry dates of confirmation, password reset and
+ * signed tokens.
+ * </p>
+ * <p>
+ * {@link java.util.UUID#randomUUID()} draws from one {@link SecureRandom} shared
+ * by the whole JVM, which every minting thread contends on. Each thread here
+ * owns its own {@code SecureRandom} and pre-generates random bytes in bulk, so
+ * minting a token is usually a copy out of a thread local buffer.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Component
+public class TokenGenerator {
+
+	private static final int TOKEN_BYTES = 16;
+	private static final int TOKENS_PER_REFILL = 64;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final ThreadLocal<RandomBuffer> buffers = ThreadLocal
+			.withInitial(() -> new RandomBuffer(TOKEN_BYTES * TOKENS_PER_REFILL));
+	private final Clock clock;
+
+	@Autowired
+	public TokenGenerator() {
+		this(Clock.systemUTC());
+	}
+
+	public TokenGenerator(Clock clock) {
+		super();
+		this.clock = clock;
+	}
+
+	/**
+	 * Mints a new random token formatted as a version 4 {@code UUID}, as
+	 * produced by {@link java.util.UUID#randomUUID()}.
+	 *
+	 * @return the new token
+	 */
+	public String nextToken() {
+		RandomBuffer buffer = buffers.get();
+		long mostSigBits = (buffer.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+		long leastSigBits = (buffer.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+		char[] chars = new char[36];
+		writeHex(chars, 0, mostSigBits >>> 32, 8);
+		chars[8] = '-';
+		writeHex(chars, 9, mostSigBits >>> 16, 4);
+		chars[13] = '-';
+		writeHex(chars, 14, mostSigBits, 4);
+		chars[18] = '-';
+		writeHex(chars, 19, leastSigBits >>> 48, 4);
+		chars[23] = '-';
+		writeHex(chars, 24, leastSigBits, 12);
+		return new String(chars);
+	}
+
+	/**
+	 * Mints a new random, non-zero {@code long}.
+	 *
+	 * @return the new nonce
+	 */
+	public long nextNonce() {
+		RandomBuffer buffer = buffers.get();
+		long nonce;
+		do {
+			nonce = buffer.nextLong();
+		} while (nonce == 0L);
+		return nonce;
+	}
+
+	/**
+	 * Computes the expiry date of a token minted now which is valid for the
+	 * given {@code validity}.
+	 *
+	 * @param validity how long the token is valid for
+	 * @return the point in time the token expires
+	 */
+	public Date expiryAfter(Duration validity) {
+		return Date.from(clock.instant().plus(validity));
+	}
+
+	private static void writeHex(char[] chars, int offset, long value, int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			chars[i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+
+	/**
+	 * Random bytes generated in bulk by a {@link SecureRandom} owned by a single
+	 * thread.
+	 */
+	private static class RandomBuffer {
+
+		private final SecureRandom random = new SecureRandom();
+		private final byte[] bytes;
+		private int position;
+
+		private RandomBuffer(int size) {
+			this.bytes = new byte[size];
+			this.position = size;
+		}
+
+		private long nextLong() {
+			if (position + Long.BYTES > bytes.length) {
+				random.nextBytes(bytes);
+				position = 0;
+			}
+			long value = 0L;
+			for (int i = 0; i < Long.BYTES; i++) {
+				value = (value << 8) | (bytes[position++] & 0xFF);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.fdmgroup.documentuploader.service.token;
+
+import com.fdmgroup.documentuploader.config.TokenPurgeProperties;
+import com.fdmgroup.documentuploader.model.token.TokenPurgeResult;
+import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
+import com.fdmgroup.documentuploader.repository.ConsumedTokenRepository;
+import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implementing class of {@link AbstractTokenPurgeService} which selects the ids
+ * of purgeable tokens through the expiry date index and deletes them by id,
+ * pausing between batches so the purge never holds long locks nor competes
+ * with request traffic for the database.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class TokenPurgeService implements AbstractTokenPurgeService {
+
+	private final ConfirmationTokenRepository confirmationTokenRepository;
+	private final PasswordResetTokenRepository passwordResetTokenRepository;
+	private final ConsumedTokenRepository consumedTokenRepository;
+	private final TokenPurgeProperties tokenPurgeProperties;
+	private final TransactionTemplate transactionTemplate;
+
+	@Autowired
+	public TokenPurgeService(ConfirmationTokenRepository confirmationTokenRepository,
+			PasswordResetTokenRepository passwordResetTokenRepository,
+			ConsumedTokenRepository consumedTokenRepository, TokenPurgeProperties tokenPurgeProperties,
+			PlatformTransactionManager transactionManager) {
+		super();
+		this.confirmationTokenRepository = confirmationTokenRepository;
+		this.passwordResetTokenRepository = passwordResetTokenRepository;
+		this.consumedTokenRepository = consumedTokenRepository;
+		this.tokenPurgeProperties = tokenPurgeProperties;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public TokenPurgeResult purgeExpiredTokens() {
+		long start = System.nanoTime();
+		Date now = new Date();
+		Pageable batch = PageRequest.of(0, tokenPurgeProperties.getBatchSize());
+
+		TablePurge confirmationTokens = purgeTable(
+				pageable -> confirmationTokenRepository.findExpiredTokenIds(now, pageable),
+				confirmationTokenRepository::deleteByIdIn, batch);
+		TablePurge passwordResetTokens = confirmationTokens.interrupted ? new TablePurge()
+				: purgeTable(pageable -> passwordResetTokenRepository.findExpiredOrUsedTokenIds(now, pageable),
+						passwordResetTokenRepository::deleteByIdIn, batch);
+		TablePurge consumedTokens = passwordResetTokens.interrupted ? new TablePurge()
+				: purgeTable(pageable -> consumedTokenRepository.findExpiredTokenIds(now, pageable),
+						consumedTokenRepository::deleteByIdIn, batch);
+
+		return new TokenPurgeResult(confirmationTokens.deleted, passwordResetTokens.deleted, consumedTokens.deleted,
+				confirmationTokens.batches + passwordResetTokens.batches + consumedTokens.batches,
+				confirmationTokens.complete && passwordResetTokens.complete && consumedTokens.complete,
+				Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	/**
+	 * Repeatedly selects and deletes a batch of ids until fewer ids than the batch
+	 * size are found or the configured number of batches per run is reached.
+	 *
+	 * @param idFinder   selects the ids of the next batch of rows to delete
+	 * @param idDeleter  deletes the rows with the given ids, returning the number
+	 *                   of rows deleted
+	 * @param batch      the {@link Pageable} bounding the size of a batch
+	 * @return the {@link TablePurge} describing the progress made
+	 */
+	private TablePurge purgeTable(Function<Pageable, List<Long>> idFinder, ToIntFunction<Collection<Long>> idDeleter,
+			Pageable batch) {
+		TablePurge purge = new TablePurge();
+		while (purge.batches < tokenPurgeProperties.getMaxBatchesPerRun()) {
+			if (purge.batches > 0 && !pauseBetweenBatches()) {
+				purge.interrupted = true;
+				purge.complete = false;
+				return purge;
+			}
+			int[] found = new int[1];
+			Integer deleted = transactionTemplate.execute(status -> {
+				List<Long> ids = idFinder.apply(batch);
+				found[0] = ids.size();
+				return ids.isEmpty() ? 0 : idDeleter.applyAsInt(ids);
+			});
+			purge.batches++;
+			purge.deleted += deleted == null ? 0 : deleted;
+			if (found[0] < batch.getPageSize()) {
+				purge.complete = true;
+				return purge;
+			}
+		}
+		purge.complete = false;
+		return purge;
+	}
+
+	/**
+	 * Sleeps for the configured pause between two batches.
+	 *
+	 * @return {@code false} if the thread was interrupted while sleeping.
+	 *         Otherwise, returns {@code true}.
+	 */
+	private boolean pauseBetweenBatches() {
+		long pauseMillis = tokenPurgeProperties.getPauseBetweenBatches().toMillis();
+		if (pauseMillis <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(pauseMillis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Progress made purging a single table.
+	 */
+	private static class TablePurge {
+
+		private long deleted;
+		private int batches;
+		private boolean complete = true;
+		private boolean interrupted;
+	}
+}
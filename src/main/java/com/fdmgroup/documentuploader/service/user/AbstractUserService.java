@@ -1,10 +1,12 @@
 package com.fdmgroup.documentuploader.service.user;
 
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.exceptions.InvalidTokenException;
 import com.fdmgroup.documentuploader.model.user.User;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -35,6 +37,18 @@ public interface AbstractUserService {
 	 */
 	Optional<User> getUserById(long userId);
 
+	/**
+	 * Retrieves the {@link User} objects with the given {@code userIds}.
+	 * 
+	 * @param userIds the {@code userId}s of the {@code User}s to retrieve
+	 * @return {@link List} containing the found {@code User} objects in the order
+	 *         of their first occurrence in {@code userIds}. Ids which are not
+	 *         found are left out
+	 * @throws BatchLimitExceededException when more distinct ids are given than
+	 *                                     a single lookup accepts
+	 */
+	List<User> getUsersByIds(List<Long> userIds);
+
 	/**
 	 * Saves the given {@link User} to the data source.
 	 *
@@ -45,6 +59,17 @@ public interface AbstractUserService {
 	 */
 	User save(User user);
 
+	/**
+	 * Saves the given {@link User}, whose {@code password} has already been
+	 * hashed, to the data source.
+	 *
+	 * @param user the {@code User} to be saved
+	 * @return the saved {@code User} instance
+	 * @throws EntityCouldNotBeSavedException when the {@code email} of the given
+	 *                                        {@code User} is already in use
+	 */
+	User saveWithHashedPassword(User user);
+
 	/**
 	 * Updates the given {@link User} with the data source.
 	 * 
@@ -55,6 +80,23 @@ public interface AbstractUserService {
 	 */
 	User update(User user) throws EntityNotFoundException;
 
+	/**
+	 * Checks the given {@code rawPassword} against the stored password of the
+	 * {@link User} with the given {@code email}. When the stored password was
+	 * hashed with a lower cost than is currently configured, it is hashed again
+	 * and saved.
+	 * 
+	 * @param email       the {@code email} associated with a {@code User}
+	 * @param rawPassword the password given by the client
+	 * @return {@code empty} {@link Optional} if no {@code User} is found with the
+	 *         given {@code email} or the password does not match. Otherwise, an
+	 *         {@code Optional} containing the authenticated {@code User}.
+	 * @throws com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException
+	 *         when the password could not be verified because password hashing is
+	 *         saturated
+	 */
+	Optional<User> authenticate(String email, String rawPassword);
+
 	/**
 	 * Checks whether the {@link User} associated with the given {@code userEmail}
 	 * has enabled their account.
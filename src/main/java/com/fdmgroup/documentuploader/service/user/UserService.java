@@ -1,31 +1,55 @@
 package com.fdmgroup.documentuploader.service.user;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
 import com.fdmgroup.documentuploader.events.PasswordResetEvent;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.exceptions.InvalidTokenException;
+import com.fdmgroup.documentuploader.jfr.TokenValidationEvent;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
 import com.fdmgroup.documentuploader.repository.UserRepository;
 import com.fdmgroup.documentuploader.service.account.AbstractAccountService;
+import com.fdmgroup.documentuploader.service.coalescing.SingleFlight;
+import com.fdmgroup.documentuploader.service.password.AbstractPasswordHashingService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
+import com.fdmgroup.documentuploader.util.BatchLookupUtil;
 import com.fdmgroup.documentuploader.util.ServletRequestUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.transaction.Transactional;
+import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * <p>
  * Implementing class of {@link AbstractAccountService} which performs
  * operations related to {@link User} objects.
  * </p>
+ * <p>
+ * Concurrent identical lookups by id or email outside of a transaction share a
+ * single database call through a {@link SingleFlight}. Lookups within a
+ * transaction, and the lookups this service makes before modifying a
+ * {@code User}, always query the database.
+ * </p>
+ * <p>
+ * Passwords are hashed before the transaction which stores them is opened, so
+ * no transaction or database connection is held while a hash is computed.
+ * </p>
  * 
  * @author Noah Anderson
  */
@@ -39,30 +63,63 @@ public class UserService implements AbstractUserService {
 	private final MessageSource messageSource;
 	private final PasswordResetTokenRepository passwordResetTokenRepository;
 	private final ApplicationEventPublisher eventPublisher;
+	private final AbstractSignedTokenService signedTokenService;
+	private final AbstractPasswordHashingService passwordHashingService;
+	private final BatchLookupProperties batchLookupProperties;
+	private final SingleFlight<String, Optional<User>> usersByEmail;
+	private final SingleFlight<Long, Optional<User>> usersById;
+	private final TransactionTemplate transactionTemplate;
+	private volatile String dummyHash;
 
 	@Autowired
 	public UserService(UserRepository userRepository, MessageSource messageSource,
 					   PasswordResetTokenRepository passwordResetTokenRepository,
-			ApplicationEventPublisher eventPublisher) {
+			ApplicationEventPublisher eventPublisher, AbstractSignedTokenService signedTokenService,
+			AbstractPasswordHashingService passwordHashingService, BatchLookupProperties batchLookupProperties,
+			MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
 		super();
 		this.userRepository = userRepository;
 		this.messageSource = messageSource;
 		this.passwordResetTokenRepository = passwordResetTokenRepository;
 		this.eventPublisher = eventPublisher;
+		this.signedTokenService = signedTokenService;
+		this.passwordHashingService = passwordHashingService;
+		this.batchLookupProperties = batchLookupProperties;
+		this.usersByEmail = new SingleFlight<>("user.email", meterRegistry);
+		this.usersById = new SingleFlight<>("user.id", meterRegistry);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Override
 	public Optional<User> getUserByEmail(String userEmail) {
-		return userRepository.findByEmail(userEmail);
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return userRepository.findByEmail(userEmail);
+		}
+		return usersByEmail.execute(userEmail, () -> userRepository.findByEmail(userEmail));
 	}
 
 	@Override
 	public Optional<User> getUserById(long userId) {
-		return userRepository.findById(userId);
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return userRepository.findById(userId);
+		}
+		return usersById.execute(userId, () -> userRepository.findById(userId));
+	}
+
+	@Override
+	public List<User> getUsersByIds(List<Long> userIds) {
+		return BatchLookupUtil.findAllInOrder(User.class, userIds, batchLookupProperties,
+				userRepository::findAllById, User::getId);
 	}
 
 	@Override
 	public User save(User user) {
+		user.setPassword(passwordHashingService.hash(user.getPassword()));
+		return this.saveWithHashedPassword(user);
+	}
+
+	@Override
+	public User saveWithHashedPassword(User user) {
 		String email = user.getEmail();
 		boolean exists = userRepository.existsByEmail(email);
 		if (exists) {
@@ -76,11 +133,53 @@ public class UserService implements AbstractUserService {
 	public User update(User user) {
 		String email = user.getEmail();
 		User userToUpdate = getUserWithEmail(email);
-		userToUpdate.setPassword(user.getPassword());
+		String password = user.getPassword();
+		if (!Objects.equals(password, userToUpdate.getPassword())) {
+			password = passwordHashingService.hash(password);
+		}
+		userToUpdate.setPassword(password);
 
 		return userRepository.save(userToUpdate);
 	}
 
+	@Override
+	public Optional<User> authenticate(String email, String rawPassword) {
+		Optional<User> optionalUser = userRepository.findByEmail(email);
+		if (!optionalUser.isPresent()) {
+			passwordHashingService.matches(rawPassword, getDummyHash());
+			return Optional.empty();
+		}
+
+		User user = optionalUser.get();
+		String storedPassword = user.getPassword();
+		if (!passwordHashingService.matches(rawPassword, storedPassword)) {
+			return Optional.empty();
+		}
+		if (passwordHashingService.needsRehash(storedPassword)) {
+			user.setPassword(passwordHashingService.hash(rawPassword));
+			user = userRepository.save(user);
+		}
+		return Optional.of(user);
+	}
+
+	/**
+	 * Gets a hash, at the configured cost factor, which no password is expected to
+	 * match. Checking a password against it when no {@link User} has the given
+	 * {@code email} makes a failed authentication take as long for an unknown
+	 * email as for a wrong password, so response times do not reveal which emails
+	 * are registered. The hash is computed on first use.
+	 *
+	 * @return the hash to check passwords of unknown emails against
+	 */
+	private String getDummyHash() {
+		String hash = dummyHash;
+		if (hash == null) {
+			hash = passwordHashingService.hash(UUID.randomUUID().toString());
+			dummyHash = hash;
+		}
+		return hash;
+	}
+
 	/**
 	 * Gets a {@link User} object with an {@code email} equaling the value of the
 	 * given {@code email}.
@@ -92,7 +191,7 @@ public class UserService implements AbstractUserService {
 	 *                                 equaling {@code email} is found
 	 */
 	private User getUserWithEmail(String email) {
-		Optional<User> optionalUser = this.getUserByEmail(email);
+		Optional<User> optionalUser = userRepository.findByEmail(email);
 		if (!optionalUser.isPresent()) {
 			throw new EntityNotFoundException(User.class, EMAIL, email);
 		}
@@ -132,22 +231,32 @@ public class UserService implements AbstractUserService {
 
 	@Override
 	public boolean isValidPasswordResetToken(String passwordResetToken) {
-		Optional<PasswordResetToken> optionalPasswordResetToken = passwordResetTokenRepository
-				.findByToken(passwordResetToken);
-		if (!optionalPasswordResetToken.isPresent()) {
-			return false;
+		if (signedTokenService.isSignedToken(passwordResetToken)) {
+			Optional<SignedTokenClaims> optionalClaims = signedTokenService.verify(passwordResetToken,
+					TokenPurpose.RESET_PASSWORD);
+			return optionalClaims.isPresent() && !signedTokenService.isConsumed(optionalClaims.get());
 		}
 
-		PasswordResetToken token = optionalPasswordResetToken.get();
-		return !token.isExpired();
+		TokenValidationEvent event = TokenValidationEvent.start(TokenPurpose.RESET_PASSWORD);
+		Optional<PasswordResetToken> optionalPasswordResetToken = passwordResetTokenRepository
+				.findByToken(passwordResetToken);
+		boolean valid = optionalPasswordResetToken.isPresent() && !optionalPasswordResetToken.get().isExpired();
+		event.finish(valid, valid ? optionalPasswordResetToken.get().getUser().getId() : 0L);
+		return valid;
 	}
 
-	@Transactional
 	@Override
 	public void changePassword(String userEmail, String newPassword, String passwordResetToken) {
+		if (signedTokenService.isSignedToken(passwordResetToken)) {
+			this.changePasswordWithSignedToken(userEmail, newPassword, passwordResetToken);
+			return;
+		}
+
+		TokenValidationEvent event = TokenValidationEvent.start(TokenPurpose.RESET_PASSWORD);
 		Optional<PasswordResetToken> optionalPasswordResetToken = passwordResetTokenRepository
 				.findByToken(passwordResetToken);
 		if (!optionalPasswordResetToken.isPresent()) {
+			event.finish(false, 0L);
 			throw new EntityNotFoundException(PasswordResetToken.class, "token", passwordResetToken);
 		}
 
@@ -155,13 +264,56 @@ public class UserService implements AbstractUserService {
 		User user = token.getUser();
 		String tokenEmail = user.getEmail();
 		if (token.isExpired() || token.isUsed() || (tokenEmail != null && !tokenEmail.equals(userEmail))) {
+			event.finish(false, 0L);
 			throw new InvalidTokenException(PasswordResetToken.class, passwordResetToken);
 		}
+		event.finish(true, user.getId());
 
-		user.setPassword(newPassword);
-		userRepository.save(user);
+		String hash = passwordHashingService.hash(newPassword);
+		transactionTemplate.executeWithoutResult(status -> {
+			user.setPassword(hash);
+			userRepository.save(user);
+
+			token.setUsed(true);
+			passwordResetTokenRepository.save(token);
+		});
+	}
 
-		token.setUsed(true);
-		passwordResetTokenRepository.save(token);
+	/**
+	 * Changes the password of the {@link User} a signed password reset token was
+	 * issued to, consuming the token.
+	 *
+	 * @param userEmail          the email of the {@code User} changing their
+	 *                           password
+	 * @param newPassword        the new password
+	 * @param passwordResetToken the signed password reset token
+	 * @throws InvalidTokenException when the token is invalid, expired, already
+	 *                               used or was issued to another {@code User}
+	 */
+	private void changePasswordWithSignedToken(String userEmail, String newPassword, String passwordResetToken) {
+		Optional<SignedTokenClaims> optionalClaims = signedTokenService.verify(passwordResetToken,
+				TokenPurpose.RESET_PASSWORD);
+		if (!optionalClaims.isPresent()) {
+			throw new InvalidTokenException(PasswordResetToken.class, passwordResetToken);
+		}
+
+		SignedTokenClaims claims = optionalClaims.get();
+		Optional<User> optionalUser = userRepository.findById(claims.getUserId());
+		if (!optionalUser.isPresent()) {
+			throw new EntityNotFoundException(User.class, "id", String.valueOf(claims.getUserId()));
+		}
+
+		User user = optionalUser.get();
+		String tokenEmail = user.getEmail();
+		if (tokenEmail != null && !tokenEmail.equals(userEmail)) {
+			throw new InvalidTokenException(PasswordResetToken.class, passwordResetToken);
+		}
+
+		String hash = passwordHashingService.hash(newPassword);
+		if (!signedTokenService.consume(claims)) {
+			throw new InvalidTokenException(PasswordResetToken.class, passwordResetToken);
+		}
+		user.setPassword(hash);
+		userRepository.save(user);
 	}
 }
@@ -0,0 +1,139 @@
+package com.fdmgroup.documentuploader.service.view;
+
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
+import com.fdmgroup.documentuploader.exceptions.InvalidFieldSelectionException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.model.view.FieldSelection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>
+ * Interface that defines behaviors to be implemented that pertain to
+ * retrieving sparse views of {@link Account} and {@link User} objects. A view
+ * holds only the fields selected by a {@link FieldSelection}, and only those
+ * fields are queried from the database.
+ * </p>
+ * 
+ * @author Noah Anderson
+ */
+public interface AbstractViewService {
+
+	/**
+	 * Attempts to retrieve a view of the {@link Account} with an {@code id}
+	 * equaling the value of the given {@code id}.
+	 * 
+	 * @param id        the {@code id} of an {@code Account}
+	 * @param selection the fields and associations to retrieve
+	 * @return {@code empty} {@link Optional} if no account is found. Otherwise, an
+	 *         {@code Optional} encapsulating the view of the found account
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field or association which is not
+	 *                                        supported
+	 */
+	Optional<Map<String, Object>> getAccountViewById(long id, FieldSelection selection);
+
+	/**
+	 * Attempts to retrieve a view of the {@link Account} with a name equaling
+	 * the value of the given {@code name}.
+	 * 
+	 * @param name      the name of an {@code Account}
+	 * @param selection the fields and associations to retrieve
+	 * @return {@code empty} {@link Optional} if no account is found. Otherwise, an
+	 *         {@code Optional} encapsulating the view of the found account
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field or association which is not
+	 *                                        supported
+	 */
+	Optional<Map<String, Object>> getAccountViewByName(String name, FieldSelection selection);
+
+	/**
+	 * Attempts to retrieve a view of the {@link Account} owned by the
+	 * {@link User} with an {@code id} equaling the value of the given
+	 * {@code ownerId}.
+	 * 
+	 * @param ownerId   the {@code id} of the owning {@code User}
+	 * @param selection the fields and associations to retrieve
+	 * @return {@code empty} {@link Optional} if no account is found. Otherwise, an
+	 *         {@code Optional} encapsulating the view of the found account
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field or association which is not
+	 *                                        supported
+	 */
+	Optional<Map<String, Object>> getAccountViewByOwnerId(long ownerId, FieldSelection selection);
+
+	/**
+	 * Retrieves views of all {@link Account} objects which the {@link User} with
+	 * an {@code id} equaling the value of the given {@code userId} can access.
+	 * 
+	 * @param userId    the {@code id} of a {@code User}
+	 * @param selection the fields and associations to retrieve
+	 * @return {@link List} containing the views of the accounts, ordered by
+	 *         {@code id}
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field or association which is not
+	 *                                        supported
+	 */
+	List<Map<String, Object>> getAccountViewsByUserId(long userId, FieldSelection selection);
+
+	/**
+	 * Retrieves views of the {@link Account} objects with the given {@code ids}.
+	 * 
+	 * @param ids       the {@code id}s of the {@code Account}s
+	 * @param selection the fields and associations to retrieve
+	 * @return {@link List} containing the views of the found accounts in the
+	 *         order of their first occurrence in {@code ids}
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field or association which is not
+	 *                                        supported
+	 * @throws BatchLimitExceededException    when more distinct ids are given
+	 *                                        than a single lookup accepts
+	 */
+	List<Map<String, Object>> getAccountViewsByIds(List<Long> ids, FieldSelection selection);
+
+	/**
+	 * Attempts to retrieve a view of the {@link User} with an {@code id}
+	 * equaling the value of the given {@code id}.
+	 * 
+	 * @param id        the {@code id} of a {@code User}
+	 * @param selection the fields to retrieve
+	 * @return {@code empty} {@link Optional} if no user is found. Otherwise, an
+	 *         {@code Optional} encapsulating the view of the found user
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field which is not supported or
+	 *                                        expands any association
+	 */
+	Optional<Map<String, Object>> getUserViewById(long id, FieldSelection selection);
+
+	/**
+	 * Attempts to retrieve a view of the {@link User} with an email equaling the
+	 * value of the given {@code email}.
+	 * 
+	 * @param email     the email of a {@code User}
+	 * @param selection the fields to retrieve
+	 * @return {@code empty} {@link Optional} if no user is found. Otherwise, an
+	 *         {@code Optional} encapsulating the view of the found user
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field which is not supported or
+	 *                                        expands any association
+	 */
+	Optional<Map<String, Object>> getUserViewByEmail(String email, FieldSelection selection);
+
+	/**
+	 * Retrieves views of the {@link User} objects with the given {@code ids}.
+	 * 
+	 * @param ids       the {@code id}s of the {@code User}s
+	 * @param selection the fields to retrieve
+	 * @return {@link List} containing the views of the found users in the order
+	 *         of their first occurrence in {@code ids}
+	 * @throws InvalidFieldSelectionException when the {@code selection} names a
+	 *                                        field which is not supported or
+	 *                                        expands any association
+	 * @throws BatchLimitExceededException    when more distinct ids are given
+	 *                                        than a single lookup accepts
+	 */
+	List<Map<String, Object>> getUserViewsByIds(List<Long> ids, FieldSelection selection);
+}
@@ -0,0 +1,263 @@
+package com.fdmgroup.documentuploader.service.view;
+
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
+import com.fdmgroup.documentuploader.exceptions.InvalidFieldSelectionException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.model.view.FieldSelection;
+import com.fdmgroup.documentuploader.util.BatchLookupUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Service implementation class which builds sparse views of {@link Account} and
+ * {@link User} objects with tuple queries. Only the selected fields are
+ * queried; an expanded owner is joined into the same query, and expanded
+ * users or documents are fetched with one additional query each for all the
+ * accounts found.
+ * </p>
+ * <p>
+ * The password of a user and the content of a document are never part of a
+ * view. The content of a document is retrieved by its digest instead.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+@Primary
+@Service
+public class ViewService implements AbstractViewService {
+
+	static final Set<String> ACCOUNT_FIELDS = orderedSet("id", "name", "serviceLevel", "version", "modifiedAt");
+	static final Set<String> ACCOUNT_EXPANSIONS = orderedSet("owner", "users", "documents");
+	static final Set<String> USER_FIELDS = orderedSet("id", "email", "firstName", "lastName", "enabled");
+	static final Set<String> DOCUMENT_FIELDS = orderedSet("id", "name", "extension", "digest", "uploadedAt");
+
+	private static final String ID = "id";
+	private static final String NAME = "name";
+	private static final String EMAIL = "email";
+	private static final String OWNER = "owner";
+	private static final String USERS = "users";
+	private static final String DOCUMENTS = "documents";
+	private static final String FIELDS_PARAMETER = "fields";
+	private static final String EXPAND_PARAMETER = "expand";
+
+	private final EntityManager entityManager;
+	private final BatchLookupProperties batchLookupProperties;
+
+	@Autowired
+	public ViewService(EntityManager entityManager, BatchLookupProperties batchLookupProperties) {
+		super();
+		this.entityManager = entityManager;
+		this.batchLookupProperties = batchLookupProperties;
+	}
+
+	@Override
+	public Optional<Map<String, Object>> getAccountViewById(long id, FieldSelection selection) {
+		return first(findAccountViews(selection, (root, query, builder) -> builder.equal(root.get(ID), id)));
+	}
+
+	@Override
+	public Optional<Map<String, Object>> getAccountViewByName(String name, FieldSelection selection) {
+		return first(findAccountViews(selection, (root, query, builder) -> builder.equal(root.get(NAME), name)));
+	}
+
+	@Override
+	public Optional<Map<String, Object>> getAccountViewByOwnerId(long ownerId, FieldSelection selection) {
+		return first(findAccountViews(selection,
+				(root, query, builder) -> builder.equal(root.get(OWNER).get(ID), ownerId)));
+	}
+
+	@Override
+	public List<Map<String, Object>> getAccountViewsByUserId(long userId, FieldSelection selection) {
+		return new ArrayList<>(findAccountViews(selection,
+				(root, query, builder) -> builder.equal(root.join(USERS).get(ID), userId)).values());
+	}
+
+	@Override
+	public List<Map<String, Object>> getAccountViewsByIds(List<Long> ids, FieldSelection selection) {
+		return findViewsInOrder(Account.class, ids,
+				chunk -> findAccountViews(selection, (root, query, builder) -> root.get(ID).in(chunk)));
+	}
+
+	@Override
+	public Optional<Map<String, Object>> getUserViewById(long id, FieldSelection selection) {
+		return first(findUserViews(selection, (root, query, builder) -> builder.equal(root.get(ID), id)));
+	}
+
+	@Override
+	public Optional<Map<String, Object>> getUserViewByEmail(String email, FieldSelection selection) {
+		return first(findUserViews(selection, (root, query, builder) -> builder.equal(root.get(EMAIL), email)));
+	}
+
+	@Override
+	public List<Map<String, Object>> getUserViewsByIds(List<Long> ids, FieldSelection selection) {
+		return findViewsInOrder(User.class, ids,
+				chunk -> findUserViews(selection, (root, query, builder) -> root.get(ID).in(chunk)));
+	}
+
+	/**
+	 * Runs the given {@code finder} once per chunk of the given {@code ids} and
+	 * orders the views found by the {@code ids}.
+	 */
+	private List<Map<String, Object>> findViewsInOrder(Class<?> clazz, List<Long> ids,
+			Function<List<Long>, Map<Long, Map<String, Object>>> finder) {
+		List<Long> distinctIds = BatchLookupUtil.distinctIds(clazz, ids, batchLookupProperties);
+		Map<Long, Map<String, Object>> views = new HashMap<>();
+		BatchLookupUtil.findInChunks(distinctIds, batchLookupProperties, chunk -> finder.apply(chunk).entrySet(),
+				Map.Entry::getKey).forEach((id, view) -> views.put(id, view.getValue()));
+		return BatchLookupUtil.inOrder(distinctIds, views);
+	}
+
+	/**
+	 * Queries the selected fields of the accounts matching the given
+	 * {@code specification}, and then the expanded collections of all of them.
+	 *
+	 * @return the views of the accounts, keyed by their {@code id} in ascending
+	 *         order
+	 */
+	private Map<Long, Map<String, Object>> findAccountViews(FieldSelection selection,
+			Specification<Account> specification) {
+		validate(Account.class, FIELDS_PARAMETER, selection.getFields(), ACCOUNT_FIELDS);
+		validate(Account.class, EXPAND_PARAMETER, selection.getExpansions(), ACCOUNT_EXPANSIONS);
+		Set<String> fields = selection.getFields().isEmpty() ? ACCOUNT_FIELDS : selection.getFields();
+
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Account> root = query.from(Account.class);
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(root.get(ID));
+		selections.addAll(selectionsOf(root, fields));
+		if (selection.isExpanded(OWNER)) {
+			selections.addAll(selectionsOf(root.join(OWNER), USER_FIELDS));
+		}
+		query.multiselect(selections)
+				.where(specification.toPredicate(root, query, builder))
+				.orderBy(builder.asc(root.get(ID)));
+
+		Map<Long, Map<String, Object>> views = new LinkedHashMap<>();
+		for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+			Map<String, Object> view = toView(tuple, fields, 1);
+			if (selection.isExpanded(OWNER)) {
+				view.put(OWNER, toView(tuple, USER_FIELDS, 1 + fields.size()));
+			}
+			views.put((Long) tuple.get(0), view);
+		}
+
+		if (!views.isEmpty() && selection.isExpanded(USERS)) {
+			Map<Long, List<Map<String, Object>>> users = findAccountAssociations(USERS, USER_FIELDS, views.keySet());
+			views.forEach((id, view) -> view.put(USERS, users.getOrDefault(id, Collections.emptyList())));
+		}
+		if (!views.isEmpty() && selection.isExpanded(DOCUMENTS)) {
+			Map<Long, List<Map<String, Object>>> documents = findAccountAssociations(DOCUMENTS, DOCUMENT_FIELDS,
+					views.keySet());
+			views.forEach((id, view) -> view.put(DOCUMENTS, documents.getOrDefault(id, Collections.emptyList())));
+		}
+		return views;
+	}
+
+	/**
+	 * Queries the given {@code fields} of the entities in the collection
+	 * {@code association} of every account with one of the given
+	 * {@code accountIds} in a single query.
+	 *
+	 * @return the views of the associated entities, keyed by the {@code id} of
+	 *         their account
+	 */
+	private Map<Long, List<Map<String, Object>>> findAccountAssociations(String association, Set<String> fields,
+			Collection<Long> accountIds) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<Account> root = query.from(Account.class);
+		Join<Account, ?> join = root.join(association);
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(root.get(ID));
+		selections.addAll(selectionsOf(join, fields));
+		query.multiselect(selections)
+				.where(root.get(ID).in(accountIds))
+				.orderBy(builder.asc(join.get(ID)));
+
+		Map<Long, List<Map<String, Object>>> associations = new HashMap<>();
+		for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+			associations.computeIfAbsent((Long) tuple.get(0), id -> new ArrayList<>())
+					.add(toView(tuple, fields, 1));
+		}
+		return associations;
+	}
+
+	private Map<Long, Map<String, Object>> findUserViews(FieldSelection selection,
+			Specification<User> specification) {
+		validate(User.class, FIELDS_PARAMETER, selection.getFields(), USER_FIELDS);
+		validate(User.class, EXPAND_PARAMETER, selection.getExpansions(), Collections.emptySet());
+		Set<String> fields = selection.getFields().isEmpty() ? USER_FIELDS : selection.getFields();
+
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<User> root = query.from(User.class);
+		List<Selection<?>> selections = new ArrayList<>();
+		selections.add(root.get(ID));
+		selections.addAll(selectionsOf(root, fields));
+		query.multiselect(selections)
+				.where(specification.toPredicate(root, query, builder));
+
+		Map<Long, Map<String, Object>> views = new LinkedHashMap<>();
+		for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+			views.put((Long) tuple.get(0), toView(tuple, fields, 1));
+		}
+		return views;
+	}
+
+	private static List<Selection<?>> selectionsOf(From<?, ?> from, Set<String> fields) {
+		return fields.stream().map(from::get).collect(Collectors.toList());
+	}
+
+	private static Map<String, Object> toView(Tuple tuple, Set<String> fields, int offset) {
+		Map<String, Object> view = new LinkedHashMap<>();
+		int index = offset;
+		for (String field : fields) {
+			view.put(field, tuple.get(index++));
+		}
+		return view;
+	}
+
+	private static void validate(Class<?> clazz, String parameter, Set<String> requested, Set<String> supported) {
+		List<String> unknown = requested.stream()
+				.filter(name -> !supported.contains(name))
+				.collect(Collectors.toList());
+		if (!unknown.isEmpty()) {
+			throw new InvalidFieldSelectionException(clazz, parameter, unknown, supported);
+		}
+	}
+
+	private static <T> Optional<T> first(Map<Long, T> results) {
+		return results.values().stream().findFirst();
+	}
+
+	private static Set<String> orderedSet(String... values) {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(values)));
+	}
+}
@@ -0,0 +1,106 @@
+package com.fdmgroup.documentuploader.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Statistics of the SQL statements executed while handling a single request:
+ * how many ran, how long they took in total and how often each distinct
+ * statement ran.
+ * </p>
+ * <p>
+ * The statistics of the request being handled are bound to its thread by
+ * {@link #begin(int)} and collected by {@link SqlStatisticsListener}.
+ * Statements executed on any other thread, such as scheduled jobs, are not
+ * attributed to a request.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class SqlStatistics {
+
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+	private final int maxDistinctStatements;
+	private final Map<String, Integer> executions = new HashMap<>();
+	private int statementCount;
+	private long totalNanos;
+
+	SqlStatistics(int maxDistinctStatements) {
+		this.maxDistinctStatements = maxDistinctStatements;
+	}
+
+	/**
+	 * Starts collecting the statements executed by the current thread.
+	 *
+	 * @param maxDistinctStatements the maximum number of distinct statements
+	 *                              counted individually
+	 * @return the statistics being collected
+	 */
+	static SqlStatistics begin(int maxDistinctStatements) {
+		SqlStatistics statistics = new SqlStatistics(maxDistinctStatements);
+		CURRENT.set(statistics);
+		return statistics;
+	}
+
+	/**
+	 * Stops collecting the statements executed by the current thread.
+	 */
+	static void end() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Gets the statistics collected for the current thread.
+	 *
+	 * @return the statistics, or {@code null} if none are being collected
+	 */
+	static SqlStatistics current() {
+		return CURRENT.get();
+	}
+
+	void record(String sql, int executionCount, long nanos) {
+		statementCount += executionCount;
+		totalNanos += nanos;
+		if (executions.size() < maxDistinctStatements || executions.containsKey(sql)) {
+			executions.merge(sql, executionCount, Integer::sum);
+		}
+	}
+
+	public int getStatementCount() {
+		return statementCount;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Gets how often each distinct statement was executed.
+	 *
+	 * @return the number of executions by SQL
+	 */
+	public Map<String, Integer> getExecutions() {
+		return Collections.unmodifiableMap(executions);
+	}
+
+	/**
+	 * Gets the statements executed at least {@code threshold} times, which
+	 * usually means a collection is loaded one entity at a time.
+	 *
+	 * @param threshold the minimum number of executions
+	 * @return the number of executions by SQL of the repeated statements
+	 */
+	public Map<String, Integer> getRepeatedStatements(int threshold) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		executions.forEach((sql, count) -> {
+			if (count >= threshold) {
+				repeated.put(sql, count);
+			}
+		});
+		return repeated;
+	}
+}
@@ -0,0 +1,98 @@
+package com.fdmgroup.documentuploader.sql;
+
+import com.fdmgroup.documentuploader.config.SqlObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Filter which collects the {@link SqlStatistics} of every request and reports
+ * them once the request completes, tagged with the route template which
+ * handled it:
+ * </p>
+ * <ul>
+ * <li>{@value #STATEMENTS_METRIC}: the number of statements per request</li>
+ * <li>{@value #TIME_METRIC}: the total JDBC time per request</li>
+ * <li>{@value #REPEATED_METRIC}: requests which executed an identical
+ * statement at least the configured number of times, a likely N+1 query</li>
+ * </ul>
+ * <p>
+ * Repeated statements are also logged. The statistics are left in the
+ * {@value #STATISTICS_ATTRIBUTE} request attribute, where tests read them to
+ * assert query budgets.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+	public static final String STATISTICS_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".statistics";
+
+	static final String STATEMENTS_METRIC = "sql.request.statements";
+	static final String TIME_METRIC = "sql.request.time";
+	static final String REPEATED_METRIC = "sql.request.repeated";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+	private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+	private final SqlObservabilityProperties sqlObservabilityProperties;
+	private final MeterRegistry meterRegistry;
+
+	public SqlStatisticsFilter(SqlObservabilityProperties sqlObservabilityProperties, MeterRegistry meterRegistry) {
+		super();
+		this.sqlObservabilityProperties = sqlObservabilityProperties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		SqlStatistics statistics = SqlStatistics.begin(sqlObservabilityProperties.getMaxDistinctStatements());
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			SqlStatistics.end();
+			request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+			report(request, statistics);
+		}
+	}
+
+	private void report(HttpServletRequest request, SqlStatistics statistics) {
+		if (statistics.getStatementCount() == 0) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String route = pattern == null ? UNKNOWN_ROUTE : pattern.toString();
+
+		DistributionSummary.builder(STATEMENTS_METRIC).description("SQL statements executed per request")
+				.tag("uri", route).register(meterRegistry).record(statistics.getStatementCount());
+		Timer.builder(TIME_METRIC).description("Total time spent executing SQL statements per request")
+				.tag("uri", route).register(meterRegistry)
+				.record(statistics.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+		Map<String, Integer> repeated = statistics
+				.getRepeatedStatements(sqlObservabilityProperties.getRepeatedStatementThreshold());
+		if (!repeated.isEmpty()) {
+			Counter.builder(REPEATED_METRIC).description("Requests which repeated an identical SQL statement")
+					.tag("uri", route).register(meterRegistry).increment();
+			repeated.forEach((sql, count) -> LOGGER.warn("Possible N+1 query in {} {}: executed {} times: {}",
+					request.getMethod(), route, count, sql));
+		}
+		LOGGER.debug("{} {} executed {} SQL statements in {} ms", request.getMethod(), route,
+				statistics.getStatementCount(), TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos()));
+	}
+}
@@ -0,0 +1,145 @@
+package com.fdmgroup.documentuploader.sql;
+
+import com.fdmgroup.documentuploader.config.SqlObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Listener of every statement executed through the proxied data source. Each
+ * execution is timed into the {@value #STATEMENTS_METRIC} timer, tagged with
+ * the kind of statement, and added to the {@link SqlStatistics} of the request
+ * being handled, if any.
+ * </p>
+ * <p>
+ * A sample of the executions taking at least the slow query threshold is
+ * logged together with the shape of their bind parameters: the type and size
+ * of each value but never the value itself, so no personal data or document
+ * content reaches the log.
+ * </p>
+ *
+ * @author Noah Anderson
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+	static final String STATEMENTS_METRIC = "sql.statements";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatisticsListener.class);
+	private static final String START_NANOS = SqlStatisticsListener.class.getName() + ".start";
+	private static final String[] KINDS = { "select", "insert", "update", "delete" };
+	private static final String OTHER_KIND = "other";
+
+	private final long slowQueryThresholdNanos;
+	private final double slowQuerySampleRate;
+	private final Map<StatementType, Map<String, Timer>> timers = new EnumMap<>(StatementType.class);
+
+	public SqlStatisticsListener(SqlObservabilityProperties sqlObservabilityProperties, MeterRegistry meterRegistry) {
+		super();
+		this.slowQueryThresholdNanos = sqlObservabilityProperties.getSlowQueryThreshold().toNanos();
+		this.slowQuerySampleRate = sqlObservabilityProperties.getSlowQuerySampleRate();
+		for (StatementType statementType : StatementType.values()) {
+			Map<String, Timer> timersByKind = new HashMap<>();
+			for (String kind : KINDS) {
+				timersByKind.put(kind, registerTimer(meterRegistry, statementType, kind));
+			}
+			timersByKind.put(OTHER_KIND, registerTimer(meterRegistry, statementType, OTHER_KIND));
+			timers.put(statementType, timersByKind);
+		}
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		execInfo.addCustomValue(START_NANOS, System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+		long elapsedNanos = start == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+				: System.nanoTime() - start;
+		if (queryInfoList.isEmpty()) {
+			return;
+		}
+
+		String firstQuery = queryInfoList.get(0).getQuery();
+		timers.get(execInfo.getStatementType()).get(kindOf(firstQuery)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+		SqlStatistics statistics = SqlStatistics.current();
+		if (statistics != null) {
+			long nanosPerQuery = elapsedNanos / queryInfoList.size();
+			for (QueryInfo queryInfo : queryInfoList) {
+				int executions = execInfo.isBatch() ? Math.max(1, queryInfo.getParametersList().size()) : 1;
+				statistics.record(queryInfo.getQuery(), executions, nanosPerQuery);
+			}
+		}
+
+		if (elapsedNanos >= slowQueryThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+			logSlowQuery(execInfo, queryInfoList, elapsedNanos);
+		}
+	}
+
+	private void logSlowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long elapsedNanos) {
+		for (QueryInfo queryInfo : queryInfoList) {
+			List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+			LOGGER.warn("Slow SQL ({} ms{}): {} parameters {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+					execInfo.isBatch() ? ", batch of " + parametersList.size() : "", queryInfo.getQuery(),
+					parametersList.isEmpty() ? "[]" : shapeOf(parametersList.get(0)));
+		}
+	}
+
+	/**
+	 * Describes the type and size of each bind parameter, e.g.
+	 * {@code [Long, String(24), byte[1048576]]}.
+	 */
+	static String shapeOf(List<ParameterSetOperation> parameters) {
+		StringJoiner shape = new StringJoiner(", ", "[", "]");
+		for (ParameterSetOperation parameter : parameters) {
+			Object[] args = parameter.getArgs();
+			if (ParameterSetOperation.isSetNullParameterOperation(parameter) || args.length < 2 || args[1] == null) {
+				shape.add("null");
+			} else if (args[1] instanceof byte[]) {
+				shape.add("byte[" + ((byte[]) args[1]).length + "]");
+			} else if (args[1] instanceof CharSequence) {
+				shape.add("String(" + ((CharSequence) args[1]).length() + ")");
+			} else {
+				shape.add(args[1].getClass().getSimpleName());
+			}
+		}
+		return shape.toString();
+	}
+
+	private static String kindOf(String sql) {
+		int start = 0;
+		while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+			start++;
+		}
+		for (String kind : KINDS) {
+			if (sql.regionMatches(true, start, kind, 0, kind.length())) {
+				return kind;
+			}
+		}
+		return OTHER_KIND;
+	}
+
+	private static Timer registerTimer(MeterRegistry meterRegistry, StatementType statementType, String kind) {
+		return Timer.builder(STATEMENTS_METRIC).description("Execution time of SQL statements")
+				.tag("kind", kind).tag("statementType", statementType.name().toLowerCase(Locale.ROOT))
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,123 @@
+package com.fdmgroup.documentuploader.util;
+
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Singleton Class which contains static methods which look up entities by a
+ * list of ids with one {@code IN} list query per chunk of ids, returning them
+ * in the order the ids were requested.
+ *
+ * @author Noah Anderson
+ */
+public class BatchLookupUtil {
+
+	private BatchLookupUtil() {
+		super();
+	}
+
+	/**
+	 * Looks up the entities with the given {@code ids} in chunks of
+	 * {@link BatchLookupProperties#getChunkSize() chunkSize} ids.
+	 *
+	 * @param clazz      the class type of the entities looked up
+	 * @param ids        the requested ids, in the order to return the entities in
+	 * @param properties the limits of the lookup
+	 * @param finder     finds the entities with the ids of a chunk in one query
+	 * @param idOf       gets the id of an entity
+	 * @return the found entities in the order of their first occurrence in
+	 *         {@code ids}. Ids which are not found are left out
+	 * @throws BatchLimitExceededException when more than
+	 *                                     {@link BatchLookupProperties#getMaxIds()
+	 *                                     maxIds} distinct ids are requested
+	 */
+	public static <T> List<T> findAllInOrder(Class<T> clazz, List<Long> ids, BatchLookupProperties properties,
+			Function<List<Long>, ? extends Iterable<T>> finder, ToLongFunction<T> idOf) {
+		List<Long> distinctIds = distinctIds(clazz, ids, properties);
+		return inOrder(distinctIds, findInChunks(distinctIds, properties, finder, idOf));
+	}
+
+	/**
+	 * Removes repeated and {@code null} ids from the given {@code ids}.
+	 *
+	 * @throws BatchLimitExceededException when more than
+	 *                                     {@link BatchLookupProperties#getMaxIds()
+	 *                                     maxIds} distinct ids remain
+	 */
+	public static List<Long> distinctIds(Class<?> clazz, List<Long> ids, BatchLookupProperties properties) {
+		return distinctIds(clazz, ids, properties.getMaxIds());
+	}
+
+	/**
+	 * Removes repeated and {@code null} ids from the given {@code ids}.
+	 *
+	 * @throws BatchLimitExceededException when more than {@code maxIds} distinct
+	 *                                     ids remain
+	 */
+	public static List<Long> distinctIds(Class<?> clazz, List<Long> ids, int maxIds) {
+		List<Long> distinctIds = new ArrayList<>(ids.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new)));
+		if (distinctIds.size() > maxIds) {
+			throw new BatchLimitExceededException(clazz, distinctIds.size(), maxIds);
+		}
+		return distinctIds;
+	}
+
+	/**
+	 * Runs the given {@code finder} once per chunk of
+	 * {@link BatchLookupProperties#getChunkSize() chunkSize} ids.
+	 *
+	 * @return the found entities, keyed by their id
+	 */
+	public static <T> Map<Long, T> findInChunks(Collection<Long> ids, BatchLookupProperties properties,
+			Function<List<Long>, ? extends Iterable<T>> finder, ToLongFunction<T> idOf) {
+		List<Long> idList = new ArrayList<>(ids);
+		int chunkSize = Math.max(1, properties.getChunkSize());
+		Map<Long, T> found = new HashMap<>();
+		for (int from = 0; from < idList.size(); from += chunkSize) {
+			List<Long> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+			finder.apply(chunk).forEach(entity -> found.put(idOf.applyAsLong(entity), entity));
+		}
+		return found;
+	}
+
+	/**
+	 * Runs the given {@code counter} once per chunk of
+	 * {@link BatchLookupProperties#getChunkSize() chunkSize} ids.
+	 *
+	 * @return the sum of the counts of every chunk
+	 */
+	public static long sumInChunks(Collection<Long> ids, BatchLookupProperties properties,
+			ToLongFunction<List<Long>> counter) {
+		List<Long> idList = new ArrayList<>(ids);
+		int chunkSize = Math.max(1, properties.getChunkSize());
+		long sum = 0;
+		for (int from = 0; from < idList.size(); from += chunkSize) {
+			sum += counter.applyAsLong(idList.subList(from, Math.min(from + chunkSize, idList.size())));
+		}
+		return sum;
+	}
+
+	/**
+	 * Orders the given {@code found} entities by the given {@code ids}, leaving
+	 * out ids which were not found.
+	 */
+	public static <T> List<T> inOrder(List<Long> ids, Map<Long, T> found) {
+		return ids.stream()
+				.map(found::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,26 @@
+-- Adds the deleted flag of accounts and the table tracking their background
+-- deletion.
+--
+-- Run once, before the first deployment which maps Account.deleted. Every
+-- existing account starts out not deleted.
+--
+-- The syntax is accepted by H2 and PostgreSQL.
+
+ALTER TABLE account ADD deleted BOOLEAN DEFAULT FALSE NOT NULL;
+
+CREATE SEQUENCE account_deletion_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE account_deletion (
+	account_deletion_id BIGINT NOT NULL PRIMARY KEY,
+	account_id BIGINT NOT NULL,
+	account_name VARCHAR(255) NOT NULL,
+	status VARCHAR(255) NOT NULL,
+	documents_total BIGINT NOT NULL,
+	documents_deleted BIGINT NOT NULL,
+	requested_at TIMESTAMP NOT NULL,
+	completed_at TIMESTAMP,
+	failure_message VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX account_deletion_account_idx ON account_deletion (account_id);
+CREATE INDEX account_deletion_status_idx ON account_deletion (status);
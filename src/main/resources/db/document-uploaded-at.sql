@@ -0,0 +1,9 @@
+-- Adds the time each document was uploaded, which bulk deletion can filter on.
+--
+-- Run once, before the first deployment which maps Document.uploadedAt.
+-- Documents uploaded before then have no known upload time and are left
+-- NULL, so an "uploaded before" filter never matches them.
+--
+-- The syntax is accepted by H2, PostgreSQL and Oracle.
+
+ALTER TABLE document ADD uploaded_at TIMESTAMP;
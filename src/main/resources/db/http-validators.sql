@@ -0,0 +1,16 @@
+-- Adds the columns from which ETag and Last-Modified headers are built: the
+-- content digest of each document and the version and modification time of
+-- each account.
+--
+-- Run once, before the first deployment which maps Document.digest and
+-- Account.version. Existing documents keep a NULL digest until they are
+-- uploaded again and are served without validators. Existing accounts start at
+-- version 0 with an unknown modification time.
+--
+-- The syntax is accepted by H2 and PostgreSQL.
+
+ALTER TABLE document ADD digest VARCHAR(64);
+CREATE INDEX document_digest_idx ON document (digest);
+
+ALTER TABLE account ADD version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE account ADD modified_at TIMESTAMP;
@@ -0,0 +1,18 @@
+-- Migrates a database created while ids were generated with allocationSize = 1
+-- to the pooled-lo strategy, which reserves 50 ids per sequence call.
+--
+-- Run once, before the first deployment with allocationSize = 50. Every id
+-- issued so far is at most the current value of its sequence. pooled-lo uses
+-- the next value as the lowest id of a new block, so raising only the
+-- increment can never hand out an id that is already in use. Nodes still
+-- running the old version keep working during a rolling deployment; their
+-- single ids simply skip ahead by 50.
+--
+-- The syntax is accepted by H2, PostgreSQL and Oracle.
+
+ALTER SEQUENCE account_seq INCREMENT BY 50;
+ALTER SEQUENCE document_seq INCREMENT BY 50;
+ALTER SEQUENCE user_seq INCREMENT BY 50;
+ALTER SEQUENCE token_seq INCREMENT BY 50;
+ALTER SEQUENCE AUTH_GROUP_ID_SEQUENCE INCREMENT BY 50;
+ALTER SEQUENCE PASSWORD_RESET_TOKEN_ID_SEQ INCREMENT BY 50;
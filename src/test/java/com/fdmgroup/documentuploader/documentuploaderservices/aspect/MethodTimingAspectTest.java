@@ -0,0 +1,119 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.aspect;
+
+import com.fdmgroup.documentuploader.aspect.MethodTimingAspect;
+import com.fdmgroup.documentuploader.model.user.AuthGroup;
+import com.fdmgroup.documentuploader.repository.AuthGroupRepository;
+import com.fdmgroup.documentuploader.service.authgroup.AbstractAuthGroupService;
+import com.fdmgroup.documentuploader.service.authgroup.AuthGroupService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MethodTimingAspectTest {
+
+	private static final String TEST_USERNAME = "username";
+
+	private SimpleMeterRegistry meterRegistry;
+	private ApplicationContext mockApplicationContext;
+	private MethodTimingAspect methodTimingAspect;
+	private AuthGroupRepository mockAuthGroupRepository;
+	private AbstractAuthGroupService authGroupService;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		mockApplicationContext = mock(ApplicationContext.class);
+		methodTimingAspect = new MethodTimingAspect(meterRegistry, mockApplicationContext);
+		mockAuthGroupRepository = mock(AuthGroupRepository.class);
+		authGroupService = proxy(new AuthGroupService(mockAuthGroupRepository));
+	}
+
+	@Test
+	void testServiceCall_recordsDurationTaggedWithServiceClassAndMethod() {
+		authGroupService.getAuthGroupsByUsername(TEST_USERNAME);
+		authGroupService.getAuthGroupsByUsername(TEST_USERNAME);
+
+		Timer timer = meterRegistry.get("method.invocation.duration").tag("layer", "service")
+				.tag("class", "AuthGroupService").tag("method", "getAuthGroupsByUsername").timer();
+		assertEquals(2, timer.count());
+		assertEquals(0.0, meterRegistry.get("method.invocation.errors").tag("method", "getAuthGroupsByUsername")
+				.counter().count());
+	}
+
+	@Test
+	void testServiceCall_countsErrorAndRethrows_whenMethodThrows() {
+		IllegalStateException exception = new IllegalStateException();
+		when(mockAuthGroupRepository.save(any())).thenThrow(exception);
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> authGroupService.save(new AuthGroup()));
+
+		assertSame(exception, thrown);
+		assertEquals(1.0, meterRegistry.get("method.invocation.errors").tag("class", "AuthGroupService")
+				.tag("method", "save").counter().count());
+		assertEquals(1, meterRegistry.get("method.invocation.duration").tag("method", "save").timer().count());
+	}
+
+	@Test
+	void testServiceCall_countsCallInFlight_untilItReturns() {
+		AtomicReference<Double> activeDuringCall = new AtomicReference<>();
+		when(mockAuthGroupRepository.findByUsername(anyString())).thenAnswer(invocation -> {
+			activeDuringCall.set(activeGauge("getAuthGroupsByUsername").value());
+			return Collections.emptyList();
+		});
+
+		authGroupService.getAuthGroupsByUsername(TEST_USERNAME);
+
+		assertEquals(1.0, activeDuringCall.get());
+		assertEquals(0.0, activeGauge("getAuthGroupsByUsername").value());
+	}
+
+	@Test
+	void testRepositoryCall_recordsDurationTaggedWithRepositoryInterface() {
+		AuthGroupRepository authGroupRepository = proxy(mockAuthGroupRepository);
+
+		authGroupRepository.findByUsername(TEST_USERNAME);
+
+		assertEquals(1, meterRegistry.get("method.invocation.duration").tag("layer", "repository")
+				.tag("class", "AuthGroupRepository").tag("method", "findByUsername").timer().count());
+	}
+
+	@Test
+	void testAfterSingletonsInstantiated_registersMetersOfInterceptedBeans_beforeTheirFirstCall() {
+		when(mockApplicationContext.getBeanDefinitionNames()).thenReturn(new String[] { "authGroupService" });
+		when(mockApplicationContext.isSingleton("authGroupService")).thenReturn(true);
+		doReturn(AuthGroupService.class).when(mockApplicationContext).getType("authGroupService");
+		when(mockApplicationContext.getBean("authGroupService")).thenReturn(authGroupService);
+
+		methodTimingAspect.afterSingletonsInstantiated();
+
+		assertEquals(0, meterRegistry.get("method.invocation.duration").tag("class", "AuthGroupService")
+				.tag("method", "getAuthGroupsByUsername").timer().count());
+		assertEquals(0, meterRegistry.get("method.invocation.duration").tag("class", "AuthGroupService")
+				.tag("method", "save").timer().count());
+		assertEquals(0.0, activeGauge("save").value());
+	}
+
+	private Gauge activeGauge(String method) {
+		return meterRegistry.get("method.invocation.active").tag("method", method).gauge();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(T target) {
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+		proxyFactory.addAspect(methodTimingAspect);
+		return (T) proxyFactory.getProxy();
+	}
+}
@@ -5,36 +5,74 @@ import com.fdmgroup.documentuploader.config.ApplicationProperties;
 import com.fdmgroup.documentuploader.config.ApplicationProperties.RequestUris;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.exceptions.ExportLimitExceededException;
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
 import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteCriteria;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Item;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Status;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.service.account.AbstractAccountDeletionService;
 import com.fdmgroup.documentuploader.service.account.AccountService;
+import com.fdmgroup.documentuploader.service.document.AbstractArchiveImportService;
+import com.fdmgroup.documentuploader.service.document.AbstractBulkDocumentService;
+import com.fdmgroup.documentuploader.service.document.AbstractDocumentExportService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.StreamUtils;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.ResultMatcher.matchAll;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -82,6 +120,18 @@ class AccountControllerTest {
 	@MockBean
 	private AccountService mockAccountService;
 
+	@MockBean
+	private AbstractBulkDocumentService mockBulkDocumentService;
+
+	@MockBean
+	private AbstractAccountDeletionService mockAccountDeletionService;
+
+	@MockBean
+	private AbstractDocumentExportService mockDocumentExportService;
+
+	@MockBean
+	private AbstractArchiveImportService mockArchiveImportService;
+
 	@Autowired
 	private MockMvc mockMvc;
 
@@ -213,6 +263,51 @@ class AccountControllerTest {
 							content().contentType(MediaType.APPLICATION_JSON)));
 	}
 
+	@Test
+	void testGetAccount_respondsWithNotModifiedWithoutLoadingAccount_whenETagMatchesVersion() throws Exception {
+		AccountVersion version = mock(AccountVersion.class);
+		when(version.getVersion()).thenReturn(7L);
+		when(mockAccountService.getAccountVersionById(1L)).thenReturn(Optional.of(version));
+
+		mockMvc.perform(get(requestUris.getAccounts())
+				.queryParam(ID, "1")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"1-7\"")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(status().isNotModified());
+
+		verify(mockAccountService, never()).getAccountById(anyLong());
+	}
+
+	@Test
+	void testGetAccount_respondsWithAccountAndNewETag_whenETagIsStale() throws Exception {
+		validAccount.setId(1L);
+		validAccount.setVersion(8L);
+		AccountVersion version = mock(AccountVersion.class);
+		when(version.getVersion()).thenReturn(8L);
+		when(mockAccountService.getAccountVersionById(1L)).thenReturn(Optional.of(version));
+		when(mockAccountService.getAccountById(1L)).thenReturn(Optional.of(validAccount));
+
+		mockMvc.perform(get(requestUris.getAccounts())
+				.queryParam(ID, "1")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"1-7\"")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(matchAll(
+							status().isOk(),
+							header().string(HttpHeaders.ETAG, "\"1-8\"")));
+	}
+
+	@Test
+	void testGetAccount_doesNotLookUpVersion_whenRequestIsNotConditional() throws Exception {
+		when(mockAccountService.getAccountById(1L)).thenReturn(Optional.of(validAccount));
+
+		mockMvc.perform(get(requestUris.getAccounts())
+				.queryParam(ID, "1")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(status().isOk());
+
+		verify(mockAccountService, never()).getAccountVersionById(anyLong());
+	}
+
 	@Test
 	void testFindByUserId_returnsResultReturnedFromAccountServiceGetAccountsByUserId() throws Exception {
 		when(mockAccountService.getAccountsByUserId(anyLong())).thenReturn(Collections.emptyList());
@@ -331,4 +426,166 @@ class AccountControllerTest {
 						content().contentType(MediaType.APPLICATION_JSON),
 						content().json(objectMapper.writeValueAsString(validAccount))));
 	}
+
+	@Test
+	void testAddDocumentsToAccount_splitsFileNames_andRespondsWith200_whenEveryDocumentIsCreated() throws Exception {
+		List<Document> received = new ArrayList<>();
+		when(mockBulkDocumentService.addDocumentsToAccountByAccountId(eq(1L), any())).thenAnswer(invocation -> {
+			Iterator<Document> documents = invocation.getArgument(1);
+			documents.forEachRemaining(received::add);
+			return new BulkUploadResult(1L, Arrays.asList(new Item("report", Status.CREATED, 2L, null),
+					new Item("notes", Status.CREATED, 3L, null)));
+		});
+
+		mockMvc.perform(multipart(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments(), 1)
+				.file(new MockMultipartFile("files", "report.final.pdf", null, CONTENT.getBytes()))
+				.file(new MockMultipartFile("files", "notes", null, CONTENT.getBytes())))
+				.andExpect(matchAll(
+						status().isOk(),
+						content().contentType(MediaType.APPLICATION_JSON)));
+
+		assertEquals("report.final", received.get(0).getName());
+		assertEquals(".pdf", received.get(0).getExtension());
+		assertEquals("notes", received.get(1).getName());
+		assertNull(received.get(1).getExtension());
+	}
+
+	@Test
+	void testAddDocumentsToAccount_respondsWith207_whenSomeDocumentsAreNotCreated() throws Exception {
+		when(mockBulkDocumentService.addDocumentsToAccountByAccountId(eq(1L), any()))
+				.thenReturn(new BulkUploadResult(1L, Arrays.asList(new Item("report", Status.CREATED, 2L, null),
+						new Item("report", Status.DUPLICATE, null, "duplicate"))));
+
+		mockMvc.perform(multipart(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments(), 1)
+				.file(new MockMultipartFile("files", "report.pdf", null, CONTENT.getBytes()))
+				.file(new MockMultipartFile("files", "report.pdf", null, CONTENT.getBytes())))
+				.andExpect(matchAll(
+						status().isMultiStatus(),
+						content().json("{\"accountId\":1,\"created\":1,\"failed\":1}")));
+	}
+
+	@Test
+	void testImportArchiveToAccount_passesRequestBodyToService_andRespondsWith207_whenSomeFilesAreNotCreated()
+			throws Exception {
+		List<byte[]> received = new ArrayList<>();
+		when(mockArchiveImportService.importArchiveToAccountByAccountId(eq(1L), any())).thenAnswer(invocation -> {
+			received.add(StreamUtils.copyToByteArray(invocation.getArgument(1)));
+			return new BulkUploadResult(1L, Arrays.asList(new Item("report", Status.CREATED, 2L, null),
+					new Item("large.bin", Status.REJECTED, null, "too large")));
+		});
+
+		mockMvc.perform(post(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getImportArchive(), 1)
+				.contentType("application/zip")
+				.content(CONTENT.getBytes()))
+				.andExpect(matchAll(
+						status().isMultiStatus(),
+						content().json("{\"accountId\":1,\"created\":1,\"failed\":1}")));
+		assertArrayEquals(CONTENT.getBytes(), received.get(0));
+	}
+
+	@Test
+	void testRemoveDocumentsFromAccount_respondsWith200_whenEveryMatchingDocumentIsDeleted() throws Exception {
+		BulkDeleteCriteria criteria = new BulkDeleteCriteria(null, null, ".pdf", null);
+		when(mockBulkDocumentService.deleteDocumentsFromAccountByAccountId(eq(1L), any()))
+				.thenReturn(new BulkDeleteResult(1L, Arrays.asList(2L, 3L), Arrays.asList("report", "notes"), 0));
+
+		mockMvc.perform(post(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getBulkDelete(), 1)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(criteria)))
+				.andExpect(matchAll(
+						status().isOk(),
+						content().json("{\"accountId\":1,\"deleted\":2,\"failed\":0,\"documentIds\":[2,3]}")));
+	}
+
+	@Test
+	void testRemoveDocumentsFromAccount_respondsWith400_whenNoCriteriaAreGiven() throws Exception {
+		mockMvc.perform(post(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getBulkDelete(), 1)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{}"))
+				.andExpect(matchAll(
+						status().isBadRequest(),
+						content().json("{\"selective\":\"At least one of names, ids, extension or uploadedBefore is required.\"}")));
+
+		verifyNoInteractions(mockBulkDocumentService);
+	}
+
+	@Test
+	void testDeleteAccount_respondsWith202_andLocationOfDeletion() throws Exception {
+		when(mockAccountDeletionService.requestDeletion(1L))
+				.thenReturn(new AccountDeletion(1L, NAME, 3L, new Date()));
+
+		mockMvc.perform(delete(requestUris.getAccounts() + "/{id}", 1))
+				.andExpect(matchAll(
+						status().isAccepted(),
+						header().string(HttpHeaders.LOCATION,
+								endsWith(requestUris.getAccounts() + requestUris.getDeletions() + "/0")),
+						content().json("{\"accountId\":1,\"status\":\"PENDING\",\"documentsTotal\":3}")));
+	}
+
+	@Test
+	void testGetAccountDeletion_respondsWith404_whenDeletionDoesNotExist() throws Exception {
+		when(mockAccountDeletionService.getDeletionById(anyLong())).thenReturn(Optional.empty());
+
+		mockMvc.perform(get(requestUris.getAccounts() + requestUris.getDeletions() + "/{id}", 1))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testExportDocumentsOfAccount_streamsZip_asAttachment() throws Exception {
+		when(mockDocumentExportService.getExportFileName(1L)).thenReturn("accountTest.zip");
+		when(mockDocumentExportService.exportDocumentsOfAccount(eq(1L), eq("report"), eq(".pdf"), any()))
+				.thenAnswer(invocation -> {
+					OutputStream outputStream = invocation.getArgument(3);
+					outputStream.write(CONTENT.getBytes());
+					return 1;
+				});
+
+		MvcResult result = mockMvc.perform(get(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getExport(), 1)
+				.queryParam("namePrefix", "report")
+				.queryParam("extension", ".pdf"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(matchAll(
+						status().isOk(),
+						content().contentType("application/zip"),
+						header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("accountTest.zip")),
+						content().bytes(CONTENT.getBytes())));
+		InOrder inOrder = inOrder(mockDocumentExportService);
+		inOrder.verify(mockDocumentExportService).acquireExport();
+		inOrder.verify(mockDocumentExportService).exportDocumentsOfAccount(eq(1L), eq("report"), eq(".pdf"), any());
+		inOrder.verify(mockDocumentExportService).releaseExport();
+	}
+
+	@Test
+	void testExportDocumentsOfAccount_respondsWith503_whenTooManyExportsAreStreaming() throws Exception {
+		when(mockDocumentExportService.getExportFileName(1L)).thenReturn("accountTest.zip");
+		doThrow(new ExportLimitExceededException(4)).when(mockDocumentExportService).acquireExport();
+
+		mockMvc.perform(get(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getExport(), 1))
+				.andExpect(matchAll(
+						status().isServiceUnavailable(),
+						header().exists(HttpHeaders.RETRY_AFTER)));
+
+		verify(mockDocumentExportService, never()).exportDocumentsOfAccount(anyLong(), any(), any(), any());
+		verify(mockDocumentExportService, never()).releaseExport();
+	}
+
+	@Test
+	void testExportDocumentsOfAccount_respondsWith404_whenAccountDoesNotExist() throws Exception {
+		when(mockDocumentExportService.getExportFileName(1L))
+				.thenThrow(new EntityNotFoundException(Account.class, ID, "1"));
+
+		mockMvc.perform(get(requestUris.getAccounts() + "/{id}" + requestUris.getDocuments()
+				+ requestUris.getExport(), 1))
+				.andExpect(status().isNotFound());
+
+		verify(mockDocumentExportService, never()).exportDocumentsOfAccount(anyLong(), any(), any(), any());
+	}
 }
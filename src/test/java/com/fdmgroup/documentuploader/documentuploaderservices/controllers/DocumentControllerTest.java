@@ -6,6 +6,7 @@ import com.fdmgroup.documentuploader.config.ApplicationProperties.RequestUris;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.document.DocumentVersion;
 import com.fdmgroup.documentuploader.service.document.DocumentService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.context.TestPropertySource;
@@ -25,12 +27,17 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.ResultMatcher.matchAll;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -152,6 +159,56 @@ class DocumentControllerTest {
 							content().contentType(MediaType.APPLICATION_JSON)));
 	}
 	
+	@Test
+	void testGetDocument_respondsWithETag_whenDocumentHasDigest() throws Exception {
+		validDocument.setDigest(Document.digestOf(validDocument.getContent()));
+		when(mockDocumentService.getDocumentById(0L)).thenReturn(Optional.of(validDocument));
+
+		mockMvc.perform(get(requestUris.getDocuments())
+				.queryParam(ID, "0")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(matchAll(
+							status().isOk(),
+							header().string(HttpHeaders.ETAG, "\"" + validDocument.getDigest() + "\"")));
+	}
+
+	@Test
+	void testGetDocument_respondsWithNotModifiedWithoutLoadingDocument_whenETagMatches() throws Exception {
+		String digest = Document.digestOf(CONTENT.getBytes());
+		DocumentVersion version = mock(DocumentVersion.class);
+		when(version.getDigest()).thenReturn(digest);
+		when(mockDocumentService.getDocumentVersionById(0L)).thenReturn(Optional.of(version));
+
+		mockMvc.perform(get(requestUris.getDocuments())
+				.queryParam(ID, "0")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + digest + "\"")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(status().isNotModified());
+
+		verify(mockDocumentService, never()).getDocumentById(0L);
+	}
+
+	@Test
+	void testGetDocumentContent_respondsWithImmutableContent_whenDigestIsKnown() throws Exception {
+		String digest = Document.digestOf(validDocument.getContent());
+		when(mockDocumentService.getContentByDigest(digest)).thenReturn(Optional.of(validDocument.getContent()));
+
+		mockMvc.perform(get(requestUris.getDocuments() + requestUris.getContent() + "/{digest}", digest))
+					.andExpect(matchAll(
+							status().isOk(),
+							header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"),
+							header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + digest + "\""),
+							content().bytes(validDocument.getContent())));
+	}
+
+	@Test
+	void testGetDocumentContent_respondsWithNotFound_whenDigestIsMalformed() throws Exception {
+		mockMvc.perform(get(requestUris.getDocuments() + requestUris.getContent() + "/{digest}", "not-a-digest"))
+					.andExpect(status().isNotFound());
+
+		verify(mockDocumentService, never()).getContentByDigest(anyString());
+	}
+
 	@Test
 	void testRemoveDocumentById_respondsWithNotFoundAndExceptionMessage_whenExceptionIsThrownFromDocumentService() throws Exception {
 		doThrow(new EntityNotFoundException(Document.class, ID, DOCUMENT_ID_EXISTS)).when(mockDocumentService).deleteDocumentById(0L);
@@ -4,7 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fdmgroup.documentuploader.config.ApplicationProperties;
 import com.fdmgroup.documentuploader.config.ApplicationProperties.RequestUris;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException;
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import com.fdmgroup.documentuploader.model.user.AuthenticatedUser;
+import com.fdmgroup.documentuploader.model.user.Credentials;
 import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.service.ratelimit.AuthenticationRateLimitService;
+import com.fdmgroup.documentuploader.service.ratelimit.EmailRateLimitService;
 import com.fdmgroup.documentuploader.service.user.UserService;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,10 +22,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,8 +36,11 @@ import java.util.Optional;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.ResultMatcher.matchAll;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -61,6 +72,12 @@ class UserControllerTest {
 	@MockBean
 	private JavaMailSender javaMailSender;
 
+	@MockBean
+	private EmailRateLimitService mockEmailRateLimitService;
+
+	@MockBean
+	private AuthenticationRateLimitService mockAuthenticationRateLimitService;
+
 	@Autowired
 	private ApplicationProperties applicationProperties;
 
@@ -119,6 +136,17 @@ class UserControllerTest {
 							content().contentType(MediaType.APPLICATION_JSON)));
 	}
 
+	@Test
+	void testGetUser_respondsWithBadRequest_whenUnsupportedFieldIsRequested() throws Exception {
+		mockMvc.perform(get(requestUris.getUsers())
+				.queryParam(ID, "0")
+				.queryParam("fields", "email,password")
+				.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(status().isBadRequest());
+
+		verifyNoInteractions(mockUserService);
+	}
+
 	@Test
 	void testUpdate_respondsWithBadRequestAndValidationMessages_whenInvalidUserIsGiven() throws Exception {
 		mockMvc.perform(put(requestUris.getUsers())
@@ -206,4 +234,95 @@ class UserControllerTest {
 						content().string("true")
 				));
 	}
+
+	@Test
+	void testResetPassword_callsUserServiceSendResetPasswordEmail_whenPermitIsAcquired() throws Exception {
+		mockMvc.perform(post(requestUris.getUsers() + "/{email}" + requestUris.getResetPassword(), TEST_EMAIL))
+				.andExpect(status().isNoContent());
+
+		verify(mockEmailRateLimitService, times(1)).acquirePermit(eq(TEST_EMAIL), anyString());
+		verify(mockUserService, times(1)).sendResetPasswordEmail(TEST_EMAIL);
+	}
+
+	@Test
+	void testResetPassword_respondsWithTooManyRequests_andDoesNotSendEmail_whenRateLimitIsExceeded() throws Exception {
+		doThrow(new RateLimitExceededException(EMAIL, 60L)).when(mockEmailRateLimitService)
+				.acquirePermit(eq(TEST_EMAIL), anyString());
+
+		mockMvc.perform(post(requestUris.getUsers() + "/{email}" + requestUris.getResetPassword(), TEST_EMAIL))
+				.andExpect(matchAll(
+						status().isTooManyRequests(),
+						header().string(HttpHeaders.RETRY_AFTER, "60")));
+
+		verify(mockUserService, never()).sendResetPasswordEmail(anyString());
+	}
+
+	@Test
+	void testAuthenticate_returnsUserWithoutPassword_whenUserServiceAuthenticatesUser() throws Exception {
+		when(mockUserService.authenticate(TEST_EMAIL, PASSWORD)).thenReturn(Optional.of(validUser));
+
+		mockMvc.perform(authenticateRequest(new Credentials(TEST_EMAIL, PASSWORD)))
+					.andExpect(matchAll(
+							status().isOk(),
+							content().json(objectMapper.writeValueAsString(new AuthenticatedUser(validUser))),
+							jsonPath("$.password").doesNotExist()));
+	}
+
+	@Test
+	void testAuthenticate_respondsWithUnauthorized_whenUserServiceDoesNotAuthenticateUser() throws Exception {
+		when(mockUserService.authenticate(TEST_EMAIL, PASSWORD)).thenReturn(Optional.empty());
+
+		mockMvc.perform(authenticateRequest(new Credentials(TEST_EMAIL, PASSWORD)))
+					.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void testAuthenticate_respondsWithServiceUnavailable_whenPasswordHashingIsSaturated() throws Exception {
+		when(mockUserService.authenticate(TEST_EMAIL, PASSWORD))
+				.thenThrow(new PasswordHashingUnavailableException("timed out", null));
+
+		mockMvc.perform(authenticateRequest(new Credentials(TEST_EMAIL, PASSWORD)))
+					.andExpect(matchAll(
+							status().isServiceUnavailable(),
+							header().exists(HttpHeaders.RETRY_AFTER)));
+	}
+
+	@Test
+	void testAuthenticate_respondsWithTooManyRequests_andDoesNotVerifyPassword_whenRateLimitIsExceeded()
+			throws Exception {
+		doThrow(new RateLimitExceededException("authentication", 60L)).when(mockAuthenticationRateLimitService)
+				.acquirePermit(eq(TEST_EMAIL), anyString());
+
+		mockMvc.perform(authenticateRequest(new Credentials(TEST_EMAIL, PASSWORD)))
+				.andExpect(matchAll(
+						status().isTooManyRequests(),
+						header().string(HttpHeaders.RETRY_AFTER, "60")));
+
+		verify(mockUserService, never()).authenticate(anyString(), anyString());
+	}
+
+	@Test
+	void testAuthenticate_respondsWithBadRequest_whenPasswordIsMissing() throws Exception {
+		mockMvc.perform(authenticateRequest(new Credentials(TEST_EMAIL, null)))
+				.andExpect(status().isBadRequest());
+
+		verify(mockUserService, never()).authenticate(anyString(), anyString());
+	}
+
+	@Test
+	void testAuthenticate_ignoresCredentialsInQueryString() throws Exception {
+		mockMvc.perform(post(requestUris.getUsers() + requestUris.getAuthenticate())
+				.contentType(MediaType.APPLICATION_JSON)
+				.queryParam(EMAIL, TEST_EMAIL)
+				.queryParam(PASSWORD, PASSWORD))
+					.andExpect(status().isBadRequest());
+
+		verify(mockUserService, never()).authenticate(anyString(), anyString());
+	}
+
+	private MockHttpServletRequestBuilder authenticateRequest(Credentials credentials) throws Exception {
+		return post(requestUris.getUsers() + requestUris.getAuthenticate())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(credentials));
+	}
 }
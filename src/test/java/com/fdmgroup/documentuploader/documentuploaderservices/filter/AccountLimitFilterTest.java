@@ -0,0 +1,105 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.filter;
+
+import com.fdmgroup.documentuploader.config.AccountLimitProperties;
+import com.fdmgroup.documentuploader.filter.AccountLimitFilter;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.service.ratelimit.AccountRequestLimiter;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AccountLimitFilterTest {
+
+	private static final String ACCOUNTS_URI = "/accounts";
+	private static final long ACCOUNT_ID = 7L;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ServiceLevelResolver mockServiceLevelResolver = mock(ServiceLevelResolver.class);
+	private final AccountRequestLimiter limiter = new AccountRequestLimiter(16);
+
+	private AccountLimitFilter filter;
+
+	@BeforeEach
+	void setup() {
+		AccountLimitProperties properties = new AccountLimitProperties(Collections.singletonMap(ServiceLevel.BRONZE,
+				new AccountLimitProperties.Limit(1, Duration.ofMinutes(1), 1)), 16);
+		filter = new AccountLimitFilter(mockServiceLevelResolver, properties, limiter, meterRegistry, ACCOUNTS_URI);
+		when(mockServiceLevelResolver.resolve(ACCOUNT_ID)).thenReturn(Optional.of(ServiceLevel.BRONZE));
+	}
+
+	@Test
+	void testDoFilter_returnsTooManyRequestsWithRetryAfter_whenRateOfAccountIsExceeded() throws Exception {
+		assertEquals(HttpStatus.OK.value(), doFilter(request("/accounts/7/documents")).getStatus());
+
+		MockHttpServletResponse response = doFilter(request("/accounts/7/documents"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+		assertEquals("60", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1.0, meterRegistry.get("account.limit.rejected").tag("serviceLevel", "BRONZE")
+				.tag("reason", "rate").counter().count());
+	}
+
+	@Test
+	void testDoFilter_returnsTooManyRequests_whenAccountHasTooManyRequestsInFlight() throws Exception {
+		FilterChain nestedRequest = (req, res) -> {
+			MockHttpServletResponse nested = doFilter(requestWithId());
+			assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), nested.getStatus());
+			assertEquals("1", nested.getHeader(HttpHeaders.RETRY_AFTER));
+		};
+
+		filter.doFilter(requestWithId(), new MockHttpServletResponse(), nestedRequest);
+
+		assertEquals(0, limiter.inFlight(ACCOUNT_ID));
+	}
+
+	@Test
+	void testDoFilter_doesNotLimitRequests_ofAccountsWithoutLimits() throws Exception {
+		when(mockServiceLevelResolver.resolve(8L)).thenReturn(Optional.of(ServiceLevel.ENTERPRISE));
+
+		doFilter(request("/accounts/8"));
+
+		assertEquals(HttpStatus.OK.value(), doFilter(request("/accounts/8")).getStatus());
+	}
+
+	@Test
+	void testDoFilter_doesNotResolveAccount_ofRequestsNotMadeOnBehalfOfAnAccount() throws Exception {
+		doFilter(request("/accounts/deletions/7"));
+		doFilter(request(ACCOUNTS_URI));
+
+		verify(mockServiceLevelResolver, never()).resolve(anyLong());
+	}
+
+	private MockHttpServletResponse doFilter(MockHttpServletRequest request) throws IOException, ServletException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String uri) {
+		return new MockHttpServletRequest("GET", uri);
+	}
+
+	private static MockHttpServletRequest requestWithId() {
+		MockHttpServletRequest request = request(ACCOUNTS_URI);
+		request.setParameter("id", String.valueOf(ACCOUNT_ID));
+		return request;
+	}
+}
@@ -0,0 +1,159 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.filter;
+
+import com.fdmgroup.documentuploader.config.LoadSheddingProperties;
+import com.fdmgroup.documentuploader.filter.LoadSheddingFilter;
+import com.fdmgroup.documentuploader.filter.RouteMatcher;
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingFilterTest {
+
+	private static final String UPLOAD_ROUTE = "/accounts/*/documents";
+
+	private AdaptiveConcurrencyLimiter limiter;
+	private LoadSheddingFilter filter;
+
+	@BeforeEach
+	void setup() {
+		limiter = new AdaptiveConcurrencyLimiter(new LoadSheddingProperties(1, 1, 1, 1.0, 1000),
+				new SimpleMeterRegistry());
+		filter = new LoadSheddingFilter(limiter, new RouteMatcher().add(HttpMethod.POST, UPLOAD_ROUTE));
+	}
+
+	@Test
+	void testDoFilter_shedsUploadWithServiceUnavailable_whenLimitIsInFlight() throws Exception {
+		FilterChain concurrentUpload = (req, res) -> {
+			MockHttpServletResponse shed = doFilter(request("POST", "/accounts/1/documents"));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), shed.getStatus());
+			assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+		};
+
+		filter.doFilter(request("POST", "/accounts/2/documents"), new MockHttpServletResponse(), concurrentUpload);
+
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void testDoFilter_doesNotLimitReads_whileLimitIsInFlight() throws Exception {
+		FilterChain concurrentRead = (req, res) -> assertEquals(HttpStatus.OK.value(),
+				doFilter(request("GET", "/accounts/1/documents")).getStatus());
+
+		filter.doFilter(request("POST", "/accounts/2/documents"), new MockHttpServletResponse(), concurrentRead);
+
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void testDoFilter_releasesLimit_whenUploadFails() {
+		FilterChain failingUpload = (req, res) -> {
+			throw new IllegalStateException();
+		};
+
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(request("POST", "/accounts/2/documents"),
+				new MockHttpServletResponse(), failingUpload));
+
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void testDoFilter_keepsLimit_forMixOfSmallAndSlowlyReadLargeUploads() throws Exception {
+		int uploads = 40;
+		limiter = new AdaptiveConcurrencyLimiter(new LoadSheddingProperties(uploads, 1, uploads, 1.0, 1000),
+				new SimpleMeterRegistry());
+		filter = new LoadSheddingFilter(limiter, new RouteMatcher().add(HttpMethod.POST, UPLOAD_ROUTE));
+		FilterChain upload = (req, res) -> {
+			StreamUtils.drain(req.getInputStream());
+			sleep(50);
+		};
+
+		AtomicInteger lowestLimit = new AtomicInteger(uploads);
+		ExecutorService executor = Executors.newFixedThreadPool(uploads);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < uploads; i++) {
+				long readMillis = i % 2 == 0 ? 0 : 100;
+				results.add(executor.submit(() -> {
+					for (int round = 0; round < 5; round++) {
+						filter.doFilter(slowUpload(readMillis), new MockHttpServletResponse(), upload);
+						lowestLimit.accumulateAndGet(limiter.getLimit(), Math::min);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertTrue(lowestLimit.get() >= uploads * 3 / 4, "limit collapsed to " + lowestLimit.get());
+	}
+
+	private MockHttpServletResponse doFilter(MockHttpServletRequest request) throws IOException, ServletException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String method, String uri) {
+		return new MockHttpServletRequest(method, uri);
+	}
+
+	/**
+	 * Creates an upload whose body takes the given time to read, as that of a
+	 * large upload from a slow client would.
+	 */
+	private static MockHttpServletRequest slowUpload(long readMillis) {
+		return new MockHttpServletRequest("POST", "/accounts/1/documents") {
+
+			@Override
+			public ServletInputStream getInputStream() {
+				InputStream body = new ByteArrayInputStream(new byte[1024]) {
+
+					@Override
+					public synchronized int read() {
+						if (pos == 0) {
+							sleep(readMillis);
+						}
+						return super.read();
+					}
+				};
+				return new DelegatingServletInputStream(body);
+			}
+		};
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
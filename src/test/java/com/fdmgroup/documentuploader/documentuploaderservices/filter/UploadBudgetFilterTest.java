@@ -0,0 +1,167 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.filter;
+
+import com.fdmgroup.documentuploader.config.UploadBudgetProperties;
+import com.fdmgroup.documentuploader.exceptions.UploadBudgetExceededException;
+import com.fdmgroup.documentuploader.filter.RouteMatcher;
+import com.fdmgroup.documentuploader.filter.UploadBudgetFilter;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UploadBudgetFilterTest {
+
+	private static final int KB = 1024;
+	private static final long ACCOUNT_ID = 7L;
+	private static final String UPLOAD_ROUTE = "/accounts/*/documents";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ServiceLevelResolver mockServiceLevelResolver = mock(ServiceLevelResolver.class);
+
+	private UploadByteBudget budget;
+	private UploadBudgetFilter filter;
+
+	@BeforeEach
+	void setup() {
+		budget = new UploadByteBudget(new UploadBudgetProperties(DataSize.ofKilobytes(256), Duration.ofMillis(10),
+				Collections.singletonMap(ServiceLevel.BRONZE, 0.5), 1.0), meterRegistry);
+		filter = new UploadBudgetFilter(budget, Duration.ofMillis(10), 64 * KB,
+				new RouteMatcher().add(HttpMethod.PUT, UPLOAD_ROUTE), mockServiceLevelResolver, meterRegistry,
+				"/accounts");
+		when(mockServiceLevelResolver.resolve(ACCOUNT_ID)).thenReturn(Optional.of(ServiceLevel.BRONZE));
+	}
+
+	@Test
+	void testDoFilter_returnsPayloadTooLarge_ifUploadExceedsShareOfServiceLevel() throws Exception {
+		MockHttpServletResponse response = doFilter(upload("/accounts/7/documents", 129 * KB));
+
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+		assertEquals(1.0, meterRegistry.get("upload.budget.rejected").tag("serviceLevel", "BRONZE")
+				.tag("reason", "too-large").counter().count());
+	}
+
+	@Test
+	void testDoFilter_returnsServiceUnavailableWithRetryAfter_whileBudgetIsExhausted() throws Exception {
+		FilterChain concurrentUpload = (req, res) -> {
+			MockHttpServletResponse rejected = doFilter(upload("/accounts/8/documents", 100 * KB));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getStatus());
+			assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+		};
+
+		filter.doFilter(upload("/accounts/8/documents", 200 * KB), new MockHttpServletResponse(), concurrentUpload);
+
+		assertEquals(1.0, meterRegistry.get("upload.budget.rejected").tag("serviceLevel", "NONE")
+				.tag("reason", "exhausted").counter().count());
+		assertEquals(0, budget.getBytesInFlight());
+	}
+
+	@Test
+	void testDoFilter_holdsBytesOfUploadUntilChainCompletes() throws Exception {
+		FilterChain chain = (req, res) -> assertEquals(100 * KB, budget.getBytesInFlight());
+
+		filter.doFilter(upload("/accounts/7/documents", 100 * KB), new MockHttpServletResponse(), chain);
+
+		assertEquals(0, budget.getBytesInFlight());
+	}
+
+	@Test
+	void testDoFilter_releasesBytes_whenUploadFails() {
+		FilterChain failingUpload = (req, res) -> {
+			throw new IllegalStateException();
+		};
+
+		assertThrows(IllegalStateException.class, () -> filter.doFilter(upload("/accounts/7/documents", 10 * KB),
+				new MockHttpServletResponse(), failingUpload));
+
+		assertEquals(0, budget.getBytesInFlight());
+	}
+
+	@Test
+	void testDoFilter_doesNotBudgetReads() throws Exception {
+		MockHttpServletRequest read = new MockHttpServletRequest("GET", "/accounts/7/documents");
+		read.setContent(new byte[200 * KB]);
+
+		assertEquals(HttpStatus.OK.value(), doFilter(read).getStatus());
+	}
+
+	@Test
+	void testDoFilter_reservesStreamedUploadIncrementally_asBodyIsRead() throws Exception {
+		FilterChain chain = (req, res) -> {
+			assertEquals(0, budget.getBytesInFlight());
+			assertEquals(100 * KB, StreamUtils.copyToByteArray(req.getInputStream()).length);
+			assertEquals(128 * KB, budget.getBytesInFlight());
+		};
+
+		filter.doFilter(streamed(upload("/accounts/7/documents", 100 * KB)), new MockHttpServletResponse(), chain);
+
+		assertEquals(0, budget.getBytesInFlight());
+	}
+
+	@Test
+	void testDoFilter_throwsUploadBudgetExceededException_whenStreamedUploadOutgrowsShare() throws Exception {
+		FilterChain chain = (req, res) -> {
+			UploadBudgetExceededException e = assertThrows(UploadBudgetExceededException.class,
+					() -> StreamUtils.copyToByteArray(req.getInputStream()));
+			assertTrue(e.isExceedsShare());
+		};
+
+		filter.doFilter(streamed(upload("/accounts/7/documents", 200 * KB)), new MockHttpServletResponse(), chain);
+
+		assertEquals(0, budget.getBytesInFlight());
+	}
+
+	private MockHttpServletResponse doFilter(HttpServletRequest request) throws IOException, ServletException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest upload(String uri, int bytes) {
+		MockHttpServletRequest request = new MockHttpServletRequest("PUT", uri);
+		request.setContentType("application/json");
+		request.setContent(new byte[bytes]);
+		return request;
+	}
+
+	/**
+	 * Wraps the given request so it has no {@code Content-Length}, as if its body
+	 * was streamed in chunks.
+	 */
+	private static HttpServletRequest streamed(HttpServletRequest request) {
+		return new HttpServletRequestWrapper(request) {
+
+			@Override
+			public int getContentLength() {
+				return -1;
+			}
+
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+		};
+	}
+}
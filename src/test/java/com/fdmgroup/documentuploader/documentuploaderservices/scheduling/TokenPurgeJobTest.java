@@ -0,0 +1,63 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.scheduling;
+
+import com.fdmgroup.documentuploader.config.TokenPurgeProperties;
+import com.fdmgroup.documentuploader.model.token.TokenPurgeResult;
+import com.fdmgroup.documentuploader.scheduling.TokenPurgeJob;
+import com.fdmgroup.documentuploader.service.scheduling.AbstractSchedulerLockService;
+import com.fdmgroup.documentuploader.service.token.AbstractTokenPurgeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenPurgeJobTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AbstractTokenPurgeService mockTokenPurgeService = mock(AbstractTokenPurgeService.class);
+	private final AbstractSchedulerLockService mockSchedulerLockService = mock(AbstractSchedulerLockService.class);
+
+	private TokenPurgeJob tokenPurgeJob;
+
+	@BeforeEach
+	void setup() {
+		TokenPurgeProperties properties = new TokenPurgeProperties("0 0 * * * *", 2, 3, Duration.ZERO,
+				Duration.ofMinutes(1));
+		this.tokenPurgeJob = new TokenPurgeJob(mockTokenPurgeService, mockSchedulerLockService, properties,
+				meterRegistry);
+	}
+
+	@Test
+	void testPurgeExpiredTokens_recordsRowsPurgedPerRun() {
+		when(mockSchedulerLockService.tryLock(anyString(), any(Duration.class))).thenReturn(true);
+		when(mockTokenPurgeService.purgeExpiredTokens())
+				.thenReturn(new TokenPurgeResult(3, 2, 1, 3, true, Duration.ofMillis(5)));
+
+		tokenPurgeJob.purgeExpiredTokens();
+		tokenPurgeJob.purgeExpiredTokens();
+
+		DistributionSummary rows = meterRegistry.get("token.purge.rows").summary();
+		assertEquals(2, rows.count());
+		assertEquals(12.0, rows.totalAmount());
+		assertEquals(6.0,
+				meterRegistry.get("token.purge.purged").tag("table", "confirmation_token").counter().count());
+		assertEquals(2.0, meterRegistry.get("token.purge.purged").tag("table", "consumed_token").counter().count());
+	}
+
+	@Test
+	void testPurgeExpiredTokens_recordsNothing_whenLockIsHeldElsewhere() {
+		when(mockSchedulerLockService.tryLock(anyString(), any(Duration.class))).thenReturn(false);
+
+		tokenPurgeJob.purgeExpiredTokens();
+
+		assertEquals(0, meterRegistry.get("token.purge.rows").summary().count());
+		verify(mockTokenPurgeService, never()).purgeExpiredTokens();
+	}
+}
@@ -0,0 +1,127 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountDeletion;
+import com.fdmgroup.documentuploader.model.account.AccountDeletionStatus;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.AccountDeletionRepository;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.account.AbstractAccountDeletionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountDeletionServiceTest {
+
+	@Autowired
+	private AbstractAccountDeletionService accountDeletionService;
+
+	@Autowired
+	private AccountDeletionRepository accountDeletionRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	private List<Long> documentIds;
+
+	@BeforeEach
+	void setup() {
+		owner = userRepository.save(new User("account.deletion@example.com", "password", "Account", "Deletion", true));
+		Set<Document> documents = IntStream.range(0, 5)
+				.mapToObj(i -> documentRepository.save(
+						new Document("content".getBytes(StandardCharsets.UTF_8), "document" + i, ".pdf")))
+				.collect(Collectors.toSet());
+		documentIds = documents.stream().map(Document::getId).collect(Collectors.toList());
+		account = accountRepository.save(new Account("accountDeletionAccount", owner, ServiceLevel.GOLD,
+				new HashSet<>(Collections.singleton(owner)), documents));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountDeletionService.requestDeletion(account.getId());
+		accountDeletionService.processPendingDeletions();
+		accountDeletionRepository.deleteAll();
+		userRepository.deleteById(owner.getId());
+	}
+
+	@Test
+	void testRequestDeletion_hidesAccountImmediately_andKeepsDocuments() {
+		AccountDeletion deletion = accountDeletionService.requestDeletion(account.getId());
+
+		assertEquals(AccountDeletionStatus.PENDING, deletion.getStatus());
+		assertEquals(5, deletion.getDocumentsTotal());
+		assertEquals(0, deletion.getDocumentsDeleted());
+		assertFalse(accountRepository.findById(account.getId()).isPresent());
+		assertFalse(accountRepository.findByName(account.getName()).isPresent());
+		assertTrue(accountRepository.findAccountsByUserId(owner.getId()).isEmpty());
+		assertTrue(accountRepository.existsByName(account.getName()));
+		assertTrue(documentIds.stream().allMatch(documentRepository::existsById));
+	}
+
+	@Test
+	void testRequestDeletion_returnsExistingDeletion_whenRequestedAgain() {
+		AccountDeletion first = accountDeletionService.requestDeletion(account.getId());
+		AccountDeletion second = accountDeletionService.requestDeletion(account.getId());
+
+		assertEquals(first.getId(), second.getId());
+	}
+
+	@Test
+	void testProcessPendingDeletions_deletesDocumentsInBatches_thenAccount() {
+		AccountDeletion deletion = accountDeletionService.requestDeletion(account.getId());
+
+		assertEquals(1, accountDeletionService.processPendingDeletions());
+
+		AccountDeletion completed = accountDeletionService.getDeletionById(deletion.getId()).get();
+		assertEquals(AccountDeletionStatus.COMPLETED, completed.getStatus());
+		assertEquals(5, completed.getDocumentsDeleted());
+		assertNotNull(completed.getCompletedAt());
+		assertTrue(documentIds.stream().noneMatch(documentRepository::existsById));
+		assertFalse(accountRepository.existsByName(account.getName()));
+		assertTrue(userRepository.existsById(owner.getId()));
+	}
+
+	@Test
+	void testProcessPendingDeletions_completesNothing_whenNothingWasRequested() {
+		assertEquals(0, accountDeletionService.processPendingDeletions());
+		assertTrue(accountRepository.findById(account.getId()).isPresent());
+	}
+
+	@Test
+	void testRequestDeletion_throwsEntityNotFoundException_whenAccountDoesNotExist() {
+		assertThrows(EntityNotFoundException.class, () -> accountDeletionService.requestDeletion(-1L));
+	}
+}
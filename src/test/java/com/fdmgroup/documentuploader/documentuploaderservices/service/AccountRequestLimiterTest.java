@@ -0,0 +1,146 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.service.ratelimit.AccountRequestLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountRequestLimiterTest {
+
+	private static final Duration REFILL_PERIOD = Duration.ofSeconds(1);
+	private static final int CAPACITY = 2;
+	private static final int MAX_CONCURRENT = 3;
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private AccountRequestLimiter limiter;
+
+	@BeforeEach
+	void setup() {
+		limiter = new AccountRequestLimiter(16, clock::get);
+	}
+
+	@Test
+	void testTryAcquire_returnsNanosUntilNextPermit_whenBucketIsEmpty() {
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, MAX_CONCURRENT));
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, MAX_CONCURRENT));
+
+		assertEquals(REFILL_PERIOD.toNanos() / CAPACITY, tryAcquire(1L, MAX_CONCURRENT));
+	}
+
+	@Test
+	void testTryAcquire_grantsPermitsAgain_onceBucketHasRefilled() {
+		tryAcquire(1L, MAX_CONCURRENT);
+		tryAcquire(1L, MAX_CONCURRENT);
+
+		clock.addAndGet(REFILL_PERIOD.toNanos() / CAPACITY);
+
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, MAX_CONCURRENT));
+	}
+
+	@Test
+	void testTryAcquire_returnsConcurrencyExceeded_untilARequestIsReleased() {
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, 1));
+		clock.addAndGet(REFILL_PERIOD.toNanos());
+
+		assertEquals(AccountRequestLimiter.CONCURRENCY_EXCEEDED, tryAcquire(1L, 1));
+
+		limiter.release(1L);
+		assertEquals(0, limiter.inFlight(1L));
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, 1));
+	}
+
+	@Test
+	void testTryAcquire_keepsSeparateLimits_forEachAccount() {
+		tryAcquire(1L, MAX_CONCURRENT);
+		tryAcquire(1L, MAX_CONCURRENT);
+
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(2L, MAX_CONCURRENT));
+		assertEquals(2, limiter.inFlight(1L));
+		assertEquals(1, limiter.inFlight(2L));
+	}
+
+	@Test
+	void testTryAcquire_letsRequestsThroughUntracked_whenEverySlotIsHeldByAnActiveAccount() {
+		limiter = new AccountRequestLimiter(1, clock::get);
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(1L, MAX_CONCURRENT));
+
+		assertEquals(AccountRequestLimiter.UNTRACKED, tryAcquire(2L, MAX_CONCURRENT));
+	}
+
+	@Test
+	void testTryAcquire_takesOverSlotOfIdleAccount() {
+		limiter = new AccountRequestLimiter(1, clock::get);
+		tryAcquire(1L, MAX_CONCURRENT);
+		limiter.release(1L);
+		clock.addAndGet(REFILL_PERIOD.toNanos());
+
+		assertEquals(AccountRequestLimiter.ACQUIRED, tryAcquire(2L, MAX_CONCURRENT));
+		assertEquals(0, limiter.inFlight(1L));
+		assertEquals(1, limiter.inFlight(2L));
+	}
+
+	@Test
+	void testTryAcquire_takesOverOnlyOneSlot_whenRequestsOfAnAccountRaceToTakeOverDifferentSlots() throws Exception {
+		ThreadLocal<long[]> workerClock = new ThreadLocal<>();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		LongSupplier nanoClock = () -> {
+			long[] worker = workerClock.get();
+			if (worker == null) {
+				return clock.get();
+			}
+			if (worker[1]++ == 0) {
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			return worker[0];
+		};
+		limiter = new AccountRequestLimiter(2, nanoClock);
+		// The home slot of account 1 ends up held by account 3 until 11s, the other
+		// slot by account 2 until 2s
+		limiter.tryAcquire(1L, 1, Duration.ofSeconds(1), MAX_CONCURRENT);
+		limiter.release(1L);
+		limiter.tryAcquire(2L, 1, Duration.ofSeconds(2), MAX_CONCURRENT);
+		limiter.release(2L);
+		clock.set(Duration.ofSeconds(1).toNanos());
+		limiter.tryAcquire(3L, 1, Duration.ofSeconds(10), MAX_CONCURRENT);
+		limiter.release(3L);
+
+		// At 5s only the slot of account 2 is idle, at 20s both are
+		CompletableFuture<Long> early = CompletableFuture.supplyAsync(() -> {
+			workerClock.set(new long[] { Duration.ofSeconds(5).toNanos(), 0 });
+			return tryAcquire(1L, MAX_CONCURRENT);
+		});
+		CompletableFuture<Long> late = CompletableFuture.supplyAsync(() -> {
+			workerClock.set(new long[] { Duration.ofSeconds(20).toNanos(), 0 });
+			return tryAcquire(1L, MAX_CONCURRENT);
+		});
+
+		int acquired = 0;
+		for (long result : new long[] { early.get(10, TimeUnit.SECONDS), late.get(10, TimeUnit.SECONDS) }) {
+			acquired += result == AccountRequestLimiter.ACQUIRED ? 1 : 0;
+		}
+		assertTrue(acquired > 0);
+		assertEquals(acquired, limiter.inFlight(1L));
+	}
+
+	@Test
+	void testConstructor_throwsIllegalArgumentException_ifTableSizeIsNotPositive() {
+		assertThrows(IllegalArgumentException.class, () -> new AccountRequestLimiter(0));
+	}
+
+	private long tryAcquire(long accountId, int maxConcurrentRequests) {
+		return limiter.tryAcquire(accountId, CAPACITY, REFILL_PERIOD, maxConcurrentRequests);
+	}
+}
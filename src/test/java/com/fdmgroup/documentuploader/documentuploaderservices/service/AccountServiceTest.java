@@ -1,33 +1,42 @@
 package com.fdmgroup.documentuploader.documentuploaderservices.service;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
 import com.fdmgroup.documentuploader.config.BeanConfiguration;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.AccountVersion;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.repository.AccountRepository;
 import com.fdmgroup.documentuploader.service.account.AccountService;
 import com.fdmgroup.documentuploader.service.document.DocumentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(classes = { AccountService.class, BeanConfiguration.class })
+@SpringBootTest(classes = { AccountService.class, BeanConfiguration.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties(value = BatchLookupProperties.class)
 @TestPropertySource(value = { "classpath:/application.properties"})
 class AccountServiceTest {
 
@@ -40,18 +49,25 @@ class AccountServiceTest {
 	@Mock
 	private Account mockAccount;
 
+	@Mock
+	private AccountVersion mockAccountVersion;
+
 	@MockBean
 	private AccountRepository mockAccountRepository;
 
 	@MockBean
 	private DocumentService mockDocumentService;
 
+	@MockBean
+	private PlatformTransactionManager mockTransactionManager;
+
 	@Autowired
 	private AccountService accountService;
 
 	@BeforeEach
 	void setup() {
 		MockitoAnnotations.initMocks(this);
+		when(mockAccountRepository.save(any(Account.class))).then(returnsFirstArg());
 	}
 
 	@Test
@@ -90,14 +106,14 @@ class AccountServiceTest {
 
 	@Test
 	void testUpdate_EntityNotFoundException_ifAccountDoesNotExist() {
-		when(mockAccountRepository.existsById(anyLong())).thenReturn(false);
+		when(mockAccountRepository.findVersionById(anyLong())).thenReturn(Optional.empty());
 
 		Assertions.assertThrows(EntityNotFoundException.class, () -> accountService.update(mockAccount));
 	}
 
 	@Test
 	void testUpdate_callsAccountRepositorySave_ifAccountDoesExist() throws EntityNotFoundException {
-		when(mockAccountRepository.existsById(anyLong())).thenReturn(true);
+		when(mockAccountRepository.findVersionById(anyLong())).thenReturn(Optional.of(mockAccountVersion));
 
 		accountService.update(mockAccount);
 
@@ -107,7 +123,7 @@ class AccountServiceTest {
 	@Test
 	void testUpdate_returnsAccountReturned_fromAccountRepositorySave_ifAccountDoesExist()
 			throws EntityNotFoundException {
-		when(mockAccountRepository.existsById(anyLong())).thenReturn(true);
+		when(mockAccountRepository.findVersionById(anyLong())).thenReturn(Optional.of(mockAccountVersion));
 		when(mockAccountRepository.save(mockAccount)).thenReturn(mockAccount);
 
 		Account actual = accountService.update(mockAccount);
@@ -115,6 +131,20 @@ class AccountServiceTest {
 		Assertions.assertEquals(mockAccount, actual);
 	}
 
+	@Test
+	void testUpdate_keepsStoredVersionAndIncrementsIt_ifAccountDoesExist() {
+		Account account = new Account();
+		account.setId(1L);
+		account.setVersion(99L);
+		when(mockAccountVersion.getVersion()).thenReturn(3L);
+		when(mockAccountRepository.findVersionById(1L)).thenReturn(Optional.of(mockAccountVersion));
+
+		Account actual = accountService.update(account);
+
+		verify(mockAccountRepository, times(1)).incrementVersion(eq(1L), any(Date.class));
+		Assertions.assertEquals(4L, actual.getVersion());
+	}
+
 	@Test
 	void testGetAccountById_callsAccountRepositoryFindById() {
 		accountService.getAccountById(0L);
@@ -225,14 +255,14 @@ class AccountServiceTest {
 
 		accountService.addDocumentToAccountByAccountId(mockDocument, 1L);
 
-		verify(mockDocumentService, times(1)).uploadDocument(mockDocument);
+		verify(mockDocumentService, times(1)).uploadDocument(mockDocument, 1L, null);
 	}
 
 	@Test
 	void testAddDocumentToAccountById_throwsEntityCouldNotBeSavedException_whenThrownByDocumentService()
 			throws EntityCouldNotBeSavedException {
 		when(mockAccountRepository.findById(1L)).thenReturn(Optional.of(mockAccount));
-		when(mockDocumentService.uploadDocument(mockDocument)).thenThrow(EntityCouldNotBeSavedException.class);
+		when(mockDocumentService.uploadDocument(mockDocument, 1L, null)).thenThrow(EntityCouldNotBeSavedException.class);
 
 		Assertions.assertThrows(EntityCouldNotBeSavedException.class,
 				() -> accountService.addDocumentToAccountByAccountId(mockDocument, 1L));
@@ -243,7 +273,7 @@ class AccountServiceTest {
 			throws EntityNotFoundException, EntityCouldNotBeSavedException {
 		when(mockAccountRepository.findById(1L)).thenReturn(Optional.of(mockAccount));
 		when(mockAccount.getDocuments()).thenReturn(new HashSet<>());
-		when(mockDocumentService.uploadDocument(mockDocument)).thenReturn(mockDocument);
+		when(mockDocumentService.uploadDocument(mockDocument, 1L, null)).thenReturn(mockDocument);
 
 		accountService.addDocumentToAccountByAccountId(mockDocument, 1L);
 
@@ -269,7 +299,7 @@ class AccountServiceTest {
 			throws EntityCouldNotBeSavedException, EntityNotFoundException {
 		when(mockAccountRepository.findById(1L)).thenReturn(Optional.of(mockAccount));
 		when(mockAccount.getDocuments()).thenReturn(new HashSet<>());
-		when(mockDocumentService.uploadDocument(mockDocument)).thenReturn(mockDocument);
+		when(mockDocumentService.uploadDocument(mockDocument, 1L, null)).thenReturn(mockDocument);
 		when(mockAccountRepository.save(mockAccount)).thenReturn(mockAccount);
 
 		Account actual = accountService.addDocumentToAccountByAccountId(mockDocument, 1L);
@@ -0,0 +1,115 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.LoadSheddingProperties;
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter;
+import com.fdmgroup.documentuploader.service.ratelimit.AdaptiveConcurrencyLimiter.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long NO_LOAD_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void testTryAcquire_shedsCalls_onceLimitIsInFlight() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+
+		assertEquals(2, limiter.getInFlight());
+		assertEquals(1.0, meterRegistry.get("upload.concurrency.shed").counter().count());
+	}
+
+	@Test
+	void testRelease_admitsCallsAgain_onceCallsComplete() {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10);
+		limiter.tryAcquire();
+
+		limiter.release(NO_LOAD_RTT, Outcome.IGNORED);
+
+		assertEquals(0, limiter.getInFlight());
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void testRelease_raisesLimit_whileLatencyStaysAtLatencyWithoutLoad() {
+		AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 100);
+
+		completeAtLimit(limiter, NO_LOAD_RTT);
+		completeAtLimit(limiter, NO_LOAD_RTT);
+
+		assertTrue(limiter.getLimit() > 4);
+		assertEquals(limiter.getLimit(), meterRegistry.get("upload.concurrency.limit").gauge().value());
+		assertTrue(meterRegistry.get("upload.concurrency.limit.changes").tag("direction", "increase").counter()
+				.count() > 0);
+	}
+
+	@Test
+	void testRelease_lowersLimit_whenLatencyRisesUnderLoad() {
+		AdaptiveConcurrencyLimiter limiter = limiter(50, 1, 100);
+		completeAtLimit(limiter, NO_LOAD_RTT);
+
+		completeAtLimit(limiter, NO_LOAD_RTT * 10);
+
+		assertTrue(limiter.getLimit() < 50);
+		assertTrue(meterRegistry.get("upload.concurrency.limit.changes").tag("direction", "decrease").counter()
+				.count() > 0);
+	}
+
+	@Test
+	void testRelease_lowersLimit_whenCallsAreDropped() {
+		AdaptiveConcurrencyLimiter limiter = limiter(50, 1, 50);
+		completeAtLimit(limiter, NO_LOAD_RTT);
+
+		limiter.tryAcquire();
+		limiter.release(NO_LOAD_RTT, Outcome.DROPPED);
+
+		assertTrue(limiter.getLimit() < 50);
+	}
+
+	@Test
+	void testRelease_neverLowersLimitBelowMinimum() {
+		AdaptiveConcurrencyLimiter limiter = limiter(5, 4, 5);
+		completeAtLimit(limiter, NO_LOAD_RTT);
+
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			limiter.release(NO_LOAD_RTT, Outcome.DROPPED);
+		}
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void testConstructor_throwsIllegalArgumentException_ifMinLimitExceedsMaxLimit() {
+		assertThrows(IllegalArgumentException.class, () -> limiter(5, 10, 5));
+	}
+
+	/**
+	 * Admits as many calls as the limit allows and completes all of them with
+	 * the given latency.
+	 */
+	private static void completeAtLimit(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+		int admitted = 0;
+		while (limiter.tryAcquire()) {
+			admitted++;
+		}
+		for (int i = 0; i < admitted; i++) {
+			limiter.release(rttNanos, Outcome.SUCCESS);
+		}
+	}
+
+	private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+		return new AdaptiveConcurrencyLimiter(
+				new LoadSheddingProperties(initialLimit, minLimit, maxLimit, 1.0, 1000), meterRegistry);
+	}
+}
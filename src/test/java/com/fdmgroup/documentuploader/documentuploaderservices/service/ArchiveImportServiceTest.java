@@ -0,0 +1,232 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Item;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Status;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.document.AbstractArchiveImportService;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ArchiveImportServiceTest {
+
+	private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+	@Autowired
+	private AbstractArchiveImportService archiveImportService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UploadByteBudget uploadByteBudget;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	@BeforeEach
+	void setup() {
+		owner = userRepository.save(new User("archive.import@example.com", "password", "Archive", "Import", true));
+		Document existing = documentRepository.save(new Document(CONTENT, "existing", ".pdf"));
+		account = accountRepository.save(new Account("archiveImportAccount", owner, ServiceLevel.GOLD,
+				new HashSet<>(Collections.singleton(owner)), new HashSet<>(Collections.singleton(existing))));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountRepository.deleteById(account.getId());
+		userRepository.deleteById(owner.getId());
+	}
+
+	private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(out)) {
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				zip.putNextEntry(new ZipEntry(entry.getKey()));
+				zip.write(entry.getValue());
+				zip.closeEntry();
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] tar(Map<String, byte[]> entries) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getKey());
+				tarEntry.setSize(entry.getValue().length);
+				tar.putArchiveEntry(tarEntry);
+				tar.write(entry.getValue());
+				tar.closeArchiveEntry();
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		}
+		return out.toByteArray();
+	}
+
+	private static Map<String, byte[]> files(int count, byte[] content) {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			files.put("file" + i + ".bin", content);
+		}
+		return files;
+	}
+
+	private BulkUploadResult importArchive(byte[] archive) throws IOException {
+		return archiveImportService.importArchiveToAccountByAccountId(account.getId(),
+				new ByteArrayInputStream(archive));
+	}
+
+	private static List<Status> statuses(BulkUploadResult result) {
+		return result.getItems().stream().map(Item::getStatus).collect(Collectors.toList());
+	}
+
+	@Test
+	void testImportArchive_addsEveryFileOfZip_skippingDirectoriesAndExistingNames() throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("reports/", new byte[0]);
+		entries.put("reports/report.txt", CONTENT);
+		entries.put("existing.pdf", CONTENT);
+		entries.put("notes.md", CONTENT);
+
+		BulkUploadResult result = importArchive(zip(entries));
+
+		assertEquals(Arrays.asList(Status.CREATED, Status.DUPLICATE, Status.CREATED), statuses(result));
+		assertEquals(new HashSet<>(Arrays.asList("existing", "report", "notes")),
+				new HashSet<>(accountRepository.findDocumentNamesById(account.getId())));
+	}
+
+	@Test
+	void testImportArchive_addsEveryFileOfGzipCompressedTar() throws IOException {
+		BulkUploadResult result = importArchive(gzip(tar(files(3, CONTENT))));
+
+		assertEquals(3, result.getCreated());
+		assertEquals(0, result.getFailed());
+	}
+
+	@Test
+	void testImportArchive_reportsOversizeEntriesAfterImportedFiles() throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("large.bin", new byte[1025]);
+		entries.put("small.bin", CONTENT);
+
+		BulkUploadResult result = importArchive(zip(entries));
+
+		assertEquals(Arrays.asList(Status.CREATED, Status.REJECTED), statuses(result));
+		assertEquals("large.bin", result.getItems().get(1).getName());
+	}
+
+	@Test
+	void testImportArchive_stopsAtMaxEntries() throws IOException {
+		BulkUploadResult result = importArchive(tar(files(8, CONTENT)));
+
+		assertEquals(6, result.getCreated());
+		assertEquals(Collections.singletonList("file6.bin"), result.getItems().stream()
+				.filter(item -> item.getStatus() == Status.REJECTED).map(Item::getName).collect(Collectors.toList()));
+	}
+
+	@Test
+	void testImportArchive_stopsWhenExpansionRatioIsExceeded() throws IOException {
+		BulkUploadResult result = importArchive(zip(files(6, new byte[1024])));
+
+		assertEquals(4, result.getCreated());
+		assertEquals("file4.bin", result.getItems().get(4).getName());
+		assertTrue(result.getItems().get(4).getMessage().contains("ratio"));
+	}
+
+	@Test
+	void testImportArchive_stopsWhenTotalSizeIsExceeded() throws IOException {
+		byte[] random = new byte[1024];
+		new Random(42).nextBytes(random);
+
+		BulkUploadResult result = importArchive(tar(files(6, random)));
+
+		assertEquals(5, result.getCreated());
+		assertEquals("file5.bin", result.getItems().get(5).getName());
+		assertEquals(Status.REJECTED, result.getItems().get(5).getStatus());
+	}
+
+	@Test
+	void testImportArchive_releasesReservedBytes_onceImportCompletes() throws IOException {
+		BulkUploadResult result = importArchive(zip(files(5, CONTENT)));
+
+		assertEquals(5, result.getCreated());
+		assertEquals(0, uploadByteBudget.getBytesInFlight());
+	}
+
+	@Test
+	void testImportArchive_stopsWhenUploadBudgetIsExhausted() throws Exception {
+		long held = uploadByteBudget.getBytesInFlight();
+		long reserved = 512L * 1024 * 1024 - 8192;
+		assertTrue(uploadByteBudget.tryReserve(ServiceLevel.GOLD, reserved, Duration.ZERO));
+		BulkUploadResult result;
+		try {
+			result = importArchive(zip(files(3, CONTENT)));
+			assertEquals(held + reserved, uploadByteBudget.getBytesInFlight());
+		} finally {
+			uploadByteBudget.release(ServiceLevel.GOLD, reserved);
+		}
+
+		assertEquals(Arrays.asList(Status.CREATED, Status.REJECTED), statuses(result));
+		assertEquals("file1.bin", result.getItems().get(1).getName());
+		assertTrue(result.getItems().get(1).getMessage().contains("memory"));
+	}
+
+	@Test
+	void testImportArchive_throwsEntityCouldNotBeSavedException_whenStreamIsNotAnArchive() {
+		assertThrows(EntityCouldNotBeSavedException.class, () -> importArchive(CONTENT));
+	}
+}
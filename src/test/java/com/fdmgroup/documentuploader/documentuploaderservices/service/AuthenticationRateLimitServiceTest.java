@@ -0,0 +1,66 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import com.fdmgroup.documentuploader.service.ratelimit.AuthenticationRateLimitService;
+import com.fdmgroup.documentuploader.service.ratelimit.TokenBucketLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationRateLimitServiceTest {
+
+	private static final String TEST_EMAIL = "test@email.com";
+	private static final String CLIENT = "127.0.0.1";
+	private static final String CLIENT2 = "127.0.0.2";
+	private static final int EMAIL_CAPACITY = 2;
+	private static final int CLIENT_CAPACITY = 3;
+
+	private AtomicLong clock;
+
+	private AuthenticationRateLimitService authenticationRateLimitService;
+
+	@BeforeEach
+	void setup() {
+		this.clock = new AtomicLong();
+		TokenBucketLimiter emailLimiter = new TokenBucketLimiter(EMAIL_CAPACITY, Duration.ofMinutes(10), 100,
+				clock::get);
+		TokenBucketLimiter clientLimiter = new TokenBucketLimiter(CLIENT_CAPACITY, Duration.ofMinutes(10), 100,
+				clock::get);
+		this.authenticationRateLimitService = new AuthenticationRateLimitService(emailLimiter, clientLimiter);
+	}
+
+	@Test
+	void testAcquirePermit_throwsRateLimitExceededException_whenAttemptsForEmailExceedCapacityFromManyClients() {
+		authenticationRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		authenticationRateLimitService.acquirePermit(TEST_EMAIL.toUpperCase(), CLIENT2);
+
+		RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+				() -> authenticationRateLimitService.acquirePermit(TEST_EMAIL, "127.0.0.3"));
+		assertEquals(Duration.ofMinutes(5).getSeconds(), e.getRetryAfterSeconds());
+	}
+
+	@Test
+	void testAcquirePermit_throwsRateLimitExceededException_whenAttemptsFromClientExceedCapacity() {
+		for (int i = 0; i < CLIENT_CAPACITY; i++) {
+			authenticationRateLimitService.acquirePermit("user" + i + "@email.com", CLIENT);
+		}
+
+		assertThrows(RateLimitExceededException.class,
+				() -> authenticationRateLimitService.acquirePermit(TEST_EMAIL, CLIENT));
+		assertDoesNotThrow(() -> authenticationRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+	}
+
+	@Test
+	void testAcquirePermit_permitsAttemptsAgain_afterBucketRefills() {
+		for (int i = 0; i < EMAIL_CAPACITY; i++) {
+			authenticationRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		}
+		clock.addAndGet(Duration.ofMinutes(5).toNanos());
+
+		assertDoesNotThrow(() -> authenticationRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+	}
+}
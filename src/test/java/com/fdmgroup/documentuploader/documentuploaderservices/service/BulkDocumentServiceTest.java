@@ -0,0 +1,229 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.events.AccountDocumentEvent;
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteCriteria;
+import com.fdmgroup.documentuploader.model.document.BulkDeleteResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Item;
+import com.fdmgroup.documentuploader.model.document.BulkUploadResult.Status;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.document.AbstractBulkDocumentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BulkDocumentServiceTest {
+
+	private static final List<AccountDocumentEvent> EVENTS = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	private AbstractBulkDocumentService bulkDocumentService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	@TestConfiguration
+	static class EventCaptureConfiguration {
+
+		@Bean
+		ApplicationListener<AccountDocumentEvent> accountDocumentEventCapture() {
+			return EVENTS::add;
+		}
+	}
+
+	@BeforeEach
+	void setup() {
+		EVENTS.clear();
+		owner = userRepository.save(new User("bulk.upload@example.com", "password", "Bulk", "Upload", true));
+		Document existing = documentRepository.save(document("existing", ".pdf"));
+		account = accountRepository.save(new Account("bulkUploadAccount", owner, ServiceLevel.GOLD,
+				new HashSet<>(Collections.singleton(owner)), new HashSet<>(Collections.singleton(existing))));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountRepository.deleteById(account.getId());
+		userRepository.deleteById(owner.getId());
+	}
+
+	private static Document document(String name, String extension) {
+		return new Document("content".getBytes(StandardCharsets.UTF_8), name, extension);
+	}
+
+	@Test
+	void testAddDocuments_addsEveryValidDocument_acrossBatches() {
+		BulkUploadResult result = bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(),
+				Arrays.asList(document("a", ".pdf"), document("b", ".pdf"), document("c", ".pdf")).iterator());
+
+		assertEquals(3, result.getCreated());
+		assertEquals(0, result.getFailed());
+		assertTrue(result.getItems().stream().allMatch(item -> item.getDocumentId() != null));
+		assertEquals(new HashSet<>(Arrays.asList("existing", "a", "b", "c")),
+				new HashSet<>(accountRepository.findDocumentNamesById(account.getId())));
+	}
+
+	@Test
+	void testAddDocuments_publishesOneEvent_forAllAddedDocuments() {
+		bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(),
+				Arrays.asList(document("a", ".pdf"), document("b", ".pdf"), document("c", ".pdf")).iterator());
+
+		assertEquals(1, EVENTS.size());
+		assertEquals(Arrays.asList("a", "b", "c"), EVENTS.get(0).getDocumentNames());
+		assertTrue(EVENTS.get(0).wasAddedToAccount());
+	}
+
+	@Test
+	void testAddDocuments_reportsEachRejectedDocument_inUploadOrder() {
+		BulkUploadResult result = bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(),
+				Arrays.asList(document("existing", ".pdf"), document("a", ".pdf"), document("a", ".docx"),
+						document("noExtension", null), document("b", ".pdf"), document("c", ".pdf")).iterator());
+
+		List<Status> statuses = result.getItems().stream().map(Item::getStatus).collect(Collectors.toList());
+		assertEquals(Arrays.asList(Status.DUPLICATE, Status.CREATED, Status.DUPLICATE, Status.INVALID,
+				Status.CREATED, Status.REJECTED), statuses);
+		assertEquals(2, result.getCreated());
+		assertEquals(4, result.getFailed());
+		assertEquals("Document Extension is required.", result.getItems().get(3).getMessage());
+	}
+
+	@Test
+	void testAddDocuments_releasesEveryDocument_onceItIsNoLongerHeld() {
+		List<Document> documents = Arrays.asList(document("existing", ".pdf"), document("a", ".pdf"),
+				document("b", ".pdf"), document("c", ".pdf"));
+		List<String> released = new ArrayList<>();
+
+		bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(), documents.iterator(), 5,
+				document -> released.add(document.getName()));
+
+		assertEquals(Arrays.asList("existing", "a", "b", "c"), released);
+	}
+
+	@Test
+	void testAddDocuments_rejectsDocumentsBeyondTheQuotaOfTheServiceLevel() {
+		account.setServiceLevel(ServiceLevel.BRONZE);
+		accountRepository.save(account);
+
+		BulkUploadResult result = bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(),
+				Arrays.asList(document("a", ".pdf"), document("b", ".pdf")).iterator());
+
+		assertEquals(Arrays.asList(Status.CREATED, Status.REJECTED),
+				result.getItems().stream().map(Item::getStatus).collect(Collectors.toList()));
+		assertTrue(result.getItems().get(1).getMessage().endsWith(ServiceLevel.BRONZE.toString()));
+	}
+
+	@Test
+	void testAddDocuments_publishesNoEvent_whenNothingWasAdded() {
+		bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(),
+				Collections.singletonList(document("existing", ".pdf")).iterator());
+
+		assertTrue(EVENTS.isEmpty());
+	}
+
+	@Test
+	void testAddDocuments_throwsEntityNotFoundException_whenAccountDoesNotExist() {
+		assertThrows(EntityNotFoundException.class, () -> bulkDocumentService
+				.addDocumentsToAccountByAccountId(-1L, Collections.<Document>emptyList().iterator()));
+	}
+
+	private List<Long> addDocuments(Document... documents) {
+		return bulkDocumentService.addDocumentsToAccountByAccountId(account.getId(), Arrays.asList(documents).iterator())
+				.getItems().stream().map(Item::getDocumentId).collect(Collectors.toList());
+	}
+
+	@Test
+	void testDeleteDocuments_deletesDocumentsByName_acrossChunks() {
+		List<Long> ids = addDocuments(document("a", ".pdf"), document("b", ".pdf"), document("c", ".pdf"));
+		EVENTS.clear();
+
+		BulkDeleteResult result = bulkDocumentService.deleteDocumentsFromAccountByAccountId(account.getId(),
+				new BulkDeleteCriteria(Arrays.asList("a", "b", "c", "missing"), null, null, null));
+
+		assertEquals(3, result.getDeleted());
+		assertEquals(0, result.getFailed());
+		assertEquals(ids, result.getDocumentIds());
+		assertEquals(Collections.singletonList("existing"), accountRepository.findDocumentNamesById(account.getId()));
+		assertTrue(ids.stream().noneMatch(documentRepository::existsById));
+		assertEquals(1, EVENTS.size());
+		assertEquals(Arrays.asList("a", "b", "c"), EVENTS.get(0).getDocumentNames());
+		assertFalse(EVENTS.get(0).wasAddedToAccount());
+	}
+
+	@Test
+	void testDeleteDocuments_deletesOnlyDocumentsMatchingEveryCriterion() {
+		List<Long> ids = addDocuments(document("a", ".pdf"), document("b", ".docx"), document("c", ".docx"));
+
+		BulkDeleteResult result = bulkDocumentService.deleteDocumentsFromAccountByAccountId(account.getId(),
+				new BulkDeleteCriteria(null, ids, ".docx", null));
+
+		assertEquals(Arrays.asList("b", "c"), result.getDocumentNames());
+		assertEquals(new HashSet<>(Arrays.asList("existing", "a")),
+				new HashSet<>(accountRepository.findDocumentNamesById(account.getId())));
+	}
+
+	@Test
+	void testDeleteDocuments_deletesDocumentsUploadedBeforeTheGivenTime() {
+		BulkDeleteResult none = bulkDocumentService.deleteDocumentsFromAccountByAccountId(account.getId(),
+				new BulkDeleteCriteria(null, null, null, new Date(0L)));
+		BulkDeleteResult all = bulkDocumentService.deleteDocumentsFromAccountByAccountId(account.getId(),
+				new BulkDeleteCriteria(null, null, null, new Date(System.currentTimeMillis() + 60_000L)));
+
+		assertEquals(0, none.getDeleted());
+		assertEquals(Collections.singletonList("existing"), all.getDocumentNames());
+		assertTrue(accountRepository.findDocumentNamesById(account.getId()).isEmpty());
+	}
+
+	@Test
+	void testDeleteDocuments_publishesNoEvent_whenNothingMatches() {
+		BulkDeleteResult result = bulkDocumentService.deleteDocumentsFromAccountByAccountId(account.getId(),
+				new BulkDeleteCriteria(Collections.singletonList("missing"), null, null, null));
+
+		assertEquals(0, result.getDeleted());
+		assertTrue(EVENTS.isEmpty());
+	}
+
+	@Test
+	void testDeleteDocuments_throwsEntityNotFoundException_whenAccountDoesNotExist() {
+		assertThrows(EntityNotFoundException.class, () -> bulkDocumentService.deleteDocumentsFromAccountByAccountId(-1L,
+				new BulkDeleteCriteria(Collections.singletonList("a"), null, null, null)));
+	}
+}
@@ -0,0 +1,156 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.DocumentCacheProperties;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.service.document.DocumentContentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentContentCacheTest {
+
+	private static final DataSize MAX_SIZE = DataSize.ofKilobytes(64);
+	private static final int ENTRY_SIZE = 8 * 1024;
+
+	private MeterRegistry meterRegistry;
+	private DocumentContentCache documentContentCache;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		documentContentCache = new DocumentContentCache(
+				new DocumentCacheProperties(MAX_SIZE, DataSize.ofBytes(ENTRY_SIZE), 64), meterRegistry);
+	}
+
+	private static Document document(long id, int size) {
+		byte[] content = new byte[size];
+		Arrays.fill(content, (byte) id);
+		Document document = new Document(content, "document" + id, ".pdf");
+		document.setId(id);
+		document.setUploadedAt(new Date(id));
+		return document;
+	}
+
+	/**
+	 * Reads the document the way the document service does, caching it on a
+	 * miss.
+	 */
+	private Document read(long id) {
+		Document cached = documentContentCache.get(id);
+		if (cached != null) {
+			return cached;
+		}
+		Document document = document(id, ENTRY_SIZE);
+		documentContentCache.put(document, documentContentCache.generation());
+		return document;
+	}
+
+	@Test
+	void testGet_returnsCopyOfCachedDocument_andCountsBytesSaved() {
+		Document document = document(1L, 100);
+		documentContentCache.put(document, documentContentCache.generation());
+
+		Document cached = documentContentCache.get(1L);
+
+		assertNotSame(document, cached);
+		assertArrayEquals(document.getContent(), cached.getContent());
+		assertEquals(document.getName(), cached.getName());
+		assertEquals(document.getExtension(), cached.getExtension());
+		assertEquals(document.getUploadedAt(), cached.getUploadedAt());
+		assertEquals(1L, documentContentCache.getHitCount());
+		assertEquals(100L, documentContentCache.getBytesSaved());
+	}
+
+	@Test
+	void testPut_neverHoldsMoreBytesThanMaxSize() {
+		for (long id = 1; id <= 100; id++) {
+			read(id);
+			assertTrue(documentContentCache.getSize() <= MAX_SIZE.toBytes());
+		}
+		assertTrue(documentContentCache.getEntryCount() > 0);
+	}
+
+	@Test
+	void testPut_keepsFrequentlyReadDocuments_whileManyDocumentsAreReadOnce() {
+		for (int i = 0; i < 5; i++) {
+			for (long id = 1; id <= 4; id++) {
+				read(id);
+			}
+		}
+		for (long id = 100; id < 300; id++) {
+			read(id);
+		}
+
+		for (long id = 1; id <= 4; id++) {
+			assertNotNull(documentContentCache.get(id), "document " + id + " was evicted");
+		}
+		assertTrue(documentContentCache.getEvictionCount() > 0);
+	}
+
+	@Test
+	void testPut_allocatesNoBuffer_forDocumentsRefusedAdmission() {
+		AtomicInteger allocations = new AtomicInteger();
+		documentContentCache = new DocumentContentCache(
+				new DocumentCacheProperties(MAX_SIZE, DataSize.ofBytes(ENTRY_SIZE), 64), meterRegistry, capacity -> {
+					allocations.incrementAndGet();
+					return ByteBuffer.allocateDirect(capacity);
+				});
+		for (int i = 0; i < 5; i++) {
+			for (long id = 1; id <= 7; id++) {
+				read(id);
+			}
+		}
+		int allocationsOfFrequentDocuments = allocations.get();
+
+		for (long id = 100; id < 200; id++) {
+			read(id);
+		}
+
+		assertEquals(allocationsOfFrequentDocuments, allocations.get());
+		assertEquals(100L, documentContentCache.getEvictionCount());
+		for (long id = 1; id <= 7; id++) {
+			assertNotNull(documentContentCache.get(id), "document " + id + " was evicted");
+		}
+	}
+
+	@Test
+	void testPut_ignoresDocumentsLargerThanMaxEntrySize() {
+		documentContentCache.put(document(1L, ENTRY_SIZE + 1), documentContentCache.generation());
+
+		assertNull(documentContentCache.get(1L));
+		assertEquals(0L, documentContentCache.getSize());
+	}
+
+	@Test
+	void testInvalidate_removesDocument_andRejectsDocumentsReadBeforehand() {
+		long generation = documentContentCache.generation();
+		documentContentCache.put(document(1L, 100), generation);
+
+		documentContentCache.invalidate(1L);
+		documentContentCache.put(document(1L, 100), generation);
+
+		assertNull(documentContentCache.get(1L));
+		assertEquals(0L, documentContentCache.getSize());
+	}
+
+	@Test
+	void testMetrics_reportHitRatioAndBytesSaved() {
+		documentContentCache.put(document(1L, 100), documentContentCache.generation());
+		documentContentCache.get(1L);
+		documentContentCache.get(2L);
+
+		assertEquals(0.5, meterRegistry.get("document.content.cache.hit.ratio").gauge().value());
+		assertEquals(100.0, meterRegistry.get("document.content.cache.bytes.saved").functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("document.content.cache.requests").tag("result", "miss")
+				.functionCounter().count());
+	}
+}
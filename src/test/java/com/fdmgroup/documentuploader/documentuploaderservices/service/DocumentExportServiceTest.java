@@ -0,0 +1,149 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
+import com.fdmgroup.documentuploader.exceptions.ExportLimitExceededException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.document.AbstractDocumentExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DocumentExportServiceTest {
+
+	private static final byte[] COMPRESSIBLE = new byte[4096];
+
+	@Autowired
+	private AbstractDocumentExportService documentExportService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	@BeforeEach
+	void setup() {
+		owner = userRepository.save(new User("document.export@example.com", "password", "Document", "Export", true));
+		Set<Document> documents = Arrays.asList(
+				new Document(COMPRESSIBLE, "report", ".txt"),
+				new Document(COMPRESSIBLE, "report_2020", ".png"),
+				new Document(COMPRESSIBLE, "reportX2020", ".txt"),
+				new Document(COMPRESSIBLE, "../notes", ".txt"),
+				new Document(COMPRESSIBLE, ".._notes", ".txt")).stream()
+				.map(documentRepository::save)
+				.collect(Collectors.toSet());
+		account = accountRepository.save(new Account("documentExportAccount", owner, ServiceLevel.GOLD,
+				new HashSet<>(Collections.singleton(owner)), documents));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountRepository.deleteById(account.getId());
+		userRepository.deleteById(owner.getId());
+	}
+
+	private Map<String, ZipEntry> export(String namePrefix, String extension) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int written = documentExportService.exportDocumentsOfAccount(account.getId(), namePrefix, extension, out);
+
+		Map<String, ZipEntry> entries = new LinkedHashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				assertArrayEquals(COMPRESSIBLE, StreamUtils.copyToByteArray(zip));
+				entries.put(entry.getName(), entry);
+			}
+		}
+		assertEquals(written, entries.size());
+		return entries;
+	}
+
+	@Test
+	void testExport_writesEveryDocument_withSafeUniqueEntryNames() throws IOException {
+		Map<String, ZipEntry> entries = export(null, null);
+
+		assertEquals(5, entries.size());
+		assertTrue(entries.keySet().containsAll(
+				Arrays.asList("report.txt", "report_2020.png", "reportX2020.txt", ".._notes.txt")));
+		assertTrue(entries.keySet().stream().anyMatch(name -> name.matches("\\.\\._notes \\(\\d+\\)\\.txt")));
+	}
+
+	@Test
+	void testAcquireExport_throwsExportLimitExceededException_whenMaxConcurrentExportsAreStreaming() {
+		int acquired = 0;
+		try {
+			for (; acquired < 4; acquired++) {
+				documentExportService.acquireExport();
+			}
+			assertThrows(ExportLimitExceededException.class, documentExportService::acquireExport);
+		} finally {
+			for (int i = 0; i < acquired; i++) {
+				documentExportService.releaseExport();
+			}
+		}
+		documentExportService.acquireExport();
+		documentExportService.releaseExport();
+	}
+
+	@Test
+	void testExport_compressesOnlyDocumentsWithoutStoredExtension() throws IOException {
+		Map<String, ZipEntry> entries = export(null, null);
+
+		assertTrue(entries.get("report.txt").getCompressedSize() < COMPRESSIBLE.length / 10);
+		assertTrue(entries.get("report_2020.png").getCompressedSize() >= COMPRESSIBLE.length);
+	}
+
+	@Test
+	void testExport_filtersByNamePrefix_treatingWildcardsLiterally() throws IOException {
+		assertEquals(Collections.singleton("report_2020.png"), export("report_", null).keySet());
+	}
+
+	@Test
+	void testExport_filtersByExtension_withOrWithoutDot() throws IOException {
+		assertEquals(Collections.singleton("report_2020.png"), export(null, "png").keySet());
+		assertEquals(4, export("", ".txt").size());
+	}
+
+	@Test
+	void testGetExportFileName_throwsEntityNotFoundException_whenAccountDoesNotExist() {
+		assertEquals("documentExportAccount.zip", documentExportService.getExportFileName(account.getId()));
+		assertThrows(EntityNotFoundException.class, () -> documentExportService.getExportFileName(-1L));
+	}
+}
@@ -1,10 +1,13 @@
 package com.fdmgroup.documentuploader.documentuploaderservices.service;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
 import com.fdmgroup.documentuploader.config.BeanConfiguration;
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.model.document.Document;
 import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.service.document.DocumentContentCache;
 import com.fdmgroup.documentuploader.service.document.DocumentService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +17,20 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes = { DocumentService.class, BeanConfiguration.class })
+@EnableConfigurationProperties(value = BatchLookupProperties.class)
 class DocumentServiceTest {
 
 	private static final String TEST_DOCUMENT_NAME = "testDocumentName";
@@ -33,6 +41,9 @@ class DocumentServiceTest {
 	@MockBean
 	private DocumentRepository mockDocumentRepository;
 
+	@MockBean
+	private DocumentContentCache mockDocumentContentCache;
+
 	@Autowired
 	private DocumentService documentService;
 
@@ -102,6 +113,62 @@ class DocumentServiceTest {
 		);
 	}
 
+	@Test
+	void testGetDocumentById_returnsCachedDocument_withoutCallingDocumentRepository() {
+		when(mockDocumentContentCache.get(0L)).thenReturn(mockDocument);
+
+		Optional<Document> actual = documentService.getDocumentById(0L);
+
+		Assertions.assertEquals(Optional.of(mockDocument), actual);
+		verify(mockDocumentRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void testGetDocumentById_offersFoundDocumentToCache() {
+		when(mockDocumentContentCache.generation()).thenReturn(3L);
+		when(mockDocumentRepository.findById(0L)).thenReturn(Optional.of(mockDocument));
+
+		documentService.getDocumentById(0L);
+
+		verify(mockDocumentContentCache, times(1)).put(mockDocument, 3L);
+	}
+
+	@Test
+	void testGetDocumentsByIds_queriesOnlyUncachedDocuments_andReturnsThemInRequestOrder() {
+		Document cached = new Document(new byte[100], "cached", ".txt");
+		cached.setId(1L);
+		Document loaded = new Document(new byte[100], "loaded", ".txt");
+		loaded.setId(2L);
+		when(mockDocumentContentCache.get(1L)).thenReturn(cached);
+		when(mockDocumentContentCache.generation()).thenReturn(5L);
+		when(mockDocumentRepository.findAllById(Arrays.asList(2L, 3L))).thenReturn(Collections.singletonList(loaded));
+
+		List<Document> actual = documentService.getDocumentsByIds(Arrays.asList(2L, 1L, 3L));
+
+		Assertions.assertEquals(Arrays.asList(loaded, cached), actual);
+		verify(mockDocumentRepository, times(1)).findAllById(Arrays.asList(2L, 3L));
+		verify(mockDocumentContentCache, times(1)).put(loaded, 5L);
+	}
+
+	@Test
+	void testGetDocumentsByIds_throwsBatchLimitExceededException_withoutLoadingContent_whenContentIsTooLarge() {
+		Document cached = new Document(new byte[512], "cached", ".txt");
+		cached.setId(1L);
+		when(mockDocumentContentCache.get(1L)).thenReturn(cached);
+		when(mockDocumentRepository.sumContentSizeByIdIn(anyCollection())).thenReturn(1024L);
+
+		Assertions.assertThrows(BatchLimitExceededException.class,
+				() -> documentService.getDocumentsByIds(Arrays.asList(1L, 2L, 3L)));
+		verify(mockDocumentRepository, never()).findAllById(any());
+	}
+
+	@Test
+	void testGetDocumentsByIds_throwsBatchLimitExceededException_whenMoreThanMaxDocumentIdsAreGiven() {
+		Assertions.assertThrows(BatchLimitExceededException.class,
+				() -> documentService.getDocumentsByIds(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L)));
+		verifyNoInteractions(mockDocumentRepository);
+	}
+
 	@Test
 	void testGetDocumentByName_callsDocumentRepositoryFindByName() {
 		documentService.getDocumentByName(TEST_DOCUMENT_NAME);
@@ -143,4 +210,13 @@ class DocumentServiceTest {
 		
 		verify(mockDocumentRepository, times(1)).deleteById(0L);
 	}
+	
+	@Test
+	void testDeleteDocumentById_invalidatesCachedDocument_whenExistsByIdReturnsTrue() throws EntityNotFoundException {
+		when(mockDocumentRepository.existsById(0L)).thenReturn(true);
+		
+		documentService.deleteDocumentById(0L);
+		
+		verify(mockDocumentContentCache, times(1)).invalidate(0L);
+	}
 }
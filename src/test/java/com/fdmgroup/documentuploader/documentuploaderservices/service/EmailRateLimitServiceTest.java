@@ -0,0 +1,111 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.RateLimitExceededException;
+import com.fdmgroup.documentuploader.service.ratelimit.EmailRateLimitService;
+import com.fdmgroup.documentuploader.service.ratelimit.TokenBucketLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailRateLimitServiceTest {
+
+	private static final String TEST_EMAIL = "test@email.com";
+	private static final String TEST_EMAIL2 = "test2@email.com";
+	private static final String CLIENT = "127.0.0.1";
+	private static final String CLIENT2 = "127.0.0.2";
+	private static final int EMAIL_CAPACITY = 2;
+	private static final int CLIENT_CAPACITY = 3;
+
+	private AtomicLong clock;
+
+	private TokenBucketLimiter clientLimiter;
+
+	private EmailRateLimitService emailRateLimitService;
+
+	@BeforeEach
+	void setup() {
+		this.clock = new AtomicLong();
+		TokenBucketLimiter emailLimiter = new TokenBucketLimiter(EMAIL_CAPACITY, Duration.ofMinutes(10), 100,
+				clock::get);
+		this.clientLimiter = new TokenBucketLimiter(CLIENT_CAPACITY, Duration.ofMinutes(10), 2, clock::get);
+		this.emailRateLimitService = new EmailRateLimitService(emailLimiter, clientLimiter);
+	}
+
+	@Test
+	void testAcquirePermit_throwsRateLimitExceededException_whenEmailCapacityIsExceeded() {
+		for (int i = 0; i < EMAIL_CAPACITY; i++) {
+			emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		}
+
+		assertThrows(RateLimitExceededException.class, () -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+	}
+
+	@Test
+	void testAcquirePermit_doesNotTakeClientPermit_whenEmailCapacityIsExceeded() {
+		for (int i = 0; i < EMAIL_CAPACITY; i++) {
+			emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2);
+		}
+		for (int i = 0; i < CLIENT_CAPACITY; i++) {
+			assertThrows(RateLimitExceededException.class,
+					() -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT));
+		}
+
+		for (int i = 0; i < CLIENT_CAPACITY; i++) {
+			emailRateLimitService.acquirePermit("user" + i + "@email.com", CLIENT);
+		}
+	}
+
+	@Test
+	void testAcquirePermit_treatsEmailsCaseInsensitively() {
+		emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		emailRateLimitService.acquirePermit(TEST_EMAIL.toUpperCase(), CLIENT);
+
+		assertThrows(RateLimitExceededException.class, () -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+	}
+
+	@Test
+	void testAcquirePermit_throwsRateLimitExceededException_whenClientCapacityIsExceeded() {
+		emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		emailRateLimitService.acquirePermit(TEST_EMAIL2, CLIENT);
+		emailRateLimitService.acquirePermit("other@email.com", CLIENT);
+
+		assertThrows(RateLimitExceededException.class,
+				() -> emailRateLimitService.acquirePermit("another@email.com", CLIENT));
+	}
+
+	@Test
+	void testAcquirePermit_reportsTimeUntilNextPermit_whenLimitIsExceeded() {
+		for (int i = 0; i < EMAIL_CAPACITY; i++) {
+			emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		}
+
+		RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+				() -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT));
+
+		assertEquals(Duration.ofMinutes(5).getSeconds(), e.getRetryAfterSeconds());
+	}
+
+	@Test
+	void testAcquirePermit_permitsRequestsAgain_afterBucketRefills() {
+		for (int i = 0; i < EMAIL_CAPACITY; i++) {
+			emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		}
+		clock.addAndGet(Duration.ofMinutes(5).toNanos());
+
+		assertDoesNotThrow(() -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+		assertThrows(RateLimitExceededException.class, () -> emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT2));
+	}
+
+	@Test
+	void testAcquirePermit_evictsLeastRecentlyUsedKeys_whenMaxTrackedKeysIsExceeded() {
+		emailRateLimitService.acquirePermit(TEST_EMAIL, CLIENT);
+		emailRateLimitService.acquirePermit(TEST_EMAIL2, CLIENT2);
+		emailRateLimitService.acquirePermit(TEST_EMAIL, "127.0.0.3");
+
+		assertEquals(2, clientLimiter.size());
+	}
+}
@@ -0,0 +1,104 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.FlightRecorderProperties;
+import com.fdmgroup.documentuploader.jfr.DocumentUploadEvent;
+import com.fdmgroup.documentuploader.jfr.EmailSendEvent;
+import com.fdmgroup.documentuploader.jfr.TokenValidationEvent;
+import com.fdmgroup.documentuploader.jfr.UploadPhase;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.jfr.RecordingStatus;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import com.fdmgroup.documentuploader.service.jfr.FlightRecordingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+	private static final Duration MAX_DURATION = Duration.ofMinutes(10);
+
+	private FlightRecordingService flightRecordingService;
+
+	@BeforeEach
+	void setup() {
+		FlightRecorderProperties flightRecorderProperties = new FlightRecorderProperties("default",
+				Duration.ofMinutes(1), MAX_DURATION, Duration.ofMinutes(30), DataSize.ofMegabytes(16));
+		flightRecordingService = new FlightRecordingService(flightRecorderProperties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		flightRecordingService.destroy();
+	}
+
+	@Test
+	void testStart_capsDuration_atConfiguredMaximum() {
+		RecordingStatus status = flightRecordingService.start(Duration.ofDays(1)).get();
+
+		assertEquals("RUNNING", status.getState());
+		assertEquals(MAX_DURATION, status.getDuration());
+	}
+
+	@Test
+	void testStart_returnsEmpty_whenRecordingIsRunning() {
+		flightRecordingService.start(null);
+
+		assertFalse(flightRecordingService.start(null).isPresent());
+	}
+
+	@Test
+	void testStop_returnsEmpty_whenNothingWasStarted() {
+		assertFalse(flightRecordingService.stop().isPresent());
+		assertFalse(flightRecordingService.status().isPresent());
+	}
+
+	@Test
+	void testDump_returnsEmpty_forUnknownRecording() throws Exception {
+		RecordingStatus status = flightRecordingService.start(null).get();
+
+		assertFalse(flightRecordingService.dump(status.getId() + 1).isPresent());
+	}
+
+	@Test
+	void testDump_containsApplicationEvents() throws Exception {
+		RecordingStatus status = flightRecordingService.start(null).get();
+		DocumentUploadEvent.start(UploadPhase.PERSIST, 7L, 1024L).finish(ServiceLevel.GOLD);
+		EmailSendEvent.start("user@example.com", "subject", "message").finish(true);
+		TokenValidationEvent.start(TokenPurpose.RESET_PASSWORD).finish(true, 3L);
+		assertEquals("STOPPED", flightRecordingService.stop().get().getState());
+
+		Optional<Path> file = flightRecordingService.dump(status.getId());
+		assertTrue(file.isPresent());
+		List<RecordedEvent> events;
+		try {
+			events = RecordingFile.readAllEvents(file.get()).stream()
+					.filter(event -> event.getEventType().getName().startsWith("com.fdmgroup.documentuploader."))
+					.collect(Collectors.toList());
+		} finally {
+			Files.deleteIfExists(file.get());
+		}
+
+		assertEquals(3, events.size());
+		RecordedEvent upload = events.stream()
+				.filter(event -> event.getEventType().getName().endsWith("DocumentUpload")).findFirst().get();
+		assertEquals("PERSIST", upload.getString("phase"));
+		assertEquals(7L, upload.getLong("accountId"));
+		assertEquals(1024L, upload.getLong("bytes"));
+		assertEquals("GOLD", upload.getString("serviceLevel"));
+		RecordedEvent email = events.stream()
+				.filter(event -> event.getEventType().getName().endsWith("EmailSend")).findFirst().get();
+		assertEquals("example.com", email.getString("recipientDomain"));
+	}
+}
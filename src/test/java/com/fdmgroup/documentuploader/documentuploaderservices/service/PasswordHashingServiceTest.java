@@ -0,0 +1,77 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.PasswordHashingProperties;
+import com.fdmgroup.documentuploader.exceptions.PasswordHashingUnavailableException;
+import com.fdmgroup.documentuploader.service.password.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+	private static final String PASSWORD = "password";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PasswordHashingService passwordHashingService = createService(4, Duration.ofSeconds(10));
+
+	private PasswordHashingService createService(int strength, Duration timeout) {
+		return new PasswordHashingService(new PasswordHashingProperties(strength, 1, 4, timeout), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		passwordHashingService.shutdown();
+	}
+
+	@Test
+	void testHash_returnsBcryptHashMatchingPassword() {
+		String hash = passwordHashingService.hash(PASSWORD);
+
+		assertNotEquals(PASSWORD, hash);
+		assertTrue(hash.startsWith("$2a$04$"));
+		assertTrue(passwordHashingService.matches(PASSWORD, hash));
+		assertFalse(passwordHashingService.matches("wrong", hash));
+	}
+
+	@Test
+	void testHash_recordsQueueWait() {
+		passwordHashingService.hash(PASSWORD);
+
+		assertEquals(1L, meterRegistry.get("password.hashing.queue.wait").timer().count());
+		assertEquals(1L, meterRegistry.get("password.hashing.duration").tag("operation", "hash").timer().count());
+	}
+
+	@Test
+	void testMatches_comparesStoredPasswordsWhichAreNotHashed() {
+		assertTrue(passwordHashingService.matches(PASSWORD, PASSWORD));
+		assertFalse(passwordHashingService.matches(PASSWORD, "other"));
+		assertFalse(passwordHashingService.matches(PASSWORD, null));
+	}
+
+	@Test
+	void testNeedsRehash_returnsTrue_forUnhashedPasswordsAndLowerCosts() {
+		String weakerHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+		passwordHashingService.shutdown();
+		passwordHashingService = createService(5, Duration.ofSeconds(10));
+
+		assertTrue(passwordHashingService.needsRehash(PASSWORD));
+		assertTrue(passwordHashingService.needsRehash(weakerHash));
+		assertFalse(passwordHashingService.needsRehash(new BCryptPasswordEncoder(5).encode(PASSWORD)));
+	}
+
+	@Test
+	void testHash_throwsPasswordHashingUnavailableException_whenTimeoutElapses() {
+		passwordHashingService.shutdown();
+		passwordHashingService = createService(12, Duration.ofMillis(1));
+
+		assertThrows(PasswordHashingUnavailableException.class, () -> passwordHashingService.hash(PASSWORD));
+		assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+	}
+}
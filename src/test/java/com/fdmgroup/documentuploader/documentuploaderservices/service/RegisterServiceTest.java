@@ -3,23 +3,30 @@ package com.fdmgroup.documentuploader.documentuploaderservices.service;
 import com.fdmgroup.documentuploader.model.account.Account;
 import com.fdmgroup.documentuploader.model.registration.ConfirmationToken;
 import com.fdmgroup.documentuploader.model.registration.RegistrationWrapper;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.AuthGroup;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
 import com.fdmgroup.documentuploader.service.account.AbstractAccountService;
 import com.fdmgroup.documentuploader.service.authgroup.AbstractAuthGroupService;
+import com.fdmgroup.documentuploader.service.password.AbstractPasswordHashingService;
 import com.fdmgroup.documentuploader.service.register.RegisterService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
 import com.fdmgroup.documentuploader.service.user.AbstractUserService;
 import org.assertj.core.util.DateUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -56,6 +63,15 @@ class RegisterServiceTest {
 	@MockBean
 	private ConfirmationTokenRepository mockConfirmationTokenRepository;
 	
+	@MockBean
+	private AbstractSignedTokenService mockSignedTokenService;
+
+	@MockBean
+	private AbstractPasswordHashingService mockPasswordHashingService;
+
+	@MockBean
+	private PlatformTransactionManager mockTransactionManager;
+	
 	@Autowired
 	private RegisterService registerService;
 	
@@ -74,11 +90,11 @@ class RegisterServiceTest {
 		when(mockRegistrationWrapper.getAccount()).thenReturn(mockAccount);
 		when(mockRegistrationWrapper.getUser()).thenReturn(mockUser);
 		when(mockRegistrationWrapper.getAuthGroup()).thenReturn(mockAuthGroup);
-		when(mockUserService.save(mockUser)).thenReturn(mockUser);
+		when(mockUserService.saveWithHashedPassword(mockUser)).thenReturn(mockUser);
 		
 		registerService.processRegistration(mockRegistrationWrapper);
 		
-		verify(mockUserService, times(1)).save(mockUser);
+		verify(mockUserService, times(1)).saveWithHashedPassword(mockUser);
 		verify(mockAuthGroupService, times(1)).save(mockAuthGroup);
 		verify(mockAccountService, times(1)).save(mockAccount);
 	}
@@ -88,13 +104,31 @@ class RegisterServiceTest {
 		when(mockRegistrationWrapper.getAccount()).thenReturn(mockAccount);
 		when(mockRegistrationWrapper.getUser()).thenReturn(mockUser);
 		when(mockRegistrationWrapper.getAuthGroup()).thenReturn(mockAuthGroup);
-		when(mockUserService.save(mockUser)).thenReturn(mockUser);
+		when(mockUserService.saveWithHashedPassword(mockUser)).thenReturn(mockUser);
 		
 		User actual = registerService.processRegistration(mockRegistrationWrapper);
 		
 		Assertions.assertEquals(mockUser, actual);
 	}
 	
+	@Test
+	void testProcessRegistration_hashesPasswordBeforeOpeningTransaction() {
+		when(mockRegistrationWrapper.getAccount()).thenReturn(mockAccount);
+		when(mockRegistrationWrapper.getUser()).thenReturn(mockUser);
+		when(mockRegistrationWrapper.getAuthGroup()).thenReturn(mockAuthGroup);
+		when(mockUser.getPassword()).thenReturn("password");
+		when(mockPasswordHashingService.hash("password")).thenReturn("hash");
+		when(mockUserService.saveWithHashedPassword(mockUser)).thenReturn(mockUser);
+		
+		registerService.processRegistration(mockRegistrationWrapper);
+		
+		InOrder inOrder = inOrder(mockPasswordHashingService, mockUser, mockTransactionManager, mockUserService);
+		inOrder.verify(mockPasswordHashingService).hash("password");
+		inOrder.verify(mockUser).setPassword("hash");
+		inOrder.verify(mockTransactionManager).getTransaction(any());
+		inOrder.verify(mockUserService).saveWithHashedPassword(mockUser);
+	}
+	
 	@Test
 	void testActivateAccountWithToken_returnsFalse_whenTokenGivenDoesNotExist() {
 		when(mockConfirmationTokenRepository.findByToken(TOKEN)).thenReturn(Optional.empty());
@@ -146,4 +180,34 @@ class RegisterServiceTest {
 		
 		Assertions.assertTrue(result);
 	}
+
+	@Test
+	void testActivateAccountWithToken_enablesUserOnSignedToken_withoutCallingConfirmationTokenRepository() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.CONFIRM_ACCOUNT, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TOKEN, TokenPurpose.CONFIRM_ACCOUNT)).thenReturn(Optional.of(claims));
+		when(mockUserService.getUserById(1L)).thenReturn(Optional.of(mockUser));
+		when(mockSignedTokenService.consume(claims)).thenReturn(true);
+
+		boolean result = registerService.activateAccountWithToken(TOKEN);
+
+		Assertions.assertTrue(result);
+		verify(mockUser, times(1)).setEnabled(true);
+		verify(mockUserService, times(1)).update(mockUser);
+		verify(mockConfirmationTokenRepository, never()).findByToken(TOKEN);
+	}
+
+	@Test
+	void testActivateAccountWithToken_returnsFalse_whenSignedTokenIsAlreadyConsumed() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.CONFIRM_ACCOUNT, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TOKEN, TokenPurpose.CONFIRM_ACCOUNT)).thenReturn(Optional.of(claims));
+		when(mockUserService.getUserById(1L)).thenReturn(Optional.of(mockUser));
+		when(mockSignedTokenService.consume(claims)).thenReturn(false);
+
+		boolean result = registerService.activateAccountWithToken(TOKEN);
+
+		Assertions.assertFalse(result);
+		verify(mockUserService, never()).update(mockUser);
+	}
 }
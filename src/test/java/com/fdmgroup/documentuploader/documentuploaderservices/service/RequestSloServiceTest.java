@@ -0,0 +1,203 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.SloProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.slo.SloSnapshot;
+import com.fdmgroup.documentuploader.service.slo.RequestSloService;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestSloServiceTest {
+
+	private static final String ROUTE = "/accounts/{id}/documents";
+	private static final long ENTERPRISE_ACCOUNT = 1L;
+	private static final long BRONZE_ACCOUNT = 2L;
+	private static final long UNKNOWN_ACCOUNT = 3L;
+
+	private AtomicLong clock;
+	private SimpleMeterRegistry meterRegistry;
+	private ServiceLevelResolver mockServiceLevelResolver;
+	private RequestSloService requestSloService;
+
+	@BeforeEach
+	void setup() {
+		Map<ServiceLevel, Duration> latencyObjectives = new EnumMap<>(ServiceLevel.class);
+		latencyObjectives.put(ServiceLevel.ENTERPRISE, Duration.ofMillis(100));
+		latencyObjectives.put(ServiceLevel.BRONZE, Duration.ofSeconds(1));
+		SloProperties sloProperties = new SloProperties(0.99, latencyObjectives, Duration.ofMillis(500),
+				Arrays.asList(Duration.ofMinutes(5), Duration.ofHours(1)), 100, Duration.ofMinutes(5), 100, 1);
+
+		meterRegistry = new SimpleMeterRegistry();
+		mockServiceLevelResolver = mock(ServiceLevelResolver.class);
+		when(mockServiceLevelResolver.resolve(ENTERPRISE_ACCOUNT)).thenReturn(Optional.of(ServiceLevel.ENTERPRISE));
+		when(mockServiceLevelResolver.resolve(BRONZE_ACCOUNT)).thenReturn(Optional.of(ServiceLevel.BRONZE));
+		when(mockServiceLevelResolver.resolve(UNKNOWN_ACCOUNT)).thenReturn(Optional.empty());
+		clock = new AtomicLong();
+		requestSloService = new RequestSloService(meterRegistry, sloProperties, mockServiceLevelResolver, clock::get);
+	}
+
+	@Test
+	void testRecord_tagsTimerWithRouteStatusClassAndServiceLevel() {
+		requestSloService.record(ROUTE, 201, ENTERPRISE_ACCOUNT, millis(10));
+
+		assertEquals(1, meterRegistry.get("http.server.tier.requests").tag("uri", ROUTE).tag("status", "2xx")
+				.tag("serviceLevel", "ENTERPRISE").timer().count());
+	}
+
+	@Test
+	void testRecord_countsRequestAsBad_whenSlowerThanObjectiveOfItsTier() {
+		requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(150));
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(150));
+
+		assertEquals(1.0, outcomes("ENTERPRISE", "bad"));
+		assertEquals(1.0, outcomes("BRONZE", "good"));
+	}
+
+	@Test
+	void testRecord_countsRequestAsBad_whenServerErrorOccurs() {
+		requestSloService.record(ROUTE, 503, ENTERPRISE_ACCOUNT, millis(1));
+		requestSloService.record(ROUTE, 404, ENTERPRISE_ACCOUNT, millis(1));
+
+		assertEquals(1.0, outcomes("ENTERPRISE", "bad"));
+		assertEquals(1.0, outcomes("ENTERPRISE", "good"));
+	}
+
+	@Test
+	void testRecord_recordsAsUnattributed_whenAccountIsMissingOrUnknown() {
+		requestSloService.record("/users", 200, null, millis(1));
+		requestSloService.record(ROUTE, 404, UNKNOWN_ACCOUNT, millis(1));
+
+		assertEquals(2.0, outcomes("NONE", "good"));
+		verify(mockServiceLevelResolver).resolve(UNKNOWN_ACCOUNT);
+	}
+
+	@Test
+	void testSnapshot_reportsPercentilesAndBurnRatePerTier() {
+		for (int i = 0; i < 98; i++) {
+			requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(10));
+		}
+		requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(200));
+		requestSloService.record(ROUTE, 500, ENTERPRISE_ACCOUNT, millis(10));
+
+		SloSnapshot.Tier enterprise = tier(requestSloService.snapshot(), "ENTERPRISE");
+
+		assertEquals(100, enterprise.getRequests());
+		assertEquals(2, enterprise.getBad());
+		assertEquals(2.0, enterprise.getBurnRates().get("5m"), 0.001);
+		assertEquals(2.0, enterprise.getBurnRates().get("1h"), 0.001);
+		assertEquals(100.0, enterprise.getLatencyObjectiveMs());
+		assertEquals(10.0, enterprise.getLatencyMs().get("p50"), 0.1);
+		assertEquals(200.0, enterprise.getLatencyMs().get("max"), 0.5);
+		assertEquals(100, enterprise.getRoutes().get(ROUTE).getRequests());
+	}
+
+	@Test
+	void testSnapshot_computesBurnRateOverSlidingWindows() {
+		for (int i = 0; i < 10; i++) {
+			requestSloService.record(ROUTE, 500, ENTERPRISE_ACCOUNT, millis(1));
+		}
+		clock.addAndGet(Duration.ofMinutes(10).toNanos());
+		for (int i = 0; i < 100; i++) {
+			requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(1));
+		}
+
+		SloSnapshot.Tier enterprise = tier(requestSloService.snapshot(), "ENTERPRISE");
+
+		assertEquals(0.0, enterprise.getBurnRates().get("5m"), 0.001);
+		assertEquals(9.091, enterprise.getBurnRates().get("1h"), 0.001);
+		assertEquals(110, enterprise.getRequests());
+	}
+
+	@Test
+	void testSnapshot_forgetsRequestsOlderThanLongestWindow() {
+		requestSloService.record(ROUTE, 500, BRONZE_ACCOUNT, millis(1));
+		clock.addAndGet(Duration.ofMinutes(61).toNanos());
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(1));
+
+		SloSnapshot.Tier bronze = tier(requestSloService.snapshot(), "BRONZE");
+
+		assertEquals(0.0, bronze.getBurnRates().get("1h"), 0.001);
+		assertEquals(1, bronze.getBad());
+	}
+
+	@Test
+	void testSnapshot_accumulatesAcrossSnapshots_andEncodesMergeableHistogram() throws Exception {
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(10));
+		requestSloService.snapshot();
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(20));
+
+		SloSnapshot.Tier bronze = tier(requestSloService.snapshot(), "BRONZE");
+
+		assertEquals(2, bronze.getRequests());
+		Histogram decoded = Histogram.decodeFromCompressedByteBuffer(
+				ByteBuffer.wrap(Base64.getDecoder().decode(bronze.getHistogram())), 0);
+		assertEquals(2, decoded.getTotalCount());
+	}
+
+	@Test
+	void testSnapshot_listsBusiestTenants() {
+		requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(1));
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(1));
+		requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(1));
+
+		SloSnapshot snapshot = requestSloService.snapshot();
+
+		assertEquals(1, snapshot.getTopTenants().size());
+		assertEquals(BRONZE_ACCOUNT, snapshot.getTopTenants().get(0).getAccountId());
+		assertEquals("BRONZE", snapshot.getTopTenants().get(0).getServiceLevel());
+		assertEquals(2, snapshot.getTopTenants().get(0).getRequests());
+	}
+
+	@Test
+	void testSnapshot_listsNewlyBusyTenant_whenTrackedTenantsAreFull() {
+		long silverAccount = 4L;
+		when(mockServiceLevelResolver.resolve(silverAccount)).thenReturn(Optional.of(ServiceLevel.SILVER));
+		SloProperties sloProperties = new SloProperties(0.99, new EnumMap<>(ServiceLevel.class),
+				Duration.ofMillis(500), Arrays.asList(Duration.ofMinutes(5)), 100, Duration.ofMinutes(5), 2, 2);
+		requestSloService = new RequestSloService(meterRegistry, sloProperties, mockServiceLevelResolver, clock::get);
+
+		requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(1));
+		requestSloService.record(ROUTE, 200, ENTERPRISE_ACCOUNT, millis(1));
+		requestSloService.record(ROUTE, 200, silverAccount, millis(1));
+		for (int i = 0; i < 3; i++) {
+			requestSloService.record(ROUTE, 200, BRONZE_ACCOUNT, millis(1));
+		}
+
+		SloSnapshot snapshot = requestSloService.snapshot();
+
+		assertEquals(2, snapshot.getTopTenants().size());
+		assertEquals(BRONZE_ACCOUNT, snapshot.getTopTenants().get(0).getAccountId());
+		assertEquals(3, snapshot.getTopTenants().get(0).getRequests());
+		assertEquals(ENTERPRISE_ACCOUNT, snapshot.getTopTenants().get(1).getAccountId());
+	}
+
+	private double outcomes(String serviceLevel, String outcome) {
+		return meterRegistry.get("slo.requests").tag("serviceLevel", serviceLevel).tag("outcome", outcome).counter()
+				.count();
+	}
+
+	private static SloSnapshot.Tier tier(SloSnapshot snapshot, String serviceLevel) {
+		return snapshot.getTiers().stream().filter(tier -> tier.getServiceLevel().equals(serviceLevel)).findFirst()
+				.orElseThrow(AssertionError::new);
+	}
+
+	private static long millis(long millis) {
+		return TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+}
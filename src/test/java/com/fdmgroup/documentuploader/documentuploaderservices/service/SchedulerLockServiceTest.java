@@ -0,0 +1,94 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.model.scheduling.SchedulerLock;
+import com.fdmgroup.documentuploader.repository.SchedulerLockRepository;
+import com.fdmgroup.documentuploader.service.scheduling.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SchedulerLockServiceTest {
+
+	private static final String LOCK_NAME = "test-lock";
+	private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(5);
+
+	@Mock
+	private SchedulerLockRepository mockSchedulerLockRepository;
+
+	@Mock
+	private PlatformTransactionManager mockTransactionManager;
+
+	private SchedulerLockService schedulerLockService;
+
+	@BeforeEach
+	void setup() {
+		MockitoAnnotations.initMocks(this);
+		this.schedulerLockService = new SchedulerLockService(mockSchedulerLockRepository, mockTransactionManager);
+	}
+
+	@Test
+	void testTryLock_returnsTrue_whenExpiredLockIsTakenOver() {
+		when(mockSchedulerLockRepository.acquire(eq(LOCK_NAME), any(Date.class), any(Date.class), anyString()))
+				.thenReturn(1);
+
+		assertTrue(schedulerLockService.tryLock(LOCK_NAME, LOCK_AT_MOST_FOR));
+		verify(mockSchedulerLockRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void testTryLock_insertsLock_whenLockWasNeverTaken() {
+		when(mockSchedulerLockRepository.existsById(LOCK_NAME)).thenReturn(false);
+
+		assertTrue(schedulerLockService.tryLock(LOCK_NAME, LOCK_AT_MOST_FOR));
+
+		ArgumentCaptor<SchedulerLock> captor = ArgumentCaptor.forClass(SchedulerLock.class);
+		verify(mockSchedulerLockRepository).saveAndFlush(captor.capture());
+		assertEquals(LOCK_NAME, captor.getValue().getName());
+		assertTrue(captor.getValue().getLockedUntil().after(captor.getValue().getLockedAt()));
+	}
+
+	@Test
+	void testTryLock_returnsFalse_whenLockIsHeldByAnotherNode() {
+		when(mockSchedulerLockRepository.existsById(LOCK_NAME)).thenReturn(true);
+
+		assertFalse(schedulerLockService.tryLock(LOCK_NAME, LOCK_AT_MOST_FOR));
+		verify(mockSchedulerLockRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void testTryLock_returnsFalse_whenAnotherNodeInsertsLockConcurrently() {
+		when(mockSchedulerLockRepository.existsById(LOCK_NAME)).thenReturn(false);
+		when(mockSchedulerLockRepository.saveAndFlush(any(SchedulerLock.class)))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+		assertFalse(schedulerLockService.tryLock(LOCK_NAME, LOCK_AT_MOST_FOR));
+		verify(mockTransactionManager).rollback(any());
+	}
+
+	@Test
+	void testUnlock_releasesLockHeldByThisNode() {
+		when(mockSchedulerLockRepository.acquire(eq(LOCK_NAME), any(Date.class), any(Date.class), anyString()))
+				.thenReturn(1);
+		schedulerLockService.tryLock(LOCK_NAME, LOCK_AT_MOST_FOR);
+		ArgumentCaptor<String> lockedBy = ArgumentCaptor.forClass(String.class);
+		verify(mockSchedulerLockRepository).acquire(eq(LOCK_NAME), any(Date.class), any(Date.class),
+				lockedBy.capture());
+
+		schedulerLockService.unlock(LOCK_NAME);
+
+		verify(mockSchedulerLockRepository).release(eq(LOCK_NAME), any(Date.class), eq(lockedBy.getValue()));
+	}
+}
@@ -0,0 +1,77 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.SloProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.service.slo.ServiceLevelResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceLevelResolverTest {
+
+	private static final Duration TTL = Duration.ofMinutes(5);
+
+	private final AtomicLong nanoTime = new AtomicLong();
+	private AccountRepository mockAccountRepository;
+	private ServiceLevelResolver serviceLevelResolver;
+
+	@BeforeEach
+	void setup() {
+		mockAccountRepository = mock(AccountRepository.class);
+		when(mockAccountRepository.findServiceLevelById(1L)).thenReturn(Optional.of(ServiceLevel.GOLD));
+		when(mockAccountRepository.findServiceLevelById(2L)).thenReturn(Optional.of(ServiceLevel.BRONZE));
+		when(mockAccountRepository.findServiceLevelById(3L)).thenReturn(Optional.empty());
+		SloProperties sloProperties = new SloProperties(0.99, Collections.emptyMap(), Duration.ofSeconds(1), Collections.emptyList(), 2, TTL,
+				100, 10);
+		serviceLevelResolver = new ServiceLevelResolver(mockAccountRepository, sloProperties, nanoTime::get);
+	}
+
+	@Test
+	void testResolve_looksUpServiceLevelOnce_whileCached() {
+		assertEquals(Optional.of(ServiceLevel.GOLD), serviceLevelResolver.resolve(1L));
+		assertEquals(Optional.of(ServiceLevel.GOLD), serviceLevelResolver.resolve(1L));
+
+		verify(mockAccountRepository, times(1)).findServiceLevelById(1L);
+	}
+
+	@Test
+	void testResolve_cachesUnknownAccounts() {
+		assertFalse(serviceLevelResolver.resolve(3L).isPresent());
+		assertFalse(serviceLevelResolver.resolve(3L).isPresent());
+
+		verify(mockAccountRepository, times(1)).findServiceLevelById(3L);
+	}
+
+	@Test
+	void testResolve_looksUpAgain_afterTtlElapses() {
+		serviceLevelResolver.resolve(1L);
+		nanoTime.addAndGet(TTL.toNanos());
+
+		serviceLevelResolver.resolve(1L);
+
+		verify(mockAccountRepository, times(2)).findServiceLevelById(1L);
+	}
+
+	@Test
+	void testResolve_evictsLeastRecentlyUsedAccount_whenFull() {
+		serviceLevelResolver.resolve(1L);
+		serviceLevelResolver.resolve(2L);
+		serviceLevelResolver.resolve(1L);
+		serviceLevelResolver.resolve(3L);
+
+		serviceLevelResolver.resolve(1L);
+		serviceLevelResolver.resolve(2L);
+
+		assertEquals(2, serviceLevelResolver.size());
+		verify(mockAccountRepository, times(1)).findServiceLevelById(1L);
+		verify(mockAccountRepository, times(2)).findServiceLevelById(2L);
+	}
+}
@@ -0,0 +1,160 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.SignedTokenProperties;
+import com.fdmgroup.documentuploader.model.token.ConsumedToken;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import com.fdmgroup.documentuploader.repository.ConsumedTokenRepository;
+import com.fdmgroup.documentuploader.service.token.SignedTokenService;
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SignedTokenServiceTest {
+
+	private static final String OLD_KEY = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+	private static final String NEW_KEY = "MTIzNDU2Nzg5MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTI=";
+	private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+	private static final long USER_ID = 42L;
+
+	@Mock
+	private ConsumedTokenRepository mockConsumedTokenRepository;
+
+	@Mock
+	private PlatformTransactionManager mockTransactionManager;
+
+	private SignedTokenService signedTokenService;
+
+	@BeforeEach
+	void setup() {
+		MockitoAnnotations.initMocks(this);
+		signedTokenService = createService("k2", NOW);
+	}
+
+	private SignedTokenService createService(String activeKeyId, Instant now) {
+		Map<String, String> keys = new HashMap<>();
+		keys.put("k1", OLD_KEY);
+		keys.put("k2", NEW_KEY);
+		SignedTokenProperties properties = new SignedTokenProperties(true, activeKeyId, keys, Duration.ofDays(1),
+				Duration.ofHours(1), 100);
+		Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+		return new SignedTokenService(properties, mockConsumedTokenRepository, new TokenGenerator(clock),
+				mockTransactionManager, clock);
+	}
+
+	@Test
+	void testVerify_returnsClaimsOfIssuedToken() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+
+		Optional<SignedTokenClaims> claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD);
+
+		assertTrue(claims.isPresent());
+		assertEquals(USER_ID, claims.get().getUserId());
+		assertEquals("k2", claims.get().getKeyId());
+		assertEquals(NOW.plus(Duration.ofHours(1)), claims.get().getExpiry());
+		verifyNoInteractions(mockConsumedTokenRepository);
+	}
+
+	@Test
+	void testIsSignedToken_returnsFalse_forUuidTokens() {
+		assertFalse(signedTokenService.isSignedToken("123e4567-e89b-12d3-a456-426614174000"));
+		assertTrue(signedTokenService.isSignedToken(signedTokenService.issue(USER_ID, TokenPurpose.CONFIRM_ACCOUNT)));
+	}
+
+	@Test
+	void testVerify_returnsEmpty_whenPurposeDiffers() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.CONFIRM_ACCOUNT);
+
+		assertFalse(signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD).isPresent());
+	}
+
+	@Test
+	void testVerify_returnsEmpty_whenTokenIsExpired() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		SignedTokenService later = createService("k2", NOW.plus(Duration.ofHours(2)));
+
+		assertFalse(later.verify(token, TokenPurpose.RESET_PASSWORD).isPresent());
+	}
+
+	@Test
+	void testVerify_returnsEmpty_whenPayloadIsTampered() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		char[] chars = token.toCharArray();
+		chars[10] = chars[10] == 'A' ? 'B' : 'A';
+
+		assertFalse(signedTokenService.verify(new String(chars), TokenPurpose.RESET_PASSWORD).isPresent());
+		assertFalse(signedTokenService.verify("not.a-token", TokenPurpose.RESET_PASSWORD).isPresent());
+	}
+
+	@Test
+	void testVerify_acceptsTokensSignedWithRotatedOutActiveKey() {
+		String token = createService("k1", NOW).issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+
+		Optional<SignedTokenClaims> claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD);
+
+		assertTrue(claims.isPresent());
+		assertEquals("k1", claims.get().getKeyId());
+	}
+
+	@Test
+	void testConsume_returnsFalse_whenTokenWasAlreadyConsumed() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		SignedTokenClaims claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD).get();
+
+		assertTrue(signedTokenService.consume(claims));
+		assertFalse(signedTokenService.consume(claims));
+		assertTrue(signedTokenService.isConsumed(claims));
+		verify(mockConsumedTokenRepository, times(1)).saveAndFlush(any(ConsumedToken.class));
+		verify(mockConsumedTokenRepository, times(1)).existsById(anyLong());
+	}
+
+	@Test
+	void testConsume_returnsFalseWithoutInserting_whenConsumedTokenIsAlreadyStored() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		SignedTokenClaims claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD).get();
+		when(mockConsumedTokenRepository.existsById(claims.getNonce())).thenReturn(true);
+
+		assertFalse(signedTokenService.consume(claims));
+		verify(mockConsumedTokenRepository, never()).saveAndFlush(any(ConsumedToken.class));
+	}
+
+	@Test
+	void testConsume_returnsFalse_whenTokenWasConsumedByAnotherNode() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		SignedTokenClaims claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD).get();
+		when(mockConsumedTokenRepository.saveAndFlush(any(ConsumedToken.class)))
+				.thenThrow(new DataIntegrityViolationException("duplicate"));
+
+		assertFalse(signedTokenService.consume(claims));
+		assertTrue(signedTokenService.isConsumed(claims));
+		verify(mockTransactionManager).rollback(any());
+	}
+
+	@Test
+	void testIsConsumed_checksRepository_whenNonceIsNotKnownLocally() {
+		String token = signedTokenService.issue(USER_ID, TokenPurpose.RESET_PASSWORD);
+		SignedTokenClaims claims = signedTokenService.verify(token, TokenPurpose.RESET_PASSWORD).get();
+		when(mockConsumedTokenRepository.existsById(claims.getNonce())).thenReturn(true);
+
+		assertTrue(signedTokenService.isConsumed(claims));
+		assertTrue(signedTokenService.isConsumed(claims));
+		verify(mockConsumedTokenRepository, times(1)).existsById(claims.getNonce());
+	}
+}
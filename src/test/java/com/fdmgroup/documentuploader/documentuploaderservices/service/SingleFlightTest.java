@@ -0,0 +1,145 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.service.coalescing.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+	private static final int FOLLOWERS = 4;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger loads = new AtomicInteger();
+	private final CountDownLatch loading = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private SingleFlight<Long, Object> singleFlight;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setup() {
+		singleFlight = new SingleFlight<>("test", meterRegistry);
+		executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testExecute_sharesOneLoadAndItsResult_betweenConcurrentCallsForTheSameKey() throws Exception {
+		Object result = new Object();
+
+		List<Future<Object>> calls = startConcurrentCalls(() -> result);
+
+		for (Future<Object> call : calls) {
+			assertSame(result, call.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1.0, count("executed"));
+		assertEquals(FOLLOWERS, count("coalesced"));
+		assertEquals(0, singleFlight.inFlight());
+	}
+
+	@Test
+	void testExecute_throwsTheExceptionOfTheLoad_toEveryConcurrentCall() throws Exception {
+		IllegalStateException exception = new IllegalStateException();
+
+		List<Future<Object>> calls = startConcurrentCalls(() -> {
+			throw exception;
+		});
+
+		for (Future<Object> call : calls) {
+			Throwable thrown = assertThrows(ExecutionException.class,
+					() -> call.get(5, TimeUnit.SECONDS)).getCause();
+			assertSame(exception, thrown);
+		}
+		assertEquals(1, loads.get());
+		assertEquals(0, singleFlight.inFlight());
+	}
+
+	@Test
+	void testExecute_loadsAgain_onceThePreviousCallHasCompleted() {
+		singleFlight.execute(1L, () -> loads.incrementAndGet());
+		singleFlight.execute(1L, () -> loads.incrementAndGet());
+
+		assertEquals(2, loads.get());
+		assertEquals(2.0, count("executed"));
+		assertEquals(0.0, count("coalesced"));
+	}
+
+	@Test
+	void testExecute_doesNotShareLoads_betweenDifferentKeys() throws Exception {
+		Future<Object> first = executor.submit(() -> singleFlight.execute(1L, () -> {
+			loading.countDown();
+			await(release);
+			return loads.incrementAndGet();
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+		Object second = singleFlight.execute(2L, () -> loads.incrementAndGet());
+		release.countDown();
+
+		assertEquals(1, second);
+		assertEquals(2, first.get(5, TimeUnit.SECONDS));
+		assertEquals(0.0, count("coalesced"));
+	}
+
+	/**
+	 * Starts a call which blocks in its load, then starts {@value #FOLLOWERS}
+	 * calls for the same key and releases the load once all of them joined it.
+	 */
+	private List<Future<Object>> startConcurrentCalls(Supplier<Object> result) throws InterruptedException {
+		List<Future<Object>> calls = new ArrayList<>();
+		calls.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return result.get();
+		})));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+		for (int i = 0; i < FOLLOWERS; i++) {
+			calls.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+				loads.incrementAndGet();
+				return null;
+			})));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count("coalesced") < FOLLOWERS && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		release.countDown();
+		return calls;
+	}
+
+	private double count(String result) {
+		return meterRegistry.get("lookup.coalescing.calls").tag("lookup", "test").tag("result", result).counter()
+				.count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
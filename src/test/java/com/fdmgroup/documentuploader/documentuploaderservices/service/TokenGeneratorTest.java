@@ -0,0 +1,56 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.service.token.TokenGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenGeneratorTest {
+
+	private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+	private final TokenGenerator tokenGenerator = new TokenGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+	@Test
+	void testNextToken_returnsVersion4Uuid() {
+		String token = tokenGenerator.nextToken();
+
+		UUID uuid = UUID.fromString(token);
+		assertEquals(token, uuid.toString());
+		assertEquals(4, uuid.version());
+		assertEquals(2, uuid.variant());
+	}
+
+	@Test
+	void testNextToken_returnsDistinctTokens_acrossBufferRefills() {
+		Set<String> tokens = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			tokens.add(tokenGenerator.nextToken());
+		}
+
+		assertEquals(1000, tokens.size());
+	}
+
+	@Test
+	void testNextNonce_neverReturnsZero() {
+		for (int i = 0; i < 1000; i++) {
+			assertNotEquals(0L, tokenGenerator.nextNonce());
+		}
+	}
+
+	@Test
+	void testExpiryAfter_addsValidityToCurrentTime() {
+		Date expiry = tokenGenerator.expiryAfter(Duration.ofDays(1));
+
+		assertEquals(Date.from(NOW.plus(Duration.ofDays(1))), expiry);
+	}
+}
@@ -0,0 +1,119 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.TokenPurgeProperties;
+import com.fdmgroup.documentuploader.model.token.TokenPurgeResult;
+import com.fdmgroup.documentuploader.repository.ConfirmationTokenRepository;
+import com.fdmgroup.documentuploader.repository.ConsumedTokenRepository;
+import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
+import com.fdmgroup.documentuploader.service.token.TokenPurgeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenPurgeServiceTest {
+
+	private static final int BATCH_SIZE = 2;
+	private static final int MAX_BATCHES = 3;
+
+	@Mock
+	private ConfirmationTokenRepository mockConfirmationTokenRepository;
+
+	@Mock
+	private PasswordResetTokenRepository mockPasswordResetTokenRepository;
+
+	@Mock
+	private ConsumedTokenRepository mockConsumedTokenRepository;
+
+	@Mock
+	private PlatformTransactionManager mockTransactionManager;
+
+	private TokenPurgeService tokenPurgeService;
+
+	@BeforeEach
+	void setup() {
+		MockitoAnnotations.initMocks(this);
+		TokenPurgeProperties properties = new TokenPurgeProperties("0 0 * * * *", BATCH_SIZE, MAX_BATCHES,
+				Duration.ZERO, Duration.ofMinutes(1));
+		this.tokenPurgeService = new TokenPurgeService(mockConfirmationTokenRepository,
+				mockPasswordResetTokenRepository, mockConsumedTokenRepository, properties, mockTransactionManager);
+	}
+
+	@Test
+	void testPurgeExpiredTokens_deletesBatchesUntilFewerIdsThanBatchSizeAreFound() {
+		List<Long> fullBatch = Arrays.asList(1L, 2L);
+		List<Long> lastBatch = Collections.singletonList(3L);
+		when(mockConfirmationTokenRepository.findExpiredTokenIds(any(Date.class), any(Pageable.class)))
+				.thenReturn(fullBatch, lastBatch);
+		when(mockConfirmationTokenRepository.deleteByIdIn(fullBatch)).thenReturn(2);
+		when(mockConfirmationTokenRepository.deleteByIdIn(lastBatch)).thenReturn(1);
+
+		TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+
+		assertEquals(3L, result.getConfirmationTokensPurged());
+		assertTrue(result.isComplete());
+		verify(mockConfirmationTokenRepository, times(2)).deleteByIdIn(any());
+	}
+
+	@Test
+	void testPurgeExpiredTokens_purgesUsedOrExpiredPasswordResetTokens() {
+		List<Long> ids = Collections.singletonList(7L);
+		when(mockPasswordResetTokenRepository.findExpiredOrUsedTokenIds(any(Date.class), any(Pageable.class)))
+				.thenReturn(ids);
+		when(mockPasswordResetTokenRepository.deleteByIdIn(ids)).thenReturn(1);
+
+		TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+
+		assertEquals(1L, result.getPasswordResetTokensPurged());
+		assertEquals(0L, result.getConfirmationTokensPurged());
+	}
+
+	@Test
+	void testPurgeExpiredTokens_purgesExpiredConsumedTokens() {
+		List<Long> nonces = Arrays.asList(-5L, 9L);
+		when(mockConsumedTokenRepository.findExpiredTokenIds(any(Date.class), any(Pageable.class)))
+				.thenReturn(nonces, Collections.emptyList());
+		when(mockConsumedTokenRepository.deleteByIdIn(nonces)).thenReturn(2);
+
+		TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+
+		assertEquals(2L, result.getConsumedTokensPurged());
+		assertEquals(2L, result.getTotalPurged());
+	}
+
+	@Test
+	void testPurgeExpiredTokens_doesNotDelete_whenNoTokensAreFound() {
+		TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+
+		assertEquals(0L, result.getTotalPurged());
+		verify(mockConfirmationTokenRepository, never()).deleteByIdIn(any());
+		verify(mockPasswordResetTokenRepository, never()).deleteByIdIn(any());
+		verify(mockConsumedTokenRepository, never()).deleteByIdIn(any());
+	}
+
+	@Test
+	void testPurgeExpiredTokens_stopsAtMaxBatchesPerRun_andReportsIncompleteRun() {
+		List<Long> fullBatch = Arrays.asList(1L, 2L);
+		when(mockConfirmationTokenRepository.findExpiredTokenIds(any(Date.class), any(Pageable.class)))
+				.thenReturn(fullBatch);
+		when(mockConfirmationTokenRepository.deleteByIdIn(fullBatch)).thenReturn(2);
+
+		TokenPurgeResult result = tokenPurgeService.purgeExpiredTokens();
+
+		assertEquals(6L, result.getConfirmationTokensPurged());
+		assertFalse(result.isComplete());
+		verify(mockConfirmationTokenRepository, times(MAX_BATCHES)).deleteByIdIn(any());
+	}
+}
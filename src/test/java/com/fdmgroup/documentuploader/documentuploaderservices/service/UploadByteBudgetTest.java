@@ -0,0 +1,91 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.config.UploadBudgetProperties;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.service.ratelimit.UploadByteBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadByteBudgetTest {
+
+	private static final long KB = 1024;
+	private static final Duration NO_WAIT = Duration.ZERO;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private UploadByteBudget budget;
+
+	@BeforeEach
+	void setup() {
+		budget = new UploadByteBudget(new UploadBudgetProperties(DataSize.ofKilobytes(100), Duration.ofMillis(50),
+				Collections.singletonMap(ServiceLevel.BRONZE, 0.25), 1.0), meterRegistry);
+	}
+
+	@Test
+	void testTryReserve_reservesBytes_whileBudgetIsAvailable() throws InterruptedException {
+		assertTrue(budget.tryReserve(ServiceLevel.GOLD, 60 * KB, NO_WAIT));
+		assertTrue(budget.tryReserve(null, 40 * KB, NO_WAIT));
+
+		assertEquals(100 * KB, budget.getBytesInFlight());
+		assertEquals(100.0 * KB, meterRegistry.get("upload.budget.in.flight").gauge().value());
+	}
+
+	@Test
+	void testTryReserve_returnsFalse_whenBudgetStaysExhausted() throws InterruptedException {
+		budget.tryReserve(ServiceLevel.GOLD, 90 * KB, NO_WAIT);
+
+		assertFalse(budget.tryReserve(ServiceLevel.GOLD, 20 * KB, Duration.ofMillis(20)));
+		assertEquals(90 * KB, budget.getBytesInFlight());
+	}
+
+	@Test
+	void testTryReserve_returnsFalse_whenShareOfServiceLevelIsExhausted() throws InterruptedException {
+		assertTrue(budget.tryReserve(ServiceLevel.BRONZE, 20 * KB, NO_WAIT));
+
+		assertFalse(budget.tryReserve(ServiceLevel.BRONZE, 10 * KB, NO_WAIT));
+		assertTrue(budget.tryReserve(ServiceLevel.GOLD, 10 * KB, NO_WAIT));
+	}
+
+	@Test
+	void testRelease_makesBytesAvailableAgain() throws InterruptedException {
+		budget.tryReserve(ServiceLevel.BRONZE, 25 * KB, NO_WAIT);
+
+		budget.release(ServiceLevel.BRONZE, 25 * KB);
+
+		assertEquals(0, budget.getBytesInFlight());
+		assertTrue(budget.tryReserve(ServiceLevel.BRONZE, 25 * KB, NO_WAIT));
+	}
+
+	@Test
+	void testTryReserve_waitsForBytesToBeReleased() throws InterruptedException {
+		budget.tryReserve(null, 100 * KB, NO_WAIT);
+		Thread releaser = new Thread(() -> budget.release(null, 100 * KB));
+		releaser.start();
+
+		assertTrue(budget.tryReserve(null, 50 * KB, Duration.ofSeconds(5)));
+		releaser.join();
+	}
+
+	@Test
+	void testFits_returnsFalse_ifUploadIsLargerThanShare() {
+		assertTrue(budget.fits(ServiceLevel.BRONZE, 25 * KB));
+		assertFalse(budget.fits(ServiceLevel.BRONZE, 25 * KB + 1));
+		assertTrue(budget.fits(null, 100 * KB));
+	}
+
+	@Test
+	void testConstructor_throwsIllegalArgumentException_ifBudgetIsSmallerThanOneUnit() {
+		UploadBudgetProperties properties = new UploadBudgetProperties(DataSize.ofBytes(10), Duration.ZERO,
+				Collections.emptyMap(), 1.0);
+
+		assertThrows(IllegalArgumentException.class, () -> new UploadByteBudget(properties, meterRegistry));
+	}
+}
@@ -1,38 +1,54 @@
 package com.fdmgroup.documentuploader.documentuploaderservices.service;
 
+import com.fdmgroup.documentuploader.config.BatchLookupProperties;
 import com.fdmgroup.documentuploader.config.BeanConfiguration;
+import com.fdmgroup.documentuploader.exceptions.BatchLimitExceededException;
 import com.fdmgroup.documentuploader.exceptions.EntityCouldNotBeSavedException;
 import com.fdmgroup.documentuploader.exceptions.EntityNotFoundException;
 import com.fdmgroup.documentuploader.exceptions.InvalidTokenException;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
 import com.fdmgroup.documentuploader.model.user.PasswordResetToken;
 import com.fdmgroup.documentuploader.model.user.User;
 import com.fdmgroup.documentuploader.repository.PasswordResetTokenRepository;
 import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.password.AbstractPasswordHashingService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
 import com.fdmgroup.documentuploader.service.user.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(classes = { UserService.class, BeanConfiguration.class })
+@SpringBootTest(classes = { UserService.class, BeanConfiguration.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties(value = BatchLookupProperties.class)
 class UserServiceTest {
 
 	private static final String TEST_EMAIL = "test@email.com";
 	private static final String TEST_EMAIL2 = "test2@email.com";
 	private static final String TEST_PASSWORD = "password";
 	private static final String TEST_TOKEN = "testToken123";
+	private static final String TEST_HASH = "$2a$10$hashedPassword";
 
 	@Mock
 	private static User mockUser;
@@ -49,6 +65,15 @@ class UserServiceTest {
 	@MockBean
 	private ApplicationEventPublisher mockEventPublisher;
 
+	@MockBean
+	private AbstractSignedTokenService mockSignedTokenService;
+
+	@MockBean
+	private AbstractPasswordHashingService mockPasswordHashingService;
+
+	@MockBean
+	private PlatformTransactionManager mockTransactionManager;
+
 	@Autowired
 	private UserService userService;
 
@@ -98,6 +123,35 @@ class UserServiceTest {
 		verify(mockUserRepository, times(1)).findById(0L);
 	}
 
+	@Test
+	void testGetUsersByIds_returnsUsersInRequestOrder_queryingOncePerChunk() {
+		User first = userWithId(1L);
+		User second = userWithId(2L);
+		User fourth = userWithId(4L);
+		when(mockUserRepository.findAllById(Arrays.asList(4L, 2L, 3L))).thenReturn(Arrays.asList(second, fourth));
+		when(mockUserRepository.findAllById(Collections.singletonList(1L)))
+				.thenReturn(Collections.singletonList(first));
+
+		List<User> actual = userService.getUsersByIds(Arrays.asList(4L, 2L, 4L, 3L, 1L));
+
+		assertEquals(Arrays.asList(fourth, second, first), actual);
+		verify(mockUserRepository, times(2)).findAllById(any());
+	}
+
+	@Test
+	void testGetUsersByIds_throwsBatchLimitExceededException_whenTooManyIdsAreGiven() {
+		List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+
+		assertThrows(BatchLimitExceededException.class, () -> userService.getUsersByIds(ids));
+		verifyNoInteractions(mockUserRepository);
+	}
+
+	private static User userWithId(long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+
 	@ParameterizedTest
 	@MethodSource("getOptionalUsersForTests")
 	void testGetUserById_returnsResultReturnedFromRepositoryFindById(Optional<User> expected) {
@@ -229,6 +283,7 @@ class UserServiceTest {
 	@Test
 	void testIsValidPasswordResetToken_callsPasswordResetTokenIsExpired_whenTokenExists() {
 		when(mockPasswordResetTokenRepository.findByToken(TEST_TOKEN)).thenReturn(Optional.of(mockPasswordResetToken));
+		when(mockPasswordResetToken.getUser()).thenReturn(mockUser);
 
 		userService.isValidPasswordResetToken(TEST_TOKEN);
 
@@ -348,10 +403,11 @@ class UserServiceTest {
 		when(mockPasswordResetTokenRepository.findByToken(TEST_TOKEN)).thenReturn(Optional.of(mockPasswordResetToken));
 		when(mockPasswordResetToken.getUser()).thenReturn(mockUser);
 		when(mockUser.getEmail()).thenReturn(TEST_EMAIL);
+		when(mockPasswordHashingService.hash(TEST_PASSWORD)).thenReturn(TEST_HASH);
 
 		userService.changePassword(TEST_EMAIL, TEST_PASSWORD, TEST_TOKEN);
 
-		verify(mockUser, times(1)).setPassword(TEST_PASSWORD);
+		verify(mockUser, times(1)).setPassword(TEST_HASH);
 	}
 
 	@Test
@@ -388,4 +444,182 @@ class UserServiceTest {
 
 		verify(mockPasswordResetTokenRepository, times(1)).save(mockPasswordResetToken);
 	}
+
+	@Test
+	void testIsValidPasswordResetToken_doesNotCallPasswordResetTokenRepository_whenTokenIsSigned() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.RESET_PASSWORD, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TEST_TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TEST_TOKEN, TokenPurpose.RESET_PASSWORD)).thenReturn(Optional.of(claims));
+
+		boolean result = userService.isValidPasswordResetToken(TEST_TOKEN);
+
+		assertTrue(result);
+		verify(mockPasswordResetTokenRepository, never()).findByToken(TEST_TOKEN);
+	}
+
+	@Test
+	void testIsValidPasswordResetToken_returnsFalse_whenSignedTokenIsConsumed() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.RESET_PASSWORD, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TEST_TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TEST_TOKEN, TokenPurpose.RESET_PASSWORD)).thenReturn(Optional.of(claims));
+		when(mockSignedTokenService.isConsumed(claims)).thenReturn(true);
+
+		assertFalse(userService.isValidPasswordResetToken(TEST_TOKEN));
+	}
+
+	@Test
+	void testChangePassword_throwsInvalidTokenException_whenSignedTokenIsInvalid() {
+		when(mockSignedTokenService.isSignedToken(TEST_TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TEST_TOKEN, TokenPurpose.RESET_PASSWORD)).thenReturn(Optional.empty());
+
+		assertThrows(InvalidTokenException.class,
+				() -> userService.changePassword(TEST_EMAIL, TEST_PASSWORD, TEST_TOKEN));
+	}
+
+	@Test
+	void testChangePassword_throwsInvalidTokenException_whenSignedTokenIsAlreadyConsumed() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.RESET_PASSWORD, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TEST_TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TEST_TOKEN, TokenPurpose.RESET_PASSWORD)).thenReturn(Optional.of(claims));
+		when(mockUserRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+		when(mockUser.getEmail()).thenReturn(TEST_EMAIL);
+		when(mockSignedTokenService.consume(claims)).thenReturn(false);
+
+		assertThrows(InvalidTokenException.class,
+				() -> userService.changePassword(TEST_EMAIL, TEST_PASSWORD, TEST_TOKEN));
+		verify(mockUserRepository, never()).save(mockUser);
+	}
+
+	@Test
+	void testChangePassword_savesNewPasswordOfUserOnSignedToken() {
+		SignedTokenClaims claims = new SignedTokenClaims("k1", TokenPurpose.RESET_PASSWORD, 1L, Instant.MAX, 7L);
+		when(mockSignedTokenService.isSignedToken(TEST_TOKEN)).thenReturn(true);
+		when(mockSignedTokenService.verify(TEST_TOKEN, TokenPurpose.RESET_PASSWORD)).thenReturn(Optional.of(claims));
+		when(mockUserRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+		when(mockUser.getEmail()).thenReturn(TEST_EMAIL);
+		when(mockSignedTokenService.consume(claims)).thenReturn(true);
+		when(mockPasswordHashingService.hash(TEST_PASSWORD)).thenReturn(TEST_HASH);
+
+		userService.changePassword(TEST_EMAIL, TEST_PASSWORD, TEST_TOKEN);
+
+		verify(mockUser, times(1)).setPassword(TEST_HASH);
+		verify(mockUserRepository, times(1)).save(mockUser);
+		verify(mockPasswordResetTokenRepository, never()).findByToken(TEST_TOKEN);
+	}
+
+	@Test
+	void testSave_savesHashOfPassword() {
+		User user = new User(TEST_EMAIL, TEST_PASSWORD, "John", "Doe", false);
+		when(mockPasswordHashingService.hash(TEST_PASSWORD)).thenReturn(TEST_HASH);
+
+		userService.save(user);
+
+		assertEquals(TEST_HASH, user.getPassword());
+		verify(mockUserRepository, times(1)).save(user);
+	}
+
+	@Test
+	void testUpdate_hashesPassword_whenPasswordGivenDiffersFromStoredPassword() {
+		User storedUser = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		User user = new User(TEST_EMAIL, "newPassword", "John", "Doe", true);
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(storedUser));
+		when(mockPasswordHashingService.hash("newPassword")).thenReturn("$2a$10$newHash");
+
+		userService.update(user);
+
+		assertEquals("$2a$10$newHash", storedUser.getPassword());
+	}
+
+	@Test
+	void testUpdate_doesNotHashPassword_whenPasswordGivenIsStoredPassword() {
+		User storedUser = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		User user = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(storedUser));
+
+		userService.update(user);
+
+		assertEquals(TEST_HASH, storedUser.getPassword());
+		verify(mockPasswordHashingService, never()).hash(anyString());
+	}
+
+	@Test
+	void testChangePassword_savesHashOfNewPassword() {
+		User user = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		when(mockPasswordResetTokenRepository.findByToken(TEST_TOKEN)).thenReturn(Optional.of(mockPasswordResetToken));
+		when(mockPasswordResetToken.getUser()).thenReturn(user);
+		when(mockPasswordHashingService.hash("newPassword")).thenReturn("$2a$10$newHash");
+
+		userService.changePassword(TEST_EMAIL, "newPassword", TEST_TOKEN);
+
+		assertEquals("$2a$10$newHash", user.getPassword());
+	}
+
+	@Test
+	void testChangePassword_hashesNewPasswordBeforeOpeningTransaction() {
+		when(mockPasswordResetTokenRepository.findByToken(TEST_TOKEN)).thenReturn(Optional.of(mockPasswordResetToken));
+		when(mockPasswordResetToken.getUser()).thenReturn(mockUser);
+		when(mockPasswordHashingService.hash(TEST_PASSWORD)).thenReturn(TEST_HASH);
+
+		userService.changePassword(TEST_EMAIL, TEST_PASSWORD, TEST_TOKEN);
+
+		InOrder inOrder = inOrder(mockPasswordHashingService, mockTransactionManager, mockUserRepository);
+		inOrder.verify(mockPasswordHashingService).hash(TEST_PASSWORD);
+		inOrder.verify(mockTransactionManager).getTransaction(any());
+		inOrder.verify(mockUserRepository).save(mockUser);
+	}
+
+	@Test
+	void testAuthenticate_returnsEmpty_whenPasswordDoesNotMatch() {
+		User user = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+		when(mockPasswordHashingService.matches(TEST_PASSWORD, TEST_HASH)).thenReturn(false);
+
+		assertFalse(userService.authenticate(TEST_EMAIL, TEST_PASSWORD).isPresent());
+		verify(mockUserRepository, never()).save(user);
+	}
+
+	@Test
+	void testAuthenticate_returnsEmpty_whenNoUserIsFound() {
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.empty());
+
+		assertFalse(userService.authenticate(TEST_EMAIL, TEST_PASSWORD).isPresent());
+	}
+
+	@Test
+	void testAuthenticate_checksPasswordAgainstDummyHash_whenNoUserIsFound() {
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.empty());
+		when(mockPasswordHashingService.hash(anyString())).thenReturn(TEST_HASH);
+
+		userService.authenticate(TEST_EMAIL, TEST_PASSWORD);
+		userService.authenticate(TEST_EMAIL, TEST_PASSWORD);
+
+		verify(mockPasswordHashingService, times(2)).matches(TEST_PASSWORD, TEST_HASH);
+		verify(mockPasswordHashingService, times(1)).hash(anyString());
+	}
+
+	@Test
+	void testAuthenticate_rehashesPassword_whenStoredHashNeedsRehash() {
+		User user = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+		when(mockUserRepository.save(user)).thenReturn(user);
+		when(mockPasswordHashingService.matches(TEST_PASSWORD, TEST_HASH)).thenReturn(true);
+		when(mockPasswordHashingService.needsRehash(TEST_HASH)).thenReturn(true);
+		when(mockPasswordHashingService.hash(TEST_PASSWORD)).thenReturn("$2a$12$strongerHash");
+
+		Optional<User> result = userService.authenticate(TEST_EMAIL, TEST_PASSWORD);
+
+		assertTrue(result.isPresent());
+		assertEquals("$2a$12$strongerHash", user.getPassword());
+		verify(mockUserRepository, times(1)).save(user);
+	}
+
+	@Test
+	void testAuthenticate_doesNotSaveUser_whenStoredHashIsCurrent() {
+		User user = new User(TEST_EMAIL, TEST_HASH, "John", "Doe", true);
+		when(mockUserRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+		when(mockPasswordHashingService.matches(TEST_PASSWORD, TEST_HASH)).thenReturn(true);
+
+		assertTrue(userService.authenticate(TEST_EMAIL, TEST_PASSWORD).isPresent());
+		verify(mockUserRepository, never()).save(user);
+	}
 }
@@ -0,0 +1,151 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.service;
+
+import com.fdmgroup.documentuploader.exceptions.InvalidFieldSelectionException;
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.model.view.FieldSelection;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.view.AbstractViewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ViewServiceTest {
+
+	@Autowired
+	private AbstractViewService viewService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	@BeforeEach
+	void setup() {
+		owner = userRepository.save(new User("view.service@example.com", "password", "View", "Service", true));
+		Document document = documentRepository.save(
+				new Document("content".getBytes(StandardCharsets.UTF_8), "viewDocument", ".txt"));
+		account = accountRepository.save(new Account("viewServiceAccount", owner, ServiceLevel.SILVER,
+				new HashSet<>(Collections.singleton(owner)), new HashSet<>(Collections.singleton(document))));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountRepository.deleteById(account.getId());
+		userRepository.deleteById(owner.getId());
+	}
+
+	@Test
+	void testGetAccountViewById_returnsOnlySelectedFields_inRequestedOrder() {
+		Map<String, Object> view = viewService
+				.getAccountViewById(account.getId(), FieldSelection.parse("serviceLevel,name", null)).get();
+
+		assertEquals(Arrays.asList("serviceLevel", "name"), Arrays.asList(view.keySet().toArray()));
+		assertEquals(ServiceLevel.SILVER, view.get("serviceLevel"));
+		assertEquals("viewServiceAccount", view.get("name"));
+	}
+
+	@Test
+	void testGetAccountViewByName_expandsAssociations_withoutPasswordsOrContent() {
+		Map<String, Object> view = viewService
+				.getAccountViewByName("viewServiceAccount", FieldSelection.parse("id", "owner,users,documents")).get();
+
+		Map<?, ?> expandedOwner = (Map<?, ?>) view.get("owner");
+		assertEquals(owner.getEmail(), expandedOwner.get("email"));
+		assertFalse(expandedOwner.containsKey("password"));
+		assertEquals(1, ((List<?>) view.get("users")).size());
+		Map<?, ?> document = (Map<?, ?>) ((List<?>) view.get("documents")).get(0);
+		assertEquals("viewDocument", document.get("name"));
+		assertNotNull(document.get("digest"));
+		assertFalse(document.containsKey("content"));
+	}
+
+	@Test
+	void testGetAccountViewsByUserId_returnsEveryAccessibleAccount() {
+		List<Map<String, Object>> views = viewService.getAccountViewsByUserId(owner.getId(),
+				FieldSelection.parse("id", null));
+
+		assertEquals(1, views.size());
+		assertEquals(account.getId(), views.get(0).get("id"));
+	}
+
+	@Test
+	void testGetUserViewsByIds_returnsViewsInRequestOrder_leavingOutUnknownIds() {
+		User member = userRepository.save(new User("view.member@example.com", "password", "View", "Member", true));
+		try {
+			List<Map<String, Object>> views = viewService.getUserViewsByIds(
+					Arrays.asList(member.getId(), -1L, owner.getId()), FieldSelection.parse("email", null));
+
+			assertEquals(2, views.size());
+			assertEquals(member.getEmail(), views.get(0).get("email"));
+			assertEquals(owner.getEmail(), views.get(1).get("email"));
+		} finally {
+			userRepository.deleteById(member.getId());
+		}
+	}
+
+	@Test
+	void testGetAccountViewById_returnsEmptyOptional_whenAccountDoesNotExist() {
+		assertFalse(viewService.getAccountViewById(-1L, FieldSelection.parse("id", null)).isPresent());
+	}
+
+	@Test
+	void testGetAccountViewById_throwsInvalidFieldSelectionException_whenFieldIsUnknown() {
+		FieldSelection selection = FieldSelection.parse("id,deleted", null);
+
+		assertThrows(InvalidFieldSelectionException.class,
+				() -> viewService.getAccountViewById(account.getId(), selection));
+	}
+
+	@Test
+	void testGetUserViewByEmail_throwsInvalidFieldSelectionException_whenPasswordIsSelected() {
+		FieldSelection selection = FieldSelection.parse("email,password", null);
+
+		assertThrows(InvalidFieldSelectionException.class,
+				() -> viewService.getUserViewByEmail(owner.getEmail(), selection));
+	}
+
+	@Test
+	void testGetUserViewById_throwsInvalidFieldSelectionException_whenAnyAssociationIsExpanded() {
+		FieldSelection selection = FieldSelection.parse(null, "accounts");
+
+		assertThrows(InvalidFieldSelectionException.class, () -> viewService.getUserViewById(owner.getId(), selection));
+	}
+
+	@Test
+	void testGetUserViewById_returnsEveryExposedField_whenNoFieldIsNamed() {
+		Map<String, Object> view = viewService.getUserViewById(owner.getId(), FieldSelection.parse("", null)).get();
+
+		assertEquals(Arrays.asList("id", "email", "firstName", "lastName", "enabled"),
+				Arrays.asList(view.keySet().toArray()));
+	}
+}
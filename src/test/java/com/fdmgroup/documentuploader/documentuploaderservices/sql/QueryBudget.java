@@ -0,0 +1,62 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.sql;
+
+import com.fdmgroup.documentuploader.sql.SqlStatistics;
+import com.fdmgroup.documentuploader.sql.SqlStatisticsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ResultMatcher}s which assert the query budget of a request performed
+ * through {@code MockMvc}, using the {@link SqlStatistics} collected by the
+ * {@link SqlStatisticsFilter}.
+ *
+ * @author Noah Anderson
+ */
+public final class QueryBudget {
+
+	private QueryBudget() {
+		super();
+	}
+
+	/**
+	 * Asserts that the request executed at most {@code maxStatements} SQL
+	 * statements.
+	 *
+	 * @param maxStatements the maximum number of statements
+	 * @return the matcher
+	 */
+	public static ResultMatcher atMostStatements(int maxStatements) {
+		return result -> {
+			SqlStatistics statistics = statisticsOf(result);
+			assertTrue(statistics.getStatementCount() <= maxStatements,
+					() -> "Expected at most " + maxStatements + " SQL statements but " + statistics.getStatementCount()
+							+ " were executed: " + statistics.getExecutions());
+		};
+	}
+
+	/**
+	 * Asserts that the request did not execute any identical SQL statement
+	 * {@code threshold} or more times.
+	 *
+	 * @param threshold the number of executions which counts as repeated
+	 * @return the matcher
+	 */
+	public static ResultMatcher noRepeatedStatements(int threshold) {
+		return result -> {
+			Map<String, Integer> repeated = statisticsOf(result).getRepeatedStatements(threshold);
+			assertTrue(repeated.isEmpty(), () -> "Expected no repeated SQL statements but found " + repeated);
+		};
+	}
+
+	private static SqlStatistics statisticsOf(MvcResult result) {
+		SqlStatistics statistics = (SqlStatistics) result.getRequest()
+				.getAttribute(SqlStatisticsFilter.STATISTICS_ATTRIBUTE);
+		assertNotNull(statistics, "No SQL statistics were collected, is app.sql-observability.enabled set?");
+		return statistics;
+	}
+}
@@ -0,0 +1,157 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.sql;
+
+import com.fdmgroup.documentuploader.model.account.Account;
+import com.fdmgroup.documentuploader.model.account.ServiceLevel;
+import com.fdmgroup.documentuploader.model.document.Document;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.AccountRepository;
+import com.fdmgroup.documentuploader.repository.DocumentRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.fdmgroup.documentuploader.documentuploaderservices.sql.QueryBudget.atMostStatements;
+import static com.fdmgroup.documentuploader.documentuploaderservices.sql.QueryBudget.noRepeatedStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(value = { "classpath:/application.properties" })
+class QueryBudgetTest {
+
+	private static final int DOCUMENTS = 10;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User owner;
+
+	private Account account;
+
+	@BeforeEach
+	void setUp() {
+		owner = userRepository.save(new User("query.budget@example.com", "password", "Query", "Budget", true));
+		Set<Document> documents = new HashSet<>();
+		for (int i = 0; i < DOCUMENTS; i++) {
+			documents.add(documentRepository.save(new Document("content".getBytes(StandardCharsets.UTF_8), "document" + i, "txt")));
+		}
+		account = accountRepository.save(new Account("queryBudgetAccount", owner, ServiceLevel.GOLD,
+				new HashSet<>(Collections.singleton(owner)), documents));
+	}
+
+	@AfterEach
+	void tearDown() {
+		accountRepository.deleteById(account.getId());
+		userRepository.deleteById(owner.getId());
+	}
+
+	@Test
+	void test_GetAccountById_StaysWithinQueryBudget() throws Exception {
+		mockMvc.perform(get("/accounts").param("id", String.valueOf(account.getId())))
+				.andExpect(status().isOk())
+				.andExpect(atMostStatements(4))
+				.andExpect(noRepeatedStatements(3));
+	}
+
+	@Test
+	void test_GetAccountsByUserId_StaysWithinQueryBudget() throws Exception {
+		mockMvc.perform(get("/accounts").param("userId", String.valueOf(owner.getId())))
+				.andExpect(status().isOk())
+				.andExpect(atMostStatements(4))
+				.andExpect(noRepeatedStatements(3));
+	}
+
+	@Test
+	void test_GetAccountFields_ExecutesSingleViewStatement() throws Exception {
+		mockMvc.perform(get("/accounts").param("id", String.valueOf(account.getId()))
+				.param("fields", "id,name,serviceLevel"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("queryBudgetAccount"))
+				.andExpect(jsonPath("$.documents").doesNotExist())
+				// the view query and the service level lookup of the SLO interceptor
+				.andExpect(atMostStatements(2));
+	}
+
+	@Test
+	void test_GetExpandedAccountsByUserId_ExecutesOneStatementPerCollection() throws Exception {
+		mockMvc.perform(get("/accounts").param("userId", String.valueOf(owner.getId()))
+				.param("fields", "id").param("expand", "owner,users,documents"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].documents.length()").value(DOCUMENTS))
+				.andExpect(jsonPath("$[0].documents[0].content").doesNotExist())
+				.andExpect(atMostStatements(3));
+	}
+
+	@Test
+	void test_GetAccountsByIds_FetchesAssociationsWithTwoStatements() throws Exception {
+		mockMvc.perform(get("/accounts").param("ids", account.getId() + "," + (account.getId() + 1000)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].documents.length()").value(DOCUMENTS))
+				.andExpect(atMostStatements(2));
+	}
+
+	@Test
+	void test_GetUsersByIds_ExecutesSingleStatement() throws Exception {
+		mockMvc.perform(get("/users").contentType(MediaType.APPLICATION_JSON)
+				.param("ids", owner.getId() + "," + (owner.getId() + 1000)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].email").value(owner.getEmail()))
+				.andExpect(atMostStatements(1));
+	}
+
+	@Test
+	void test_GetDocumentsByIds_SumsContentSizeBeforeLoadingDocuments() throws Exception {
+		List<Long> ids = account.getDocuments().stream().map(Document::getId).sorted().limit(3)
+				.collect(Collectors.toList());
+
+		mockMvc.perform(get("/documents").contentType(MediaType.APPLICATION_JSON)
+				.param("ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(atMostStatements(2));
+	}
+
+	@Test
+	void test_GetDocumentsByIds_RejectsContentLargerThanMaximum_WithoutLoadingIt() throws Exception {
+		Document large = documentRepository.save(new Document(new byte[2048], "large", "bin"));
+		try {
+			mockMvc.perform(get("/documents").contentType(MediaType.APPLICATION_JSON)
+					.param("ids", String.valueOf(large.getId())))
+					.andExpect(status().isBadRequest())
+					.andExpect(atMostStatements(1));
+		} finally {
+			documentRepository.deleteById(large.getId());
+		}
+	}
+}
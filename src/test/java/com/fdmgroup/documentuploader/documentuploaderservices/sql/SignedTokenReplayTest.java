@@ -0,0 +1,115 @@
+package com.fdmgroup.documentuploader.documentuploaderservices.sql;
+
+import com.fdmgroup.documentuploader.exceptions.InvalidTokenException;
+import com.fdmgroup.documentuploader.model.token.ConsumedToken;
+import com.fdmgroup.documentuploader.model.token.SignedTokenClaims;
+import com.fdmgroup.documentuploader.model.token.TokenPurpose;
+import com.fdmgroup.documentuploader.model.user.User;
+import com.fdmgroup.documentuploader.repository.ConsumedTokenRepository;
+import com.fdmgroup.documentuploader.repository.UserRepository;
+import com.fdmgroup.documentuploader.service.password.AbstractPasswordHashingService;
+import com.fdmgroup.documentuploader.service.register.AbstractRegisterService;
+import com.fdmgroup.documentuploader.service.token.AbstractSignedTokenService;
+import com.fdmgroup.documentuploader.service.user.AbstractUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(value = { "classpath:/application.properties" })
+class SignedTokenReplayTest {
+
+	private static final String EMAIL = "token.replay@example.com";
+
+	@Autowired
+	private AbstractUserService userService;
+
+	@Autowired
+	private AbstractRegisterService registerService;
+
+	@Autowired
+	private AbstractSignedTokenService signedTokenService;
+
+	@Autowired
+	private AbstractPasswordHashingService passwordHashingService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ConsumedTokenRepository consumedTokenRepository;
+
+	@MockBean
+	private JavaMailSender javaMailSender;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.save(new User(EMAIL, "password", "Token", "Replay", false));
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteById(user.getId());
+		consumedTokenRepository.deleteAll();
+	}
+
+	@Test
+	void testChangePassword_throwsInvalidTokenException_whenTokenIsReplayed() {
+		String token = signedTokenService.issue(user.getId(), TokenPurpose.RESET_PASSWORD);
+		userService.changePassword(EMAIL, "first-password", token);
+
+		assertThrows(InvalidTokenException.class, () -> userService.changePassword(EMAIL, "second-password", token));
+		String storedPassword = userRepository.findById(user.getId()).get().getPassword();
+		assertTrue(passwordHashingService.matches("first-password", storedPassword));
+	}
+
+	@Test
+	void testChangePassword_throwsInvalidTokenException_whenTokenWasConsumedByAnotherNode() {
+		String token = signedTokenService.issue(user.getId(), TokenPurpose.RESET_PASSWORD);
+		storeAsConsumed(token, TokenPurpose.RESET_PASSWORD);
+
+		assertThrows(InvalidTokenException.class, () -> userService.changePassword(EMAIL, "new-password", token));
+	}
+
+	@Test
+	void testActivateAccountWithToken_returnsFalse_whenTokenWasConsumedByAnotherNode() {
+		String token = signedTokenService.issue(user.getId(), TokenPurpose.CONFIRM_ACCOUNT);
+		storeAsConsumed(token, TokenPurpose.CONFIRM_ACCOUNT);
+
+		assertFalse(registerService.activateAccountWithToken(token));
+		assertFalse(userRepository.findById(user.getId()).get().isEnabled());
+	}
+
+	@Test
+	void testActivateAccountWithToken_returnsFalse_whenTokenIsReplayed() {
+		String token = signedTokenService.issue(user.getId(), TokenPurpose.CONFIRM_ACCOUNT);
+
+		assertTrue(registerService.activateAccountWithToken(token));
+		assertFalse(registerService.activateAccountWithToken(token));
+		assertTrue(consumedTokenRepository.existsById(claimsOf(token, TokenPurpose.CONFIRM_ACCOUNT).getNonce()));
+	}
+
+	/**
+	 * Stores the given token as consumed without this node knowing about it, as
+	 * if it had been consumed on another node.
+	 */
+	private void storeAsConsumed(String token, TokenPurpose purpose) {
+		SignedTokenClaims claims = claimsOf(token, purpose);
+		consumedTokenRepository.save(new ConsumedToken(claims.getNonce(), Date.from(claims.getExpiry())));
+	}
+
+	private SignedTokenClaims claimsOf(String token, TokenPurpose purpose) {
+		return signedTokenService.verify(token, purpose).get();
+	}
+}